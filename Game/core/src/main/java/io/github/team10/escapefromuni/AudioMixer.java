@@ -0,0 +1,316 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Plays sound effects on a fixed number of voices and cross-fades between music tracks.
+ *
+ * Sounds are decoded in full, so they are loaded by an {@link AssetManager} on its own thread, never on the render
+ * thread. {@link SoundEffect#resident} sounds are queued straight away and kept; the rest are queued the first time
+ * they are played and unloaded again after {@link #UNLOAD_AFTER_SECONDS} of silence. A sound that is still loading
+ * when it is played starts once it is ready, unless that is more than {@link #MAX_LATENCY_SECONDS} later, as a late
+ * sound is worse than none.
+ *
+ * At most {@link #MAX_VOICES} sounds play at once, with each effect's own limit and priority deciding which one gives
+ * way, see {@link SoundEffect}. Voices are tracked in preallocated arrays, so playing a loaded sound allocates
+ * nothing.
+ *
+ * Music is streamed, so only one track plus the one fading out are open at a time. Switching tracks fades the old one
+ * out while the new one fades in, with no gap between them.
+ *
+ * {@link #update()} must be called every frame. It works from the clock rather than frame deltas, and asks for more
+ * frames while anything is loading or fading, so it also works while menus only render on demand.
+ */
+public class AudioMixer implements Disposable
+{
+    public static final int MAX_VOICES = 6;
+    public static final float CROSSFADE_SECONDS = 1.5f;
+    public static final float UNLOAD_AFTER_SECONDS = 30f;
+    public static final float MAX_LATENCY_SECONDS = 0.15f;
+
+    private static final SoundEffect[] EFFECTS = SoundEffect.values();
+
+    private final AssetManager manager = new AssetManager(new InternalFileHandleResolver());
+
+    // Indexed by SoundEffect.ordinal().
+    private final Sound[] sounds = new Sound[EFFECTS.length];
+    private final boolean[] loading = new boolean[EFFECTS.length];
+    // When a play was asked for while the sound was loading, or 0.
+    private final long[] pendingSince = new long[EFFECTS.length];
+    // When the last voice of the effect ends, or ended.
+    private final long[] silentFrom = new long[EFFECTS.length];
+
+    // Voices, free where voiceEffects is null.
+    private final SoundEffect[] voiceEffects = new SoundEffect[MAX_VOICES];
+    private final long[] voiceIds = new long[MAX_VOICES];
+    private final long[] voiceStarted = new long[MAX_VOICES];
+    private final long[] voiceEnds = new long[MAX_VOICES];
+
+    private float soundVolume = 0.5f;
+    private float musicVolume = 0.5f;
+
+    private String musicPath;
+    private Music music;
+    private Music fadingOut;
+    private long fadeStarted;
+    private boolean fading;
+
+    public AudioMixer()
+    {
+        // A missing or broken file only costs its sound, it stays marked as loading and is never played.
+        manager.setErrorListener((asset, throwable) ->
+            Gdx.app.error("AudioMixer", "Error loading " + asset.fileName + ": " + throwable.getMessage()));
+        for (SoundEffect effect : EFFECTS)
+        {
+            if (effect.resident) queue(effect);
+        }
+    }
+
+    /**
+     * Plays a sound effect, or drops it if every voice is playing something more important.
+     */
+    public void play(SoundEffect effect)
+    {
+        int index = effect.ordinal();
+        Sound sound = sounds[index];
+        if (sound == null)
+        {
+            queue(effect);
+            pendingSince[index] = TimeUtils.nanoTime();
+            return;
+        }
+        startVoice(effect, sound, TimeUtils.nanoTime());
+    }
+
+    private void queue(SoundEffect effect)
+    {
+        int index = effect.ordinal();
+        if (loading[index] || sounds[index] != null) return;
+        loading[index] = true;
+        manager.load(effect.path, Sound.class);
+        Gdx.graphics.requestRendering();
+    }
+
+    private void startVoice(SoundEffect effect, Sound sound, long now)
+    {
+        freeFinishedVoices(now);
+
+        int voice = -1;
+        int playing = 0;
+        int oldestOfEffect = -1;
+        for (int v = 0; v < MAX_VOICES; v++)
+        {
+            if (voiceEffects[v] == null)
+            {
+                if (voice == -1) voice = v;
+            }
+            else if (voiceEffects[v] == effect)
+            {
+                playing++;
+                if (oldestOfEffect == -1 || voiceStarted[v] < voiceStarted[oldestOfEffect]) oldestOfEffect = v;
+            }
+        }
+
+        if (playing >= effect.maxVoices)
+        {
+            voice = oldestOfEffect;
+            stopVoice(voice);
+        }
+        else if (voice == -1)
+        {
+            voice = lowestPriorityVoice();
+            if (voiceEffects[voice].priority > effect.priority) return;
+            stopVoice(voice);
+        }
+
+        long id = sound.play(soundVolume);
+        // -1 when the backend has no free source left.
+        if (id == -1) return;
+        voiceEffects[voice] = effect;
+        voiceIds[voice] = id;
+        voiceStarted[voice] = now;
+        voiceEnds[voice] = now + (long) (effect.length * 1e9f);
+        silentFrom[effect.ordinal()] = Math.max(silentFrom[effect.ordinal()], voiceEnds[voice]);
+    }
+
+    /**
+     * @return The voice with the lowest priority, the oldest of those if there are several. Every voice is in use.
+     */
+    private int lowestPriorityVoice()
+    {
+        int lowest = 0;
+        for (int v = 1; v < MAX_VOICES; v++)
+        {
+            int priority = voiceEffects[v].priority;
+            int lowestPriority = voiceEffects[lowest].priority;
+            if (priority < lowestPriority || (priority == lowestPriority && voiceStarted[v] < voiceStarted[lowest]))
+            {
+                lowest = v;
+            }
+        }
+        return lowest;
+    }
+
+    private void stopVoice(int voice)
+    {
+        SoundEffect effect = voiceEffects[voice];
+        sounds[effect.ordinal()].stop(voiceIds[voice]);
+        voiceEffects[voice] = null;
+    }
+
+    private void freeFinishedVoices(long now)
+    {
+        for (int v = 0; v < MAX_VOICES; v++)
+        {
+            if (voiceEffects[v] != null && voiceEnds[v] <= now) voiceEffects[v] = null;
+        }
+    }
+
+    /**
+     * Cross-fades to the given track, which loops. Does nothing if it is already the current track.
+     * @param path Path of the music, relative to assets/.
+     */
+    public void playMusic(String path)
+    {
+        if (path.equals(musicPath)) return;
+
+        Music next;
+        try
+        {
+            // Only opens the stream, the track is decoded a little at a time as it plays.
+            next = Gdx.audio.newMusic(Gdx.files.internal(path));
+        }
+        catch (GdxRuntimeException e)
+        {
+            Gdx.app.error("AudioMixer", "Error loading music " + path + ": " + e.getMessage());
+            return;
+        }
+
+        // A third track cuts the one that was already fading out.
+        disposeFadingOut();
+        fadingOut = music;
+        music = next;
+        musicPath = path;
+        music.setLooping(true);
+        music.setVolume(0f);
+        music.play();
+        fadeStarted = TimeUtils.nanoTime();
+        fading = true;
+        Gdx.graphics.requestRendering();
+    }
+
+    public void pauseMusic()
+    {
+        finishFade();
+        if (music != null && music.isPlaying()) music.pause();
+    }
+
+    public void resumeMusic()
+    {
+        if (music != null && !music.isPlaying()) music.play();
+    }
+
+    private void finishFade()
+    {
+        if (!fading) return;
+        fading = false;
+        disposeFadingOut();
+        if (music != null) music.setVolume(musicVolume);
+    }
+
+    private void disposeFadingOut()
+    {
+        if (fadingOut == null) return;
+        fadingOut.stop();
+        fadingOut.dispose();
+        fadingOut = null;
+    }
+
+    /**
+     * Finishes loads, starts sounds that were waiting for them, unloads idle sounds and steps the cross-fade.
+     */
+    public void update()
+    {
+        long now = TimeUtils.nanoTime();
+
+        if (!manager.isFinished())
+        {
+            manager.update();
+            Gdx.graphics.requestRendering();
+        }
+
+        for (int i = 0; i < EFFECTS.length; i++)
+        {
+            SoundEffect effect = EFFECTS[i];
+            if (loading[i] && manager.isLoaded(effect.path))
+            {
+                loading[i] = false;
+                sounds[i] = manager.get(effect.path, Sound.class);
+                silentFrom[i] = now;
+                if (pendingSince[i] != 0 && now - pendingSince[i] <= MAX_LATENCY_SECONDS * 1e9f)
+                {
+                    startVoice(effect, sounds[i], now);
+                }
+                pendingSince[i] = 0;
+            }
+        }
+
+        freeFinishedVoices(now);
+        for (int i = 0; i < EFFECTS.length; i++)
+        {
+            if (sounds[i] != null && !EFFECTS[i].resident && now - silentFrom[i] > UNLOAD_AFTER_SECONDS * 1e9f)
+            {
+                // No voice can still be playing it, as the last one ended UNLOAD_AFTER_SECONDS ago.
+                manager.unload(EFFECTS[i].path);
+                sounds[i] = null;
+            }
+        }
+
+        if (fading)
+        {
+            float progress = Math.min(1f, (now - fadeStarted) / (CROSSFADE_SECONDS * 1e9f));
+            // Equal power, so the overall loudness stays the same through the fade.
+            music.setVolume(musicVolume * MathUtils.sin(progress * MathUtils.HALF_PI));
+            if (fadingOut != null) fadingOut.setVolume(musicVolume * MathUtils.cos(progress * MathUtils.HALF_PI));
+            if (progress >= 1f)
+            {
+                finishFade();
+            }
+            else
+            {
+                Gdx.graphics.requestRendering();
+            }
+        }
+    }
+
+    /**
+     * Sets the volume of sounds played from now on.
+     */
+    public void setSoundVolume(float volume)
+    {
+        soundVolume = MathUtils.clamp(volume, 0f, 1f);
+    }
+
+    public void setMusicVolume(float volume)
+    {
+        musicVolume = MathUtils.clamp(volume, 0f, 1f);
+        if (!fading && music != null) music.setVolume(musicVolume);
+    }
+
+    @Override
+    public void dispose()
+    {
+        disposeFadingOut();
+        if (music != null) music.dispose();
+        // Disposes every loaded sound.
+        manager.dispose();
+    }
+}
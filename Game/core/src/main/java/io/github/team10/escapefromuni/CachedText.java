@@ -0,0 +1,154 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * A piece of UI text laid out once into a {@link BitmapFontCache} and drawn straight from the cached vertices,
+ * which costs about the same as drawing a sprite.
+ *
+ * Each piece of text on screen owns one of these. {@link #setText} is cheap to call every frame: the layout is only
+ * rebuilt when the string or size differs from last time. {@link #setPosition} just translates the cached
+ * vertices, and only if the position changed. Each piece of text has its own size, so one {@link UIFont} serves
+ * every size on screen.
+ *
+ * The cache is created on first use, so objects that are never drawn, e.g. in the headless simulation, never
+ * touch the font.
+ */
+public class CachedText {
+
+    private final UIFont font;
+    private BitmapFontCache cache;
+    private float size;
+
+    // What the cache currently holds.
+    private final StringBuilder text = new StringBuilder();
+    private boolean laidOut;
+    private float laidOutSize;
+    private float width;
+    private float height;
+
+    private float x;
+    private float y;
+    private final Color color = new Color(Color.WHITE);
+
+    /**
+     * @param font The font to lay the text out with. The text is {@link UIFont#DEFAULT_SIZE}.
+     */
+    public CachedText(UIFont font)
+    {
+        this(font, UIFont.DEFAULT_SIZE);
+    }
+
+    /**
+     * @param font The font to lay the text out with.
+     * @param size The height of the text in UI units.
+     */
+    public CachedText(UIFont font, float size)
+    {
+        this.font = font;
+        this.size = size;
+    }
+
+    /**
+     * Sets the size of the text. It is laid out again by the next {@link #setText}.
+     * @param size The height of the text in UI units.
+     */
+    public void setSize(float size)
+    {
+        this.size = size;
+    }
+
+    /**
+     * Sets the text, which is laid out left aligned. {@link #getWidth()} can then be used to centre it.
+     * @param str The text. Only copied if it differs from the current text.
+     */
+    public void setText(CharSequence str)
+    {
+        if (laidOut && laidOutSize == size && contentEquals(str))
+        {
+            return;
+        }
+
+        BitmapFont scaled = font.applySize(size);
+        if (cache == null)
+        {
+            cache = scaled.newFontCache();
+            cache.setColor(color);
+        }
+        text.setLength(0);
+        text.append(str);
+        laidOutSize = size;
+
+        // Laid out at the origin, then moved, so that later moves are a translation.
+        GlyphLayout layout = cache.setText(text, 0f, 0f);
+        font.resetSize();
+        width = layout.width;
+        height = layout.height;
+        laidOut = true;
+        cache.setPosition(x, y);
+    }
+
+    /**
+     * Moves the text.
+     * @param x The left edge of the text.
+     * @param y The top of the text, as with {@link BitmapFont#draw}.
+     */
+    public void setPosition(float x, float y)
+    {
+        if (x == this.x && y == this.y) return;
+        this.x = x;
+        this.y = y;
+        if (laidOut) cache.setPosition(x, y);
+    }
+
+    /**
+     * Sets the colour of the text. The cached vertices are recoloured only if it changed.
+     */
+    public void setColor(Color color)
+    {
+        if (color.equals(this.color)) return;
+        this.color.set(color);
+        if (cache != null)
+        {
+            cache.setColor(color);
+            cache.setColors(color);
+        }
+    }
+
+    public float getWidth()
+    {
+        return width;
+    }
+
+    public float getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Draws the text. The batch must already be started.
+     */
+    public void draw(Batch batch)
+    {
+        if (!laidOut) return;
+        font.beginText(batch, laidOutSize);
+        cache.draw(batch);
+        font.endText(batch);
+    }
+
+    private boolean contentEquals(CharSequence str)
+    {
+        int length = str.length();
+        if (length != text.length()) return false;
+        for (int i = 0; i < length; i++)
+        {
+            if (str.charAt(i) != text.charAt(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,306 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Everything in the room the player can touch: doors, event pickups and anything else that reacts to the player.
+ *
+ * Colliders are registered with {@link #addBox} or {@link #addCircle} and keep the id they are given until they
+ * are removed, so callers hold on to ids rather than objects. A box is touched when it overlaps the player's bounds,
+ * and a circle, e.g. a pickup or reveal radius, when the centre of the player is inside it. Each collider's
+ * {@link Listener} is told when the player starts and stops touching it.
+ *
+ * The world is covered by a uniform grid of square cells, and each collider is listed in every cell its bounds
+ * overlap. {@link #update} only looks at the colliders in the cells under the player, so a frame costs the same
+ * however many colliders are elsewhere in the room. Everything is kept in arrays indexed by id, and nothing is
+ * allocated per frame once the arrays have grown to the room's size.
+ *
+ * Colliders outside the world are listed in the nearest edge cells, so they still work, just less efficiently.
+ */
+public class CollisionWorld {
+
+    /**
+     * Told when the player starts or stops touching a collider.
+     */
+    public interface Listener {
+        void onEnter(int collider);
+
+        default void onExit(int collider) {}
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final IntArray[] cells;
+
+    // Per collider, indexed by id.
+    private boolean[] used = new boolean[INITIAL_CAPACITY];
+    private boolean[] active = new boolean[INITIAL_CAPACITY];
+    private boolean[] circle = new boolean[INITIAL_CAPACITY];
+    // Bounds, which for a circle are its bounding square.
+    private float[] minX = new float[INITIAL_CAPACITY];
+    private float[] minY = new float[INITIAL_CAPACITY];
+    private float[] maxX = new float[INITIAL_CAPACITY];
+    private float[] maxY = new float[INITIAL_CAPACITY];
+    private float[] radius = new float[INITIAL_CAPACITY];
+    private Listener[] listeners = new Listener[INITIAL_CAPACITY];
+    // The last update that looked at the collider, and the last one that found it touched.
+    private int[] visited = new int[INITIAL_CAPACITY];
+    private int[] touchedAt = new int[INITIAL_CAPACITY];
+    private boolean[] touching = new boolean[INITIAL_CAPACITY];
+
+    private int nextId;
+    private final IntArray freeIds = new IntArray();
+    private int updateCount;
+
+    private final IntArray touchingIds = new IntArray();
+    private final IntArray entered = new IntArray();
+    private final IntArray exited = new IntArray();
+
+    /**
+     * @param width Width of the world in world units.
+     * @param height Height of the world in world units.
+     * @param cellSize Width and height of each cell. About the size of the player works well.
+     */
+    public CollisionWorld(float width, float height, float cellSize)
+    {
+        this.cellSize = cellSize;
+        columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        cells = new IntArray[columns * rows];
+        for (int i = 0; i < cells.length; i++) cells[i] = new IntArray(false, 4);
+    }
+
+    /**
+     * Adds a box collider.
+     * @param x The x-coord of the bottom left corner.
+     * @param y The y-coord of the bottom left corner.
+     * @return The collider's id.
+     */
+    public int addBox(float x, float y, float width, float height, Listener listener)
+    {
+        int id = allocate(listener);
+        circle[id] = false;
+        setBounds(id, x, y, x + width, y + height);
+        return id;
+    }
+
+    /**
+     * Adds a circle collider, touched while the centre of the player is inside it.
+     * @param x The x-coord of the centre.
+     * @param y The y-coord of the centre.
+     * @return The collider's id.
+     */
+    public int addCircle(float x, float y, float radius, Listener listener)
+    {
+        int id = allocate(listener);
+        circle[id] = true;
+        this.radius[id] = radius;
+        setBounds(id, x - radius, y - radius, x + radius, y + radius);
+        return id;
+    }
+
+    private int allocate(Listener listener)
+    {
+        int id = freeIds.size > 0 ? freeIds.pop() : nextId++;
+        if (id >= used.length) grow(used.length * 2);
+        used[id] = true;
+        active[id] = true;
+        listeners[id] = listener;
+        visited[id] = 0;
+        touchedAt[id] = 0;
+        touching[id] = false;
+        return id;
+    }
+
+    private void grow(int capacity)
+    {
+        used = Arrays.copyOf(used, capacity);
+        active = Arrays.copyOf(active, capacity);
+        circle = Arrays.copyOf(circle, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        listeners = Arrays.copyOf(listeners, capacity);
+        visited = Arrays.copyOf(visited, capacity);
+        touchedAt = Arrays.copyOf(touchedAt, capacity);
+        touching = Arrays.copyOf(touching, capacity);
+    }
+
+    /**
+     * Moves a box collider, keeping its id. A change in what the player touches is reported on the next update.
+     */
+    public void setBox(int id, float x, float y, float width, float height)
+    {
+        check(id);
+        unlist(id);
+        setBounds(id, x, y, x + width, y + height);
+    }
+
+    private void setBounds(int id, float x0, float y0, float x1, float y1)
+    {
+        minX[id] = x0;
+        minY[id] = y0;
+        maxX[id] = x1;
+        maxY[id] = y1;
+        for (int row = row(y0); row <= row(y1); row++)
+        {
+            for (int column = column(x0); column <= column(x1); column++)
+            {
+                cells[row * columns + column].add(id);
+            }
+        }
+    }
+
+    private void unlist(int id)
+    {
+        for (int row = row(minY[id]); row <= row(maxY[id]); row++)
+        {
+            for (int column = column(minX[id]); column <= column(maxX[id]); column++)
+            {
+                cells[row * columns + column].removeValue(id);
+            }
+        }
+    }
+
+    /**
+     * Removes a collider. Its id may be handed out again. No exit is reported, even if the player was touching it.
+     */
+    public void remove(int id)
+    {
+        check(id);
+        unlist(id);
+        stopTouching(id);
+        used[id] = false;
+        listeners[id] = null;
+        freeIds.add(id);
+    }
+
+    /**
+     * Turns a collider on or off. An inactive collider is never touched, and no exit is reported when the player
+     * was touching it as it was turned off.
+     */
+    public void setActive(int id, boolean active)
+    {
+        check(id);
+        this.active[id] = active;
+        if (!active) stopTouching(id);
+    }
+
+    public boolean isTouching(int id)
+    {
+        check(id);
+        return touching[id];
+    }
+
+    private void stopTouching(int id)
+    {
+        if (!touching[id]) return;
+        touching[id] = false;
+        touchingIds.removeValue(id);
+    }
+
+    private void check(int id)
+    {
+        if (id < 0 || id >= nextId || !used[id]) throw new GdxRuntimeException("No collider with id " + id);
+    }
+
+    /**
+     * Finds what the player touches and tells the listeners of colliders the player has started or stopped
+     * touching, exits first and then entries in id order. Listeners may add, remove and change colliders; changes
+     * are seen on the next update.
+     * @param x The x-coord of the bottom left corner of the player.
+     * @param y The y-coord of the bottom left corner of the player.
+     * @param width Width of the player.
+     * @param height Height of the player.
+     */
+    public void update(float x, float y, float width, float height)
+    {
+        int stamp = ++updateCount;
+        float right = x + width;
+        float top = y + height;
+        float centreX = x + width / 2f;
+        float centreY = y + height / 2f;
+
+        entered.clear();
+        for (int row = row(y); row <= row(top); row++)
+        {
+            for (int column = column(x); column <= column(right); column++)
+            {
+                IntArray cell = cells[row * columns + column];
+                for (int i = 0; i < cell.size; i++)
+                {
+                    int id = cell.items[i];
+                    // Colliders over several cells are only tested once.
+                    if (visited[id] == stamp) continue;
+                    visited[id] = stamp;
+                    if (!active[id]) continue;
+
+                    boolean touched;
+                    if (circle[id])
+                    {
+                        float dx = centreX - (minX[id] + radius[id]);
+                        float dy = centreY - (minY[id] + radius[id]);
+                        touched = dx * dx + dy * dy < radius[id] * radius[id];
+                    }
+                    else
+                    {
+                        // The same test as Rectangle.overlaps.
+                        touched = x < maxX[id] && right > minX[id] && y < maxY[id] && top > minY[id];
+                    }
+                    if (!touched) continue;
+
+                    touchedAt[id] = stamp;
+                    if (!touching[id]) entered.add(id);
+                }
+            }
+        }
+
+        exited.clear();
+        for (int i = touchingIds.size - 1; i >= 0; i--)
+        {
+            int id = touchingIds.items[i];
+            if (touchedAt[id] != stamp)
+            {
+                touching[id] = false;
+                touchingIds.removeIndex(i);
+                exited.add(id);
+            }
+        }
+        for (int i = 0; i < entered.size; i++)
+        {
+            touching[entered.items[i]] = true;
+            touchingIds.add(entered.items[i]);
+        }
+
+        // Listeners may remove colliders, so each one is checked before it is told.
+        for (int i = 0; i < exited.size; i++)
+        {
+            int id = exited.items[i];
+            if (used[id]) listeners[id].onExit(id);
+        }
+        entered.sort();
+        for (int i = 0; i < entered.size; i++)
+        {
+            int id = entered.items[i];
+            if (used[id] && touching[id]) listeners[id].onEnter(id);
+        }
+    }
+
+    private int column(float x)
+    {
+        return Math.min(columns - 1, Math.max(0, (int) Math.floor(x / cellSize)));
+    }
+
+    private int row(float y)
+    {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor(y / cellSize)));
+    }
+}
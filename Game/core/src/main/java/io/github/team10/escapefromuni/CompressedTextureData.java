@@ -0,0 +1,192 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Texture data read from a .ktx file written by the {@link TextureCompressor}, uploaded with every mipmap in the
+ * file.
+ *
+ * libGDX's own KTX loader always uploads with the format stored in the file, which is ETC1. The blocks are just as
+ * valid as ETC2 RGB8, so this class uploads them with whichever of the two the {@link CompressedTextures} found the
+ * GPU supports. The file is read in {@link #prepare()}, which the asset manager calls on its loading thread.
+ */
+public class CompressedTextureData implements TextureData {
+
+    /** GL_COMPRESSED_RGB8_ETC2, core in OpenGL ES 3.0 and OpenGL 4.3. */
+    public static final int GL_COMPRESSED_RGB8_ETC2 = 0x9274;
+
+    private final FileHandle file;
+    private final int glInternalFormat;
+    private int width;
+    private int height;
+    private int levelCount;
+    private ByteBuffer data;
+
+    /**
+     * @param file The .ktx file.
+     * @param glInternalFormat The compressed format to upload the blocks as, either
+     *     {@link #GL_COMPRESSED_RGB8_ETC2} or {@link ETC1#ETC1_RGB8_OES}.
+     */
+    public CompressedTextureData(FileHandle file, int glInternalFormat)
+    {
+        this.file = file;
+        this.glInternalFormat = glInternalFormat;
+    }
+
+    /**
+     * Reads the size of the top level of a .ktx file, without reading its blocks.
+     */
+    public static GridPoint2 readSize(FileHandle file)
+    {
+        DataInputStream in = new DataInputStream(file.read());
+        try
+        {
+            // Skips to pixelWidth.
+            in.skipBytes(TextureCompressor.KTX_IDENTIFIER.length + 6 * 4);
+            return new GridPoint2(Integer.reverseBytes(in.readInt()), Integer.reverseBytes(in.readInt()));
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Couldn't read " + file.path(), e);
+        }
+        finally
+        {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+
+    @Override
+    public TextureDataType getType()
+    {
+        return TextureDataType.Custom;
+    }
+
+    @Override
+    public boolean isPrepared()
+    {
+        return data != null;
+    }
+
+    @Override
+    public void prepare()
+    {
+        if (data != null) throw new GdxRuntimeException("Already prepared");
+
+        byte[] bytes = file.readBytes();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        boolean valid = bytes.length >= TextureCompressor.KTX_HEADER_SIZE;
+        for (int i = 0; valid && i < TextureCompressor.KTX_IDENTIFIER.length; i++)
+        {
+            valid = bytes[i] == TextureCompressor.KTX_IDENTIFIER[i];
+        }
+        buffer.position(TextureCompressor.KTX_IDENTIFIER.length);
+        if (!valid || buffer.getInt() != TextureCompressor.KTX_ENDIANNESS)
+        {
+            throw new GdxRuntimeException("Not a little endian .ktx file: " + file.path());
+        }
+        buffer.getInt(); // glType
+        buffer.getInt(); // glTypeSize
+        buffer.getInt(); // glFormat
+        if (buffer.getInt() != ETC1.ETC1_RGB8_OES)
+        {
+            throw new GdxRuntimeException("Expected ETC1 blocks in " + file.path());
+        }
+        buffer.getInt(); // glBaseInternalFormat
+        width = buffer.getInt();
+        height = buffer.getInt();
+        buffer.getInt(); // pixelDepth
+        buffer.getInt(); // numberOfArrayElements
+        buffer.getInt(); // numberOfFaces
+        levelCount = Math.max(1, buffer.getInt());
+        int keyValueBytes = buffer.getInt();
+        buffer.position(buffer.position() + keyValueBytes);
+
+        // GL needs a direct buffer. The level sizes stay in it and are skipped while uploading.
+        data = BufferUtils.newUnsafeByteBuffer(bytes.length - buffer.position());
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        data.put(bytes, buffer.position(), data.capacity());
+        data.position(0);
+    }
+
+    @Override
+    public void consumeCustomData(int target)
+    {
+        if (data == null) throw new GdxRuntimeException("Call prepare() before uploading " + file.path());
+
+        int levelWidth = width;
+        int levelHeight = height;
+        int position = 0;
+        for (int level = 0; level < levelCount; level++)
+        {
+            int size = data.getInt(position);
+            position += 4;
+            data.limit(position + size);
+            data.position(position);
+            Gdx.gl.glCompressedTexImage2D(target, level, glInternalFormat, levelWidth, levelHeight, 0, size,
+                data.slice());
+            data.limit(data.capacity());
+            // Levels are padded to 4 bytes, which ETC blocks always are.
+            position += size;
+            levelWidth = Math.max(1, levelWidth / 2);
+            levelHeight = Math.max(1, levelHeight / 2);
+        }
+
+        BufferUtils.disposeUnsafeByteBuffer(data);
+        data = null;
+    }
+
+    @Override
+    public Pixmap consumePixmap()
+    {
+        throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+    }
+
+    @Override
+    public boolean disposePixmap()
+    {
+        throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+    }
+
+    @Override
+    public int getWidth()
+    {
+        return width;
+    }
+
+    @Override
+    public int getHeight()
+    {
+        return height;
+    }
+
+    @Override
+    public Pixmap.Format getFormat()
+    {
+        return Pixmap.Format.RGB888;
+    }
+
+    @Override
+    public boolean useMipMaps()
+    {
+        return levelCount > 1;
+    }
+
+    @Override
+    public boolean isManaged()
+    {
+        return true;
+    }
+}
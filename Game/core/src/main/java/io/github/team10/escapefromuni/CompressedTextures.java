@@ -0,0 +1,140 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader.TextureParameter;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.graphics.glutils.GLVersion;
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Picks, for each texture, the best file to load on this GPU and screen: one of the .ktx files written by the
+ * {@link TextureCompressor}, or the PNG itself.
+ *
+ * The compressed format is chosen once, from the GL version and extensions: ETC2 where it is core or exposed as an
+ * extension, otherwise ETC1 if the driver supports it. With neither, PNGs are loaded as before. Of the two compressed
+ * sizes, the half size one is used when it still covers the whole display, as nothing is drawn larger than that.
+ *
+ * Textures are loaded under the path of the picked file, so {@link #resolve(String)} must be used for both
+ * {@link AssetManager#load} and {@link AssetManager#unload}. Run with -Descape.pngTextures=true to always load PNGs.
+ */
+public class CompressedTextures {
+
+    private static final boolean PNG_ONLY = Boolean.getBoolean("escape.pngTextures");
+
+    private final FileHandleResolver resolver;
+    // 0 when the GPU supports neither ETC format.
+    private final int glInternalFormat;
+    private final int displayWidth;
+    private final int displayHeight;
+    private final ObjectMap<String, String> resolved = new ObjectMap<>();
+
+    /**
+     * Checks what the GPU supports. Must be called on the render thread, after GL is created.
+     */
+    public CompressedTextures(FileHandleResolver resolver)
+    {
+        this.resolver = resolver;
+        this.glInternalFormat = PNG_ONLY ? 0 : supportedFormat();
+
+        // The window may be resized up to the display, so that is the most any texture is drawn at.
+        Graphics.DisplayMode display = Gdx.graphics.getDisplayMode();
+        displayWidth = display != null ? display.width : Gdx.graphics.getBackBufferWidth();
+        displayHeight = display != null ? display.height : Gdx.graphics.getBackBufferHeight();
+        if (glInternalFormat == 0)
+        {
+            Gdx.app.log("CompressedTextures", "No ETC support, loading PNG textures");
+        }
+    }
+
+    private static int supportedFormat()
+    {
+        GLVersion version = Gdx.graphics.getGLVersion();
+        boolean etc2Core = version != null
+            && ((version.getType() == GLVersion.Type.GLES && version.getMajorVersion() >= 3)
+                || (version.getType() == GLVersion.Type.OpenGL && version.isVersionEqualToOrHigher(4, 3)));
+        if (etc2Core || Gdx.graphics.supportsExtension("GL_ARB_ES3_compatibility")
+            || Gdx.graphics.supportsExtension("GL_OES_compressed_ETC2_RGB8_texture"))
+        {
+            return CompressedTextureData.GL_COMPRESSED_RGB8_ETC2;
+        }
+        if (Gdx.graphics.supportsExtension("GL_OES_compressed_ETC1_RGB8_texture"))
+        {
+            return ETC1.ETC1_RGB8_OES;
+        }
+        return 0;
+    }
+
+    /**
+     * @param path Path of a texture, relative to assets/.
+     * @return The path to load the texture from, which is the given path unless a compressed file is picked.
+     */
+    public String resolve(String path)
+    {
+        String file = resolved.get(path);
+        if (file != null) return file;
+
+        file = path;
+        if (glInternalFormat != 0)
+        {
+            String full = TextureCompressor.compressedPath(path, false);
+            String half = TextureCompressor.compressedPath(path, true);
+            FileHandle halfFile = resolver.resolve(half);
+            if (halfFile.exists() && covers(CompressedTextureData.readSize(halfFile)))
+            {
+                file = half;
+            }
+            else if (resolver.resolve(full).exists())
+            {
+                file = full;
+            }
+        }
+        resolved.put(path, file);
+        return file;
+    }
+
+    private boolean covers(GridPoint2 size)
+    {
+        return size.x >= displayWidth && size.y >= displayHeight;
+    }
+
+    /**
+     * Queues a texture on the manager from the file picked for it. Adds a reference if it is already loaded.
+     * @param path Path of the texture, relative to assets/.
+     * @return The path the texture is loaded under.
+     */
+    public String load(AssetManager manager, String path)
+    {
+        return load(manager, path, Texture.TextureFilter.Linear);
+    }
+
+    /**
+     * Queues a texture on the manager from the file picked for it. Adds a reference if it is already loaded.
+     * @param path Path of the texture, relative to assets/.
+     * @param magFilter Filter for a compressed texture drawn larger than its size, e.g. Nearest for pixel art. PNGs
+     *                  keep the manager's default of Nearest.
+     * @return The path the texture is loaded under.
+     */
+    public String load(AssetManager manager, String path, Texture.TextureFilter magFilter)
+    {
+        String file = resolve(path);
+        if (file.equals(path))
+        {
+            manager.load(file, Texture.class);
+            return file;
+        }
+
+        // A fresh TextureData for each load, as a texture that is unloaded and loaded again reads the file again.
+        TextureParameter parameter = new TextureParameter();
+        parameter.textureData = new CompressedTextureData(resolver.resolve(file), glInternalFormat);
+        parameter.minFilter = Texture.TextureFilter.MipMapLinearLinear;
+        parameter.magFilter = magFilter;
+        manager.load(file, Texture.class, parameter);
+        return file;
+    }
+}
@@ -0,0 +1,296 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout.GlyphRun;
+
+/**
+ * A whole number drawn between a fixed prefix and suffix, such as the "Time: 120s" HUD counter.
+ *
+ * The text is laid out into a {@link BitmapFontCache} with each digit centred in a cell as wide as the widest
+ * digit, so changing one digit never moves the others. When the value changes but keeps the same number of digits,
+ * only the quads of the digits that changed are rewritten in the cached vertex data, from copies of each digit's
+ * quad taken when the cache is created. The whole text is laid out again only when the number of digits or the
+ * size changes.
+ *
+ * Like {@link CachedText}, the cache is created on first use.
+ */
+public class CounterText {
+
+    // Each glyph is a quad of four vertices: x, y, colour, u, v.
+    private static final int FLOATS_PER_GLYPH = 20;
+    private static final int MAX_DIGITS = 10;
+    private static final String[] DIGITS = { "0", "1", "2", "3", "4", "5", "6", "7", "8", "9" };
+
+    private final UIFont font;
+    private final float size;
+    private final String prefix;
+    private final String suffix;
+    private BitmapFontCache cache;
+
+    // Per digit: its quad laid out at the origin, and its offset to be centred in a cell.
+    private final float[] digitQuads = new float[10 * FLOATS_PER_GLYPH];
+    private final float[] digitOffsets = new float[10];
+    private float cellWidth;
+    private int digitPage;
+    private boolean swappable;
+    private float scaleX;
+
+    // The laid out value, one entry per digit, most significant first.
+    private boolean laidOut;
+    private int value;
+    private int digitCount;
+    private final int[] digits = new int[MAX_DIGITS];
+    private final int[] vertexIndex = new int[MAX_DIGITS];
+    private float digitsX;
+    private float width;
+    private float height;
+
+    private float x;
+    private float y;
+    private final Color color = new Color(Color.WHITE);
+
+    /**
+     * @param font The font to draw with, at {@link UIFont#DEFAULT_SIZE}.
+     * @param prefix Text before the number, e.g. "Time: ".
+     * @param suffix Text after the number, e.g. "s".
+     */
+    public CounterText(UIFont font, String prefix, String suffix)
+    {
+        this(font, UIFont.DEFAULT_SIZE, prefix, suffix);
+    }
+
+    /**
+     * @param font The font to draw with.
+     * @param size The height of the text in UI units.
+     * @param prefix Text before the number, e.g. "Time: ".
+     * @param suffix Text after the number, e.g. "s".
+     */
+    public CounterText(UIFont font, float size, String prefix, String suffix)
+    {
+        this.font = font;
+        this.size = size;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Sets the number shown. Negative values are shown as 0.
+     */
+    public void setValue(int value)
+    {
+        value = Math.max(0, value);
+        if (laidOut && value == this.value) return;
+
+        int count = countDigits(value);
+        if (!laidOut || !swappable || count != digitCount)
+        {
+            font.applySize(size);
+            if (cache == null) prepare();
+            layout(value, count);
+            font.resetSize();
+            return;
+        }
+
+        this.value = value;
+        for (int i = count - 1; i >= 0; i--)
+        {
+            int digit = value % 10;
+            value /= 10;
+            if (digit != digits[i]) swapDigit(i, digit);
+        }
+    }
+
+    /**
+     * Moves the text.
+     * @param x The left edge of the text.
+     * @param y The top of the text, as with {@link BitmapFont#draw}.
+     */
+    public void setPosition(float x, float y)
+    {
+        if (x == this.x && y == this.y) return;
+        this.x = x;
+        this.y = y;
+        if (laidOut) cache.setPosition(x, y);
+    }
+
+    /**
+     * Sets the colour of the text. The cached vertices are recoloured only if it changed.
+     */
+    public void setColor(Color color)
+    {
+        if (color.equals(this.color)) return;
+        this.color.set(color);
+        if (cache != null)
+        {
+            cache.setColor(color);
+            cache.setColors(color);
+        }
+    }
+
+    public float getWidth()
+    {
+        return width;
+    }
+
+    public float getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Draws the text. The batch must already be started.
+     */
+    public void draw(Batch batch)
+    {
+        if (!laidOut) return;
+        font.beginText(batch, size);
+        cache.draw(batch);
+        font.endText(batch);
+    }
+
+    /**
+     * Creates the cache, measures the digits at the text's size and copies each digit's quad out of a scratch
+     * layout. The font must already be scaled to the size.
+     */
+    private void prepare()
+    {
+        BitmapFont scaled = font.getFont();
+        cache = scaled.newFontCache();
+        cache.setColor(color);
+        BitmapFontData data = scaled.getData();
+        scaleX = data.scaleX;
+
+        swappable = true;
+        cellWidth = 0f;
+        digitPage = -1;
+        for (int d = 0; d < 10; d++)
+        {
+            Glyph glyph = data.getGlyph((char) ('0' + d));
+            if (glyph == null)
+            {
+                swappable = false;
+                continue;
+            }
+            if (digitPage == -1) digitPage = glyph.page;
+            if (glyph.page != digitPage) swappable = false;
+            cellWidth = Math.max(cellWidth, glyph.xadvance * scaleX);
+        }
+        if (!swappable) return;
+        if (cache.usesIntegerPositions()) cellWidth = Math.round(cellWidth);
+
+        for (int d = 0; d < 10; d++)
+        {
+            cache.setText(DIGITS[d], 0f, 0f);
+            System.arraycopy(cache.getVertices(digitPage), 0, digitQuads, d * FLOATS_PER_GLYPH, FLOATS_PER_GLYPH);
+            float offset = (cellWidth - data.getGlyph((char) ('0' + d)).width * scaleX) / 2f;
+            digitOffsets[d] = cache.usesIntegerPositions() ? Math.round(offset) : offset;
+        }
+        cache.clear();
+    }
+
+    /**
+     * Lays the whole text out again and records where each digit's quad is in the cache.
+     */
+    private void layout(int value, int count)
+    {
+        this.value = value;
+        digitCount = count;
+        for (int i = count - 1, v = value; i >= 0; i--, v /= 10) digits[i] = v % 10;
+        laidOut = true;
+
+        if (!swappable)
+        {
+            // Missing digits or digits spread over pages, so lay the text out as normal.
+            GlyphLayout layout = cache.setText(prefix + value + suffix, 0f, 0f);
+            width = layout.width;
+            height = layout.height;
+            cache.setPosition(x, y);
+            return;
+        }
+
+        GlyphLayout prefixLayout = cache.setText(prefix, 0f, 0f);
+        height = prefixLayout.height;
+        digitsX = penAfter(prefixLayout);
+        int onPage = glyphsOnPage(prefixLayout);
+        for (int i = 0; i < count; i++)
+        {
+            int digit = digits[i];
+            cache.addText(DIGITS[digit], digitsX + i * cellWidth + digitOffsets[digit], 0f);
+            vertexIndex[i] = (onPage + i) * FLOATS_PER_GLYPH;
+        }
+        float suffixX = digitsX + count * cellWidth;
+        GlyphLayout suffixLayout = cache.addText(suffix, suffixX, 0f);
+        width = suffixX + suffixLayout.width;
+        height = Math.max(height, suffixLayout.height);
+
+        cache.setPosition(x, y);
+    }
+
+    /**
+     * Rewrites one digit's quad from the copy taken in {@link #prepare()}, moved into its cell.
+     */
+    private void swapDigit(int slot, int digit)
+    {
+        // The cache has been translated since it was laid out at the origin.
+        float offsetX = cache.getX() + digitsX + slot * cellWidth + digitOffsets[digit];
+        float offsetY = cache.getY();
+
+        float[] vertices = cache.getVertices(digitPage);
+        int to = vertexIndex[slot];
+        int from = digit * FLOATS_PER_GLYPH;
+        for (int corner = 0; corner < FLOATS_PER_GLYPH; corner += 5)
+        {
+            vertices[to + corner] = digitQuads[from + corner] + offsetX;
+            vertices[to + corner + 1] = digitQuads[from + corner + 1] + offsetY;
+            // The colour at + 2 is left as it is.
+            vertices[to + corner + 3] = digitQuads[from + corner + 3];
+            vertices[to + corner + 4] = digitQuads[from + corner + 4];
+        }
+        digits[slot] = digit;
+    }
+
+    /**
+     * Where the pen ends up after a single line layout, including the advance of a trailing space, which the
+     * layout's width leaves out.
+     */
+    private float penAfter(GlyphLayout layout)
+    {
+        if (layout.runs.size == 0) return 0f;
+        GlyphRun run = layout.runs.peek();
+        float pen = run.x;
+        for (int i = 0; i < run.glyphs.size; i++) pen += run.xAdvances.get(i);
+        if (run.glyphs.size > 0) pen += run.glyphs.peek().xadvance * scaleX;
+        return cache.usesIntegerPositions() ? Math.round(pen) : pen;
+    }
+
+    private int glyphsOnPage(GlyphLayout layout)
+    {
+        int count = 0;
+        for (int r = 0; r < layout.runs.size; r++)
+        {
+            GlyphRun run = layout.runs.get(r);
+            for (int g = 0; g < run.glyphs.size; g++)
+            {
+                if (run.glyphs.get(g).page == digitPage) count++;
+            }
+        }
+        return count;
+    }
+
+    private static int countDigits(int value)
+    {
+        int count = 1;
+        while (value >= 10)
+        {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+}
@@ -1,25 +1,29 @@
 package io.github.team10.escapefromuni;
 
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.Rectangle;
 
 /**
  * Represents a door used to connect rooms.
- * 
+ *
  * Each {@code Door} is has a direction and is managed by the {@link DoorController}.
- * The door can be active or inactive indicating whether it is visible and can be used.  
+ * The door can be active or inactive indicating whether it is visible and can be used.
+ *
+ * The door itself is an entity with a static sprite and a repeating {@link Effect#DOOR} trigger over its bounds, so
+ * walking into it is handled by the {@link TriggerSystem}.
  */
 public class Door {
     public DoorController doorController;
     public DoorDirection direction;
 
     public boolean isActive;
-    public Texture doorTexture;
-    public Sprite doorSprite;
+    /** Bounds of the door. Doors never move. */
+    public final Rectangle bounds;
+    /** The door's entity. */
+    public final int entity;
 
     /**
      * Creates a new Door instance.
-     * 
+     *
      * The door is always active initially (but this may be changed by the roomManager).
      * @param roomManager Manages the door.
      * @param direction Direction of the door in relation to the center of the room.
@@ -31,35 +35,25 @@ public class Door {
         this.doorController = doorController;
         this.direction = direction;
 
-        doorTexture = new Texture("DoorNew.png");
-        doorSprite = new Sprite(doorTexture);
-
-        doorSprite.setSize(1f, 1f);
-        doorSprite.setPosition(x, y);
+        bounds = new Rectangle(x, y, 1f, 1f);
+        EntityWorld world = doorController.getEntities();
+        entity = world.create();
+        world.setPosition(entity, x, y, bounds.width, bounds.height);
+        world.setSprite(entity, doorController.getGame().atlas.getRegion("DoorNew"), true);
+        world.addBoxCollider(entity);
+        world.setTrigger(entity, Effect.DOOR, direction.ordinal(), 0f, true, false);
 
         isActive = true;
     }
 
-    public void draw()
-    {
-        if (isActive)
-        {
-            doorSprite.draw(doorController.getGame().batch);    
-        }
-    }
-
     public void setActive(boolean isActive)
     {
         this.isActive = isActive;
+        doorController.getEntities().setActive(entity, isActive);
     }
 
     public boolean getActive()
     {
         return isActive;
     }
-
-    public void dispose()
-    {
-        doorTexture.dispose();
-    }
 }
@@ -1,22 +1,31 @@
 package io.github.team10.escapefromuni;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 public class DoorController {
 
     private final EscapeGame game;
     private final PlayerController playerController;
     private RoomFlowManager roomFlowManager;
+    private final EntityWorld entities;
 
     private Door[] doors = new Door[4];
-    private final Texture positiveIndicator = new Texture("PositiveIndicator.png");
-    private final Texture negativeIndicator = new Texture("NegativeIndicator.png");
-    private Texture[] indicatorTextures = new Texture[4];
-
-    public DoorController(EscapeGame game, PlayerController playerController, RoomFlowManager roomFlowManager){
+    private final TextureRegion positiveIndicator;
+    private final TextureRegion negativeIndicator;
+    private TextureRegion[] indicatorTextures = new TextureRegion[4];
+
+    /**
+     * Creates the four doors as entities, whose triggers move the player through a door when they walk into it.
+     */
+    public DoorController(EscapeGame game, PlayerController playerController, RoomFlowManager roomFlowManager,
+            EntityWorld entities){
         this.game = game;
         this.playerController = playerController;
         this.roomFlowManager = roomFlowManager;
+        this.entities = entities;
+
+        positiveIndicator = game.atlas.getRegion("PositiveIndicator");
+        negativeIndicator = game.atlas.getRegion("NegativeIndicator");
 
         doors[0] = new Door(this, DoorDirection.NORTH, 7.5f, 8f);
         doors[1] = new Door(this, DoorDirection.EAST, 15f, 4f);
@@ -51,29 +60,33 @@ public class DoorController {
         return game;
     }
 
-    public void update() {
-        Player player = playerController.getPlayer();
-
-        for(Door d : doors){
-            if (d.isActive && player.checkCollision(d.doorSprite)) {
-                roomFlowManager.changeRoom(d.direction);
-                return;
-            }
-        }
+    public EntityWorld getEntities(){
+        return entities;
     }
 
-    public void draw() {
-        for (Door d: doors) d.draw();
+    /**
+     * @return The four doors, in {@link DoorDirection} order.
+     */
+    public Door[] getDoors(){
+        return doors;
+    }
 
-        if(indicatorTextures [0] != null) game.batch.draw(indicatorTextures[0], 7.5f, 8f, 1f, 1f);
-        if(indicatorTextures [1] != null) game.batch.draw(indicatorTextures[1], 15f, 4f, 1f, 1f);
-        if(indicatorTextures [2] != null) game.batch.draw(indicatorTextures[2], 7.5f, 0f, 1f, 1f);
-        if(indicatorTextures [3] != null) game.batch.draw(indicatorTextures[3], 0f, 4f, 1f, 1f);
+    /**
+     * Called by the {@link TriggerSystem} when the player walks into the door in the given direction.
+     */
+    void enterDoor(DoorDirection direction) {
+        roomFlowManager.changeRoom(direction);
     }
 
-    public void dispose() {
-        for( Door d: doors) d.dispose();
-        positiveIndicator.dispose();
-        negativeIndicator.dispose();   
+    /**
+     * Adds the event indicators of the active doors to a static layer, over the doors, which are added by the
+     * {@link SpriteSystem}. They only change in {@link #updateForRoom(Room)}, so the layer is built again whenever
+     * the room changes.
+     */
+    public void addTo(StaticLayer layer) {
+        if(indicatorTextures [0] != null) layer.add(indicatorTextures[0], 7.5f, 8f, 1f, 1f);
+        if(indicatorTextures [1] != null) layer.add(indicatorTextures[1], 15f, 4f, 1f, 1f);
+        if(indicatorTextures [2] != null) layer.add(indicatorTextures[2], 7.5f, 0f, 1f, 1f);
+        if(indicatorTextures [3] != null) layer.add(indicatorTextures[3], 0f, 4f, 1f, 1f);
     }
 }
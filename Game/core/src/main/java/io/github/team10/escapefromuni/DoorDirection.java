@@ -8,5 +8,23 @@ public enum DoorDirection {
     NORTH,
     EAST,
     SOUTH,
-    WEST
+    WEST;
+
+    private static final DoorDirection[] VALUES = values();
+
+    /**
+     * Returns the direction on the other side of a door, e.g. SOUTH for NORTH.
+     */
+    public DoorDirection opposite()
+    {
+        return VALUES[(ordinal() + 2) % 4];
+    }
+
+    /**
+     * Returns the direction with the given ordinal, without allocating like {@code values()} does.
+     */
+    public static DoorDirection fromOrdinal(int ordinal)
+    {
+        return VALUES[ordinal];
+    }
 }
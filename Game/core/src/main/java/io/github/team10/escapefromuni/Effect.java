@@ -0,0 +1,20 @@
+package io.github.team10.escapefromuni;
+
+/**
+ * What happens when the player touches an entity's trigger, see {@link EntityWorld#setTrigger}.
+ *
+ * An effect with a duration is kept in force by a timer effect entity until the time is up, see
+ * {@link TimerEffectSystem}; without one it is permanent.
+ */
+public enum Effect {
+    /** Moves the player through a door. The amount is the {@link DoorDirection} ordinal. */
+    DOOR,
+    /** Changes the player's speed by the amount. */
+    SPEED,
+    /** Adds the amount to the score. */
+    SCORE,
+    /** Stops the game timer. Only makes sense with a duration. */
+    FREEZE,
+    /** Swaps the entity's sprite for its trigger region, e.g. to reveal something hidden. */
+    REVEAL
+}
@@ -0,0 +1,167 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An event played from an {@link EventDefinition}, e.g. the Greggs sausage roll or the Ghost of Longboi.
+ *
+ * While the player is in its room the event is an entity in the {@link EntityWorld}, whose trigger does the work,
+ * see {@link TriggerSystem}. The entity is destroyed when the player leaves, and whether it was triggered is
+ * remembered, so a pickup is not there next time and a revealed event stays revealed.
+ */
+public class EntityEvent implements IEvent {
+
+    private final EventDefinition definition;
+    private final EscapeGame game;
+    private final TextureRegion region;
+    private final TextureRegion revealedRegion;
+
+    private boolean eventFinished = false;
+    // Triggered on an earlier visit to the room.
+    private boolean triggered = false;
+
+    // The event's entity while the player is in its room, or -1.
+    private EntityWorld world;
+    private int entity = -1;
+    private int generation;
+
+    private final Sprite panelSprite;
+    private final CachedText message;
+
+    /**
+     * Creates a new event. Nothing is added to the world until the player enters its room.
+     */
+    public EntityEvent(EventDefinition definition, EscapeGame game)
+    {
+        this.definition = definition;
+        this.game = game;
+        region = game.atlas.getRegion(definition.region);
+        revealedRegion = definition.revealedRegion != null ? game.atlas.getRegion(definition.revealedRegion) : region;
+
+        if (definition.message != null)
+        {
+            panelSprite = new Sprite(game.atlas.getRegion("UIWideBottomPanel"));
+            panelSprite.setSize(1200f, 240f);
+            message = new CachedText(game.font);
+            message.setColor(Color.BLACK);
+        }
+        else
+        {
+            panelSprite = null;
+            message = null;
+        }
+    }
+
+    public EventDefinition getDefinition()
+    {
+        return definition;
+    }
+
+    @Override
+    public EventType getType() {
+        return definition.type;
+    }
+
+    @Override
+    public boolean IsFinished() {
+        return eventFinished;
+    }
+
+    /**
+     * @return Whether the player has touched the event, now or on an earlier visit.
+     */
+    public boolean isTriggered()
+    {
+        if (triggered) return true;
+        if (entity == -1) return false;
+        // A pickup's entity is destroyed when it fires, and anything else loses its trigger.
+        return !world.isAlive(entity, generation) || !world.has(entity, EntityWorld.TRIGGER);
+    }
+
+    @Override
+    public void startEvent()
+    {
+        if (eventFinished) return;
+        if (definition.sound) AudioManager.getInstance().playEventSound(definition.type);
+    }
+
+    @Override
+    public void endEvent()
+    {
+        if (!eventFinished && isTriggered())
+        {
+            eventFinished = true;
+        }
+    }
+
+    @Override
+    public void addEntities(EntityWorld world)
+    {
+        this.world = world;
+        if (triggered && definition.isConsumed()) return;
+
+        entity = world.create();
+        generation = world.generation(entity);
+        world.setPosition(entity, definition.x, definition.y, definition.width, definition.height);
+        world.setSprite(entity, triggered ? revealedRegion : region, false);
+        if (triggered) return;
+
+        world.addCircleCollider(entity, definition.radius);
+        world.setTrigger(entity, definition.effect, definition.amount, definition.duration, false,
+            definition.isConsumed());
+        world.setTriggerRegion(entity, revealedRegion);
+    }
+
+    @Override
+    public void removeEntities(EntityWorld world)
+    {
+        triggered = isTriggered();
+        if (entity != -1 && world.isAlive(entity, generation)) world.destroy(entity);
+        entity = -1;
+        this.world = null;
+    }
+
+    @Override
+    public void writeState(ByteBuffer out)
+    {
+        out.put((byte) ((isTriggered() ? 1 : 0) | (eventFinished ? 2 : 0)));
+    }
+
+    @Override
+    public void readState(ByteBuffer in)
+    {
+        int flags = in.get();
+        triggered = (flags & 1) != 0;
+        eventFinished = (flags & 2) != 0;
+    }
+
+    @Override
+    public void update(float delta) {}
+
+    /**
+     * The event's sprite is drawn by the {@link SpriteSystem}.
+     */
+    @Override
+    public void draw() {}
+
+    @Override
+    public void drawUI()
+    {
+        if (message == null || eventFinished || !isTriggered()) return;
+
+        float uiWidth = game.uiViewport.getWorldWidth();
+        float panelY = 150f;
+        float panelX = uiWidth / 2f;
+        panelSprite.setCenter(panelX, panelY);
+        panelSprite.draw(game.batch);
+
+        // Laid out on the first frame only.
+        message.setText(definition.message);
+        message.setPosition((uiWidth - message.getWidth()) / 2f, panelY + message.getHeight() / 2f);
+        message.draw(game.batch);
+    }
+}
@@ -0,0 +1,401 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * The things in the world - the player, doors and event pickups - stored as entities with components.
+ *
+ * An entity is just an id. What it is made of is given by the bits of its component mask, and each component's data
+ * is kept in parallel arrays indexed by id rather than in objects, so the systems that work on one component walk a
+ * few flat arrays from start to end:
+ * <ul>
+ * <li>{@link #POSITION} - bounds in world units, and the position before the last update for drawing between
+ * updates.</li>
+ * <li>{@link #SPRITE} - the region drawn over those bounds, either every frame or into the room's static layer, see
+ * {@link SpriteSystem}.</li>
+ * <li>{@link #COLLIDER} - a box or circle in the {@link CollisionWorld}.</li>
+ * <li>{@link #TRIGGER} - the {@link Effect} of the player touching the collider, see {@link TriggerSystem}.</li>
+ * <li>{@link #TIMER_EFFECT} - an effect in force until its time runs out, see {@link TimerEffectSystem}.</li>
+ * <li>{@link #CONTROLLED} - moved by the player's input, see {@link MovementSystem}.</li>
+ * </ul>
+ *
+ * Ids of destroyed entities are handed out again, so anything holding on to an id across frames also keeps its
+ * {@link #generation(int)} and checks it with {@link #isAlive(int, int)}. Arrays only grow, so once they fit the
+ * busiest room, creating and destroying entities allocates nothing.
+ */
+public class EntityWorld implements CollisionWorld.Listener {
+
+    public static final int POSITION = 1;
+    public static final int SPRITE = 1 << 1;
+    public static final int COLLIDER = 1 << 2;
+    public static final int TRIGGER = 1 << 3;
+    public static final int TIMER_EFFECT = 1 << 4;
+    public static final int CONTROLLED = 1 << 5;
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private final CollisionWorld collisions;
+
+    // Systems walk ids up to size, skipping dead ones.
+    int size;
+    private final IntArray freeIds = new IntArray();
+
+    // Per entity, indexed by id.
+    boolean[] alive = new boolean[INITIAL_CAPACITY];
+    int[] generation = new int[INITIAL_CAPACITY];
+    int[] mask = new int[INITIAL_CAPACITY];
+    // Inactive entities are neither drawn nor touched, e.g. doors to rooms that do not exist.
+    boolean[] active = new boolean[INITIAL_CAPACITY];
+
+    // POSITION
+    float[] x = new float[INITIAL_CAPACITY];
+    float[] y = new float[INITIAL_CAPACITY];
+    float[] width = new float[INITIAL_CAPACITY];
+    float[] height = new float[INITIAL_CAPACITY];
+    float[] previousX = new float[INITIAL_CAPACITY];
+    float[] previousY = new float[INITIAL_CAPACITY];
+
+    // SPRITE
+    TextureRegion[] region = new TextureRegion[INITIAL_CAPACITY];
+    boolean[] staticSprite = new boolean[INITIAL_CAPACITY];
+
+    // COLLIDER
+    int[] collider = new int[INITIAL_CAPACITY];
+
+    // TRIGGER
+    Effect[] triggerEffect = new Effect[INITIAL_CAPACITY];
+    float[] triggerAmount = new float[INITIAL_CAPACITY];
+    float[] triggerDuration = new float[INITIAL_CAPACITY];
+    boolean[] triggerRepeats = new boolean[INITIAL_CAPACITY];
+    boolean[] triggerConsumes = new boolean[INITIAL_CAPACITY];
+    TextureRegion[] triggerRegion = new TextureRegion[INITIAL_CAPACITY];
+
+    // TIMER_EFFECT
+    Effect[] timerEffect = new Effect[INITIAL_CAPACITY];
+    float[] timerAmount = new float[INITIAL_CAPACITY];
+    float[] timeLeft = new float[INITIAL_CAPACITY];
+
+    // CONTROLLED
+    float[] speed = new float[INITIAL_CAPACITY];
+    boolean[] movementEnabled = new boolean[INITIAL_CAPACITY];
+
+    // Entity of each collider, indexed by collider id.
+    private int[] colliderEntity = new int[INITIAL_CAPACITY];
+    // Entities the player started touching, as entity and generation pairs, until the TriggerSystem takes them.
+    final IntArray contacts = new IntArray();
+
+    /**
+     * @param collisions The world colliders are added to.
+     */
+    public EntityWorld(CollisionWorld collisions)
+    {
+        this.collisions = collisions;
+    }
+
+    /**
+     * @return The id of a new, active entity with no components.
+     */
+    public int create()
+    {
+        int entity = freeIds.size > 0 ? freeIds.pop() : size++;
+        if (entity >= alive.length) grow(alive.length * 2);
+        alive[entity] = true;
+        active[entity] = true;
+        mask[entity] = 0;
+        return entity;
+    }
+
+    private void grow(int capacity)
+    {
+        alive = Arrays.copyOf(alive, capacity);
+        generation = Arrays.copyOf(generation, capacity);
+        mask = Arrays.copyOf(mask, capacity);
+        active = Arrays.copyOf(active, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        region = Arrays.copyOf(region, capacity);
+        staticSprite = Arrays.copyOf(staticSprite, capacity);
+        collider = Arrays.copyOf(collider, capacity);
+        triggerEffect = Arrays.copyOf(triggerEffect, capacity);
+        triggerAmount = Arrays.copyOf(triggerAmount, capacity);
+        triggerDuration = Arrays.copyOf(triggerDuration, capacity);
+        triggerRepeats = Arrays.copyOf(triggerRepeats, capacity);
+        triggerConsumes = Arrays.copyOf(triggerConsumes, capacity);
+        triggerRegion = Arrays.copyOf(triggerRegion, capacity);
+        timerEffect = Arrays.copyOf(timerEffect, capacity);
+        timerAmount = Arrays.copyOf(timerAmount, capacity);
+        timeLeft = Arrays.copyOf(timeLeft, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        movementEnabled = Arrays.copyOf(movementEnabled, capacity);
+    }
+
+    /**
+     * Destroys an entity, taking its collider out of the collision world. Its id may be handed out again.
+     */
+    public void destroy(int entity)
+    {
+        check(entity);
+        remove(entity, mask[entity]);
+        alive[entity] = false;
+        generation[entity]++;
+        freeIds.add(entity);
+    }
+
+    /**
+     * Destroys every entity that has all of the given components.
+     */
+    public void destroyAll(int components)
+    {
+        for (int entity = 0; entity < size; entity++)
+        {
+            if (alive[entity] && (mask[entity] & components) == components) destroy(entity);
+        }
+    }
+
+    /**
+     * Destroys every entity, e.g. when a new run starts. Ids are handed out from 0 again, so the next run's entities
+     * are drawn in the order they are created.
+     */
+    public void clear()
+    {
+        for (int entity = 0; entity < size; entity++)
+        {
+            if (!alive[entity]) continue;
+            remove(entity, mask[entity]);
+            alive[entity] = false;
+            generation[entity]++;
+        }
+        freeIds.clear();
+        size = 0;
+        contacts.clear();
+    }
+
+    /**
+     * @return A number that changes whenever the entity is destroyed, to tell it apart from a later entity given the
+     *     same id.
+     */
+    public int generation(int entity)
+    {
+        return generation[entity];
+    }
+
+    /**
+     * @param generation The entity's {@link #generation(int)} when it was created.
+     * @return Whether the entity has not been destroyed since.
+     */
+    public boolean isAlive(int entity, int generation)
+    {
+        return entity >= 0 && entity < size && alive[entity] && this.generation[entity] == generation;
+    }
+
+    /**
+     * @param components One or more component bits.
+     * @return Whether the entity has all of them.
+     */
+    public boolean has(int entity, int components)
+    {
+        return (mask[entity] & components) == components;
+    }
+
+    /**
+     * Takes components off an entity. Removing its {@link #COLLIDER} takes it out of the collision world.
+     */
+    public void remove(int entity, int components)
+    {
+        check(entity);
+        int removed = mask[entity] & components;
+        if ((removed & COLLIDER) != 0) collisions.remove(collider[entity]);
+        // So regions of unloaded textures are not kept reachable.
+        if ((removed & SPRITE) != 0) region[entity] = null;
+        if ((removed & TRIGGER) != 0) triggerRegion[entity] = null;
+        mask[entity] &= ~removed;
+    }
+
+    /**
+     * Turns an entity on or off, along with its collider.
+     */
+    public void setActive(int entity, boolean active)
+    {
+        check(entity);
+        this.active[entity] = active;
+        if (has(entity, COLLIDER)) collisions.setActive(collider[entity], active);
+    }
+
+    public boolean isActive(int entity)
+    {
+        return active[entity];
+    }
+
+    /**
+     * Gives an entity a {@link #POSITION}, or moves it there without it being drawn in between.
+     * @param x The x-coord of the bottom left corner.
+     * @param y The y-coord of the bottom left corner.
+     */
+    public void setPosition(int entity, float x, float y, float width, float height)
+    {
+        check(entity);
+        mask[entity] |= POSITION;
+        this.width[entity] = width;
+        this.height[entity] = height;
+        moveTo(entity, x, y);
+    }
+
+    /**
+     * Moves an entity to a new position as a jump, so it is not drawn in between. Its collider is not moved.
+     */
+    public void moveTo(int entity, float x, float y)
+    {
+        this.x[entity] = x;
+        this.y[entity] = y;
+        previousX[entity] = x;
+        previousY[entity] = y;
+    }
+
+    public float getX(int entity)
+    {
+        return x[entity];
+    }
+
+    public float getY(int entity)
+    {
+        return y[entity];
+    }
+
+    public float getWidth(int entity)
+    {
+        return width[entity];
+    }
+
+    public float getHeight(int entity)
+    {
+        return height[entity];
+    }
+
+    /**
+     * Gives an entity a {@link #SPRITE} filling its bounds.
+     * @param isStatic Whether the sprite never moves or changes while the room is shown, so it can be drawn from the
+     *                 room's {@link StaticLayer} rather than every frame.
+     */
+    public void setSprite(int entity, TextureRegion region, boolean isStatic)
+    {
+        check(entity);
+        mask[entity] |= SPRITE;
+        this.region[entity] = region;
+        staticSprite[entity] = isStatic;
+    }
+
+    /**
+     * Gives an entity a box {@link #COLLIDER} over its bounds, so it must have a position. Contacts are only acted on
+     * if it also has a {@link #TRIGGER}.
+     */
+    public void addBoxCollider(int entity)
+    {
+        check(entity);
+        addCollider(entity, collisions.addBox(x[entity], y[entity], width[entity], height[entity], this));
+    }
+
+    /**
+     * Gives an entity a circle {@link #COLLIDER} around the centre of its bounds, touched while the centre of the
+     * player is inside it.
+     */
+    public void addCircleCollider(int entity, float radius)
+    {
+        check(entity);
+        float centreX = x[entity] + width[entity] / 2f;
+        float centreY = y[entity] + height[entity] / 2f;
+        addCollider(entity, collisions.addCircle(centreX, centreY, radius, this));
+    }
+
+    private void addCollider(int entity, int id)
+    {
+        if (has(entity, COLLIDER)) collisions.remove(collider[entity]);
+        mask[entity] |= COLLIDER;
+        collider[entity] = id;
+        if (!active[entity]) collisions.setActive(id, false);
+        if (id >= colliderEntity.length)
+        {
+            colliderEntity = Arrays.copyOf(colliderEntity, Math.max(id + 1, colliderEntity.length * 2));
+        }
+        colliderEntity[id] = entity;
+    }
+
+    /**
+     * Gives an entity a {@link #TRIGGER}, fired when the player starts touching its collider.
+     * @param effect What happens.
+     * @param amount How much, see {@link Effect}.
+     * @param duration Seconds the effect lasts, or 0 if it is permanent or instant.
+     * @param repeats Whether it fires every time the player walks into it, like a door, rather than once.
+     * @param consumes Whether the entity is destroyed once it has fired, like a pickup.
+     */
+    public void setTrigger(int entity, Effect effect, float amount, float duration, boolean repeats, boolean consumes)
+    {
+        check(entity);
+        mask[entity] |= TRIGGER;
+        triggerEffect[entity] = effect;
+        triggerAmount[entity] = amount;
+        triggerDuration[entity] = duration;
+        triggerRepeats[entity] = repeats;
+        triggerConsumes[entity] = consumes;
+        triggerRegion[entity] = null;
+    }
+
+    /**
+     * Sets the region a {@link Effect#REVEAL} trigger swaps the entity's sprite for.
+     */
+    public void setTriggerRegion(int entity, TextureRegion region)
+    {
+        triggerRegion[entity] = region;
+    }
+
+    /**
+     * Gives an entity a {@link #TIMER_EFFECT}, which keeps the effect in force for the given time and then destroys
+     * the entity.
+     */
+    public void setTimerEffect(int entity, Effect effect, float amount, float seconds)
+    {
+        check(entity);
+        mask[entity] |= TIMER_EFFECT;
+        timerEffect[entity] = effect;
+        timerAmount[entity] = amount;
+        timeLeft[entity] = seconds;
+    }
+
+    /**
+     * Makes an entity {@link #CONTROLLED} by the player's input.
+     * @param speed Speed in world units per second.
+     */
+    public void setControlled(int entity, float speed)
+    {
+        check(entity);
+        mask[entity] |= CONTROLLED;
+        this.speed[entity] = speed;
+        movementEnabled[entity] = true;
+    }
+
+    /**
+     * Queues the contact for the {@link TriggerSystem}, which acts on it in the same update.
+     */
+    @Override
+    public void onEnter(int collider)
+    {
+        int entity = colliderEntity[collider];
+        contacts.add(entity);
+        contacts.add(generation[entity]);
+    }
+
+    private void check(int entity)
+    {
+        if (entity < 0 || entity >= size || !alive[entity])
+        {
+            throw new GdxRuntimeException("No entity with id " + entity);
+        }
+    }
+}
@@ -2,13 +2,9 @@ package io.github.team10.escapefromuni;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 
 /**
@@ -16,10 +12,25 @@ import com.badlogic.gdx.utils.viewport.FitViewport;
  * 
  * Similar to the Drop class in https://libgdx.com/wiki/start/simple-game-extended.
  * Loads the initial Screen. Has a SpriteBatch batch, to be used by each screen to render the game.
+ * Assets are loaded asynchronously by {@link GameAssets} behind a {@link LoadingScreen}; the font, atlas and
+ * controllers are only available after {@link #onAssetsLoaded()}.
  */
 public class EscapeGame extends Game {
     public SpriteBatch batch;
-    public BitmapFont font;
+    public UIFont font;
+    public SpriteAtlas atlas;
+    public GameAssets assets;
+    public TextureRegistry textures;
+    /** Player input, sampled into {@link #tickInput} by each game update. Replaced by a scripted source in the
+     * headless simulation. */
+    public InputSource input = new GdxInputSource();
+    /** The input the current game update acts on, sampled from {@link #input} or read from a replay. */
+    public final TickInput tickInput = new TickInput();
+    /** Frame time overlay, toggled with F3 during a game. */
+    public final FrameProfiler profiler = new FrameProfiler();
+
+    /** Run with -Descape.debugTextures=true to log where leaked texture handles were acquired. */
+    private static final boolean DEBUG_TEXTURES = Boolean.getBoolean("escape.debugTextures");
 
     // World rendering
     public FitViewport viewport;
@@ -30,6 +41,10 @@ public class EscapeGame extends Game {
 
     public GameController gameController;
     public UIController uiController;
+    /** Every finished run, and the best ones shown on the main menu and game over screen. */
+    public HighScores highScores;
+    /** Where won runs are sent to be ranked against other machines, or null. See {@link HttpLeaderboard#ADDRESS}. */
+    public Leaderboard leaderboard;
 
     @Override
     public void create() {
@@ -39,48 +54,103 @@ public class EscapeGame extends Game {
         uiCamera = new OrthographicCamera();
         uiViewport = new FitViewport(1920, 1080, uiCamera);
 
-        generateFont();
-        
+        assets = new GameAssets();
+        assets.queueAll();
+        textures = new TextureRegistry(assets.getManager(), assets.getCompressedTextures(), DEBUG_TEXTURES);
+
+        setScreen(new LoadingScreen(this));
+    }
+
+    /**
+     * Called by the {@link LoadingScreen} once every queued asset is loaded.
+     *
+     * Creates the controllers, which need the font and atlas, and opens the main menu.
+     */
+    public void onAssetsLoaded()
+    {
+        font = assets.createFont();
+        // Draws sprites like the default shader, so it stays on the batch for every screen.
+        font.install(batch);
+        font.resize(uiViewport);
+        atlas = new SpriteAtlas(assets.getAtlas());
+
+        try {
+            highScores = new HighScores(Gdx.files.local(HighScores.FILE));
+        } catch (GdxRuntimeException e) {
+            // The log is left alone, and this session's runs are only kept in memory.
+            Gdx.app.error("EscapeGame", e.getMessage());
+            highScores = new HighScores(null);
+        }
+        if (HttpLeaderboard.ADDRESS != null) {
+            try {
+                leaderboard = new HttpLeaderboard(HttpLeaderboard.ADDRESS, Gdx.files.local(HttpLeaderboard.QUEUE_FILE));
+            } catch (GdxRuntimeException e) {
+                // Runs are still kept in the local high scores.
+                Gdx.app.error("EscapeGame", e.getMessage());
+            }
+        }
+
         this.uiController = new UIController(this, null);
         this.gameController = new GameController(this, uiController);
         uiController.setGameController(gameController);
+        gameController.setHighScores(highScores);
+        if (InputRecorder.ENABLED) {
+            gameController.setRecorder(new InputRecorder(Gdx.files.local(InputRecorder.FOLDER)));
+        }
+        try {
+            gameController.setSaveFile(new SnapshotFile(Gdx.files.local(SnapshotFile.QUICK_SAVE)));
+        } catch (GdxRuntimeException e) {
+            // The game can be played without saving.
+            Gdx.app.error("EscapeGame", e.getMessage());
+        }
 
         uiController.showMainMenu();
     }
 
     /**
-     * Will initialise the game's font.
+     * Stops drawing frames until one is asked for. Used by menus, which only change in response to input, so the
+     * game uses next to no CPU or GPU while one sits open. The desktop and Android backends ask for a frame
+     * whenever there is input, which covers clicks, hover changes and slider drags. Anything else that changes a
+     * menu must call {@code Gdx.graphics.requestRendering()}.
+     *
+     * One frame is requested straight away, so a screen that is shown from another screen's frame gets drawn.
      */
-    private void generateFont()
-    {
-        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal("Kenney Mini.ttf"));
-        FreeTypeFontParameter parameter = new FreeTypeFontParameter();
-
-        parameter.size = 48;
-        parameter.color = Color.WHITE;
-
-        parameter.magFilter = Texture.TextureFilter.Nearest;
-        parameter.minFilter = Texture.TextureFilter.Nearest;
+    public void renderOnDemand() {
+        Gdx.graphics.setContinuousRendering(false);
+        Gdx.graphics.requestRendering();
+    }
 
-        font = generator.generateFont(parameter);
-        generator.dispose();
+    /**
+     * Draws a frame every vsync again. Used by screens that animate, i.e. the game itself.
+     */
+    public void renderContinuously() {
+        Gdx.graphics.setContinuousRendering(true);
     }
 
     @Override
     public void resize(int width, int height) {
         viewport.update(width, height, true);
         uiViewport.update(width, height, true);
+        if (font != null) font.resize(uiViewport);
     }
 
     @Override
     public void render() {
 		super.render();
+		AudioManager.getInstance().update();
 	}
 
     @Override
 	public void dispose() {
 		batch.dispose();
-		font.dispose();
+		if (uiController != null) uiController.dispose();
+		if (gameController != null) gameController.dispose();
+		if (leaderboard != null) leaderboard.dispose();
+		// Every screen has released its handles by now, so anything left is a leak.
+		textures.reportLeaks();
+		if (font != null) font.dispose();
+		// Owns the font and atlas.
+		assets.dispose();
         AudioManager.getInstance().dispose();
 	}
 }
@@ -0,0 +1,81 @@
+package io.github.team10.escapefromuni;
+
+/**
+ * Events that are just something in the room to walk into, each played by an {@link EntityEvent}.
+ *
+ * A new event of this kind is a new constant here rather than a new class: a sprite, a trigger radius and the
+ * {@link Effect} of touching it. Pickups disappear once touched; a {@link Effect#REVEAL} stays, showing its revealed
+ * region and, if it has one, its message. Events with their own logic, like the THE3 quiz, are still classes.
+ */
+public enum EventDefinition {
+    // Speeds the player up for the rest of the run.
+    GREGGS("greggs", EventType.POSITIVE, "GreggsSausageRoll", null,
+        6.5f, 3.5f, 3f, 2f, 1f, Effect.SPEED, 2f, 0f, true, null),
+    // Stops the timer for 30 seconds.
+    FREEZE("freeze", EventType.POSITIVE, "GreggsSausageRoll", null,
+        7.5f, 5.5f, 2f, 1f, 1f, Effect.FREEZE, 0f, 30f, false, null),
+    // Only an outline until the player comes close.
+    LONGBOI("longboi", EventType.HIDDEN, "LongboiShadow", "Longboi",
+        8f, 3f, 1f, 2f, 3f, Effect.REVEAL, 0f, 0f, true, "Ghost of Longboi: \"Quack ... Quack\"");
+
+    private static final EventDefinition[] VALUES = values();
+
+    /** Name of the event in map files. */
+    public final String name;
+    public final EventType type;
+    /** Atlas region drawn before the event is triggered. */
+    public final String region;
+    /** Atlas region a {@link Effect#REVEAL} swaps in, or null. */
+    public final String revealedRegion;
+    // Bounds of the sprite in world units.
+    public final float x;
+    public final float y;
+    public final float width;
+    public final float height;
+    /** The event is triggered when the centre of the player comes within this distance of the sprite's centre. */
+    public final float radius;
+    public final Effect effect;
+    public final float amount;
+    /** Seconds the effect lasts, or 0. */
+    public final float duration;
+    /** Whether the event's sound plays when the player enters the room. */
+    public final boolean sound;
+    /** Shown in a panel at the bottom of the screen once the event is triggered, or null. */
+    public final String message;
+
+    EventDefinition(String name, EventType type, String region, String revealedRegion, float x, float y, float width,
+            float height, float radius, Effect effect, float amount, float duration, boolean sound, String message) {
+        this.name = name;
+        this.type = type;
+        this.region = region;
+        this.revealedRegion = revealedRegion;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.radius = radius;
+        this.effect = effect;
+        this.amount = amount;
+        this.duration = duration;
+        this.sound = sound;
+        this.message = message;
+    }
+
+    /**
+     * Whether the event's entity is destroyed once triggered, rather than staying in the room.
+     */
+    public boolean isConsumed() {
+        return effect != Effect.REVEAL;
+    }
+
+    /**
+     * @param name Event name from a map's event column.
+     * @return The event with that name, or null if there is none.
+     */
+    public static EventDefinition forName(String name) {
+        for (EventDefinition definition : VALUES) {
+            if (definition.name.equals(name)) return definition;
+        }
+        return null;
+    }
+}
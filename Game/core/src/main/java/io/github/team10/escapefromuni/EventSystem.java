@@ -2,17 +2,29 @@ package io.github.team10.escapefromuni;
 
 public class EventSystem {
 
+    private final EntityWorld entities;
     private IEvent activeEvent;
 
+    /**
+     * @param entities The world the active event adds its entities to.
+     */
+    public EventSystem(EntityWorld entities){
+        this.entities = entities;
+    }
+
     public void onEnterRoom(Room room){
         activeEvent = room.getEvent();
         if(activeEvent != null){
             activeEvent.startEvent();
+            activeEvent.addEntities(entities);
         }
     }
 
     public void onExitRoom(Room room) {
-        if(activeEvent != null) activeEvent = null;
+        if(activeEvent != null) {
+            activeEvent.removeEntities(entities);
+            activeEvent = null;
+        }
     }
 
     public void update(float delta){
@@ -1,12 +1,10 @@
 package io.github.team10.escapefromuni;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.math.Vector3;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Random;
 
@@ -26,47 +24,72 @@ public class EventTHE3 implements IEvent {
 
     private boolean eventFinished = false;
 
-    private final Texture titlePanelTexture;
-    private final Texture questionPanelTexture;
-    private final Texture trueButtonTexture;
-    private final Texture falseButtonTexture;
+    private final TextureRegion titlePanelTexture;
+    private final TextureRegion questionPanelTexture;
+    private final TextureRegion trueButtonTexture;
+    private final TextureRegion falseButtonTexture;
 
     private final Sprite titlePanelSprite;
     private final Sprite questionPanelSprite;
     private final Sprite trueButtonSprite;
     private final Sprite falseButtonSprite;
 
+    private static final String CORRECT_FEEDBACK = "Correct: Score +500";
+    private static final String INCORRECT_FEEDBACK = "Incorrect: Speed Decrease";
+
     private boolean questionAnswered = false;
+    private boolean answer;
     private float answerDisplayTimer = 0f;
 
     private String questionText;
     private String feedbackText = "";
 
-    private Rectangle trueButtonBounds;
-    private Rectangle falseButtonBounds;
+    private final Rectangle trueButtonBounds = new Rectangle();
+    private final Rectangle falseButtonBounds = new Rectangle();
+
+    private final CachedText titleLabel;
+    private final CachedText questionLabel;
+    private final CachedText trueLabel;
+    private final CachedText falseLabel;
 
-    private HashMap<String, Boolean> questions;
-    private Random questionNumber;
+    private final HashMap<String, Boolean> questions = new HashMap<>();
+    private final Random questionNumber;
 
     /**
      * Creates a new instance of EventTHE3.
+     * @param seed Seed for choosing questions, so a recorded run replays with the same ones.
      */
-    public EventTHE3(Player player, EscapeGame game, ScoreManager scoreManager)
+    public EventTHE3(Player player, EscapeGame game, ScoreManager scoreManager, long seed)
     {
+        this.questionNumber = new Random(seed);
         this.player = player;
         this.game = game;
         this.scoreManager = scoreManager;
         this.type = EventType.NEGATIVE;
 
-        titlePanelTexture = new Texture("UI/Blue4x1Panel.png");
-        questionPanelTexture = new Texture("UI/BlueBorder10x3Panel.png");
-        trueButtonTexture = new Texture("UI/GreenBorder5x2Panel.png");
-        falseButtonTexture = new Texture("UI/OrangeBorder5x2Panel.png");
+        titlePanelTexture = game.atlas.getRegion("UI/Blue4x1Panel");
+        questionPanelTexture = game.atlas.getRegion("UI/BlueBorder10x3Panel");
+        trueButtonTexture = game.atlas.getRegion("UI/GreenBorder5x2Panel");
+        falseButtonTexture = game.atlas.getRegion("UI/OrangeBorder5x2Panel");
 
         titlePanelSprite = new Sprite(titlePanelTexture);
         questionPanelSprite = new Sprite(questionPanelTexture);
         trueButtonSprite = new Sprite(trueButtonTexture);
         falseButtonSprite = new Sprite(falseButtonTexture);
+
+        titleLabel = createLabel();
+        questionLabel = createLabel();
+        trueLabel = createLabel();
+        falseLabel = createLabel();
+
+        initialiseQuestions();
+    }
+
+    private CachedText createLabel()
+    {
+        CachedText label = new CachedText(game.font);
+        label.setColor(Color.BLACK);
+        return label;
     }
 
     @Override
@@ -82,6 +105,9 @@ public class EventTHE3 implements IEvent {
     /**
      * Starts the event by disabling player movement and initialising the quiz UI.
      * Does nothing if the event has already finished previously.
+     *
+     * The player cannot leave until the event ends, so the question is only already answered when a snapshot taken
+     * just after answering it is restored.
      */
     @Override
     public void startEvent() {
@@ -89,7 +115,6 @@ public class EventTHE3 implements IEvent {
 
         player.enableMovement(false);
         AudioManager.getInstance().playEventSound(this.type);
-        questionAnswered = false;
         initialiseQuizUI();
     }
 
@@ -100,10 +125,6 @@ public class EventTHE3 implements IEvent {
      */
     private void initialiseQuizUI()
     {
-        questionNumber = new Random();
-        initialiseQuestions();
-
-        feedbackText = "";
         questionText = "True or False:\nThe self-accepting problem SA \nis semi-decidable.";
 
         float uiWidth = game.uiViewport.getWorldWidth();
@@ -120,12 +141,12 @@ public class EventTHE3 implements IEvent {
         trueButtonSprite.setCenter(uiWidth / 2f - 320f, uiHeight * 0.20f);
         falseButtonSprite.setCenter(uiWidth / 2f + 320f, uiHeight * 0.20f);
 
-        trueButtonBounds = new Rectangle(
+        trueButtonBounds.set(
             trueButtonSprite.getX(), trueButtonSprite.getY(),
             trueButtonSprite.getWidth(), trueButtonSprite.getHeight()
         );
 
-        falseButtonBounds = new Rectangle(
+        falseButtonBounds.set(
             falseButtonSprite.getX(), falseButtonSprite.getY(),
             falseButtonSprite.getWidth(), falseButtonSprite.getHeight()
         );
@@ -139,17 +160,14 @@ public class EventTHE3 implements IEvent {
     
 
     /**
-     * Ends the event, enabling player movement again and disposing of textures.
+     * Ends the event, enabling player movement again.
+     *
+     * The panel textures are regions of the shared atlas, so nothing is disposed here.
     */
     @Override
     public void endEvent() {
         eventFinished = true;
         player.enableMovement(true);
-
-        titlePanelTexture.dispose();
-        questionPanelTexture.dispose();
-        trueButtonTexture.dispose();
-        falseButtonTexture.dispose();
     }
 
     /**
@@ -174,15 +192,14 @@ public class EventTHE3 implements IEvent {
             return;
         }
 
-        if (Gdx.input.justTouched()) {
-            Vector3 touchPos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
-            game.uiCamera.unproject(touchPos);
-
-            if (trueButtonBounds.contains(touchPos.x, touchPos.y)) {
+        // Clicks are already in UI coordinates.
+        TickInput input = game.tickInput;
+        if (input.isTouched()) {
+            if (trueButtonBounds.contains(input.getTouchX(), input.getTouchY())) {
                 // TRUE selected.
                 handleAnswer(true);
             }
-            else if (falseButtonBounds.contains(touchPos.x, touchPos.y)) {
+            else if (falseButtonBounds.contains(input.getTouchX(), input.getTouchY())) {
                 // FALSE selected.
                 handleAnswer(false);
             }
@@ -199,18 +216,39 @@ public class EventTHE3 implements IEvent {
      */
     private void handleAnswer(boolean answer) {
         questionAnswered = true;
+        this.answer = answer;
         answerDisplayTimer = 0f;
 
         if (answer) {
-            feedbackText = "Correct: Score +500";
+            feedbackText = CORRECT_FEEDBACK;
             scoreManager.increaseScore(500);
         }
         else {
-            feedbackText = "Incorrect: Speed Decrease";
+            feedbackText = INCORRECT_FEEDBACK;
             player.increaseSpeed(-2f);
         }
     }
 
+    @Override
+    public void writeState(ByteBuffer out) {
+        out.put((byte) ((eventFinished ? 1 : 0) | (questionAnswered ? 2 : 0) | (answer ? 4 : 0)));
+        out.putFloat(answerDisplayTimer);
+    }
+
+    /**
+     * Restores whether the question was answered and how, without applying the answer again: its score or speed
+     * change is part of the saved score and player.
+     */
+    @Override
+    public void readState(ByteBuffer in) {
+        int flags = in.get();
+        eventFinished = (flags & 1) != 0;
+        questionAnswered = (flags & 2) != 0;
+        answer = (flags & 4) != 0;
+        answerDisplayTimer = in.getFloat();
+        feedbackText = !questionAnswered ? "" : answer ? CORRECT_FEEDBACK : INCORRECT_FEEDBACK;
+    }
+
     private void selectQuestion() {
         // TO DO
     }
@@ -223,9 +261,6 @@ public class EventTHE3 implements IEvent {
     public void drawUI() {
         if (eventFinished) return;
 
-        game.font.setColor(Color.BLACK);
-        GlyphLayout layout = new GlyphLayout();
-
         titlePanelSprite.draw(game.batch);
         questionPanelSprite.draw(game.batch);
         trueButtonSprite.draw(game.batch);
@@ -233,27 +268,25 @@ public class EventTHE3 implements IEvent {
 
         float uiWidth = game.uiViewport.getWorldWidth();
 
-        String titleText = "THE3 Exam";
-        layout.setText(game.font, titleText);
-        float titleX = (uiWidth - layout.width) / 2f;
-        float titleY = titlePanelSprite.getY() + titlePanelSprite.getHeight() / 2f + layout.height / 2f;
-        game.font.draw(game.batch, layout, titleX, titleY);
+        // The labels are only laid out again when their text changes, i.e. once the question is answered.
+        titleLabel.setText("THE3 Exam");
+        titleLabel.setPosition((uiWidth - titleLabel.getWidth()) / 2f, titlePanelSprite.getY() + titlePanelSprite.getHeight() / 2f + titleLabel.getHeight() / 2f);
+        titleLabel.draw(game.batch);
 
         // Draw question or feedback test, depending on whether the question has been answered.
         String displayText = questionAnswered ? feedbackText : questionText;
-        layout.setText(game.font, displayText);
-        float questionX = (uiWidth - layout.width) / 2f;
-        float questionY = questionPanelSprite.getY() + questionPanelSprite.getHeight() / 2f + layout.height / 2f;
-        game.font.draw(game.batch, layout, questionX, questionY);
-
-        layout.setText(game.font, "TRUE");
-        float trueTextX = trueButtonSprite.getX() + (trueButtonSprite.getWidth() - layout.width) / 2f;
-        float trueTextY = trueButtonSprite.getY() + (trueButtonSprite.getHeight() + layout.height) / 2f;
-        game.font.draw(game.batch, layout, trueTextX, trueTextY);
-
-        layout.setText(game.font, "FALSE");
-        float falseTextX = falseButtonSprite.getX() + (falseButtonSprite.getWidth() - layout.width) / 2f;
-        float falseTextY = falseButtonSprite.getY() + (falseButtonSprite.getHeight() + layout.height) / 2f;
-        game.font.draw(game.batch, layout, falseTextX, falseTextY);
+        questionLabel.setText(displayText);
+        questionLabel.setPosition((uiWidth - questionLabel.getWidth()) / 2f, questionPanelSprite.getY() + questionPanelSprite.getHeight() / 2f + questionLabel.getHeight() / 2f);
+        questionLabel.draw(game.batch);
+
+        drawButtonLabel(trueLabel, "TRUE", trueButtonSprite);
+        drawButtonLabel(falseLabel, "FALSE", falseButtonSprite);
+    }
+
+    private void drawButtonLabel(CachedText label, String text, Sprite button)
+    {
+        label.setText(text);
+        label.setPosition(button.getX() + (button.getWidth() - label.getWidth()) / 2f, button.getY() + (button.getHeight() + label.getHeight()) / 2f);
+        label.draw(game.batch);
     }
 }
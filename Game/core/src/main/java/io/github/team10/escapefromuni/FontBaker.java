@@ -0,0 +1,487 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeBitmapFontData;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Bakes FreeType fonts to BMFont .fnt files with PNG pages, so the game can load them without rasterising the TTF
+ * at startup.
+ *
+ * Baked files are named after the font, its size and a key, e.g. {@code fonts/kenney-mini-48-1a2b3c4d.fnt}. The key
+ * is a CRC32 of the TTF and of every generator parameter, so changing either gives a new name and a stale bake is
+ * never used. The {@code bakeFonts} Gradle task runs {@link #main(String[])} before the asset list is generated, and
+ * {@link GameAssets} loads the baked font when it exists, falling back to FreeType otherwise.
+ *
+ * The glyph metrics are written exactly as FreeType produced them, including a {@code metrics} line that libGDX
+ * reads in place of the values it would otherwise estimate from the glyphs, so text lays out the same either way.
+ *
+ * The UI font is also baked as a signed distance field, see {@link #bakeDistanceField}. That is only done here, as
+ * it is far too slow to do at startup.
+ */
+public class FontBaker {
+
+    /** Folder under assets/ that baked fonts are written to. */
+    public static final String FOLDER = "fonts";
+
+    /** Texels the distance field extends past each glyph edge, in the baked atlas. */
+    public static final int DISTANCE_FIELD_SPREAD = 4;
+
+    /** Bumped when the baked format changes, which changes every key. */
+    private static final int FORMAT_VERSION = 1;
+    private static final int PAGE_SIZE = 1024;
+    // Glyphs are rendered this many times larger than the distance field, which is measured on those renders.
+    private static final int DISTANCE_FIELD_UPSCALE = 4;
+    private static final int DISTANCE_FIELD_PAGE_SIZE = 512;
+    private static final int HIGH_RES_PAGE_SIZE = 2048;
+
+    private FontBaker() {}
+
+    /**
+     * @param ttf The font file.
+     * @param parameter The parameters the font is generated with.
+     * @return Path of the baked .fnt, relative to assets/. It only exists if the font has been baked.
+     */
+    public static String bakedPath(FileHandle ttf, FreeTypeFontParameter parameter)
+    {
+        return FOLDER + "/" + baseName(ttf, parameter, false) + "-" + key(ttf, describe(parameter)) + ".fnt";
+    }
+
+    /**
+     * @param ttf The font file.
+     * @param parameter The parameters of the distance field font. Its size is the size of the glyphs in the atlas.
+     * @return Path of the baked distance field .fnt, relative to assets/. It only exists if the font has been baked.
+     */
+    public static String distanceFieldPath(FileHandle ttf, FreeTypeFontParameter parameter)
+    {
+        String key = key(ttf, describeDistanceField(parameter));
+        return FOLDER + "/" + baseName(ttf, parameter, true) + "-" + key + ".fnt";
+    }
+
+    private static String baseName(FileHandle ttf, FreeTypeFontParameter parameter, boolean distanceField)
+    {
+        return ttf.nameWithoutExtension().toLowerCase().replace(' ', '-') + (distanceField ? "-sdf-" : "-")
+            + parameter.size;
+    }
+
+    /**
+     * @return CRC32 of the font file and the description of how it is baked, as eight hex digits.
+     */
+    private static String key(FileHandle ttf, String description)
+    {
+        CRC32 crc = new CRC32();
+        crc.update(ttf.readBytes());
+        crc.update(description.getBytes(StandardCharsets.UTF_8));
+        return String.format("%08x", crc.getValue());
+    }
+
+    /**
+     * Every parameter that changes the generated glyphs or how their pages are sampled.
+     */
+    private static String describe(FreeTypeFontParameter p)
+    {
+        return "v" + FORMAT_VERSION
+            + " size=" + p.size + " mono=" + p.mono + " hinting=" + p.hinting + " color=" + p.color
+            + " gamma=" + p.gamma + " renderCount=" + p.renderCount
+            + " border=" + p.borderWidth + "," + p.borderColor + "," + p.borderStraight + "," + p.borderGamma
+            + " shadow=" + p.shadowOffsetX + "," + p.shadowOffsetY + "," + p.shadowColor
+            + " space=" + p.spaceX + "," + p.spaceY
+            + " pad=" + p.padTop + "," + p.padLeft + "," + p.padBottom + "," + p.padRight
+            + " kerning=" + p.kerning + " flip=" + p.flip + " mipMaps=" + p.genMipMaps
+            + " filter=" + p.minFilter + "," + p.magFilter
+            + " characters=" + p.characters;
+    }
+
+    private static String describeDistanceField(FreeTypeFontParameter p)
+    {
+        return describe(p) + " sdf spread=" + DISTANCE_FIELD_SPREAD + " upscale=" + DISTANCE_FIELD_UPSCALE;
+    }
+
+    /**
+     * Generates a font with FreeType and writes it as a .fnt with its pages beside it.
+     * @param ttf The font file.
+     * @param parameter The generator parameters. Must not be flipped, incremental or have a packer of its own.
+     * @param fnt The .fnt file to write. Pages are named after it.
+     */
+    public static void bake(FileHandle ttf, FreeTypeFontParameter parameter, FileHandle fnt)
+    {
+        if (parameter.flip || parameter.incremental || parameter.packer != null)
+        {
+            throw new GdxRuntimeException("Only plain fonts can be baked: " + ttf.name());
+        }
+
+        // Packing into our own packer keeps the pages as pixmaps, so no GL context is needed.
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 1, false,
+            new PixmapPacker.SkylineStrategy());
+        // The same transparent colour FreeTypeFontGenerator uses for its own packer.
+        packer.setTransparentColor(parameter.borderWidth > 0 ? parameter.borderColor : parameter.color);
+        packer.getTransparentColor().a = 0;
+
+        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(ttf);
+        parameter.packer = packer;
+        try
+        {
+            FreeTypeBitmapFontData data = generator.generateData(parameter);
+            Array<PixmapPacker.Page> pages = packer.getPages();
+            String[] pageNames = new String[pages.size];
+            for (int i = 0; i < pages.size; i++)
+            {
+                pageNames[i] = fnt.nameWithoutExtension() + (pages.size == 1 ? "" : "_" + i) + ".png";
+                PixmapIO.writePNG(fnt.sibling(pageNames[i]), pages.get(i).getPixmap());
+            }
+            fnt.writeString(toFnt(ttf.nameWithoutExtension(), parameter, data, pageNames, PAGE_SIZE), false,
+                "UTF-8");
+        }
+        finally
+        {
+            parameter.packer = null;
+            generator.dispose();
+            packer.dispose();
+        }
+    }
+
+    /**
+     * Generates a font with FreeType and writes it as a signed distance field, with its pages beside it.
+     *
+     * The glyphs are rendered {@link #DISTANCE_FIELD_UPSCALE} times larger than the parameters ask for. Each texel
+     * of the baked glyph then stores the distance from its centre to the nearest edge of the large render, found by
+     * searching the render within the spread: 0.5 on the edge, rising to 1 at {@link #DISTANCE_FIELD_SPREAD} texels
+     * inside and falling to 0 as far outside. The value is kept in the alpha channel, which is what libGDX's
+     * distance field shader reads.
+     *
+     * Every glyph is padded by the spread on each side, and the padding is written to the .fnt so libGDX lays text
+     * out as if it were not there.
+     * @param ttf The font file.
+     * @param parameter The generator parameters, sized for the glyphs in the atlas. The same restrictions apply as
+     *     for {@link #bake}.
+     * @param fnt The .fnt file to write. Pages are named after it.
+     */
+    public static void bakeDistanceField(FileHandle ttf, FreeTypeFontParameter parameter, FileHandle fnt)
+    {
+        if (parameter.flip || parameter.incremental || parameter.packer != null)
+        {
+            throw new GdxRuntimeException("Only plain fonts can be baked: " + ttf.name());
+        }
+
+        int scale = DISTANCE_FIELD_UPSCALE;
+        int size = parameter.size;
+        PixmapPacker highRes = new PixmapPacker(HIGH_RES_PAGE_SIZE, HIGH_RES_PAGE_SIZE, Pixmap.Format.RGBA8888, 1,
+            false, new PixmapPacker.SkylineStrategy());
+        highRes.setTransparentColor(Color.WHITE);
+        highRes.getTransparentColor().a = 0;
+        PixmapPacker packer = new PixmapPacker(DISTANCE_FIELD_PAGE_SIZE, DISTANCE_FIELD_PAGE_SIZE,
+            Pixmap.Format.RGBA8888, 1, false, new PixmapPacker.SkylineStrategy());
+        // Outside every glyph, so linear filtering never picks up a neighbour.
+        packer.setTransparentColor(Color.WHITE);
+        packer.getTransparentColor().a = 0;
+
+        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(ttf);
+        parameter.size = size * scale;
+        parameter.packer = highRes;
+        try
+        {
+            FreeTypeBitmapFontData source = generator.generateData(parameter);
+            BitmapFontData data = new BitmapFontData();
+            data.padTop = data.padRight = data.padBottom = data.padLeft = DISTANCE_FIELD_SPREAD;
+            data.ascent = source.ascent / scale;
+            data.descent = source.descent / scale;
+            data.down = source.down / scale;
+            data.capHeight = source.capHeight / scale;
+            data.lineHeight = source.lineHeight / scale;
+            data.spaceXadvance = source.spaceXadvance / scale;
+            data.xHeight = source.xHeight / scale;
+
+            Array<Glyph> glyphs = glyphsOf(source);
+            Array<Glyph> baked = new Array<>(glyphs.size);
+            for (int i = 0; i < glyphs.size; i++)
+            {
+                Glyph glyph = distanceFieldGlyph(glyphs.get(i), highRes, packer);
+                data.setGlyph(glyph.id, glyph);
+                baked.add(glyph);
+            }
+            for (int i = 0; i < glyphs.size; i++)
+            {
+                for (int j = 0; j < glyphs.size; j++)
+                {
+                    int amount = glyphs.get(i).getKerning((char) glyphs.get(j).id);
+                    if (amount != 0) baked.get(i).setKerning(glyphs.get(j).id, Math.round(amount / (float) scale));
+                }
+            }
+            if (source.missingGlyph != null)
+            {
+                data.missingGlyph = distanceFieldGlyph(source.missingGlyph, highRes, packer);
+            }
+
+            parameter.size = size;
+            Array<PixmapPacker.Page> pages = packer.getPages();
+            String[] pageNames = new String[pages.size];
+            for (int i = 0; i < pages.size; i++)
+            {
+                pageNames[i] = fnt.nameWithoutExtension() + (pages.size == 1 ? "" : "_" + i) + ".png";
+                PixmapIO.writePNG(fnt.sibling(pageNames[i]), pages.get(i).getPixmap());
+            }
+            fnt.writeString(toFnt(ttf.nameWithoutExtension(), parameter, data, pageNames, DISTANCE_FIELD_PAGE_SIZE),
+                false, "UTF-8");
+        }
+        finally
+        {
+            parameter.size = size;
+            parameter.packer = null;
+            generator.dispose();
+            highRes.dispose();
+            packer.dispose();
+        }
+    }
+
+    /**
+     * Turns one glyph of the large render into a distance field glyph, packed into the given packer.
+     *
+     * Positions are worked out in the font's units, y up, as libGDX stores glyph offsets. The baked glyph's box is
+     * the large glyph's box scaled down, rounded outwards to whole texels and grown by the spread.
+     */
+    private static Glyph distanceFieldGlyph(Glyph source, PixmapPacker highRes, PixmapPacker packer)
+    {
+        int scale = DISTANCE_FIELD_UPSCALE;
+        int spread = DISTANCE_FIELD_SPREAD;
+        Glyph glyph = new Glyph();
+        glyph.id = source.id;
+        glyph.xadvance = Math.round(source.xadvance / (float) scale);
+        if (source.width == 0 || source.height == 0)
+        {
+            glyph.xoffset = Math.round(source.xoffset / (float) scale);
+            glyph.yoffset = Math.round(source.yoffset / (float) scale);
+            return glyph;
+        }
+
+        int left = Math.floorDiv(source.xoffset, scale) - spread;
+        int bottom = Math.floorDiv(source.yoffset, scale) - spread;
+        int right = -Math.floorDiv(-(source.xoffset + source.width), scale) + spread;
+        int top = -Math.floorDiv(-(source.yoffset + source.height), scale) + spread;
+        glyph.xoffset = left;
+        glyph.yoffset = bottom;
+        glyph.width = right - left;
+        glyph.height = top - bottom;
+
+        // Which texels of the large render are inside the glyph, row 0 at the top.
+        Pixmap page = highRes.getPages().get(source.page).getPixmap();
+        boolean[] inside = new boolean[source.width * source.height];
+        for (int row = 0; row < source.height; row++)
+        {
+            for (int column = 0; column < source.width; column++)
+            {
+                int alpha = page.getPixel(source.srcX + column, source.srcY + row) & 0xff;
+                inside[row * source.width + column] = alpha >= 128;
+            }
+        }
+
+        Pixmap field = new Pixmap(glyph.width, glyph.height, Pixmap.Format.RGBA8888);
+        field.setBlending(Pixmap.Blending.None);
+        int glyphTop = source.yoffset + source.height;
+        for (int row = 0; row < glyph.height; row++)
+        {
+            for (int column = 0; column < glyph.width; column++)
+            {
+                // The texel's centre in the large render, relative to the top left of its bitmap.
+                float x = (left + column + 0.5f) * scale - source.xoffset;
+                float y = glyphTop - (top - row - 0.5f) * scale;
+                float distance = signedDistance(inside, source.width, source.height, x, y, spread * scale);
+                int value = Math.round(MathUtils.clamp(0.5f + distance / (2f * spread * scale), 0f, 1f) * 255f);
+                field.drawPixel(column, row, 0xffffff00 | value);
+            }
+        }
+
+        String name = Integer.toString(source.id);
+        Rectangle rect = packer.pack(name, field);
+        field.dispose();
+        glyph.srcX = (int) rect.x;
+        glyph.srcY = (int) rect.y;
+        glyph.page = packer.getPageIndex(name);
+        return glyph;
+    }
+
+    /**
+     * Distance from a point to the nearest glyph edge in a bitmap, positive inside the glyph and negative outside.
+     * Everything beyond the bitmap is outside.
+     * @param x Across from the bitmap's left edge.
+     * @param y Down from the bitmap's top edge.
+     * @param range How far to search. Distances are clamped to it.
+     */
+    private static float signedDistance(boolean[] inside, int width, int height, float x, float y, int range)
+    {
+        int column = MathUtils.floor(x);
+        int row = MathUtils.floor(y);
+        boolean in = column >= 0 && column < width && row >= 0 && row < height && inside[row * width + column];
+
+        // The nearest texel of the other kind. The edge is half a texel nearer than its centre.
+        float nearest = range * range;
+        int fromRow = Math.max(row - range, -1);
+        int toRow = Math.min(row + range, height);
+        int fromColumn = Math.max(column - range, -1);
+        int toColumn = Math.min(column + range, width);
+        for (int r = fromRow; r <= toRow; r++)
+        {
+            float dy = r + 0.5f - y;
+            for (int c = fromColumn; c <= toColumn; c++)
+            {
+                boolean texelIn = c >= 0 && c < width && r >= 0 && r < height && inside[r * width + c];
+                if (texelIn == in) continue;
+                float dx = c + 0.5f - x;
+                nearest = Math.min(nearest, dx * dx + dy * dy);
+            }
+        }
+        float distance = Math.min((float) Math.sqrt(nearest) - 0.5f, range);
+        return in ? distance : -distance;
+    }
+
+    private static String toFnt(String face, FreeTypeFontParameter parameter, BitmapFontData data,
+        String[] pageNames, int pageSize)
+    {
+        StringBuilder fnt = new StringBuilder(16 * 1024);
+        fnt.append("info face=\"").append(face).append("\" size=").append(parameter.size)
+            .append(" bold=0 italic=0 charset=\"\" unicode=1 stretchH=100 smooth=1 aa=1 padding=")
+            .append((int) data.padTop).append(',').append((int) data.padRight).append(',')
+            .append((int) data.padBottom).append(',').append((int) data.padLeft)
+            .append(" spacing=").append(parameter.spaceX).append(',').append(parameter.spaceY).append('\n');
+        fnt.append("common lineHeight=").append(Math.round(data.lineHeight))
+            .append(" base=").append(Math.round(data.ascent + data.capHeight))
+            .append(" scaleW=").append(pageSize).append(" scaleH=").append(pageSize)
+            .append(" pages=").append(pageNames.length).append(" packed=0\n");
+        for (int i = 0; i < pageNames.length; i++)
+        {
+            fnt.append("page id=").append(i).append(" file=\"").append(pageNames[i]).append("\"\n");
+        }
+
+        Array<Glyph> glyphs = glyphsOf(data);
+        if (data.missingGlyph != null && data.missingGlyph.id != 0)
+        {
+            throw new GdxRuntimeException("Missing glyph must be character 0");
+        }
+
+        fnt.append("chars count=").append(glyphs.size + (data.missingGlyph != null ? 1 : 0)).append('\n');
+        if (data.missingGlyph != null) appendGlyph(fnt, data.missingGlyph);
+        for (Glyph glyph : glyphs) appendGlyph(fnt, glyph);
+
+        StringBuilder kernings = new StringBuilder();
+        int kerningCount = 0;
+        for (int i = 0; i < glyphs.size; i++)
+        {
+            Glyph first = glyphs.get(i);
+            for (int j = 0; j < glyphs.size; j++)
+            {
+                Glyph second = glyphs.get(j);
+                int amount = first.getKerning((char) second.id);
+                if (amount == 0) continue;
+                kernings.append("kerning first=").append(first.id).append(" second=").append(second.id)
+                    .append(" amount=").append(amount).append('\n');
+                kerningCount++;
+            }
+        }
+        // Always written, as libGDX skips the line after the glyphs whatever it is.
+        fnt.append("kernings count=").append(kerningCount).append('\n').append(kernings);
+
+        fnt.append("metrics ascent=").append(data.ascent).append(" descent=").append(data.descent)
+            .append(" down=").append(data.down).append(" capHeight=").append(data.capHeight)
+            .append(" lineHeight=").append(data.lineHeight).append(" spaceXAdvance=").append(data.spaceXadvance)
+            .append(" xHeight=").append(data.xHeight).append('\n');
+        return fnt.toString();
+    }
+
+    /**
+     * @return Every glyph of the font except the missing glyph, in character order.
+     */
+    private static Array<Glyph> glyphsOf(BitmapFontData data)
+    {
+        Array<Glyph> glyphs = new Array<>();
+        for (Glyph[] page : data.glyphs)
+        {
+            if (page == null) continue;
+            for (Glyph glyph : page)
+            {
+                if (glyph != null && glyph.id != 0) glyphs.add(glyph);
+            }
+        }
+        return glyphs;
+    }
+
+    private static void appendGlyph(StringBuilder fnt, Glyph glyph)
+    {
+        // libGDX stores y offsets from the top of the line; the file measures them down to the glyph's top.
+        fnt.append("char id=").append(glyph.id).append(" x=").append(glyph.srcX).append(" y=").append(glyph.srcY)
+            .append(" width=").append(glyph.width).append(" height=").append(glyph.height)
+            .append(" xoffset=").append(glyph.xoffset).append(" yoffset=").append(-(glyph.height + glyph.yoffset))
+            .append(" xadvance=").append(glyph.xadvance).append(" page=").append(glyph.page).append(" chnl=0\n");
+    }
+
+    /**
+     * Bakes the game's fonts, the bitmap font and the distance field font, into the fonts folder of the assets
+     * folder given on the command line, and deletes older bakes of them. Used by the bakeFonts Gradle task, so it
+     * only uses java.io rather than Gdx.files.
+     */
+    public static void main(String[] args)
+    {
+        GdxNativesLoader.load();
+        File assets = new File(args.length > 0 ? args[0] : ".");
+        File folder = new File(assets, FOLDER);
+        folder.mkdirs();
+
+        FileHandle ttf = new FileHandle(new File(assets, GameAssets.FONT_FILE));
+        FreeTypeFontParameter parameter = GameAssets.fontParameter();
+        FileHandle fnt = new FileHandle(new File(assets, bakedPath(ttf, parameter)));
+        deleteStale(folder, baseName(ttf, parameter, false), fnt);
+        if (fnt.exists())
+        {
+            System.out.println(fnt.name() + " is up to date");
+        }
+        else
+        {
+            bake(ttf, parameter, fnt);
+            System.out.println("Baked " + ttf.name() + " to " + fnt.name());
+        }
+
+        FreeTypeFontParameter distanceField = GameAssets.distanceFieldParameter();
+        FileHandle sdf = new FileHandle(new File(assets, distanceFieldPath(ttf, distanceField)));
+        deleteStale(folder, baseName(ttf, distanceField, true), sdf);
+        if (sdf.exists())
+        {
+            System.out.println(sdf.name() + " is up to date");
+        }
+        else
+        {
+            bakeDistanceField(ttf, distanceField, sdf);
+            System.out.println("Baked " + ttf.name() + " to " + sdf.name());
+        }
+    }
+
+    /**
+     * Deletes every file of an earlier bake of a font, i.e. named after the font but with a different key.
+     */
+    private static void deleteStale(File folder, String baseName, FileHandle current)
+    {
+        File[] existing = folder.listFiles();
+        if (existing == null) return;
+        String prefix = baseName + "-";
+        for (File file : existing)
+        {
+            if (file.getName().startsWith(prefix) && !file.getName().startsWith(current.nameWithoutExtension()))
+            {
+                file.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures where frame time goes and draws the results as an overlay. Toggled with F3 in the {@link GameScreen}.
+ *
+ * Code under test is wrapped in {@link #begin(int)} and {@link #end(int)} with one of the section constants, and
+ * {@link #endFrame(float)} is called once per frame. Times of the last {@link #CAPACITY} frames are kept in
+ * preallocated ring buffers, and the overlay text is rebuilt in place and drawn from a {@link CachedText}, so
+ * profiling allocates nothing per frame.
+ * While disabled, begin and end return straight away.
+ */
+public class FrameProfiler {
+
+    public static final int PLAYER = 0;
+    public static final int COLLISIONS = 1;
+    public static final int ROOMS = 2;
+    public static final int EVENTS = 3;
+    public static final int TIMER = 4;
+    public static final int DRAW_WORLD = 5;
+    public static final int DRAW_UI = 6;
+    private static final int SECTION_COUNT = 7;
+    private static final String[] SECTION_NAMES = { "player", "collide", "rooms", "events", "timer", "world", "ui" };
+
+    /** Number of frames kept for percentiles and averages. */
+    public static final int CAPACITY = 300;
+    /** Seconds between refreshes of the overlay text, so it stays readable. */
+    private static final float REFRESH_INTERVAL = 0.5f;
+    private static final float TEXT_SIZE = UIFont.DEFAULT_SIZE / 2f;
+
+    private boolean enabled;
+    private GLProfiler glProfiler;
+    private List<GarbageCollectorMXBean> collectors;
+
+    // Ring buffers, indexed by frame.
+    private final float[] frameMillis = new float[CAPACITY];
+    private final long[][] sectionNanos = new long[SECTION_COUNT][CAPACITY];
+    private int next;
+    private int size;
+
+    // Section totals for the current frame. The game may update several times per frame.
+    private final long[] started = new long[SECTION_COUNT];
+    private final long[] current = new long[SECTION_COUNT];
+
+    private int drawCalls;
+    private int textureBindings;
+    private int shaderSwitches;
+
+    private final float[] sorted = new float[CAPACITY];
+    private final StringBuilder text = new StringBuilder(512);
+    private CachedText label;
+    private float sinceRefresh = REFRESH_INTERVAL;
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Turns profiling and the overlay on or off. Also turns on libGDX's {@link GLProfiler}, which slows every GL call
+     * a little.
+     */
+    public void setEnabled(boolean enabled)
+    {
+        if (enabled == this.enabled) return;
+        this.enabled = enabled;
+
+        if (glProfiler == null) glProfiler = new GLProfiler(Gdx.graphics);
+        if (collectors == null) collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        if (enabled)
+        {
+            glProfiler.reset();
+            glProfiler.enable();
+            next = 0;
+            size = 0;
+            Arrays.fill(current, 0L);
+            sinceRefresh = REFRESH_INTERVAL;
+        }
+        else
+        {
+            glProfiler.disable();
+        }
+    }
+
+    public void toggle()
+    {
+        setEnabled(!enabled);
+    }
+
+    /**
+     * Starts timing a section.
+     * @param section One of the section constants, e.g. {@link #PLAYER}.
+     */
+    public void begin(int section)
+    {
+        if (!enabled) return;
+        started[section] = TimeUtils.nanoTime();
+    }
+
+    /**
+     * Stops timing a section, adding the time to the current frame.
+     * @param section The section passed to {@link #begin(int)}.
+     */
+    public void end(int section)
+    {
+        if (!enabled) return;
+        current[section] += TimeUtils.nanoTime() - started[section];
+    }
+
+    /**
+     * Records the current frame and reads the GL counters.
+     * @param delta The frame time in seconds.
+     */
+    public void endFrame(float delta)
+    {
+        if (!enabled) return;
+
+        frameMillis[next] = delta * 1000f;
+        for (int s = 0; s < SECTION_COUNT; s++)
+        {
+            sectionNanos[s][next] = current[s];
+            current[s] = 0L;
+        }
+        next = (next + 1) % CAPACITY;
+        if (size < CAPACITY) size++;
+
+        drawCalls = glProfiler.getDrawCalls();
+        textureBindings = glProfiler.getTextureBindings();
+        shaderSwitches = glProfiler.getShaderSwitches();
+        glProfiler.reset();
+
+        sinceRefresh += delta;
+    }
+
+    /**
+     * Draws the overlay in UI coordinates. The batch must already be started.
+     * @param x The x-coord of the top left corner.
+     * @param y The y-coord of the top left corner.
+     */
+    public void draw(Batch batch, UIFont font, float x, float y)
+    {
+        if (!enabled || size == 0) return;
+
+        if (label == null)
+        {
+            label = new CachedText(font, TEXT_SIZE);
+            label.setColor(Color.YELLOW);
+        }
+        if (sinceRefresh >= REFRESH_INTERVAL)
+        {
+            sinceRefresh = 0f;
+            rebuildText();
+            // Between refreshes the cached text is drawn as it is.
+            label.setText(text);
+        }
+
+        label.setPosition(x, y);
+        label.draw(batch);
+    }
+
+    private void rebuildText()
+    {
+        System.arraycopy(frameMillis, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+
+        text.setLength(0);
+        text.append("FPS ").append(Gdx.graphics.getFramesPerSecond());
+        text.append("   frame ms  p50 ");
+        appendHundredths(percentile(0.50f));
+        text.append("  p95 ");
+        appendHundredths(percentile(0.95f));
+        text.append("  p99 ");
+        appendHundredths(percentile(0.99f));
+        text.append("  max ");
+        appendHundredths(sorted[size - 1]);
+        text.append('\n');
+
+        long collections = 0;
+        long collectionMillis = 0;
+        for (int i = 0; i < collectors.size(); i++)
+        {
+            GarbageCollectorMXBean collector = collectors.get(i);
+            collections += Math.max(0L, collector.getCollectionCount());
+            collectionMillis += Math.max(0L, collector.getCollectionTime());
+        }
+        text.append("GC ").append(collections).append(" collections, ").append(collectionMillis).append(" ms\n");
+
+        text.append("update us ");
+        appendSections(PLAYER, TIMER);
+        text.append('\n');
+        text.append("draw us   ");
+        appendSections(DRAW_WORLD, DRAW_UI);
+        text.append('\n');
+
+        text.append("GL  draw calls ").append(drawCalls);
+        text.append("  texture binds ").append(textureBindings);
+        text.append("  shader switches ").append(shaderSwitches);
+    }
+
+    private float percentile(float p)
+    {
+        int index = Math.min(size - 1, (int) (p * size));
+        return sorted[index];
+    }
+
+    /**
+     * Appends the mean time of each section from first to last inclusive, in microseconds.
+     */
+    private void appendSections(int first, int last)
+    {
+        for (int s = first; s <= last; s++)
+        {
+            long total = 0;
+            long[] nanos = sectionNanos[s];
+            for (int i = 0; i < size; i++) total += nanos[i];
+            text.append(' ').append(SECTION_NAMES[s]).append(' ');
+            appendHundredths(total / (size * 1000f));
+        }
+    }
+
+    /**
+     * Appends a number with two decimal places, without going through a String.
+     */
+    private void appendHundredths(float value)
+    {
+        int hundredths = Math.round(value * 100f);
+        text.append(hundredths / 100).append('.');
+        int fraction = hundredths % 100;
+        if (fraction < 10) text.append('0');
+        text.append(fraction);
+    }
+}
@@ -0,0 +1,229 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.BitmapFontLoader.BitmapFontParameter;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGeneratorLoader;
+import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
+import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader.FreeTypeFontLoaderParameter;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * Central asset loader, backed by a libGDX {@link AssetManager}.
+ *
+ * Queues every texture listed in the generated assets.txt, the sprite atlas and the UI font. The
+ * {@link AssetManager} decodes files on its own background thread; {@link #update()} is called once per frame by
+ * the {@link LoadingScreen} and only spends {@link #FRAME_BUDGET_MILLIS} on the render thread uploading to the GPU.
+ *
+ * All loaded assets are owned by this class. Textures are shared through the {@link TextureRegistry}, and
+ * preloaded textures keep a reference here so they stay resident for the whole session.
+ */
+public class GameAssets implements Disposable {
+
+    /** Generated by the generateAssetList Gradle task. */
+    public static final String ASSET_LIST = "assets.txt";
+    /** Key of the UI font when it is generated at startup. The .ttf suffix routes it to the FreeType loader. */
+    public static final String FONT = "ui-font-48.ttf";
+    public static final String FONT_FILE = "Kenney Mini.ttf";
+
+    /** Milliseconds of render thread time the loader may use each frame. */
+    public static final int FRAME_BUDGET_MILLIS = 8;
+
+    /** Run with -Descape.bitmapFont=true to draw text with the bitmap font even if a distance field is baked. */
+    private static final boolean BITMAP_FONT = Boolean.getBoolean("escape.bitmapFont");
+
+    private final FileHandleResolver resolver;
+    private final AssetManager manager;
+    private final CompressedTextures compressedTextures;
+    // The baked .fnt, or FONT if the font is generated at startup.
+    private String fontPath;
+    private int fontSize;
+    // 0 unless the font is a distance field.
+    private int fontSpread;
+
+    public GameAssets()
+    {
+        resolver = new InternalFileHandleResolver();
+        manager = new AssetManager(resolver);
+        compressedTextures = new CompressedTextures(resolver);
+    }
+
+    /**
+     * The parameters the UI font is generated with, both by the {@link FontBaker} and at startup.
+     */
+    public static FreeTypeFontParameter fontParameter()
+    {
+        FreeTypeFontParameter parameter = new FreeTypeFontParameter();
+        parameter.size = 48;
+        parameter.color = Color.WHITE;
+        parameter.magFilter = Texture.TextureFilter.Nearest;
+        parameter.minFilter = Texture.TextureFilter.Nearest;
+        return parameter;
+    }
+
+    /**
+     * The parameters of the distance field font baked by the {@link FontBaker}. It is scaled to every size the UI
+     * uses, so it is filtered linearly.
+     */
+    public static FreeTypeFontParameter distanceFieldParameter()
+    {
+        FreeTypeFontParameter parameter = new FreeTypeFontParameter();
+        parameter.size = 32;
+        parameter.color = Color.WHITE;
+        parameter.magFilter = Texture.TextureFilter.Linear;
+        parameter.minFilter = Texture.TextureFilter.Linear;
+        return parameter;
+    }
+
+    /**
+     * Queues the atlas, the UI font and every texture listed in {@link #ASSET_LIST}.
+     *
+     * Atlas and font pages are skipped as they are loaded as dependencies of the atlas and font. Textures with
+     * compressed versions are loaded from whichever file the {@link CompressedTextures} picks. Audio stays with the
+     * {@link AudioManager}, and files libGDX cannot decode (e.g. .webp) are ignored.
+     */
+    public void queueAll()
+    {
+        ObjectSet<String> queued = new ObjectSet<>();
+
+        manager.load(SpriteAtlas.ATLAS_PATH, TextureAtlas.class);
+        queued.add(SpriteAtlas.ATLAS_PATH);
+        queueFont();
+
+        FileHandle list = Gdx.files.internal(ASSET_LIST);
+        if (!list.exists())
+        {
+            // Running without the Gradle build, the TextureRegistry loads textures on first use instead.
+            Gdx.app.error("GameAssets", ASSET_LIST + " not found, textures will load on demand");
+            return;
+        }
+
+        for (String line : list.readString("UTF-8").split("\n"))
+        {
+            String path = line.trim();
+            if (path.isEmpty() || path.startsWith("atlas/") || queued.contains(path)) continue;
+            // Font pages are loaded with the font, using its filters.
+            if (path.startsWith(FontBaker.FOLDER + "/")) continue;
+            // Room backgrounds outside the atlas are streamed by the RoomTextureCache.
+            if (path.startsWith(RoomTextureCache.STREAMED_FOLDER)) continue;
+            // Loaded in place of their PNGs.
+            if (path.startsWith(TextureCompressor.FOLDER + "/")) continue;
+
+            if (isTexture(path))
+            {
+                compressedTextures.load(manager, path);
+                queued.add(path);
+            }
+        }
+    }
+
+    /**
+     * Queues the distance field font baked by the bakeFonts Gradle task. Failing that, queues the baked bitmap font,
+     * or generates it with FreeType if there is no bake for the current font file and parameters.
+     */
+    private void queueFont()
+    {
+        FileHandle ttf = resolver.resolve(FONT_FILE);
+        FreeTypeFontParameter distanceField = distanceFieldParameter();
+        String bakedDistanceField = FontBaker.distanceFieldPath(ttf, distanceField);
+        if (!BITMAP_FONT && resolver.resolve(bakedDistanceField).exists())
+        {
+            queueBakedFont(bakedDistanceField, distanceField);
+            fontSpread = FontBaker.DISTANCE_FIELD_SPREAD;
+            return;
+        }
+
+        FreeTypeFontParameter parameter = fontParameter();
+        String baked = FontBaker.bakedPath(ttf, parameter);
+        if (resolver.resolve(baked).exists())
+        {
+            queueBakedFont(baked, parameter);
+            return;
+        }
+
+        // The only place FreeType, and so its natives, are used at runtime.
+        Gdx.app.error("GameAssets", baked + " not found, generating the font at startup");
+        manager.setLoader(FreeTypeFontGenerator.class, new FreeTypeFontGeneratorLoader(resolver));
+        manager.setLoader(BitmapFont.class, ".ttf", new FreetypeFontLoader(resolver));
+
+        FreeTypeFontLoaderParameter loaderParameter = new FreeTypeFontLoaderParameter();
+        loaderParameter.fontFileName = FONT_FILE;
+        loaderParameter.fontParameters = parameter;
+        fontPath = FONT;
+        fontSize = parameter.size;
+        manager.load(FONT, BitmapFont.class, loaderParameter);
+    }
+
+    private void queueBakedFont(String path, FreeTypeFontParameter parameter)
+    {
+        BitmapFontParameter bakedParameter = new BitmapFontParameter();
+        bakedParameter.minFilter = parameter.minFilter;
+        bakedParameter.magFilter = parameter.magFilter;
+        fontPath = path;
+        fontSize = parameter.size;
+        manager.load(path, BitmapFont.class, bakedParameter);
+    }
+
+    private static boolean isTexture(String path)
+    {
+        String lower = path.toLowerCase();
+        return lower.endsWith(".png") || lower.endsWith(".jpg") || lower.endsWith(".jpeg");
+    }
+
+    /**
+     * Continues loading for at most {@link #FRAME_BUDGET_MILLIS}.
+     * @return true once every queued asset has been loaded.
+     */
+    public boolean update()
+    {
+        return manager.update(FRAME_BUDGET_MILLIS);
+    }
+
+    /**
+     * @return Loading progress between 0 and 1.
+     */
+    public float getProgress()
+    {
+        return manager.getProgress();
+    }
+
+    /**
+     * @return The loaded font, wrapped to be drawn at any size. The caller owns and disposes the wrapper; the font
+     *     itself stays owned by this class.
+     */
+    public UIFont createFont()
+    {
+        return new UIFont(manager.get(fontPath, BitmapFont.class), fontSize, fontSpread);
+    }
+
+    public TextureAtlas getAtlas()
+    {
+        return manager.get(SpriteAtlas.ATLAS_PATH, TextureAtlas.class);
+    }
+
+    public AssetManager getManager()
+    {
+        return manager;
+    }
+
+    public CompressedTextures getCompressedTextures()
+    {
+        return compressedTextures;
+    }
+
+    @Override
+    public void dispose()
+    {
+        manager.dispose();
+    }
+}
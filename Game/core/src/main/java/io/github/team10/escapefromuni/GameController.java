@@ -1,84 +1,446 @@
 package io.github.team10.escapefromuni;
 
-public class GameController {
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+public class GameController implements Disposable, GameOverListener {
+    /** Seconds before the run is lost. */
+    public static final float TIME_LIMIT = 300f;
+    // Background, four doors and four indicators.
+    private static final int ROOM_LAYER_SIZE = 9;
+    // The player is one unit square.
+    private static final float COLLISION_CELL_SIZE = 1f;
+    /** Run with -Descape.runSeed=N to give every run the same seed. */
+    private static final Long RUN_SEED = Long.getLong("escape.runSeed");
+
     private final EscapeGame game;
-    private final UIController uiController;
+    private final GameOverListener gameOverListener;
 
     private Player player;
     private PlayerController playerController;
     private final ScoreManager scoreManager;
     private final Timer timer;
 
+    private final CollisionWorld collisions;
+    private final EntityWorld entities;
+    private final MovementSystem movement;
+    private final TriggerSystem triggers;
+    private final TimerEffectSystem timerEffects;
+    private final SpriteSystem sprites;
     private final EventSystem eventSystem;
     private RoomFlowManager roomFlow;
     private DoorController doorController;
+    // Kept across resets so streamed room textures stay resident.
+    private final RoomTextureCache roomTextures;
+
+    private final CounterText timerText;
+
+    // Seeds the run's randomness, so with the same input the run plays out the same.
+    private long runSeed;
+    // Updates since the run started.
+    private int ticks;
+    private InputRecorder recorder;
+    // Input comes from here instead of game.input while a recording is replayed.
+    private InputReplay replay;
+    private boolean pausePending;
+
+    // Whether a run has started and not ended. Only a run in progress is saved.
+    private boolean runInProgress;
+    // Whether the run has been won or lost. It can only end once, even if it is won on its last tick.
+    private boolean gameOver;
+    // The state of the run at its first update, which it is restarted from.
+    private final GameSnapshot startCheckpoint = new GameSnapshot();
+    private final GameSnapshot quickSave = new GameSnapshot();
+    private SnapshotFile saveFile;
+    private HighScores highScores;
+    // The room the player was in at the last quick save.
+    private Room savedRoom;
 
-    public GameController(EscapeGame game, UIController uiController){
+    // The current room's background and doors, and what they were built for.
+    private final StaticLayer roomLayer = new StaticLayer(ROOM_LAYER_SIZE);
+    private Room layerRoom;
+    private TextureRegion layerBackground;
+
+    /**
+     * @param game The game, whose atlas and viewports must already be set up.
+     * @param gameOverListener Told when a run is won or lost - the {@link UIController} in the game.
+     */
+    public GameController(EscapeGame game, GameOverListener gameOverListener){
 
         this.game = game;
-        this.uiController = uiController;
+        this.gameOverListener = gameOverListener;
         this.timer = new Timer(); 
         this.scoreManager = new ScoreManager();
-        this.player = new Player(3f, 1f, 1f, game);
+        this.collisions = new CollisionWorld(game.viewport.getWorldWidth(), game.viewport.getWorldHeight(),
+            COLLISION_CELL_SIZE);
+        this.entities = new EntityWorld(collisions);
+        this.movement = new MovementSystem(game, entities);
+        this.triggers = new TriggerSystem(this, entities, collisions);
+        this.timerEffects = new TimerEffectSystem(this, entities, timer);
+        this.sprites = new SpriteSystem(entities);
+        this.player = new Player(3f, 1f, 1f, game, entities);
 
         this.playerController = new PlayerController(game, player);
-        this.eventSystem = new EventSystem();
-        this.roomFlow = new RoomFlowManager(game, this.uiController, playerController, null, eventSystem, scoreManager, timer);
-        this.doorController = new DoorController(game, playerController, roomFlow);
+        this.eventSystem = new EventSystem(entities);
+        this.timerText = new CounterText(game.font, "Time: ", "s");
+        this.roomTextures = new RoomTextureCache(game.atlas, game.assets.getManager(),
+            game.assets.getCompressedTextures(), RoomTextureCache.BUDGET);
+        this.runSeed = nextRunSeed();
+        this.roomFlow = new RoomFlowManager(game, this, playerController, null, eventSystem, scoreManager, timer,
+            roomTextures, runSeed);
+        this.doorController = new DoorController(game, playerController, roomFlow, entities);
         this.roomFlow.setDoorController(doorController);
         
         roomFlow.initialiseMap();
+        saveSnapshot(startCheckpoint);
+    }
+
+    private static long nextRunSeed() {
+        return RUN_SEED != null ? RUN_SEED : MathUtils.random.nextLong();
     }
 
+    /**
+     * Steps the game: reads the update's input, then runs the entity systems, room streaming, events with their own
+     * logic and the timer, in that order.
+     * @param delta The time in seconds since the last update.
+     */
     public void update(float delta){
-        playerController.update(delta);
-        doorController.update();
+        FrameProfiler profiler = game.profiler;
+        profiler.begin(FrameProfiler.PLAYER);
+        readInput();
+        movement.update(delta);
+        profiler.end(FrameProfiler.PLAYER);
+
+        // Doors and event pickups fire their triggers when the player walks into them.
+        profiler.begin(FrameProfiler.COLLISIONS);
+        triggers.update();
+        profiler.end(FrameProfiler.COLLISIONS);
+
+        profiler.begin(FrameProfiler.ROOMS);
+        roomFlow.update();
+        profiler.end(FrameProfiler.ROOMS);
+
+        profiler.begin(FrameProfiler.EVENTS);
         eventSystem.update(delta);
+        profiler.end(FrameProfiler.EVENTS);
+
+        profiler.begin(FrameProfiler.TIMER);
+        timerEffects.update(delta);
         timer.update(delta);
+        profiler.end(FrameProfiler.TIMER);
+
+        // A checkpoint for crash recovery every time the room changes.
+        if (roomFlow.getCurrentRoom() != savedRoom) quickSave();
+    }
+
+    /**
+     * Reads the input of this update into the game's {@link TickInput}, from the replay if there is one, and
+     * records it.
+     */
+    private void readInput() {
+        TickInput input = game.tickInput;
+        if (replay != null) {
+            replay.next(input);
+            // A click made while watching is dropped, rather than kept for the first live update after the replay.
+            game.input.justTouched();
+        } else {
+            input.sample(game.input, game.uiViewport);
+        }
+        if (pausePending) {
+            pausePending = false;
+            input.set(input.getButtons() | TickInput.PAUSE, input.getTouchX(), input.getTouchY());
+        }
+        if (recorder != null) recorder.record(input);
+        ticks++;
+    }
+
+    /**
+     * Ends the run as a loss once the time limit is reached.
+     */
+    public void checkLose() {
+        if (!gameOver && timer.hasReached(TIME_LIMIT)) {
+            GameplayStateManager.triggerLose(game, this, timer, scoreManager);
+        }
+    }
+
+    /**
+     * Finishes the run's recording, then passes the result on to the game over listener. Only the first call in a run
+     * does anything.
+     */
+    @Override
+    public void onGameOver(boolean win, Timer timer, ScoreManager scores) {
+        if (gameOver) return;
+        gameOver = true;
+        if (recorder != null) recorder.finish(win ? InputRecorder.WIN : InputRecorder.LOSE, this);
+        if (highScores != null) {
+            highScores.add(win, scores.CalculateFinalScore(timer.getTimeLeftSeconds()), timer.getTime(), runSeed,
+                RoomFlowManager.getMapId(), TimeUtils.millis());
+        }
+        // A finished run is not carried on.
+        runInProgress = false;
+        discardQuickSave();
+        gameOverListener.onGameOver(win, timer, scores);
+    }
+
+    /**
+     * Records every run from the next one on. Runs are not recorded while a recording is replayed.
+     * @param recorder The recorder, or null to stop recording.
+     */
+    public void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Adds every finished run to the high scores from now on.
+     * @param highScores The high scores, or null to stop adding runs.
+     */
+    public void setHighScores(HighScores highScores) {
+        this.highScores = highScores;
+    }
+
+    /**
+     * Marks in the recording that the player paused the game before the next update.
+     */
+    public void notePause() {
+        pausePending = true;
+    }
+
+    /**
+     * Starts a new run that replays a recording: the run gets the recorded seed, and every update reads its input
+     * from the replay rather than the game's input source, until the recording ends.
+     * @throws GdxRuntimeException if the recording was made on a different map.
+     */
+    public void startReplay(InputReplay replay) {
+        if (replay.generatedRooms != RoomFlowManager.getGeneratedRooms()
+            || (replay.generatedRooms > 0 && replay.mapSeed != RoomFlowManager.getMapSeed())) {
+            throw new GdxRuntimeException("The recording was made on another map, replay it with "
+                + "-Descape.generatedRooms=" + replay.generatedRooms + " -Descape.mapSeed=" + replay.mapSeed);
+        }
+        replay.rewind();
+        this.replay = replay;
+        startRun(replay.runSeed);
+    }
+
+    /**
+     * Takes a snapshot of the run. Only call between updates.
+     */
+    public void saveSnapshot(GameSnapshot snapshot) {
+        snapshot.write(this);
+    }
+
+    /**
+     * Puts the run back as it was when a snapshot was taken.
+     *
+     * A snapshot of this run is restored in place, without building the map again. One of another run, e.g. after a
+     * crash, first builds the map with that run's seed. A recording being replayed carries on from the snapshot's
+     * update. Otherwise the run is only recorded if it is restored to its start, as a recording has to cover the
+     * whole run.
+     * @throws GdxRuntimeException if the snapshot is empty, damaged or was taken on another map, in which case the run
+     *     is left as it was.
+     */
+    public void restoreSnapshot(GameSnapshot snapshot) {
+        if (!snapshot.isValid()) throw new GdxRuntimeException("No snapshot to restore");
+        if (snapshot.getGeneratedRooms() != RoomFlowManager.getGeneratedRooms()
+            || (snapshot.getGeneratedRooms() > 0 && snapshot.getMapSeed() != RoomFlowManager.getMapSeed())
+            || snapshot.getRoomCount() != roomFlow.getRooms().length) {
+            throw new GdxRuntimeException("The snapshot was taken on another map");
+        }
+        // Events are made from the map, so the rooms of this run do for checking one of another run.
+        snapshot.check(roomFlow.getRooms());
+
+        if (recorder != null) recorder.finish(InputRecorder.ABANDONED, this);
+        if (snapshot.getRunSeed() != runSeed) {
+            buildRun(snapshot.getRunSeed());
+            ticks = 0;
+            saveSnapshot(startCheckpoint);
+        }
+        snapshot.restore(this);
+
+        ticks = snapshot.getTicks();
+        pausePending = false;
+        runInProgress = true;
+        gameOver = false;
+        savedRoom = roomFlow.getCurrentRoom();
+        // The room may be the same, but its doors and sprites may not.
+        layerRoom = null;
+        if (replay != null) {
+            replay.seek(ticks);
+        } else if (recorder != null && ticks == 0) {
+            recorder.start(GameScreen.STEP, runSeed);
+        }
+    }
+
+    /**
+     * Starts the run again from its first update, with the same seed, without building the map again.
+     */
+    public void restartRun() {
+        restoreSnapshot(startCheckpoint);
+    }
+
+    /**
+     * Keeps the quick save in a file from now on, and writes it there at every checkpoint.
+     * @param saveFile The file, or null to stop saving.
+     */
+    public void setSaveFile(SnapshotFile saveFile) {
+        this.saveFile = saveFile;
+    }
+
+    /**
+     * Saves the run to the save file, e.g. when the game is paused. Does nothing if there is no run in progress or
+     * no save file.
+     */
+    public void quickSave() {
+        savedRoom = roomFlow.getCurrentRoom();
+        if (saveFile == null || !runInProgress) return;
+        try {
+            saveSnapshot(quickSave);
+            saveFile.write(quickSave);
+        } catch (GdxRuntimeException e) {
+            // Losing a save must not stop the game.
+            Gdx.app.error("GameController", "Error saving the game: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carries on the run in the save file, e.g. one that was in progress when the game crashed or was closed.
+     * @return Whether there was a run to carry on. If not, or it could not be restored, the save is discarded.
+     */
+    public boolean restoreQuickSave() {
+        if (saveFile == null || !saveFile.read(quickSave)) return false;
+        try {
+            replay = null;
+            restoreSnapshot(quickSave);
+            return true;
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("GameController", "Error restoring the saved game: " + e.getMessage());
+            discardQuickSave();
+            return false;
+        }
+    }
+
+    public void discardQuickSave() {
+        quickSave.clear();
+        if (saveFile != null) saveFile.clear();
     }
 
-    public void drawWorld() {
-        roomFlow.drawCurrentRoom();
-        doorController.draw();
-        playerController.drawPlayer();
+    /**
+     * Leaves the run without finishing it, e.g. to go back to the main menu, so it is neither saved nor recovered.
+     */
+    public void abandonRun() {
+        if (recorder != null) recorder.finish(InputRecorder.ABANDONED, this);
+        runInProgress = false;
+        discardQuickSave();
+    }
+
+    /**
+     * Draws the parts of the room that only change with the room: its background, doors and event indicators.
+     * They are built into a {@link StaticLayer} when the room changes and drawn from it every other frame.
+     * Called before the batch is started.
+     * @param projection The world camera.
+     */
+    public void drawStaticWorld(Matrix4 projection) {
+        Room room = roomFlow.getCurrentRoom();
+        TextureRegion background = roomFlow.getCurrentBackground();
+        if (room != layerRoom || background != layerBackground) {
+            layerRoom = room;
+            layerBackground = background;
+            roomLayer.begin();
+            roomFlow.addCurrentRoom(roomLayer);
+            sprites.addStaticTo(roomLayer);
+            doorController.addTo(roomLayer);
+            roomLayer.end();
+        }
+        roomLayer.draw(projection);
+    }
+
+    /**
+     * Draws what moves on top of the static room, with the batch.
+     * @param alpha How far between the last two updates to draw the player, from 0 to 1.
+     */
+    public void drawWorld(float alpha) {
+        sprites.draw(game.batch, alpha);
         eventSystem.drawWorld();
     }
 
     public void drawUI(EscapeGame game){
         eventSystem.drawUI();
-        game.font.draw(this.game.batch, "Time: " + timer.getTimeLeftSeconds() + "s", 75f, 1000f);
+
+        // Only the digits that changed are updated, once a second.
+        timerText.setValue(timer.getTimeLeftSeconds());
+        timerText.setPosition(75f, 1000f);
+        timerText.draw(this.game.batch);
     }
+    /**
+     * Starts a new run with a new seed, played from the game's input.
+     */
     public void resetGame(){
-        // Dispose old resources
-        roomFlow.dispose();
-        doorController.dispose();
-        player.dispose();
+        replay = null;
+        startRun(nextRunSeed());
+    }
+
+    private void startRun(long seed){
+        // A run that is left unfinished is still worth keeping, e.g. to reproduce a bug the player quit over.
+        if (recorder != null) recorder.finish(InputRecorder.ABANDONED, this);
+
+        buildRun(seed);
+
+        ticks = 0;
+        pausePending = false;
+        runInProgress = true;
+        gameOver = false;
+        saveSnapshot(startCheckpoint);
+        savedRoom = null;
+        if (recorder != null && replay == null) recorder.start(GameScreen.STEP, runSeed);
+    }
+
+    /**
+     * Builds the map, player and doors of a new run with the given seed.
+     */
+    private void buildRun(long seed){
+        // Textures come from the shared atlas, so the old objects have nothing to dispose.
+
+        // The event of the room the last run ended in is left, then the player, doors and any effects still running
+        // go with the old run.
+        eventSystem.onExitRoom(roomFlow.getCurrentRoom());
+        entities.clear();
 
         // Reset timer and score
         timer.reset();
         scoreManager.reset();
 
         // Recreate the player
-        Player newPlayer = new Player(3f, 1f, 1f, game);
+        Player newPlayer = new Player(3f, 1f, 1f, game, entities);
         this.player = newPlayer;
         this.playerController = new PlayerController(game, newPlayer);
 
         // Recreate door controller (important!)
-        this.doorController = new DoorController(game, playerController, null);
+        this.doorController = new DoorController(game, playerController, null, entities);
 
         // Recreate room flow manager and connect it with the new doorController
-        this.roomFlow = new RoomFlowManager(game, uiController, playerController, doorController, eventSystem, scoreManager, timer);
+        this.runSeed = seed;
+        this.roomFlow = new RoomFlowManager(game, this, playerController, doorController, eventSystem, scoreManager, timer,
+            roomTextures, runSeed);
         roomFlow.setDoorController(doorController);
         doorController.setRoomFlowManager(roomFlow);
 
         // Initialise rooms and events
         roomFlow.initialiseMap();
-}
+    }
 
-    public void dispose() {
-        roomFlow.dispose();
-        doorController.dispose();
-        playerController.dispose();
+    public long getRunSeed() {
+        return runSeed;
+    }
+
+    /**
+     * @return The number of updates since the run started.
+     */
+    public int getTicks() {
+        return ticks;
     }
 
     public Timer getTimer() {
@@ -89,6 +451,10 @@ public class GameController {
         return scoreManager;
     }
 
+    public EntityWorld getEntities(){
+        return entities;
+    }
+
     public EventSystem getEventSystem(){
         return eventSystem;
     }
@@ -97,4 +463,24 @@ public class GameController {
         return player;
     }
 
+    public DoorController getDoorController(){
+        return doorController;
+    }
+
+    public RoomFlowManager getRoomFlow(){
+        return roomFlow;
+    }
+
+    /**
+     * Saves a run in progress, so closing the game mid-run does not lose it.
+     */
+    @Override
+    public void dispose() {
+        if (recorder != null) recorder.finish(InputRecorder.ABANDONED, this);
+        quickSave();
+        if (saveFile != null) saveFile.dispose();
+        roomLayer.dispose();
+        roomTextures.dispose();
+    }
+
 }   
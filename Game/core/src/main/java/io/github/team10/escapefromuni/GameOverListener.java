@@ -0,0 +1,17 @@
+package io.github.team10.escapefromuni;
+
+/**
+ * Told when a run ends, by {@link GameplayStateManager}.
+ *
+ * In the game this is the {@link UIController}, which opens the game over screen. The headless simulation uses its
+ * own listener to record results and start the next run.
+ */
+public interface GameOverListener {
+
+    /**
+     * @param win Whether the player reached the exit.
+     * @param timer The run's timer.
+     * @param scores The run's score manager.
+     */
+    void onGameOver(boolean win, Timer timer, ScoreManager scores);
+}
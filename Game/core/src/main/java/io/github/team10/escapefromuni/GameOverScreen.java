@@ -4,10 +4,8 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.utils.ScreenUtils;
+import io.github.team10.escapefromuni.TextureRegistry.TextureHandle;
 
 /**
  * Represents the Game Over screen, shown when the player either wins or loses.
@@ -18,13 +16,20 @@ public class GameOverScreen implements Screen {
 
     private final EscapeGame game;
     private final UIController uiController;
-    private final boolean isWon;
-    private final Timer timer;
-    private final ScoreManager scoreManager;
+    private boolean isWon;
+    private Timer timer;
+    private ScoreManager scoreManager;
 
-    private final BitmapFont font;
-    private final Texture winScreen;
-    private final Texture loseScreen;
+    private final UIFont font;
+    private final TextureHandle winScreen;
+    private final TextureHandle loseScreen;
+
+    // Laid out once per result rather than every frame.
+    private final CachedText timeText;
+    private final CachedText scoreText;
+    private final CachedText rankText;
+    private final HighScoreBoard board;
+    private int rank;
 
     /**
      * Constructs a new GameOVerScreen.
@@ -36,13 +41,40 @@ public class GameOverScreen implements Screen {
     public GameOverScreen(final EscapeGame game, UIController uiController, boolean isWon, Timer timer, ScoreManager scoreManager) {
         this.game = game;
         this.uiController = uiController;
+
+        this.font = game.font;
+        this.winScreen = game.textures.acquire("WinScreen.png");
+        this.loseScreen = game.textures.acquire("LoseScreen.png");
+        this.timeText = new CachedText(font);
+        this.scoreText = new CachedText(font);
+        timeText.setColor(Color.BLACK);
+        scoreText.setColor(Color.BLACK);
+        this.rankText = new CachedText(font);
+        rankText.setColor(Color.YELLOW);
+        this.board = new HighScoreBoard(font, "Best escapes", HighScores.TOP_COUNT);
+
+        reset(isWon, timer, scoreManager);
+    }
+
+    /**
+     * Rebinds the screen to the result of a finished run. Called by the {@link UIController} when it reuses
+     * the screen.
+     * @param isWon Whether the player has won or lost.
+     * @param timer The timer used to track playtime.
+     * @param scoreManager The score manager which calculates the final score.
+     */
+    public void reset(boolean isWon, Timer timer, ScoreManager scoreManager) {
         this.isWon = isWon;
         this.timer = timer;
         this.scoreManager = scoreManager;
 
-        this.font = game.font;
-        this.winScreen = new Texture("WinScreen.png");
-        this.loseScreen = new Texture("LoseScreen.png");
+        timeText.setText("Time Elapsed: " + timer.getTimeSeconds());
+        scoreText.setText("Score: " + scoreManager.CalculateFinalScore(timer.getTimeLeftSeconds()));
+
+        // The run has already been added to the high scores by the GameController.
+        rank = game.highScores.getLastRank();
+        rankText.setText("New high score: #" + rank);
+        board.set(game.highScores.getTop(RoomFlowManager.getMapId()), rank);
     }
 
     @Override
@@ -50,7 +82,6 @@ public class GameOverScreen implements Screen {
         // Return to main menu if ESC pressed.
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
             uiController.showMainMenu();
-            dispose();
             return;
         }
 
@@ -66,7 +97,8 @@ public class GameOverScreen implements Screen {
             renderLoseScreen();
         }
 
-
+        // In the dark top right corner of both backgrounds.
+        board.draw(game.batch, game.uiViewport.getWorldWidth() - 400f, game.uiViewport.getWorldHeight() - 80f);
 
         game.batch.end();
     }
@@ -75,28 +107,23 @@ public class GameOverScreen implements Screen {
      * Renders the winning screen, showing the win background, final score and time elapsed.
      */
     private void renderWinScreen(){
-        game.batch.draw(winScreen, 0, 0, game.uiViewport.getWorldWidth(), game.uiViewport.getWorldHeight());
-        String timeText = "Time Elapsed: " + timer.getTimeSeconds();
-        int finalScore = scoreManager.CalculateFinalScore(timer.getTimeLeftSeconds());
-        String scoreText = "Score: " + finalScore;
-
-        game.font.setColor(Color.BLACK);
-        GlyphLayout layout = new GlyphLayout();
+        game.batch.draw(winScreen.get(), 0, 0, game.uiViewport.getWorldWidth(), game.uiViewport.getWorldHeight());
 
         float uiWidth = game.uiViewport.getWorldWidth();
         float uiHeight = game.uiViewport.getWorldHeight();
 
         // Draw time elapsed text
-        layout.setText(game.font, timeText);
-        float timeX = (uiWidth - layout.width) / 2f;
-        float timeY = uiHeight * 0.35f;
-        game.font.draw(game.batch, layout, timeX, timeY);
+        timeText.setPosition((uiWidth - timeText.getWidth()) / 2f, uiHeight * 0.35f);
+        timeText.draw(game.batch);
 
         // Draw score text
-        layout.setText(game.font, scoreText);
-        float scoreX = (uiWidth - layout.width) / 2f;
-        float scoreY = uiHeight * 0.3f;
-        font.draw(game.batch, scoreText, scoreX, scoreY);
+        scoreText.setPosition((uiWidth - scoreText.getWidth()) / 2f, uiHeight * 0.3f);
+        scoreText.draw(game.batch);
+
+        if (rank > 0) {
+            rankText.setPosition((uiWidth - rankText.getWidth()) / 2f, uiHeight * 0.25f);
+            rankText.draw(game.batch);
+        }
     }
 
     /**
@@ -105,20 +132,22 @@ public class GameOverScreen implements Screen {
      * Doesn't display the score or time.
      */
     private void renderLoseScreen(){
-        game.batch.draw(loseScreen, 0, 0, game.uiViewport.getWorldWidth(), game.uiViewport.getWorldHeight());
+        game.batch.draw(loseScreen.get(), 0, 0, game.uiViewport.getWorldWidth(), game.uiViewport.getWorldHeight());
     }
 
-    @Override public void show() {}
+    @Override public void show() {
+        game.renderOnDemand();
+    }
     @Override public void resize(int width, int height) {}
     @Override public void pause() {}
     @Override public void resume() {}
     @Override public void hide() {}
 
     /**
-     * Dispose of textures used by the screen.
+     * Release the screen's texture handles.
      */
-    @Override public void dispose() { 
-        winScreen.dispose();
-        loseScreen.dispose();
+    @Override public void dispose() {
+        winScreen.release();
+        loseScreen.release();
     }
 }
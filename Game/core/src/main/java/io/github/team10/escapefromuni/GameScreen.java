@@ -4,6 +4,7 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.utils.ScreenUtils;
 
 /**
@@ -11,6 +12,10 @@ import com.badlogic.gdx.utils.ScreenUtils;
  * 
  * For example, creating the player, calling initialiseMap() on the RoomManager.
  * Will handle rendering of game textures using the SpriteBatch stored in EscapeGame. 
+ *
+ * The game is updated in fixed steps of {@link #STEP} seconds, however fast frames are rendered, so movement,
+ * collisions and the timer behave the same at any frame rate. Leftover time is carried to the next frame, and the
+ * player is drawn between its last two positions so motion stays smooth.
  */
 public class GameScreen extends ScreenAdapter {
     private final EscapeGame game;
@@ -18,6 +23,14 @@ public class GameScreen extends ScreenAdapter {
     private final UIController uiController;
     private boolean isPaused = false;
 
+    /** Seconds of game time per update. */
+    public static final float STEP = 1f / 60f;
+    /** Most updates run in one frame. After a long hitch the game slows down rather than trying to catch up. */
+    public static final int MAX_STEPS_PER_FRAME = 5;
+    private float accumulator = 0f;
+    // Menus only draw on demand, so the first delta after one covers all the time spent in it.
+    private boolean discardDelta;
+
     public GameScreen(EscapeGame game, UIController uiController, GameController controller){
         this.game = game;
         this.uiController = uiController;
@@ -25,29 +38,55 @@ public class GameScreen extends ScreenAdapter {
         
     }
 
-    public void CheckLose(){   
-        if (controller.getTimer().hasReached(300)) { // 300 seconds = 5 minutes
-            uiController.showGameOver(false, controller.getTimer(), controller.getScoreManager());
-        }
+    public void CheckLose(){
+        controller.checkLose();
     }
 
     @Override
     public void render(float delta) {
+        // Clicks are only reported for the frame they happen in, so keep this frame's for the next update to run.
+        game.input.latchFrame();
     // Check for ESC key to pause
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
+            controller.notePause();
             pauseGame();
             return;
         }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            game.profiler.toggle();
+        }
+    
+        if (discardDelta) {
+            discardDelta = false;
+            delta = 0f;
+        }
     
         if (!isPaused) {
-            controller.update(delta);
-            CheckLose();
+            accumulator += delta;
+            int steps = 0;
+            while (accumulator >= STEP && steps < MAX_STEPS_PER_FRAME) {
+                controller.update(STEP);
+                // The run was won and another screen is showing, so it must not be lost as well.
+                if (game.getScreen() != this) return;
+                CheckLose();
+                accumulator -= STEP;
+                steps++;
+
+                // The run ended and another screen is showing.
+                if (game.getScreen() != this) return;
+            }
+            if (steps == MAX_STEPS_PER_FRAME) {
+                // Drop time that could not be caught up with.
+                accumulator = Math.min(accumulator, STEP);
+            }
         }
-        draw();
+        draw(accumulator / STEP);
+        game.profiler.endFrame(delta);
     }
 
     private void pauseGame(){
         isPaused = true;
+        controller.quickSave();
         int pausedTime = controller.getTimer().getTimeSeconds();
         uiController.pauseGame(this, pausedTime);
     }
@@ -59,37 +98,41 @@ public class GameScreen extends ScreenAdapter {
 
     /**
      * Draw textures to the screen each frame using the {@link EscapeGame}'s SpriteBatch.
+     * @param alpha How far between the last two updates to draw moving objects, from 0 to 1.
      */
-    private void draw()
+    private void draw(float alpha)
     {
         ScreenUtils.clear(Color.BLACK);
         game.viewport.apply();
-        game.batch.setProjectionMatrix(game.viewport.getCamera().combined);
-		game.batch.begin();
+        Matrix4 projection = game.viewport.getCamera().combined;
 
-        // World Rendering
-        
-        controller.drawWorld();
-        
+        // World Rendering: the cached room, then what moves on top of it.
+        game.profiler.begin(FrameProfiler.DRAW_WORLD);
+        controller.drawStaticWorld(projection);
+        game.batch.setProjectionMatrix(projection);
+		game.batch.begin();
+        controller.drawWorld(alpha);
         game.batch.end();
+        game.profiler.end(FrameProfiler.DRAW_WORLD);
 
         // UI Rendering
         game.uiViewport.apply();
         game.batch.setProjectionMatrix(game.uiCamera.combined);
         game.batch.begin();
+        game.profiler.begin(FrameProfiler.DRAW_UI);
         controller.drawUI(game);
+        game.profiler.end(FrameProfiler.DRAW_UI);
+        // Below the timer text.
+        game.profiler.draw(game.batch, game.font, 20f, 930f);
         game.batch.end();
     }
 
-    @Override
-    public void dispose()
-    {
-        controller.dispose();
-    }
-
     @Override public void show() {
+        game.renderContinuously();
         AudioManager.getInstance().playGameMusic();
         isPaused = false;
+        accumulator = 0f;
+        discardDelta = true;
     } 
     @Override public void resize(int width, int height) {}
     @Override public void pause() {}
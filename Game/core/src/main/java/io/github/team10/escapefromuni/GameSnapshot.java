@@ -0,0 +1,349 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * The state of a run between two updates, in a versioned binary format, so the run can be carried on from it later:
+ * the quick save taken when the game is paused, the checkpoint a crashed game is recovered from, or the start of the
+ * run to restart it without building the map again. Taken and restored with
+ * {@link GameController#saveSnapshot(GameSnapshot)} and {@link GameController#restoreSnapshot(GameSnapshot)}, and
+ * kept on disk by a {@link SnapshotFile}.
+ *
+ * Only what changes during a run is saved. The map is built again from the map file or seed, which are saved so a
+ * snapshot is never restored onto a different map. Big endian:
+ * <pre>
+ * int    magic "ESSV", int version, int length of the rest, int CRC-32 of the rest
+ * long   run seed, int ticks
+ * int    generated rooms, long map seed, int room count - see {@link RoomFlowManager}
+ * float  time, float time left, byte frozen
+ * int    score
+ * float  player x, float player y, float speed, byte movement enabled
+ * int    current room
+ * rooms  per room in map order, a byte length and that many bytes of event state, see {@link IEvent#writeState}
+ * int    timer effect count, then per effect a byte effect, float amount, float time left
+ * </pre>
+ * A snapshot of the campus map is about a hundred bytes. It is written to a buffer that is kept and only grows, so
+ * taking one allocates nothing once the buffer fits the map.
+ */
+public class GameSnapshot {
+
+    public static final int VERSION = 1;
+
+    static final int MAGIC = 0x45535356;
+    static final int HEADER_SIZE = 16;
+    // Everything but the rooms and timer effects.
+    private static final int FIXED_SIZE = HEADER_SIZE + 62;
+    private static final int EFFECT_SIZE = 9;
+    private static final Effect[] EFFECTS = Effect.values();
+
+    private ByteBuffer buffer = ByteBuffer.allocate(1024);
+    private final CRC32 crc = new CRC32();
+    private boolean valid;
+
+    // Read from the header and start of a valid snapshot.
+    private long runSeed;
+    private int ticks;
+    private int generatedRooms;
+    private long mapSeed;
+    private int roomCount;
+
+    // Read from the rest by parse, before any of it is restored.
+    private float time;
+    private float timeLeft;
+    private boolean frozen;
+    private int score;
+    private float playerX;
+    private float playerY;
+    private float speed;
+    private boolean movementEnabled;
+    private int currentRoom;
+    private int roomsAt;
+
+    /**
+     * @return Whether the snapshot holds a complete run state, i.e. one has been taken or read and passed its
+     *     checks.
+     */
+    public boolean isValid()
+    {
+        return valid;
+    }
+
+    /**
+     * Marks the snapshot as empty.
+     */
+    public void clear()
+    {
+        valid = false;
+    }
+
+    public long getRunSeed()
+    {
+        return runSeed;
+    }
+
+    /**
+     * @return The number of updates the run had played.
+     */
+    public int getTicks()
+    {
+        return ticks;
+    }
+
+    public int getGeneratedRooms()
+    {
+        return generatedRooms;
+    }
+
+    public long getMapSeed()
+    {
+        return mapSeed;
+    }
+
+    public int getRoomCount()
+    {
+        return roomCount;
+    }
+
+    /**
+     * @return The size of the snapshot in bytes, header included.
+     */
+    public int size()
+    {
+        return valid ? HEADER_SIZE + buffer.getInt(8) : 0;
+    }
+
+    /**
+     * Takes a snapshot of a run.
+     * @param controller The game, between two updates.
+     */
+    void write(GameController controller)
+    {
+        Room[] rooms = controller.getRoomFlow().getRooms();
+        EntityWorld world = controller.getEntities();
+        valid = false;
+        ensureCapacity(FIXED_SIZE + rooms.length * (1 + IEvent.MAX_STATE_SIZE) + world.size * EFFECT_SIZE);
+        ByteBuffer out = buffer;
+        out.clear();
+        out.position(HEADER_SIZE);
+
+        out.putLong(controller.getRunSeed()).putInt(controller.getTicks());
+        out.putInt(RoomFlowManager.getGeneratedRooms()).putLong(RoomFlowManager.getMapSeed()).putInt(rooms.length);
+
+        Timer timer = controller.getTimer();
+        out.putFloat(timer.getTime()).putFloat(timer.getTimeLeft()).put((byte) (timer.isFrozen() ? 1 : 0));
+        out.putInt(controller.getScoreManager().getScore());
+
+        Player player = controller.getPlayer();
+        out.putFloat(world.getX(player.entity)).putFloat(world.getY(player.entity));
+        out.putFloat(player.getSpeed()).put((byte) (player.isMovementEnabled() ? 1 : 0));
+
+        // Rooms are made from the map in order, so a room's index is its place in the array.
+        out.putInt(controller.getRoomFlow().getCurrentRoom().getIndex());
+
+        for (Room room : rooms)
+        {
+            int lengthAt = out.position();
+            out.put((byte) 0);
+            if (room.getEvent() != null) room.getEvent().writeState(out);
+            int length = out.position() - lengthAt - 1;
+            if (length > IEvent.MAX_STATE_SIZE)
+            {
+                throw new GdxRuntimeException("Event state of " + length + " bytes is over " + IEvent.MAX_STATE_SIZE);
+            }
+            out.put(lengthAt, (byte) length);
+        }
+
+        int countAt = out.position();
+        out.putInt(0);
+        int effects = 0;
+        for (int e = 0; e < world.size; e++)
+        {
+            if (!world.alive[e] || (world.mask[e] & EntityWorld.TIMER_EFFECT) == 0) continue;
+            out.put((byte) world.timerEffect[e].ordinal()).putFloat(world.timerAmount[e]).putFloat(world.timeLeft[e]);
+            effects++;
+        }
+        out.putInt(countAt, effects);
+
+        int length = out.position() - HEADER_SIZE;
+        out.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, length).putInt(12, checksum(length));
+        valid = true;
+        readStart();
+    }
+
+    /**
+     * Puts a run back as it was when the snapshot was taken. The run must be on the same map and have the same
+     * seed, which the {@link GameController} sees to, so only what changes during a run is restored: the timer,
+     * score, player, room, events and timer effects.
+     *
+     * The whole snapshot is {@link #check checked} first, so one that is damaged is not restored at all rather than
+     * leaving the run half restored.
+     * @throws GdxRuntimeException if there is no snapshot or it does not fit the run's rooms.
+     */
+    void restore(GameController controller)
+    {
+        RoomFlowManager roomFlow = controller.getRoomFlow();
+        Room[] rooms = roomFlow.getRooms();
+        check(rooms);
+
+        // The event of the room the player is in goes first, so its state is not changed under it.
+        EntityWorld world = controller.getEntities();
+        controller.getEventSystem().onExitRoom(roomFlow.getCurrentRoom());
+        world.destroyAll(EntityWorld.TIMER_EFFECT);
+
+        controller.getTimer().restore(time, timeLeft);
+        controller.getTimer().setFrozen(frozen);
+        controller.getScoreManager().setScore(score);
+
+        ByteBuffer in = buffer;
+        in.position(roomsAt);
+        for (Room room : rooms)
+        {
+            int length = in.get() & 0xFF;
+            int end = in.position() + length;
+            if (room.getEvent() != null) room.getEvent().readState(in);
+            // The lengths were checked by parse, so this is an event reading back other than it wrote.
+            if (in.position() != end) throw new GdxRuntimeException("Event state in snapshot read back wrongly");
+        }
+
+        // Entering the room starts its event, which may stop the player, so the player is restored after.
+        roomFlow.enterRoom(rooms[currentRoom]);
+        Player player = controller.getPlayer();
+        player.setPosition(playerX, playerY);
+        player.setSpeed(speed);
+        player.enableMovement(movementEnabled);
+
+        int effects = in.getInt();
+        for (int i = 0; i < effects; i++)
+        {
+            int effect = in.get();
+            int entity = world.create();
+            world.setTimerEffect(entity, EFFECTS[effect], in.getFloat(), in.getFloat());
+        }
+    }
+
+    /**
+     * Checks the snapshot can be restored onto a run's rooms, without changing the run.
+     * @param rooms The rooms, which may be those of another run on the same map.
+     * @throws GdxRuntimeException if there is no snapshot, or it is damaged or does not fit the rooms.
+     */
+    void check(Room[] rooms)
+    {
+        if (!valid) throw new GdxRuntimeException("No snapshot to restore");
+        if (!parse(rooms)) throw new GdxRuntimeException("Corrupt snapshot");
+    }
+
+    /**
+     * Reads the state to restore into fields, checking the snapshot's checksum and that every part of it fits the
+     * map, without changing the run.
+     * @param rooms The run's rooms.
+     * @return Whether the snapshot can be restored onto them.
+     */
+    private boolean parse(Room[] rooms)
+    {
+        int length = buffer.getInt(8);
+        if (length < FIXED_SIZE - HEADER_SIZE || checksum(length) != buffer.getInt(12)) return false;
+        readStart();
+        if (roomCount != rooms.length) return false;
+
+        ByteBuffer in = buffer;
+        int end = HEADER_SIZE + length;
+        time = in.getFloat();
+        timeLeft = in.getFloat();
+        frozen = in.get() != 0;
+        score = in.getInt();
+        playerX = in.getFloat();
+        playerY = in.getFloat();
+        speed = in.getFloat();
+        movementEnabled = in.get() != 0;
+        currentRoom = in.getInt();
+        if (currentRoom < 0 || currentRoom >= rooms.length) return false;
+
+        roomsAt = in.position();
+        for (Room room : rooms)
+        {
+            if (in.position() >= end) return false;
+            int size = in.get() & 0xFF;
+            if (size > IEvent.MAX_STATE_SIZE || size > end - in.position()) return false;
+            if (room.getEvent() == null && size != 0) return false;
+            in.position(in.position() + size);
+        }
+
+        if (end - in.position() < 4) return false;
+        int effects = in.getInt();
+        if (effects < 0 || (long) effects * EFFECT_SIZE != end - in.position()) return false;
+        for (int i = 0; i < effects; i++)
+        {
+            int effect = in.get(in.position() + i * EFFECT_SIZE);
+            if (effect < 0 || effect >= EFFECTS.length) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Copies the snapshot to the start of a buffer, e.g. a mapped file.
+     * @param out The buffer, which must have room for {@link #size()} bytes.
+     */
+    void copyTo(ByteBuffer out)
+    {
+        out.clear();
+        buffer.position(0);
+        buffer.limit(size());
+        out.put(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Reads a snapshot written by {@link #copyTo(ByteBuffer)}, checking it is complete and of this version.
+     * @param in The buffer, read from its start. Its position and limit are reset.
+     * @return Whether it held a valid snapshot. If not, this snapshot is left empty.
+     */
+    boolean copyFrom(ByteBuffer in)
+    {
+        valid = false;
+        if (in.capacity() < HEADER_SIZE || in.getInt(0) != MAGIC || in.getInt(4) != VERSION) return false;
+        int length = in.getInt(8);
+        if (length < FIXED_SIZE - HEADER_SIZE || length > in.capacity() - HEADER_SIZE) return false;
+
+        ensureCapacity(HEADER_SIZE + length);
+        in.position(0);
+        in.limit(HEADER_SIZE + length);
+        buffer.clear();
+        buffer.put(in);
+        in.clear();
+        if (checksum(length) != buffer.getInt(12)) return false;
+
+        valid = true;
+        readStart();
+        return true;
+    }
+
+    private void readStart()
+    {
+        ByteBuffer in = buffer;
+        in.position(HEADER_SIZE);
+        runSeed = in.getLong();
+        ticks = in.getInt();
+        generatedRooms = in.getInt();
+        mapSeed = in.getLong();
+        roomCount = in.getInt();
+    }
+
+    private int checksum(int length)
+    {
+        buffer.position(HEADER_SIZE);
+        buffer.limit(HEADER_SIZE + length);
+        crc.reset();
+        crc.update(buffer);
+        buffer.clear();
+        return (int) crc.getValue();
+    }
+
+    // Only called before the buffer is written over.
+    private void ensureCapacity(int size)
+    {
+        if (buffer.capacity() < size) buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+    }
+}
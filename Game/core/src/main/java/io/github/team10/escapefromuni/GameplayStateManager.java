@@ -1,11 +1,18 @@
 package io.github.team10.escapefromuni;
 
+import com.badlogic.gdx.utils.TimeUtils;
+
 public class GameplayStateManager {
-    public static void triggerWin(EscapeGame game, UIController uiController, Timer timer, ScoreManager scoreManager){
-        game.setScreen(new GameOverScreen(game, uiController, true, timer, scoreManager));
+    public static void triggerWin(EscapeGame game, GameOverListener listener, Timer timer, ScoreManager scoreManager){
+        // Sent in the background, so the game over screen is not held up.
+        if (game != null && game.leaderboard != null) {
+            game.leaderboard.submit(scoreManager.CalculateFinalScore(timer.getTimeLeftSeconds()), timer.getTime(),
+                RoomFlowManager.getMapId(), TimeUtils.millis());
+        }
+        listener.onGameOver(true, timer, scoreManager);
     }
-    public static void triggerLose(EscapeGame game, UIController uiController, Timer timer, ScoreManager scoreManager){
-        game.setScreen(new GameOverScreen(game, uiController, false, timer, scoreManager));
+    public static void triggerLose(EscapeGame game, GameOverListener listener, Timer timer, ScoreManager scoreManager){
+        listener.onGameOver(false, timer, scoreManager);
     }
 
     
@@ -0,0 +1,53 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Reads input from the keyboard and mouse through {@link Gdx#input}.
+ *
+ * {@link Gdx#input} only reports a click for the frame it happened in, so it is latched once per frame and kept
+ * with where it happened until an update takes it.
+ */
+public class GdxInputSource implements InputSource {
+
+    private boolean touched;
+    private int touchX;
+    private int touchY;
+
+    @Override
+    public boolean isKeyPressed(int key)
+    {
+        return Gdx.input.isKeyPressed(key);
+    }
+
+    @Override
+    public void latchFrame()
+    {
+        if (Gdx.input.justTouched())
+        {
+            touched = true;
+            touchX = Gdx.input.getX();
+            touchY = Gdx.input.getY();
+        }
+    }
+
+    @Override
+    public boolean justTouched()
+    {
+        boolean wasTouched = touched;
+        touched = false;
+        return wasTouched;
+    }
+
+    @Override
+    public int getX()
+    {
+        return touchX;
+    }
+
+    @Override
+    public int getY()
+    {
+        return touchY;
+    }
+}
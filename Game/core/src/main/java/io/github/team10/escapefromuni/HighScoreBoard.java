@@ -0,0 +1,99 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+
+/**
+ * A table of the best runs from a {@link TopScores}, with a title, drawn on the main menu and game over screen.
+ *
+ * Each row is a rank, a score and a time, in columns of their own so they line up. The text is only laid out again
+ * when the scores it shows change.
+ */
+public class HighScoreBoard {
+
+    private static final float TITLE_SIZE = 40f;
+    private static final float TEXT_SIZE = 32f;
+    private static final float LINE_HEIGHT = 44f;
+    // Right edges of the score and time columns, from the left of the board.
+    private static final float SCORE_RIGHT = 230f;
+    private static final float TIME_RIGHT = 360f;
+
+    private final CachedText title;
+    private final CachedText[] ranks;
+    private final CachedText[] scores;
+    private final CachedText[] times;
+    private final CachedText empty;
+    private int shown;
+
+    /**
+     * @param rows The most runs shown.
+     */
+    public HighScoreBoard(UIFont font, String titleText, int rows)
+    {
+        title = new CachedText(font, TITLE_SIZE);
+        title.setColor(Color.YELLOW);
+        title.setText(titleText);
+        empty = new CachedText(font, TEXT_SIZE);
+        empty.setText("No escapes yet");
+
+        ranks = new CachedText[rows];
+        scores = new CachedText[rows];
+        times = new CachedText[rows];
+        for (int i = 0; i < rows; i++)
+        {
+            ranks[i] = new CachedText(font, TEXT_SIZE);
+            scores[i] = new CachedText(font, TEXT_SIZE);
+            times[i] = new CachedText(font, TEXT_SIZE);
+        }
+    }
+
+    /**
+     * Shows the best runs of a list.
+     * @param highlight Rank of a run to pick out, e.g. the one just played, or 0 for none.
+     */
+    public void set(TopScores top, int highlight)
+    {
+        shown = Math.min(ranks.length, top.size());
+        for (int i = 0; i < shown; i++)
+        {
+            int rank = i + 1;
+            int seconds = (int) top.getTime(rank);
+            Color color = rank == highlight ? Color.YELLOW : Color.WHITE;
+            ranks[i].setText(rank + ".");
+            scores[i].setText(Integer.toString(top.getScore(rank)));
+            times[i].setText(seconds / 60 + ":" + (seconds % 60 < 10 ? "0" : "") + seconds % 60);
+            ranks[i].setColor(color);
+            scores[i].setColor(color);
+            times[i].setColor(color);
+        }
+    }
+
+    /**
+     * Draws the board. The batch must already be started.
+     * @param x The left edge of the board.
+     * @param top The top of the title.
+     */
+    public void draw(Batch batch, float x, float top)
+    {
+        title.setPosition(x, top);
+        title.draw(batch);
+
+        float y = top - TITLE_SIZE - (LINE_HEIGHT - TEXT_SIZE);
+        if (shown == 0)
+        {
+            empty.setPosition(x, y);
+            empty.draw(batch);
+            return;
+        }
+        for (int i = 0; i < shown; i++)
+        {
+            ranks[i].setPosition(x, y);
+            ranks[i].draw(batch);
+            scores[i].setPosition(x + SCORE_RIGHT - scores[i].getWidth(), y);
+            scores[i].draw(batch);
+            times[i].setPosition(x + TIME_RIGHT - times[i].getWidth(), y);
+            times[i].draw(batch);
+            y -= LINE_HEIGHT;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.LongMap;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * The result of every finished run, kept in an append-only log, and the best runs overall and on each map.
+ *
+ * The log is never rewritten. Each run is appended as a fixed size record with its own checksum, big endian:
+ * <pre>
+ * header  int magic "ESHS", int version
+ * record  byte won, 3 bytes unused, int score, float seconds, long run seed, long map id, long date, int CRC-32
+ * </pre>
+ * Only the best {@link #TOP_COUNT} runs overall and per map, see {@link RoomFlowManager#getMapId()}, are kept in
+ * memory, in {@link TopScores} heaps. They are rebuilt when the game starts by one pass over the log in large
+ * blocks, which allocates nothing per record, so a log of millions of runs loads in well under a second.
+ *
+ * A record that fails its checksum is skipped. Bad records at the end of the log are what is left of a write the
+ * game did not finish, e.g. because the machine lost power, so the log is cut back to the last good record and new
+ * records line up again.
+ */
+public class HighScores {
+
+    /** Local file the log is kept in. */
+    public static final String FILE = "highscores.log";
+    /** Runs kept in each list. */
+    public static final int TOP_COUNT = 10;
+
+    static final int MAGIC = 0x45534853;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 40;
+    // Everything but the checksum.
+    private static final int CHECKED_SIZE = RECORD_SIZE - 4;
+    private static final int READ_SIZE = 4096 * RECORD_SIZE;
+
+    private static final TopScores EMPTY = new TopScores(0);
+
+    private final FileHandle file;
+    private final TopScores overall = new TopScores(TOP_COUNT);
+    private final LongMap<TopScores> byMap = new LongMap<>();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+
+    private long runs;
+    private int corruptRecords;
+    private int droppedRecords;
+    private int lastRank;
+
+    /**
+     * Reads the log, cutting off any unfinished write at its end.
+     * @param file The log, which is created when the first run is added. Null to keep runs in memory only.
+     * @throws GdxRuntimeException if the file is not a high score log of this version or cannot be read.
+     */
+    public HighScores(FileHandle file)
+    {
+        this.file = file;
+        if (file != null && file.exists()) load();
+    }
+
+    private void load()
+    {
+        try (RandomAccessFile access = new RandomAccessFile(file.file(), "rw"))
+        {
+            FileChannel channel = access.getChannel();
+            long length = channel.size();
+            if (length < HEADER_SIZE)
+            {
+                // The header itself was never finished.
+                channel.truncate(0);
+                return;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+            buffer.limit(HEADER_SIZE);
+            readFully(channel, buffer, 0);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            {
+                throw new GdxRuntimeException(file + " is not a version " + VERSION + " high score log");
+            }
+
+            long offset = HEADER_SIZE;
+            long goodEnd = HEADER_SIZE;
+            // Bad records since the last good one, which are dropped if no good one follows.
+            int badRun = 0;
+            while (length - offset >= RECORD_SIZE)
+            {
+                buffer.clear();
+                buffer.limit((int) Math.min(READ_SIZE, (length - offset) / RECORD_SIZE * RECORD_SIZE));
+                readFully(channel, buffer, offset);
+                for (int at = 0; at < buffer.limit(); at += RECORD_SIZE)
+                {
+                    if (readRecord(buffer, at))
+                    {
+                        corruptRecords += badRun;
+                        badRun = 0;
+                        goodEnd = offset + at + RECORD_SIZE;
+                    }
+                    else
+                    {
+                        badRun++;
+                    }
+                }
+                offset += buffer.limit();
+            }
+
+            if (goodEnd < length)
+            {
+                // Bad whole records, and any part of one after them.
+                droppedRecords = badRun + (offset < length ? 1 : 0);
+                channel.truncate(goodEnd);
+                Gdx.app.error("HighScores", "Cut " + (length - goodEnd) + " bytes of unfinished writes off " + file);
+            }
+            if (corruptRecords > 0)
+            {
+                Gdx.app.error("HighScores", "Skipped " + corruptRecords + " corrupt records in " + file);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error reading " + file, e);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer, offset + buffer.position()) < 0) throw new IOException("Unexpected end of file");
+        }
+    }
+
+    /**
+     * Checks and indexes the record at the given offset of a buffer.
+     * @return Whether its checksum was right.
+     */
+    private boolean readRecord(ByteBuffer buffer, int at)
+    {
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + at, CHECKED_SIZE);
+        if ((int) crc.getValue() != buffer.getInt(at + CHECKED_SIZE)) return false;
+
+        index(buffer.get(at) != 0, buffer.getInt(at + 4), buffer.getFloat(at + 8), buffer.getLong(at + 12),
+            buffer.getLong(at + 20), buffer.getLong(at + 28));
+        return true;
+    }
+
+    private int index(boolean won, int score, float time, long seed, long mapId, long date)
+    {
+        runs++;
+        // Only a run that escaped has a score worth ranking.
+        if (!won) return 0;
+
+        overall.offer(score, time, seed, date);
+        TopScores map = byMap.get(mapId);
+        if (map == null)
+        {
+            map = new TopScores(TOP_COUNT);
+            byMap.put(mapId, map);
+        }
+        return map.offer(score, time, seed, date);
+    }
+
+    /**
+     * Appends a finished run to the log.
+     * @param time Seconds the run took.
+     * @param mapId The map it was played on, see {@link RoomFlowManager#getMapId()}.
+     * @param date When it ended, in milliseconds since the epoch.
+     * @return Its rank on the map from 1, or 0 if it was lost or did not make the list.
+     */
+    public int add(boolean won, int score, float time, long seed, long mapId, long date)
+    {
+        ByteBuffer out = record;
+        out.clear();
+        out.put((byte) (won ? 1 : 0)).put((byte) 0).put((byte) 0).put((byte) 0);
+        out.putInt(score).putFloat(time).putLong(seed).putLong(mapId).putLong(date);
+        crc.reset();
+        crc.update(out.array(), 0, CHECKED_SIZE);
+        out.putInt((int) crc.getValue());
+
+        if (file != null)
+        {
+            try
+            {
+                if (!file.exists() || file.length() < HEADER_SIZE)
+                {
+                    file.writeBytes(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).array(), false);
+                }
+                file.writeBytes(out.array(), true);
+            }
+            catch (GdxRuntimeException e)
+            {
+                // The run still shows on the board until the game closes.
+                Gdx.app.error("HighScores", "Error saving run to " + file + ": " + e.getMessage());
+            }
+        }
+
+        lastRank = index(won, score, time, seed, mapId, date);
+        return lastRank;
+    }
+
+    /**
+     * @return The best runs on a map, best first.
+     */
+    public TopScores getTop(long mapId)
+    {
+        return byMap.get(mapId, EMPTY);
+    }
+
+    /**
+     * @return The best runs on any map.
+     */
+    public TopScores getOverall()
+    {
+        return overall;
+    }
+
+    /**
+     * @return The rank of the last run added on its map, or 0 if it did not make the list.
+     */
+    public int getLastRank()
+    {
+        return lastRank;
+    }
+
+    /**
+     * @return Every run in the log, won or lost.
+     */
+    public long getRunCount()
+    {
+        return runs;
+    }
+
+    /**
+     * @return Records skipped when the log was read because their checksum was wrong.
+     */
+    public int getCorruptRecords()
+    {
+        return corruptRecords;
+    }
+
+    /**
+     * @return Unfinished records cut off the end of the log when it was read.
+     */
+    public int getDroppedRecords()
+    {
+        return droppedRecords;
+    }
+}
@@ -0,0 +1,365 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * A {@link Leaderboard} on a server reached over HTTP, which may not always be reachable.
+ *
+ * Submitted runs are handed to a thread of the leaderboard's own, which adds them to a {@link LeaderboardQueue} on
+ * disk and posts them to the server in batches of up to {@link #BATCH_SIZE}, as JSON:
+ * <pre>
+ * {"machine":"0123456789abcdef","runs":[{"id":"fedcba9876543210","score":1200,"time":183.5,"map":0,"date":...}]}
+ * </pre>
+ * Runs are taken off the queue once the server replies with a 2xx status. If it cannot be reached, or replies with a
+ * 5xx, 408 or 429 status, the batch is sent again after a delay which doubles each time, from
+ * {@link #MIN_BACKOFF_MILLIS} up to {@link #MAX_BACKOFF_MILLIS}, less a random part so a room of machines coming back
+ * online do not all retry at once. A batch the server rejects with another 4xx status is dropped, as it would be
+ * rejected again. The server ranks each run id once, so a batch sent again after its reply was lost is not counted
+ * twice.
+ *
+ * The render thread only ever takes a lock to hand a run over, which the leaderboard's thread holds just long enough to
+ * take the runs handed over so far, and writes them to disk after letting go of it. So a slow disk, or a slow or
+ * missing server, never holds up the game.
+ * Run the game with {@code -Descape.leaderboard=<url>} to send runs to a server, e.g. the stand-in from the headless
+ * module's runLeaderboardServer task.
+ */
+public class HttpLeaderboard implements Leaderboard {
+
+    /** The server to send runs to, or null to not send them. */
+    public static final String ADDRESS = System.getProperty("escape.leaderboard");
+    /** Local file runs not sent yet are kept in. */
+    public static final String QUEUE_FILE = "leaderboard.queue";
+
+    public static final int BATCH_SIZE = 25;
+    public static final long MIN_BACKOFF_MILLIS = 2000;
+    public static final long MAX_BACKOFF_MILLIS = 5 * 60 * 1000;
+    private static final int TIMEOUT_MILLIS = 5000;
+    /** How long closing the game waits for a batch being sent. */
+    private static final long DISPOSE_WAIT_MILLIS = 1000;
+
+    private final URL url;
+    private final LeaderboardQueue queue;
+    private final Thread thread;
+    private final Random random = new Random();
+    private long minBackoff = MIN_BACKOFF_MILLIS;
+    private long maxBackoff = MAX_BACKOFF_MILLIS;
+
+    // Runs handed over by submit and not yet taken, guarded by lock.
+    private final Object lock = new Object();
+    private IntArray scores = new IntArray();
+    private FloatArray times = new FloatArray();
+    private LongArray mapIds = new LongArray();
+    private LongArray dates = new LongArray();
+    private boolean stopping;
+
+    // Runs taken from those handed over and being queued, guarded by the queue's lock. Swapped with the arrays above.
+    private IntArray takenScores = new IntArray();
+    private FloatArray takenTimes = new FloatArray();
+    private LongArray takenMapIds = new LongArray();
+    private LongArray takenDates = new LongArray();
+
+    private volatile int pending;
+    private volatile long sent;
+
+    // Only used by the thread.
+    private long backoff;
+    private long retryAt;
+    private boolean failing;
+    private final StringBuilder body = new StringBuilder();
+    private final byte[] skip = new byte[256];
+
+    /**
+     * Reads any runs left in the queue and starts sending them.
+     * @param url The address runs are posted to.
+     * @param queueFile The queue, or null to keep runs not sent yet in memory only.
+     * @throws GdxRuntimeException if the address is not valid or the queue cannot be read.
+     */
+    public HttpLeaderboard(String url, FileHandle queueFile)
+    {
+        try
+        {
+            this.url = new URL(url);
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Not a leaderboard address: " + url, e);
+        }
+        queue = new LeaderboardQueue(queueFile, random.nextLong());
+        pending = queue.size();
+
+        thread = new Thread(this::run, "Leaderboard");
+        // Runs not sent when the game closes are already in the queue file.
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Changes the delays between attempts to send a batch, e.g. to make a test quicker.
+     */
+    public void setBackoff(long minMillis, long maxMillis)
+    {
+        minBackoff = minMillis;
+        maxBackoff = maxMillis;
+    }
+
+    @Override
+    public void submit(int score, float time, long mapId, long date)
+    {
+        synchronized (lock)
+        {
+            scores.add(score);
+            times.add(time);
+            mapIds.add(mapId);
+            dates.add(date);
+            pending++;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public int getPending()
+    {
+        return pending;
+    }
+
+    /**
+     * @return Runs the server has accepted since the leaderboard was made.
+     */
+    public long getSent()
+    {
+        return sent;
+    }
+
+    public long getMachineId()
+    {
+        return queue.getMachineId();
+    }
+
+    /**
+     * Stops the thread, waiting a moment for a batch being sent, and queues any runs still being handed over.
+     */
+    @Override
+    public void dispose()
+    {
+        synchronized (lock)
+        {
+            stopping = true;
+            lock.notifyAll();
+        }
+        try
+        {
+            thread.join(DISPOSE_WAIT_MILLIS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        // If the thread is still sending, the runs it has not queued are queued here instead.
+        synchronized (queue)
+        {
+            takeSubmitted();
+        }
+    }
+
+    private void run()
+    {
+        while (true)
+        {
+            synchronized (lock)
+            {
+                try
+                {
+                    while (!stopping && scores.size == 0 && !readyToSend())
+                    {
+                        // wait(0) waits forever, so a delay that is just running out still waits a millisecond.
+                        long wait = queue.size() == 0 ? 0 : Math.max(retryAt - System.currentTimeMillis(), 1);
+                        lock.wait(wait);
+                    }
+                }
+                catch (InterruptedException e)
+                {
+                    return;
+                }
+                if (stopping) break;
+            }
+
+            synchronized (queue)
+            {
+                takeSubmitted();
+            }
+            if (readyToSend()) sendBatch();
+        }
+    }
+
+    // Whether there are queued runs and no delay to wait out.
+    private boolean readyToSend()
+    {
+        return queue.size() > 0 && System.currentTimeMillis() >= retryAt;
+    }
+
+    // Moves runs handed over by submit into the queue. Called holding the queue's lock. The submit lock is only held
+    // to swap the arrays, so submit never waits for the queue file to be written.
+    private void takeSubmitted()
+    {
+        synchronized (lock)
+        {
+            IntArray swapScores = scores;
+            scores = takenScores;
+            takenScores = swapScores;
+            FloatArray swapTimes = times;
+            times = takenTimes;
+            takenTimes = swapTimes;
+            LongArray swapMapIds = mapIds;
+            mapIds = takenMapIds;
+            takenMapIds = swapMapIds;
+            LongArray swapDates = dates;
+            dates = takenDates;
+            takenDates = swapDates;
+        }
+
+        for (int i = 0; i < takenScores.size; i++)
+        {
+            try
+            {
+                queue.add(random.nextLong(), takenScores.get(i), takenTimes.get(i), takenMapIds.get(i),
+                    takenDates.get(i));
+            }
+            catch (GdxRuntimeException e)
+            {
+                // The run is still sent if the game stays open long enough.
+                Gdx.app.error("HttpLeaderboard", "Error queueing run: " + e.getMessage());
+            }
+        }
+        takenScores.clear();
+        takenTimes.clear();
+        takenMapIds.clear();
+        takenDates.clear();
+    }
+
+    private void sendBatch()
+    {
+        int count;
+        synchronized (queue)
+        {
+            count = Math.min(BATCH_SIZE, queue.size());
+            writeBody(count);
+        }
+
+        int status;
+        try
+        {
+            status = post();
+        }
+        catch (IOException e)
+        {
+            fail("Leaderboard unreachable: " + e.getMessage());
+            return;
+        }
+
+        // Timeouts and rate limits are worth retrying, other client errors are not.
+        if (status >= 500 || status == 408 || status == 429)
+        {
+            fail("Leaderboard replied " + status);
+            return;
+        }
+        synchronized (queue)
+        {
+            try
+            {
+                queue.remove(count);
+            }
+            catch (GdxRuntimeException e)
+            {
+                Gdx.app.error("HttpLeaderboard", "Error updating queue: " + e.getMessage());
+            }
+        }
+        synchronized (lock)
+        {
+            pending -= count;
+        }
+        if (status >= 300)
+        {
+            Gdx.app.error("HttpLeaderboard", "Leaderboard rejected " + count + " runs with " + status);
+        }
+        else
+        {
+            sent += count;
+        }
+        if (failing) Gdx.app.log("HttpLeaderboard", "Leaderboard reachable again");
+        failing = false;
+        backoff = 0;
+        retryAt = 0;
+    }
+
+    // Puts off the next attempt, logging only the first failure in a row.
+    private void fail(String message)
+    {
+        if (!failing) Gdx.app.error("HttpLeaderboard", message + ", will retry");
+        failing = true;
+        backoff = backoff == 0 ? minBackoff : Math.min(backoff * 2, maxBackoff);
+        retryAt = System.currentTimeMillis() + backoff / 2 + (long) (random.nextDouble() * backoff / 2);
+    }
+
+    private void writeBody(int count)
+    {
+        StringBuilder out = body;
+        out.setLength(0);
+        out.append("{\"machine\":\"").append(hex(queue.getMachineId())).append("\",\"runs\":[");
+        for (int i = 0; i < count; i++)
+        {
+            if (i > 0) out.append(',');
+            out.append("{\"id\":\"").append(hex(queue.getRunId(i)))
+                .append("\",\"score\":").append(queue.getScore(i))
+                .append(",\"time\":").append(queue.getTime(i))
+                .append(",\"map\":").append(queue.getMapId(i))
+                .append(",\"date\":").append(queue.getDate(i)).append('}');
+        }
+        out.append("]}");
+    }
+
+    private static String hex(long value)
+    {
+        String digits = Long.toHexString(value);
+        return "0000000000000000".substring(digits.length()) + digits;
+    }
+
+    private int post() throws IOException
+    {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(bytes.length);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = connection.getOutputStream())
+        {
+            out.write(bytes);
+        }
+        int status = connection.getResponseCode();
+        // The reply is read to its end, though nothing in it is used, so the connection is kept for the next batch.
+        InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (in != null)
+        {
+            try (InputStream reply = in)
+            {
+                while (reply.read(skip) >= 0) continue;
+            }
+        }
+        return status;
+    }
+}
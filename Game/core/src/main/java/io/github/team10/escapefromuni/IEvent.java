@@ -1,10 +1,15 @@
 package io.github.team10.escapefromuni;
 
+import java.nio.ByteBuffer;
+
 /**
  * Abstract base event class.
  * Events are contained within a {@link Room}, where there can be up to 1 event per room.
  */
 public interface IEvent {
+    /** Most bytes {@link #writeState(ByteBuffer)} may write. */
+    int MAX_STATE_SIZE = 32;
+
     EventType getType();
 
     /**
@@ -19,6 +24,33 @@ public interface IEvent {
      */
     void endEvent();
 
+    /**
+     * Adds the event's entities, e.g. a pickup, to the world. Called after {@link #startEvent()}, when the player
+     * enters the event's room.
+     * @param world The entities of the current room.
+     */
+    default void addEntities(EntityWorld world) {}
+
+    /**
+     * Destroys the entities added by {@link #addEntities(EntityWorld)}. Called when the player leaves the room.
+     * @param world The entities of the current room.
+     */
+    default void removeEntities(EntityWorld world) {}
+
+    /**
+     * Writes what has happened in the event so far, e.g. whether it has been triggered, to a {@link GameSnapshot}.
+     * Called between updates, possibly while the player is in the event's room.
+     * @param out The snapshot, at most {@link #MAX_STATE_SIZE} bytes of which may be written.
+     */
+    default void writeState(ByteBuffer out) {}
+
+    /**
+     * Reads back what {@link #writeState(ByteBuffer)} wrote, when a snapshot is restored. Called while the player is
+     * outside the event's room, so after {@link #removeEntities(EntityWorld)} and before the event is started again.
+     * @param in The snapshot, which must be read exactly as far as was written.
+     */
+    default void readState(ByteBuffer in) {}
+
     /**
      * Called every frame to update the event's logic.
      * @param delta The time elapsed since the last frame in seconds.
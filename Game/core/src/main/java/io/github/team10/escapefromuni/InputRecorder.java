@@ -0,0 +1,204 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+
+/**
+ * Records the {@link TickInput} of every update of a run, so the run can be played back exactly by an
+ * {@link InputReplay}.
+ *
+ * The game is deterministic given its input and the run's seed, so that is all a recording holds. It is a compact
+ * binary stream, big endian:
+ * <pre>
+ * int    magic "ESCR", byte version
+ * float  step, seconds per update
+ * long   run seed, see {@link GameController#getRunSeed()}
+ * int    generated rooms, long map seed - see {@link RoomFlowManager}
+ * ticks  runs of updates with the same buttons: a button byte and a varint count,
+ *        or for a click a button byte with {@link TickInput#TOUCH} set and the click's x and y as floats
+ * byte   0xFF, the end of the ticks
+ * byte   result, int ticks, float timer, int score, float player x, float player y
+ * </pre>
+ * Keys are held for many updates at a time, so a minute of play is a few KB.
+ *
+ * The ticks are written to a preallocated buffer, so recording allocates nothing per update. When the run ends the
+ * recording is written to {@link #FOLDER}, keeping the newest {@link #MAX_RECORDINGS}. Run with
+ * -Descape.record=false to turn recording off.
+ */
+public class InputRecorder {
+
+    /** Whether the game records runs. */
+    public static final boolean ENABLED = !"false".equals(System.getProperty("escape.record"));
+    /** Local folder recordings are written to. */
+    public static final String FOLDER = "recordings";
+    public static final String EXTENSION = ".rec";
+    public static final int MAX_RECORDINGS = 20;
+
+    public static final int WIN = 0;
+    public static final int LOSE = 1;
+    /** The run was left unfinished, e.g. the player quit to the menu or closed the game. */
+    public static final int ABANDONED = 2;
+
+    static final int MAGIC = 0x45534352;
+    static final int VERSION = 1;
+    static final int END = 0xFF;
+
+    // About ten minutes of play.
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private final FileHandle folder;
+    private final ByteArray data = new ByteArray(INITIAL_CAPACITY);
+    private boolean recording;
+    private long runSeed;
+
+    // The run of updates with the same buttons not yet written.
+    private int runButtons;
+    private int runLength;
+
+    private byte[] lastRecording;
+
+    /**
+     * @param folder Folder recordings are written to, or null to only keep the last one in memory, see
+     *               {@link #getLastRecording()}.
+     */
+    public InputRecorder(FileHandle folder)
+    {
+        this.folder = folder;
+    }
+
+    public boolean isRecording()
+    {
+        return recording;
+    }
+
+    /**
+     * Starts recording a run, discarding anything recorded since the last {@link #finish}.
+     * @param step Seconds of game time per update.
+     * @param runSeed The run's seed.
+     */
+    public void start(float step, long runSeed)
+    {
+        data.clear();
+        writeInt(MAGIC);
+        data.add((byte) VERSION);
+        writeInt(Float.floatToIntBits(step));
+        writeLong(runSeed);
+        writeInt(RoomFlowManager.getGeneratedRooms());
+        writeLong(RoomFlowManager.getMapSeed());
+        runLength = 0;
+        this.runSeed = runSeed;
+        recording = true;
+    }
+
+    /**
+     * Records the input of one update.
+     */
+    public void record(TickInput input)
+    {
+        if (!recording) return;
+
+        int buttons = input.getButtons();
+        if (input.isTouched())
+        {
+            flushRun();
+            data.add((byte) buttons);
+            writeInt(Float.floatToIntBits(input.getTouchX()));
+            writeInt(Float.floatToIntBits(input.getTouchY()));
+        }
+        else if (runLength > 0 && buttons == runButtons)
+        {
+            runLength++;
+        }
+        else
+        {
+            flushRun();
+            runButtons = buttons;
+            runLength = 1;
+        }
+    }
+
+    private void flushRun()
+    {
+        if (runLength == 0) return;
+        data.add((byte) runButtons);
+        int count = runLength;
+        while (count >= 0x80)
+        {
+            data.add((byte) (count | 0x80));
+            count >>>= 7;
+        }
+        data.add((byte) count);
+        runLength = 0;
+    }
+
+    /**
+     * Ends the recording with the run's result and final state, which a replay is checked against, and writes it
+     * to the recordings folder. Does nothing if no run is being recorded.
+     * @param result {@link #WIN}, {@link #LOSE} or {@link #ABANDONED}.
+     * @param controller The game the run was played in.
+     */
+    public void finish(int result, GameController controller)
+    {
+        if (!recording) return;
+        recording = false;
+
+        flushRun();
+        data.add((byte) END);
+        data.add((byte) result);
+        writeInt(controller.getTicks());
+        writeInt(Float.floatToIntBits(controller.getTimer().getTime()));
+        writeInt(controller.getScoreManager().getScore());
+        Player player = controller.getPlayer();
+        writeInt(Float.floatToIntBits(player.world.getX(player.entity)));
+        writeInt(Float.floatToIntBits(player.world.getY(player.entity)));
+
+        lastRecording = Arrays.copyOf(data.items, data.size);
+        if (folder != null) save();
+    }
+
+    /**
+     * @return The bytes of the last finished recording, or null if none has finished yet.
+     */
+    public byte[] getLastRecording()
+    {
+        return lastRecording;
+    }
+
+    private void save()
+    {
+        String name = "run-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + "-"
+            + Long.toHexString(runSeed) + EXTENSION;
+        try
+        {
+            folder.child(name).writeBytes(lastRecording, false);
+
+            FileHandle[] recordings = folder.list(EXTENSION);
+            if (recordings.length <= MAX_RECORDINGS) return;
+            Arrays.sort(recordings, Comparator.comparingLong(FileHandle::lastModified));
+            for (int i = 0; i < recordings.length - MAX_RECORDINGS; i++) recordings[i].delete();
+        }
+        catch (GdxRuntimeException e)
+        {
+            // Losing a recording must not stop the game.
+            Gdx.app.error("InputRecorder", "Error saving recording " + name + ": " + e.getMessage());
+        }
+    }
+
+    private void writeInt(int value)
+    {
+        data.add((byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value);
+    }
+
+    private void writeLong(long value)
+    {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+}
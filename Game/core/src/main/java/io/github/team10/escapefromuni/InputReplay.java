@@ -0,0 +1,196 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Plays back a run recorded by an {@link InputRecorder}, one {@link TickInput} per update. Started with
+ * {@link GameController#startReplay(InputReplay)}.
+ *
+ * The whole recording is checked when it is read, so a truncated or corrupt file is rejected up front rather than
+ * part way through the run. The result and final state the run was recorded with are kept, and
+ * {@link #matches(GameController, int)} tells whether the replay ended the same way, down to the bits of the timer
+ * and player position.
+ */
+public class InputReplay {
+
+    public final float step;
+    public final long runSeed;
+    public final int generatedRooms;
+    public final long mapSeed;
+
+    // What the recorded run ended with.
+    public final int result;
+    public final int ticks;
+    public final float time;
+    public final int score;
+    public final float playerX;
+    public final float playerY;
+
+    private final byte[] data;
+    private final int ticksStart;
+    private final TickInput scratch = new TickInput();
+    private int position;
+    // Updates left in the current run of equal buttons.
+    private int runButtons;
+    private int runLeft;
+    private boolean finished;
+
+    public static InputReplay load(FileHandle file)
+    {
+        return new InputReplay(file.readBytes());
+    }
+
+    /**
+     * @param data A recording from {@link InputRecorder#getLastRecording()} or a recording file.
+     * @throws GdxRuntimeException if it is not a valid recording.
+     */
+    public InputReplay(byte[] data)
+    {
+        this.data = data;
+        if (data.length < 29 || readInt() != InputRecorder.MAGIC) throw new GdxRuntimeException("Not a recording");
+        int version = data[position++];
+        if (version != InputRecorder.VERSION)
+        {
+            throw new GdxRuntimeException("Recording is version " + version + ", expected " + InputRecorder.VERSION);
+        }
+        step = Float.intBitsToFloat(readInt());
+        runSeed = readLong();
+        generatedRooms = readInt();
+        mapSeed = readLong();
+        ticksStart = position;
+
+        // Counts the ticks to find the end, checking every run on the way.
+        int counted = 0;
+        while (next(scratch)) counted++;
+        if (position + 21 > data.length) throw new GdxRuntimeException("Recording is truncated");
+        result = data[position++];
+        ticks = readInt();
+        time = Float.intBitsToFloat(readInt());
+        score = readInt();
+        playerX = Float.intBitsToFloat(readInt());
+        playerY = Float.intBitsToFloat(readInt());
+        if (counted != ticks)
+        {
+            throw new GdxRuntimeException("Recording has " + counted + " ticks, but its run ended after " + ticks);
+        }
+
+        rewind();
+    }
+
+    /**
+     * Goes back to the first update.
+     */
+    public void rewind()
+    {
+        position = ticksStart;
+        runLeft = 0;
+        finished = false;
+    }
+
+    /**
+     * Skips to an update, e.g. to carry on from a {@link GameSnapshot} taken while the recording was replayed.
+     * @param tick The number of updates to skip from the start.
+     */
+    public void seek(int tick)
+    {
+        rewind();
+        int skipped = 0;
+        while (skipped < tick && next(scratch)) skipped++;
+    }
+
+    /**
+     * Reads the input of the next update.
+     * @param out Set to the input, or cleared if the recording has ended.
+     * @return Whether there was another update.
+     */
+    public boolean next(TickInput out)
+    {
+        if (runLeft > 0)
+        {
+            runLeft--;
+            out.set(runButtons, 0f, 0f);
+            return true;
+        }
+        if (finished || position >= data.length)
+        {
+            if (!finished) throw new GdxRuntimeException("Recording is truncated");
+            out.clear();
+            return false;
+        }
+
+        int buttons = data[position++] & 0xFF;
+        if (buttons == InputRecorder.END)
+        {
+            finished = true;
+            out.clear();
+            return false;
+        }
+        if ((buttons & ~TickInput.ALL) != 0)
+        {
+            throw new GdxRuntimeException("Corrupt recording at byte " + (position - 1));
+        }
+
+        if ((buttons & TickInput.TOUCH) != 0)
+        {
+            out.set(buttons, Float.intBitsToFloat(readInt()), Float.intBitsToFloat(readInt()));
+            return true;
+        }
+
+        int count = 0;
+        for (int shift = 0; ; shift += 7)
+        {
+            if (position >= data.length || shift > 28) throw new GdxRuntimeException("Recording is truncated");
+            int b = data[position++];
+            count |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) break;
+        }
+        if (count <= 0) throw new GdxRuntimeException("Corrupt recording at byte " + position);
+        runButtons = buttons;
+        runLeft = count - 1;
+        out.set(buttons, 0f, 0f);
+        return true;
+    }
+
+    /**
+     * @return Whether every recorded update has been read.
+     */
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    /**
+     * Checks a replayed run against the recording.
+     * @param controller The game the recording was replayed in.
+     * @param result How the replayed run ended: {@link InputRecorder#WIN}, {@link InputRecorder#LOSE} or
+     *               {@link InputRecorder#ABANDONED} if it did not end.
+     * @return Whether it ended the same way after the same number of updates, with the same timer, score and player
+     *     position.
+     */
+    public boolean matches(GameController controller, int result)
+    {
+        Player player = controller.getPlayer();
+        return result == this.result
+            && controller.getTicks() == ticks
+            && Float.floatToIntBits(controller.getTimer().getTime()) == Float.floatToIntBits(time)
+            && controller.getScoreManager().getScore() == score
+            && Float.floatToIntBits(player.world.getX(player.entity)) == Float.floatToIntBits(playerX)
+            && Float.floatToIntBits(player.world.getY(player.entity)) == Float.floatToIntBits(playerY);
+    }
+
+    private int readInt()
+    {
+        if (position + 4 > data.length) throw new GdxRuntimeException("Recording is truncated");
+        int value = (data[position] & 0xFF) << 24 | (data[position + 1] & 0xFF) << 16
+            | (data[position + 2] & 0xFF) << 8 | (data[position + 3] & 0xFF);
+        position += 4;
+        return value;
+    }
+
+    private long readLong()
+    {
+        long high = readInt();
+        return high << 32 | (readInt() & 0xFFFFFFFFL);
+    }
+}
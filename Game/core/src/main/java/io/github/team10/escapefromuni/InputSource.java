@@ -0,0 +1,41 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+
+/**
+ * Source of the player input read by gameplay code.
+ *
+ * The game reads {@link Gdx#input} through {@link GdxInputSource}. The headless simulation plugs in a scripted
+ * source instead, so the room, door, event and timer loop can run without a window.
+ */
+public interface InputSource {
+
+    /**
+     * @param key A key code from {@link Input.Keys}.
+     * @return Whether the key is currently held down.
+     */
+    boolean isKeyPressed(int key);
+
+    /**
+     * Called once per rendered frame, before the game updates run in it. A frame can run no updates, or several, so
+     * a click seen here is kept until an update takes it with {@link #justTouched()}.
+     */
+    void latchFrame();
+
+    /**
+     * Takes the click kept by {@link #latchFrame()}, so each click is seen by exactly one update.
+     * @return Whether the screen was touched or clicked since the last call.
+     */
+    boolean justTouched();
+
+    /**
+     * @return The x-coord of the last click, in screen coordinates.
+     */
+    int getX();
+
+    /**
+     * @return The y-coord of the last click, in screen coordinates with the origin at the top left.
+     */
+    int getY();
+}
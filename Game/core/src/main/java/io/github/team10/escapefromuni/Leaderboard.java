@@ -0,0 +1,26 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Somewhere won runs are sent to be ranked against other machines' runs, e.g. {@link HttpLeaderboard}. Runs are
+ * submitted by {@link GameplayStateManager#triggerWin} when {@link EscapeGame#leaderboard} is set.
+ *
+ * Submitting must return straight away, as it is called on the render thread. Anything slow, like sending the run,
+ * is done later or elsewhere. Disposing the leaderboard keeps runs not sent yet, if it can, to be sent next time.
+ */
+public interface Leaderboard extends Disposable {
+
+    /**
+     * Queues a won run to be sent.
+     * @param time Seconds the run took.
+     * @param mapId The map it was played on, see {@link RoomFlowManager#getMapId()}.
+     * @param date When it ended, in milliseconds since the epoch.
+     */
+    void submit(int score, float time, long mapId, long date);
+
+    /**
+     * @return Runs submitted but not yet sent.
+     */
+    int getPending();
+}
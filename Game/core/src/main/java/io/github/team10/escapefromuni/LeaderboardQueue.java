@@ -0,0 +1,207 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * Runs waiting to be sent to a leaderboard, kept in a file so they are sent even if the game is closed or crashes
+ * first. Used by {@link HttpLeaderboard}, from its own thread.
+ *
+ * New runs are appended to the file. Runs are taken off the front once sent, by writing the rest to a new file and
+ * moving it over the old one in a single rename, so the file is never left half written. Big endian:
+ * <pre>
+ * header  int magic "ESLQ", int version, long machine id
+ * record  long run id, int score, float seconds, long map id, long date, int CRC-32
+ * </pre>
+ * The machine id is picked at random when the file is made and tells the server which machine sent a run. The run
+ * id is picked at random when the run is queued, so a batch sent twice, e.g. because the reply to the first was lost,
+ * is only counted once. As in {@link HighScores}, a record that fails its checksum is dropped, which at the end of
+ * the file is what is left of a write the game did not finish.
+ *
+ * Queues are small, as runs are sent whenever the server can be reached, so the whole queue is kept in memory.
+ */
+public class LeaderboardQueue {
+
+    static final int MAGIC = 0x45534C51;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 36;
+    private static final int CHECKED_SIZE = RECORD_SIZE - 4;
+
+    private final FileHandle file;
+    private final long machineId;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+
+    // The queued records, oldest first.
+    private ByteBuffer records = ByteBuffer.allocate(64 * RECORD_SIZE);
+    private int size;
+
+    /**
+     * Reads the queue, or makes a new one with a new machine id.
+     * @param file The queue, or null to keep it in memory only.
+     * @param newMachineId The machine id if a new queue is made.
+     * @throws GdxRuntimeException if the file is not a queue of this version or cannot be read.
+     */
+    public LeaderboardQueue(FileHandle file, long newMachineId)
+    {
+        this.file = file;
+        if (file == null || !file.exists() || file.length() < HEADER_SIZE)
+        {
+            machineId = newMachineId;
+            if (file != null) rewrite();
+            return;
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(file.readBytes());
+        if (in.getInt(0) != MAGIC || in.getInt(4) != VERSION)
+        {
+            throw new GdxRuntimeException(file + " is not a version " + VERSION + " leaderboard queue");
+        }
+        machineId = in.getLong(8);
+
+        int dropped = 0;
+        for (int at = HEADER_SIZE; at < in.capacity(); at += RECORD_SIZE)
+        {
+            if (in.capacity() - at < RECORD_SIZE || !check(in.array(), at, in.getInt(at + CHECKED_SIZE)))
+            {
+                dropped++;
+                continue;
+            }
+            ensureCapacity(size + 1);
+            records.put(in.array(), at, RECORD_SIZE);
+            size++;
+        }
+        if (dropped > 0)
+        {
+            // Writing the queue again cuts off any unfinished write, so new records line up.
+            Gdx.app.error("LeaderboardQueue", "Dropped " + dropped + " damaged runs from " + file);
+            rewrite();
+        }
+    }
+
+    private boolean check(byte[] bytes, int at, int checksum)
+    {
+        crc.reset();
+        crc.update(bytes, at, CHECKED_SIZE);
+        return (int) crc.getValue() == checksum;
+    }
+
+    public long getMachineId()
+    {
+        return machineId;
+    }
+
+    /**
+     * @return The number of runs queued.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Appends a run to the queue.
+     * @throws GdxRuntimeException if it cannot be written to the file. It is still queued in memory.
+     */
+    public void add(long runId, int score, float time, long mapId, long date)
+    {
+        ByteBuffer out = record;
+        out.clear();
+        out.putLong(runId).putInt(score).putFloat(time).putLong(mapId).putLong(date);
+        crc.reset();
+        crc.update(out.array(), 0, CHECKED_SIZE);
+        out.putInt((int) crc.getValue());
+
+        ensureCapacity(size + 1);
+        records.put(out.array());
+        size++;
+        if (file != null) file.writeBytes(out.array(), true);
+    }
+
+    /**
+     * Takes runs off the front of the queue, once they have been sent.
+     * @throws GdxRuntimeException if the file cannot be written. They are still taken off the queue in memory.
+     */
+    public void remove(int count)
+    {
+        int end = size * RECORD_SIZE;
+        System.arraycopy(records.array(), count * RECORD_SIZE, records.array(), 0, end - count * RECORD_SIZE);
+        size -= count;
+        records.position(size * RECORD_SIZE);
+        if (file != null) rewrite();
+    }
+
+    private void rewrite()
+    {
+        byte[] bytes = new byte[HEADER_SIZE + size * RECORD_SIZE];
+        ByteBuffer.wrap(bytes).putInt(MAGIC).putInt(VERSION).putLong(machineId);
+        System.arraycopy(records.array(), 0, bytes, HEADER_SIZE, size * RECORD_SIZE);
+        FileHandle temp = file.sibling(file.name() + ".tmp");
+        temp.writeBytes(bytes, false);
+        try
+        {
+            try
+            {
+                Files.move(temp.file().toPath(), file.file().toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                // E.g. on a file system without an atomic rename, where the old file is replaced as best it can be.
+                Files.move(temp.file().toPath(), file.file().toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error writing " + file, e);
+        }
+    }
+
+    /**
+     * @param index From 0, the oldest run.
+     */
+    public long getRunId(int index)
+    {
+        return records.getLong(index * RECORD_SIZE);
+    }
+
+    public int getScore(int index)
+    {
+        return records.getInt(index * RECORD_SIZE + 8);
+    }
+
+    /**
+     * @return Seconds the run took.
+     */
+    public float getTime(int index)
+    {
+        return records.getFloat(index * RECORD_SIZE + 12);
+    }
+
+    public long getMapId(int index)
+    {
+        return records.getLong(index * RECORD_SIZE + 16);
+    }
+
+    public long getDate(int index)
+    {
+        return records.getLong(index * RECORD_SIZE + 24);
+    }
+
+    private void ensureCapacity(int runs)
+    {
+        if (records.capacity() >= runs * RECORD_SIZE) return;
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(runs * RECORD_SIZE, records.capacity() * 2));
+        grown.put(records.array(), 0, size * RECORD_SIZE);
+        records = grown;
+    }
+}
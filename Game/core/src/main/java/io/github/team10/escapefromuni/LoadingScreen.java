@@ -0,0 +1,64 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+/**
+ * First screen shown on launch. Drives {@link GameAssets} and displays a progress bar.
+ *
+ * The font is not available until loading finishes, so the bar is drawn with a 1x1 white texture.
+ * Once everything is loaded {@link EscapeGame#onAssetsLoaded()} builds the game and opens the main menu.
+ */
+public class LoadingScreen extends ScreenAdapter {
+    private final EscapeGame game;
+    private final Texture pixel;
+
+    private static final float BAR_WIDTH = 960f;
+    private static final float BAR_HEIGHT = 40f;
+
+    public LoadingScreen(EscapeGame game)
+    {
+        this.game = game;
+
+        Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        pixmap.setColor(Color.WHITE);
+        pixmap.fill();
+        pixel = new Texture(pixmap);
+        pixmap.dispose();
+    }
+
+    @Override
+    public void render(float delta)
+    {
+        if (game.assets.update())
+        {
+            game.onAssetsLoaded();
+            dispose();
+            return;
+        }
+
+        ScreenUtils.clear(Color.BLACK);
+        game.uiViewport.apply();
+        game.batch.setProjectionMatrix(game.uiCamera.combined);
+        game.batch.begin();
+
+        float x = (game.uiViewport.getWorldWidth() - BAR_WIDTH) / 2f;
+        float y = (game.uiViewport.getWorldHeight() - BAR_HEIGHT) / 2f;
+
+        game.batch.setColor(Color.DARK_GRAY);
+        game.batch.draw(pixel, x, y, BAR_WIDTH, BAR_HEIGHT);
+        game.batch.setColor(Color.WHITE);
+        game.batch.draw(pixel, x, y, BAR_WIDTH * game.assets.getProgress(), BAR_HEIGHT);
+
+        game.batch.end();
+    }
+
+    @Override
+    public void dispose()
+    {
+        pixel.dispose();
+    }
+}
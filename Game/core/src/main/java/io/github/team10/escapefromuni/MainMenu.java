@@ -4,11 +4,9 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import io.github.team10.escapefromuni.TextureRegistry.TextureHandle;
 
 /**
  * Main menu screen displayed on game launch with menu options:
@@ -18,10 +16,9 @@ public class MainMenu implements Screen {
 
     private final EscapeGame game;
     private final UIController ui;
-    private Texture backgroundImage;
-    private Texture buttonTexture;
-    private BitmapFont font;
-    private GlyphLayout layout;
+    private TextureHandle backgroundImage;
+    private TextureHandle buttonTexture;
+    private final Vector2 touchPos = new Vector2();
 
     // buttons
     private Rectangle startButton;
@@ -29,25 +26,42 @@ public class MainMenu implements Screen {
     private Rectangle settingsButton;
     private Rectangle exitButton;
 
+    // button labels, laid out once
+    private final CachedText startLabel;
+    private final CachedText tutorialLabel;
+    private final CachedText settingsLabel;
+    private final CachedText exitLabel;
+
+    // best runs on the current map
+    private final HighScoreBoard board;
+
     // hover states for nuttons
     private boolean startHovered;
     private boolean tutorialHovered;
     private boolean settingsHovered;
     private boolean exitHovered;
 
+    // background and buttons, built again only when a button's hover state changes
+    private static final Color HOVER_TINT = new Color(1f, 1f, 0.5f, 1f);
+    private final StaticLayer chrome = new StaticLayer(5);
+    private int chromeHoverState = -1;
+
+    /**
+     * Creates the main menu. Layout is built once here, as the {@link UIController} reuses the screen.
+     */
     public MainMenu(EscapeGame game, UIController ui) {
         this.game = game;
         this.ui = ui;
-    }
 
-    @Override
-    public void show() {
         // backgrouns
-        backgroundImage = new Texture(Gdx.files.internal("mainmenu_background.png"));
-        buttonTexture = new Texture(Gdx.files.internal("ButtonBG.png"));
+        backgroundImage = game.textures.acquire("mainmenu_background.png");
+        buttonTexture = game.textures.acquire("ButtonBG.png");
 
-        font = game.font;
-        layout = new GlyphLayout();
+        startLabel = createLabel("Start Game");
+        tutorialLabel = createLabel("Tutorial");
+        settingsLabel = createLabel("Settings");
+        exitLabel = createLabel("Exit");
+        board = new HighScoreBoard(game.font, "Best escapes", 5);
 
         // button sizes
         float buttonWidth = 400f;
@@ -63,57 +77,79 @@ public class MainMenu implements Screen {
         tutorialButton = new Rectangle(centerX - buttonWidth / 2f, screenHeight / 2f + 50f, buttonWidth, buttonHeight);
         settingsButton = new Rectangle(centerX - buttonWidth / 2f, screenHeight / 2f - 50f, buttonWidth, buttonHeight);
         exitButton = new Rectangle(centerX - buttonWidth / 2f, screenHeight / 2f - 150f, buttonWidth, buttonHeight);
+    }
 
+    private CachedText createLabel(String text) {
+        CachedText label = new CachedText(game.font);
+        label.setText(text);
+        return label;
+    }
+
+    @Override
+    public void show() {
+        game.renderOnDemand();
+        board.set(game.highScores.getTop(RoomFlowManager.getMapId()), 0);
         //menu music 
         AudioManager.getInstance().playMenuMusic();
     }
 
     // Draws the main menu UI
     public void display() {
-        game.viewport.apply();
-        game.batch.setProjectionMatrix(game.viewport.getCamera().combined);
-        game.batch.begin();
-        game.batch.draw(backgroundImage, 0, 0, game.viewport.getWorldWidth(), game.viewport.getWorldHeight());
-        game.batch.end();
-
         game.uiViewport.apply();
+
+        int hoverState = (startHovered ? 1 : 0) | (tutorialHovered ? 2 : 0) | (settingsHovered ? 4 : 0)
+            | (exitHovered ? 8 : 0);
+        if (hoverState != chromeHoverState) {
+            chromeHoverState = hoverState;
+            buildChrome();
+        }
+        chrome.draw(game.uiCamera.combined);
+
         game.batch.setProjectionMatrix(game.uiCamera.combined);
         game.batch.begin();
 
-        // draw all main menu buttons
-        drawButton(startButton, "Start Game", startHovered);
-        drawButton(tutorialButton, "Tutorial", tutorialHovered);
-        drawButton(settingsButton, "Settings", settingsHovered);
-        drawButton(exitButton, "Exit", exitHovered);
+        // button labels on top of the cached buttons
+        drawLabel(startButton, startLabel);
+        drawLabel(tutorialButton, tutorialLabel);
+        drawLabel(settingsButton, settingsLabel);
+        drawLabel(exitButton, exitLabel);
+
+        // on the dark ground at the bottom left of the background
+        board.draw(game.batch, 80f, 320f);
 
         game.batch.end();
     }
 
-    //the buttons
-    private void drawButton(Rectangle button, String text, boolean hovered) {
-
-        if (hovered) {
-            game.batch.setColor(1f, 1f, 0.5f, 1f);
-        } else {
-            game.batch.setColor(Color.WHITE);
-        }
+    // background and all main menu buttons
+    private void buildChrome() {
+        // The world and UI viewports cover the same part of the screen, so the background is drawn in UI units.
+        chrome.begin();
+        chrome.add(backgroundImage.get(), 0, 0, game.uiViewport.getWorldWidth(), game.uiViewport.getWorldHeight());
+        addButton(startButton, startHovered);
+        addButton(tutorialButton, tutorialHovered);
+        addButton(settingsButton, settingsHovered);
+        addButton(exitButton, exitHovered);
+        chrome.end();
+    }
 
+    //the buttons
+    private void addButton(Rectangle button, boolean hovered) {
         //button bg,size etc
-        game.batch.draw(buttonTexture, button.x, button.y, button.width, button.height);
-        game.batch.setColor(Color.WHITE);
-
-        layout.setText(font, text);
-        float textX = button.x + (button.width - layout.width) / 2f;
-        float textY = button.y + (button.height + layout.height) / 2f;
+        chrome.add(buttonTexture.get(), button.x, button.y, button.width, button.height,
+            hovered ? HOVER_TINT : Color.WHITE);
+    }
 
-        font.setColor(Color.WHITE);
-        font.draw(game.batch, layout, textX, textY);
+    private void drawLabel(Rectangle button, CachedText label) {
+        float textX = button.x + (button.width - label.getWidth()) / 2f;
+        float textY = button.y + (button.height + label.getHeight()) / 2f;
+        label.setPosition(textX, textY);
+        label.draw(game.batch);
     }
 
     private boolean isButtonClicked(Rectangle button) {
         // click detector
         if (Gdx.input.justTouched()) {
-            Vector2 touchPos = new Vector2(Gdx.input.getX(), Gdx.input.getY());
+            touchPos.set(Gdx.input.getX(), Gdx.input.getY());
             game.uiViewport.unproject(touchPos);
 
             if (button.contains(touchPos.x, touchPos.y)) {
@@ -127,30 +163,27 @@ public class MainMenu implements Screen {
 
     private boolean isButtonHovered(Rectangle button) {
         // detect mouse hover in UI coordinates
-        Vector2 mousePos = new Vector2(Gdx.input.getX(), Gdx.input.getY());
-        game.uiViewport.unproject(mousePos);
-        return button.contains(mousePos.x, mousePos.y);
+        touchPos.set(Gdx.input.getX(), Gdx.input.getY());
+        game.uiViewport.unproject(touchPos);
+        return button.contains(touchPos.x, touchPos.y);
     }
 
     public void onStartGame() {
         // switch to main gameplay
         System.out.println("Starting game...");
         ui.startGame();
-        dispose();
     }
 
     public void onTutorial() {
         // open tutorial page
         System.out.println("Opening tutorial...");
         ui.showTutorial();
-        dispose();
     }
 
     public void onSettings() {
         // open settings page
         System.out.println("Opening settings...");
         ui.showSettings(this);
-        dispose();
     }
 
     public void onExit() {
@@ -202,8 +235,8 @@ public class MainMenu implements Screen {
 
     @Override
     public void dispose() {
-        
-        backgroundImage.dispose();
-        buttonTexture.dispose();
+        backgroundImage.release();
+        buttonTexture.release();
+        chrome.dispose();
     }
 }
@@ -0,0 +1,52 @@
+package io.github.team10.escapefromuni;
+
+/**
+ * Moves {@link EntityWorld#CONTROLLED} entities, i.e. the player, with the arrow keys or WASD as read into the
+ * game's {@link TickInput}, keeping their centre at least {@link #EDGE_LIMIT} from the edges of the world.
+ */
+public class MovementSystem {
+
+    private static final float EDGE_LIMIT = 1f;
+    private static final int REQUIRED = EntityWorld.POSITION | EntityWorld.CONTROLLED;
+
+    private final EscapeGame game;
+    private final EntityWorld world;
+
+    public MovementSystem(EscapeGame game, EntityWorld world)
+    {
+        this.game = game;
+        this.world = world;
+    }
+
+    /**
+     * @param delta The time in seconds since the last update.
+     */
+    public void update(float delta)
+    {
+        TickInput input = game.tickInput;
+        boolean right = input.isDown(TickInput.RIGHT);
+        boolean left = input.isDown(TickInput.LEFT);
+        boolean up = input.isDown(TickInput.UP);
+        boolean down = input.isDown(TickInput.DOWN);
+        float worldWidth = game.viewport.getWorldWidth();
+        float worldHeight = game.viewport.getWorldHeight();
+
+        EntityWorld w = world;
+        for (int e = 0; e < w.size; e++)
+        {
+            if (!w.alive[e] || (w.mask[e] & REQUIRED) != REQUIRED) continue;
+
+            w.previousX[e] = w.x[e];
+            w.previousY[e] = w.y[e];
+            if (!w.active[e] || !w.movementEnabled[e]) continue;
+
+            float centreX = w.x[e] + w.width[e] / 2f;
+            float centreY = w.y[e] + w.height[e] / 2f;
+            float step = w.speed[e] * delta;
+            if (right && centreX < worldWidth - EDGE_LIMIT) w.x[e] += step;
+            if (left && centreX > EDGE_LIMIT) w.x[e] -= step;
+            if (up && centreY < worldHeight - EDGE_LIMIT) w.y[e] += step;
+            if (down && centreY > EDGE_LIMIT) w.y[e] -= step;
+        }
+    }
+}
@@ -4,52 +4,71 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector3;
+import io.github.team10.escapefromuni.TextureRegistry.TextureHandle;
 /**
  * Pause menu displayed during gameplay.
- * triggered by ESC key. shows paused timer and the options; Resume, Exit.
+ * triggered by ESC key. shows paused timer and the options; Resume, Restart, Settings, Exit.
  */
 
 public class PauseMenu implements Screen {
     
     private final EscapeGame game;
     private final UIController uiController;
-    private final GameScreen gameScreen;
-    private BitmapFont font;
-    private GlyphLayout layout;
-    private int pausedTime;
-    private Texture backgroundImage;
-    private Texture buttonTexture;
+    private GameScreen gameScreen;
+    private final UIFont font;
+    private final Vector3 touchPos = new Vector3();
+    private int pausedTime = -1;
+
+    // Laid out once; the time is only laid out again when the game is paused at a different time.
+    private final CachedText titleLabel;
+    private final CachedText timeLabel;
+    private final CachedText resumeLabel;
+    private final CachedText restartLabel;
+    private final CachedText settingsLabel;
+    private final CachedText exitLabel;
+    private TextureHandle backgroundImage;
+    private TextureHandle buttonTexture;
     
     // Button rectangles
     private Rectangle resumeButton;
+    private Rectangle restartButton;
     private Rectangle settingsButton;
     private Rectangle exitButton;
     
     // Button states
     private boolean resumeHovered;
+    private boolean restartHovered;
     private boolean settingsHovered;
     private boolean exitHovered;
-    
+
+    // Background and buttons, built again only when a button's hover state changes
+    private static final Color HOVER_TINT = new Color(1f, 1f, 0.5f, 1f);
+    private final StaticLayer chrome = new StaticLayer(5);
+    private int chromeHoverState = -1;
+    
+    /**
+     * Creates the pause menu and builds its layout. The {@link UIController} keeps the instance and calls
+     * {@link #reset(GameScreen, int)} each time the game is paused.
+     */
     public PauseMenu(EscapeGame game, UIController uiController, GameScreen gameScreen, int pausedTime) {
         this.game = game;
         this.uiController = uiController;
-        this.gameScreen = gameScreen;
-        this.pausedTime = pausedTime;
-    }
-    
-    @Override
-    public void show() {
-        //button designings
-        backgroundImage = new Texture(Gdx.files.internal("pausemenu_background.png"));
-        buttonTexture = new Texture(Gdx.files.internal("ButtonBG.png"));
-        
         font = game.font;
-        layout = new GlyphLayout();
+        titleLabel = new CachedText(font);
+        titleLabel.setColor(Color.YELLOW);
+        titleLabel.setText("You pulled out 'Exceptional Circumstances' card on dean");
+        timeLabel = new CachedText(font);
+        resumeLabel = new CachedText(font);
+        restartLabel = new CachedText(font);
+        settingsLabel = new CachedText(font);
+        exitLabel = new CachedText(font);
+        reset(gameScreen, pausedTime);
+
+        //button designings
+        backgroundImage = game.textures.acquire("pausemenu_background.png");
+        buttonTexture = game.textures.acquire("ButtonBG.png");
         
         float buttonWidth = 600f;
         float buttonHeight = 100f;
@@ -57,73 +76,92 @@ public class PauseMenu implements Screen {
         float centerX = screenWidth / 2f;
         
         //buttons positioning
-        resumeButton = new Rectangle(centerX - buttonWidth / 2f, 500f, buttonWidth, buttonHeight);
-        settingsButton = new Rectangle(centerX - buttonWidth / 2f, 350f, buttonWidth, buttonHeight);
-        exitButton = new Rectangle(centerX - buttonWidth / 2f, 200f, buttonWidth, buttonHeight);
+        resumeButton = new Rectangle(centerX - buttonWidth / 2f, 480f, buttonWidth, buttonHeight);
+        restartButton = new Rectangle(centerX - buttonWidth / 2f, 360f, buttonWidth, buttonHeight);
+        settingsButton = new Rectangle(centerX - buttonWidth / 2f, 240f, buttonWidth, buttonHeight);
+        exitButton = new Rectangle(centerX - buttonWidth / 2f, 120f, buttonWidth, buttonHeight);
+    }
+
+    /**
+     * Rebinds the menu to a paused game.
+     * @param gameScreen The screen to return to on resume.
+     * @param pausedTime Elapsed game time in seconds when the game was paused.
+     */
+    public void reset(GameScreen gameScreen, int pausedTime) {
+        this.gameScreen = gameScreen;
+        showPausedTimer(pausedTime);
+    }
 
+    @Override
+    public void show() {
+        game.renderOnDemand();
         AudioManager.getInstance().playMenuMusic();
     }
     
     ////displays  pause menu
     public void display() {
-        game.viewport.apply();
-        game.batch.setProjectionMatrix(game.viewport.getCamera().combined);
-        game.batch.begin();
-        game.batch.draw(backgroundImage, 0, 0, game.viewport.getWorldWidth(), game.viewport.getWorldHeight());
-        game.batch.end();
+        game.uiViewport.apply();
+        int hoverState = (resumeHovered ? 1 : 0) | (settingsHovered ? 2 : 0) | (exitHovered ? 4 : 0)
+            | (restartHovered ? 8 : 0);
+        if (hoverState != chromeHoverState) {
+            chromeHoverState = hoverState;
+            buildChrome();
+        }
+        chrome.draw(game.uiCamera.combined);
         
         //UI
-        game.uiViewport.apply();
         game.batch.setProjectionMatrix(game.uiCamera.combined);
         game.batch.begin();
         
-        String title = "You pulled out 'Exceptional Circumstances' card on dean";
-        layout.setText(font, title);
-        float titleX = (game.uiViewport.getWorldWidth() - layout.width) / 2f;
+        float titleX = (game.uiViewport.getWorldWidth() - titleLabel.getWidth()) / 2f;
         float titleY = 750f; 
-        font.setColor(Color.YELLOW);
-        font.draw(game.batch, layout, titleX, titleY);
+        titleLabel.setPosition(titleX, titleY);
+        titleLabel.draw(game.batch);
         
         //pause menu timer
-        showPausedTimer(pausedTime);
-        int minutes = pausedTime / 60;
-        int seconds = pausedTime % 60;
-        String timeText = String.format("Time: %02d:%02d", minutes, seconds);
-        layout.setText(font, timeText);
-        float timeX = (game.uiViewport.getWorldWidth() - layout.width) / 2f;
+        float timeX = (game.uiViewport.getWorldWidth() - timeLabel.getWidth()) / 2f;
         float timeY = 650f;
-        font.setColor(Color.WHITE);
-        font.draw(game.batch, layout, timeX, timeY);
+        timeLabel.setPosition(timeX, timeY);
+        timeLabel.draw(game.batch);
 
-        //buttons
-        drawButton(resumeButton, "Resume", resumeHovered);
-        drawButton(settingsButton, "Settings", settingsHovered);
-        drawButton(exitButton, "Exit to Menu", exitHovered);
+        //button labels, on the cached buttons
+        drawLabel(resumeButton, resumeLabel, "Resume");
+        drawLabel(restartButton, restartLabel, "Restart");
+        drawLabel(settingsButton, settingsLabel, "Settings");
+        drawLabel(exitButton, exitLabel, "Exit to Menu");
         
         game.batch.end();
     }
+
+    // Background and buttons. The world and UI viewports cover the same part of the screen, so the background is
+    // drawn in UI units.
+    private void buildChrome() {
+        chrome.begin();
+        chrome.add(backgroundImage.get(), 0, 0, game.uiViewport.getWorldWidth(), game.uiViewport.getWorldHeight());
+        addButton(resumeButton, resumeHovered);
+        addButton(restartButton, restartHovered);
+        addButton(settingsButton, settingsHovered);
+        addButton(exitButton, exitHovered);
+        chrome.end();
+    }
+
+    private void addButton(Rectangle button, boolean hovered) {
+        chrome.add(buttonTexture.get(), button.x, button.y, button.width, button.height,
+            hovered ? HOVER_TINT : Color.WHITE);
+    }
     
-    private void drawButton(Rectangle button, String text, boolean hovered) {
-        if (hovered) {
-            game.batch.setColor(1f, 1f, 0.5f, 1f);
-        } else {
-            game.batch.setColor(Color.WHITE);
-        }
-        game.batch.draw(buttonTexture, button.x, button.y, button.width, button.height);
-        game.batch.setColor(Color.WHITE);
-        
-        layout.setText(font, text);
-        float textX = button.x + (button.width - layout.width) / 2f;
-        float textY = button.y + (button.height + layout.height) / 2f;
-        
-        font.setColor(Color.WHITE);
-        font.draw(game.batch, layout, textX, textY);
+    private void drawLabel(Rectangle button, CachedText label, String text) {
+        label.setText(text);
+        float textX = button.x + (button.width - label.getWidth()) / 2f;
+        float textY = button.y + (button.height + label.getHeight()) / 2f;
+        label.setPosition(textX, textY);
+        label.draw(game.batch);
     }
     
     //click detection
     private boolean isButtonClicked(Rectangle button) {
         if (Gdx.input.justTouched()) {
-            Vector3 touchPos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
+            touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
             game.uiCamera.unproject(touchPos);
             if (button.contains(touchPos.x, touchPos.y)) {
                 AudioManager.getInstance().playClickSound();
@@ -135,34 +173,39 @@ public class PauseMenu implements Screen {
     
     //hover detection
     private boolean isButtonHovered(Rectangle button) {
-        Vector3 mousePos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
-        game.uiCamera.unproject(mousePos);
-        return button.contains(mousePos.x, mousePos.y);
+        touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+        game.uiCamera.unproject(touchPos);
+        return button.contains(touchPos.x, touchPos.y);
     }
     
     // shows paused timer with ELAPSED TIME
     public void showPausedTimer(int time) {
+        if (time == pausedTime) return;
         this.pausedTime = time;
+        int minutes = time / 60;
+        int seconds = time % 60;
+        timeLabel.setText(String.format("Time: %02d:%02d", minutes, seconds));
     }
     
     
     public void onResume() {
         System.out.println("Resuming game...");
         uiController.resumeGame(gameScreen);
-        dispose();
+    }
+    
+    public void onRestart() {
+        System.out.println("Restarting game...");
+        uiController.restartGame(gameScreen);
     }
     
     public void onSettings() {
         System.out.println("Opening settings from pause menu...");
         uiController.showSettings(this);
-        dispose();
     }
     
     public void onExit() {
         System.out.println("Returning to main menu...");
-        gameScreen.dispose();
-        uiController.showMainMenu();
-        dispose();
+        uiController.quitToMainMenu();
     }
     
     @Override
@@ -171,11 +214,14 @@ public class PauseMenu implements Screen {
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
         
         resumeHovered = isButtonHovered(resumeButton);
+        restartHovered = isButtonHovered(restartButton);
         settingsHovered = isButtonHovered(settingsButton);
         exitHovered = isButtonHovered(exitButton);
         
         if (isButtonClicked(resumeButton)) {
             onResume();
+        } else if (isButtonClicked(restartButton)) {
+            onRestart();
         } else if (isButtonClicked(settingsButton)) {
             onSettings();
         } else if (isButtonClicked(exitButton)) {
@@ -201,7 +247,8 @@ public class PauseMenu implements Screen {
     
     @Override
     public void dispose() {
-        backgroundImage.dispose();
-        buttonTexture.dispose();
+        backgroundImage.release();
+        buttonTexture.release();
+        chrome.dispose();
     }
 }
\ No newline at end of file
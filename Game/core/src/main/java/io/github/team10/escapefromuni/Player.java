@@ -1,25 +1,20 @@
 package io.github.team10.escapefromuni;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
 /**
  * Represents the player character.
  *
- * Handles player rendering, movement and collision detection.
+ * The player is an entity in the {@link EntityWorld}, moved by the {@link MovementSystem} and drawn by the
+ * {@link SpriteSystem}. This class creates it and gives the rest of the game a view of it.
  */
 public class Player {
-    public Texture playerTexture;
-    public Sprite playerSprite;
-    public float speed;
     public EscapeGame game;
-    private boolean movementEnabled;
-    private boolean textureDisposed = false;
-
-    private final float EDGE_LIMIT = 1f;
+    public final EntityWorld world;
+    /** The player's entity. */
+    public final int entity;
 
     /**
      * Creates a new player instance.
@@ -27,81 +22,27 @@ public class Player {
      * @param playerWidth The width of the player in world units.
      * @param playerHeight The height of the player in world units.
      * @param game Reference to the main {@link EscapeGame} instance.
+     * @param world The world the player's entity is created in.
      */
-    public Player(float speed, float playerWidth, float playerHeight, EscapeGame game)
+    public Player(float speed, float playerWidth, float playerHeight, EscapeGame game, EntityWorld world)
     {
-        this.speed = speed;
         this.game = game;
-        this.movementEnabled = true;
-
-        loadTexture(playerWidth, playerHeight);
-    }
-
-    private void loadTexture(float width, float height){
-        if(playerTexture != null && !textureDisposed){
-            playerTexture.dispose();
-        }
-
-        playerTexture = new Texture("MalePlayer.png");
-        playerSprite = new Sprite(playerTexture);
-        playerSprite.setSize(width, height);
+        this.world = world;
 
-        // Center the player
-        float centerX = game.viewport.getWorldWidth() / 2f;
-        float centerY = game.viewport.getWorldHeight() / 2f;
-        playerSprite.setCenter(centerX, centerY);
-    }
-
-    public void reset(float playerWidth, float playerHeight){
-        loadTexture(playerWidth, playerHeight);
+        entity = world.create();
+        world.setControlled(entity, speed);
+        world.setSprite(entity, game.atlas.getRegion("MalePlayer"), false);
+        reset(playerWidth, playerHeight);
     }
 
     /**
-     * Called every frame to perform player logic.
-     * @param delta The time in seconds since the last frame.
+     * Resizes the player and puts them back in the centre of the world.
      */
-    public void update(float delta)
+    public void reset(float playerWidth, float playerHeight)
     {
-        if (movementEnabled)
-        {
-            move(delta);
-        }
-    }
-
-    /**
-     * Handles player movement and constrains movement to within screen edge boundaries.
-     *
-     * Uses arrow key input. Center of player remains at least {@link #EDGE_LIMIT} units from the world edges.
-     * @param delta The time in seconds since the last frame.
-     */
-    private void move(float delta) {
-        float worldWidth = game.viewport.getWorldWidth();
-        float worldHeight = game.viewport.getWorldHeight();
-        float halfWidth = playerSprite.getWidth() / 2f;
-        float halfHeight = playerSprite.getHeight() / 2f;
-        float playerCenterX = playerSprite.getX() + halfWidth;
-        float playerCenterY = playerSprite.getY() + halfHeight;
-
-        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D)) {
-            if (playerCenterX < worldWidth - EDGE_LIMIT) {
-                playerSprite.translateX(speed * delta);
-            }
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT) || Gdx.input.isKeyPressed(Input.Keys.A)) {
-            if (playerCenterX > EDGE_LIMIT) {
-                playerSprite.translateX(-speed * delta);
-            }
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.UP) || Gdx.input.isKeyPressed(Input.Keys.W)) {
-            if (playerCenterY < worldHeight - EDGE_LIMIT) {
-                playerSprite.translateY(speed * delta);
-            }
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.DOWN) || Gdx.input.isKeyPressed(Input.Keys.S)) {
-            if (playerCenterY > EDGE_LIMIT) {
-                playerSprite.translateY(-speed * delta);
-            }
-        }
+        float centerX = game.viewport.getWorldWidth() / 2f;
+        float centerY = game.viewport.getWorldHeight() / 2f;
+        world.setPosition(entity, centerX - playerWidth / 2f, centerY - playerHeight / 2f, playerWidth, playerHeight);
     }
 
     /**
@@ -110,17 +51,12 @@ public class Player {
      */
     public void enableMovement(boolean enabled)
     {
-        this.movementEnabled = enabled;
+        world.movementEnabled[entity] = enabled;
     }
 
-    /**
-     * Draws the player sprite.
-     */
-    public void draw() {
-        if(!textureDisposed){
-            playerSprite.draw(game.batch);
-        }
-
+    public boolean isMovementEnabled()
+    {
+        return world.movementEnabled[entity];
     }
 
     /**
@@ -130,49 +66,81 @@ public class Player {
      */
     public boolean checkCollision(Sprite objectSprite)
     {
-        return playerSprite.getBoundingRectangle().overlaps(objectSprite.getBoundingRectangle());
+        return checkCollision(objectSprite.getBoundingRectangle());
     }
 
     /**
-     * Dispose of player texture to free GPU memory.
-     *
-     * Should be called when the GameScreen is disposed.
+     * Checks whether the player overlaps a rectangle.
+     * @param bounds The rectangle in world coordinates.
+     * @return boolean representing whether collision has occured.
      */
-    public void dispose()
+    public boolean checkCollision(Rectangle bounds)
     {
-        if(playerTexture != null && !textureDisposed){
-            playerTexture.dispose();
-        }
+        float x = world.getX(entity);
+        float y = world.getY(entity);
+        return x < bounds.x + bounds.width && x + world.getWidth(entity) > bounds.x
+            && y < bounds.y + bounds.height && y + world.getHeight(entity) > bounds.y;
     }
 
     /**
-     * Set the position of the player sprite, updating from the bottom left corner.
+     * Set the position of the player, updating from the bottom left corner.
      * @param x The x-coord of new position.
      * @param y The y-coord of new position.
      */
     public void setPosition(float x, float y)
     {
-        playerSprite.setPosition(x, y);
+        world.moveTo(entity, x, y);
     }
 
     /**
-     * Sets the center position of the player sprite.
+     * Sets the center position of the player.
      * @param x The x-coord of the new position.
      * @param y The y-coord of the new position.
      */
     public void setCenter(float x, float y)
     {
-        playerSprite.setCenter(x, y);
+        // Moving between rooms is a jump, not something to interpolate.
+        world.moveTo(entity, x - world.getWidth(entity) / 2f, y - world.getHeight(entity) / 2f);
+    }
+
+    public float getCenterX()
+    {
+        return world.getX(entity) + world.getWidth(entity) / 2f;
+    }
+
+    public float getCenterY()
+    {
+        return world.getY(entity) + world.getHeight(entity) / 2f;
+    }
+
+    /**
+     * Writes the center position of the player into the given vector, so nothing is allocated per frame.
+     * @param out The vector to write to.
+     * @return The given vector.
+     */
+    public Vector2 getCenter(Vector2 out)
+    {
+        return out.set(getCenterX(), getCenterY());
     }
 
     /**
-     * Return the center position of the player sprite, as a Vector2.
+     * Returns the distance between the center of the player and a point.
+     * @param x The x-coord of the point.
+     * @param y The y-coord of the point.
      */
-    public Vector2 getCenter()
+    public float distanceTo(float x, float y)
+    {
+        return Vector2.dst(getCenterX(), getCenterY(), x, y);
+    }
+
+    public float getSpeed()
+    {
+        return world.speed[entity];
+    }
+
+    public void setSpeed(float speed)
     {
-        float centerX = playerSprite.getX() + playerSprite.getWidth() / 2f;
-        float centerY = playerSprite.getY() + playerSprite.getHeight() / 2f;
-        return new Vector2(centerX, centerY);
+        world.speed[entity] = speed;
     }
 
     /**
@@ -181,6 +149,6 @@ public class Player {
      */
     public void increaseSpeed(float speedIncrease)
     {
-        speed += speedIncrease;
+        world.speed[entity] += speedIncrease;
     }
 }
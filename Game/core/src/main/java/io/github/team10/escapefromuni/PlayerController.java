@@ -34,16 +34,4 @@ public class PlayerController {
                 break;
         }
     }
-
-    public void update(float delta) {
-        player.update(delta);
-    }
-
-    public void drawPlayer() {
-        player.draw();
-    }
-
-    public void dispose() {
-        player.dispose();
-    }
 }
@@ -1,7 +1,5 @@
 package io.github.team10.escapefromuni;
 
-import com.badlogic.gdx.graphics.Texture;
-
 /**
  * Represents a single Room.
  * 
@@ -11,38 +9,57 @@ public class Room {
 
     private IEvent event;
     private final Room[] adjacentRooms = new Room[4];
-    private final Texture roomTexture;
+    private final String textureKey;
     private final boolean isExit;
+    private int index = -1;
 
     /**
      * Initialises a new room.
-     * @param roomTexture The texture for this room.
+     * @param textureKey The texture for this room, resolved by the {@link RoomTextureCache}. Either an atlas
+     *                   region name or a texture path under {@link RoomTextureCache#STREAMED_FOLDER}.
      * @param isExit boolean representing whether reaching this room means the player wins.
      */
-    public Room(Texture roomTexture, boolean isExit)
+    public Room(String textureKey, boolean isExit)
     {
-        this.roomTexture = roomTexture;
+        this.textureKey = textureKey;
         this.isExit = isExit;
     }
 
     /**
      * Initialises a new room, with isExit set to false (the case for most rooms).
-     * @param roomTexture The texture for this room.
+     * @param textureKey The texture key for this room.
      */
-    public Room(Texture texture)
+    public Room(String textureKey)
     {
-        this(texture, false);
+        this(textureKey, false);
     }
 
-    public Texture getRoomTexture()
+    /**
+     * Returns the key used to look up this room's texture in the {@link RoomTextureCache}.
+     */
+    public String getTextureKey()
     {
-        return roomTexture;
+        return textureKey;
     }
 
     public boolean isExit(){
         return isExit;
     }
 
+    /**
+     * Returns the room's position in its map, which a {@link RoomGraph} is indexed by.
+     * @return Index into the map's arrays, or -1 if the room was not made from a {@link RoomMap}.
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
+    void setIndex(int index)
+    {
+        this.index = index;
+    }
+
     /**
      * Adds a connection to an adjacent room, given a direction. 
      * @param adjacentRoom The adjacent room to connect to.
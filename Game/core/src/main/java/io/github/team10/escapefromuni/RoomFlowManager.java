@@ -1,98 +1,131 @@
 package io.github.team10.escapefromuni;
 
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 
 public class RoomFlowManager {
 
+    /** Map loaded by {@link #initialiseMap()}. See {@link RoomMapLoader} for the format. */
+    public static final String MAP_PATH = "maps/campus.map";
+
+    /** Run with -Descape.generatedRooms=N to play a generated map of N rooms instead of {@link #MAP_PATH}. */
+    private static final int GENERATED_ROOMS = Integer.getInteger("escape.generatedRooms", 0);
+    /** Seed for generated maps. Restarts replay the same map unless -Descape.mapSeed is given. */
+    private static final long MAP_SEED = Long.getLong("escape.mapSeed", System.currentTimeMillis());
+
     private final EscapeGame game;
-    private final UIController uiController;
+    private final GameOverListener gameOverListener;
     private final PlayerController playerController;
     private DoorController doorController;
     private final EventSystem eventSystem;
     private final ScoreManager scoreManager;
     private final Timer timer;
-    private final ObjectMap<String, Texture> roomTextures = new ObjectMap<>();
+    private final RoomTextureCache roomTextures;
+    private final long runSeed;
+    private Room[] rooms;
+    private RoomGraph graph;
     private Room currentRoom;
 
-    public RoomFlowManager(EscapeGame game, UIController uiController, PlayerController playerController,
-        DoorController doorController, EventSystem eventSystem, ScoreManager scoreManager, Timer timer){
+    public RoomFlowManager(EscapeGame game, GameOverListener gameOverListener, PlayerController playerController,
+        DoorController doorController, EventSystem eventSystem, ScoreManager scoreManager, Timer timer,
+        RoomTextureCache roomTextures, long runSeed){
 
         this.game = game;
-        this.uiController = uiController;
+        this.gameOverListener = gameOverListener;
         this.playerController = playerController;
         this.doorController = doorController;
         this.eventSystem = eventSystem;
         this.scoreManager = scoreManager;
         this.timer = timer;
+        this.roomTextures = roomTextures;
+        this.runSeed = runSeed;
     }
 
-    public void initialiseMap() {
-
-        // Store room textures in list for easy access and disposal.
-        roomTextures.put("room1", new Texture("Room1.png"));
-        roomTextures.put("room2", new Texture("Room3.png"));
-        roomTextures.put("room3", new Texture("Room4.png"));
-        roomTextures.put("room4", new Texture("Room7.png"));
-        roomTextures.put("room5", new Texture("Room6.png"));
-        roomTextures.put("room6", new Texture("Room8.png"));
-        roomTextures.put("room7", new Texture("Room5.png"));
-        roomTextures.put("room8", new Texture("Room9.png"));
-        roomTextures.put("room9", new Texture("Room10.png"));
-
-        // Iniitalise all the rooms
-        // TODO: Update room textures, and add more rooms.
-        Room room1 = new Room(roomTextures.get("room1"));
-        Room room2 = new Room(roomTextures.get("room2"));
-        Room room3 = new Room(roomTextures.get("room3"));
-        Room room4 = new Room(roomTextures.get("room4"));
-        Room room5 = new Room(roomTextures.get("room5"));
-        Room room6 = new Room(roomTextures.get("room6"));
-        Room room7 = new Room(roomTextures.get("room7"));
-        Room room8 = new Room(roomTextures.get("room8"));
-        Room room9 = new Room(roomTextures.get("room9"));
-
-        // Exit room is not actually displayed - game ends as soon as player steps inside.
-        Room exit = new Room(roomTextures.get("room1"), true);
-
-
-        // Initialise connections - remember both ways.
-        room1.addAdjacent(room2, DoorDirection.EAST);
-        room2.addAdjacent(room1, DoorDirection.WEST);
-
-        room2.addAdjacent(room3, DoorDirection.NORTH);
-        room3.addAdjacent(room2, DoorDirection.SOUTH);
-        room2.addAdjacent(room4, DoorDirection.EAST);
-        room4.addAdjacent(room2, DoorDirection.WEST);
-        room2.addAdjacent(room6, DoorDirection.SOUTH);
-        room6.addAdjacent(room2, DoorDirection.NORTH);
+    /**
+     * @return The number of rooms of generated maps, or 0 if the campus map is played.
+     */
+    public static int getGeneratedRooms() {
+        return GENERATED_ROOMS;
+    }
 
-        room4.addAdjacent(room5, DoorDirection.SOUTH);
-        room5.addAdjacent(room4, DoorDirection.NORTH);
+    /**
+     * @return The seed generated maps are built from.
+     */
+    public static long getMapSeed() {
+        return MAP_SEED;
+    }
 
-        room5.addAdjacent(room6, DoorDirection.WEST);
-        room6.addAdjacent(room5, DoorDirection.EAST);
-        room5.addAdjacent(room7, DoorDirection.SOUTH);
-        room7.addAdjacent(room5, DoorDirection.NORTH);
-        room5.addAdjacent(room8, DoorDirection.EAST);
-        room8.addAdjacent(room5, DoorDirection.WEST);
+    /**
+     * @return An id for the map being played, which tells high scores on different maps apart: 0 for the campus map,
+     *     otherwise made from the size and seed of the generated map.
+     */
+    public static long getMapId() {
+        return GENERATED_ROOMS > 0 ? MAP_SEED * 31 + GENERATED_ROOMS : 0L;
+    }
 
-        room8.addAdjacent(room9, DoorDirection.EAST);
-        room9.addAdjacent(room8, DoorDirection.WEST);
+    /**
+     * Builds the campus map, or a generated map if {@code escape.generatedRooms} is set.
+     */
+    public void initialiseMap() {
+        if (GENERATED_ROOMS > 0)
+        {
+            RoomMapGenerator generator = new RoomMapGenerator(MAP_SEED);
+            initialiseMap(generator.generate(GENERATED_ROOMS, RoomMapGenerator.DEFAULT_EVENT_DENSITY));
+        }
+        else
+        {
+            initialiseMap(RoomMapLoader.load(MAP_PATH));
+        }
+    }
 
-        room9.addAdjacent(exit, DoorDirection.EAST);
+    /**
+     * Creates the rooms and events of a map and places the player in its start room.
+     * @param map A map from the {@link RoomMapLoader} or {@link RoomMapGenerator}.
+     */
+    public void initialiseMap(RoomMap map) {
+        rooms = map.createRooms();
+        graph = new RoomGraph(map, rooms);
 
+        // Events need the gameplay objects, so they are created here rather than by the map.
+        for (int i = 0; i < rooms.length; i++)
+        {
+            if (map.events[i] != null)
+            {
+                rooms[i].setEvent(createEvent(map.events[i], i));
+            }
+        }
 
-        // Initialise Events
-        room7.setEvent(new EventLongboi(playerController.getPlayer(), game));
-        room3.setEvent(new EventGreggs(playerController.getPlayer(), game));
-        room5.setEvent(new EventTHE3(playerController.getPlayer(), game, scoreManager));
-        room4.setEvent(new EventFreeze(playerController.getPlayer(), game, timer));
+        enterRoom(rooms[map.startRoom]);
+    }
 
-        currentRoom = room1;
+    /**
+     * Puts the player in a room without going through a door, e.g. the start room or the room of a restored
+     * {@link GameSnapshot}. The player is not moved, and the event of the room they were in must already have been
+     * left.
+     */
+    public void enterRoom(Room room) {
+        currentRoom = room;
+
+        roomTextures.onEnterRoom(room);
+        doorController.updateForRoom(room);
+        eventSystem.onEnterRoom(room);
+    }
 
-        doorController.updateForRoom(currentRoom);
-        eventSystem.onEnterRoom(currentRoom);
+    /**
+     * Creates the event named in a map file.
+     * @param name Event name from the map's event column.
+     * @param room Index of the event's room, which with the run's seed seeds any randomness in the event.
+     * @throws GdxRuntimeException if the name is not a known event.
+     */
+    private IEvent createEvent(String name, int room) {
+        if (name.equals("the3")) {
+            return new EventTHE3(playerController.getPlayer(), game, scoreManager, runSeed + room);
+        }
+        EventDefinition definition = EventDefinition.forName(name);
+        if (definition == null) {
+            throw new GdxRuntimeException("Unknown event in map: " + name);
+        }
+        return new EntityEvent(definition, game);
     }
 
     public void setDoorController(DoorController doorController) {
@@ -113,13 +146,14 @@ public class RoomFlowManager {
 
         currentRoom = newRoom;
 
+        roomTextures.onEnterRoom(newRoom);
         doorController.updateForRoom(newRoom);
         playerController.positionAfterRoomChange(direction);
         eventSystem.onEnterRoom(newRoom);
 
         if (newRoom.isExit())
         {
-            GameplayStateManager.triggerWin(game, uiController, timer, scoreManager);
+            GameplayStateManager.triggerWin(game, gameOverListener, timer, scoreManager);
         }
 
     }
@@ -127,17 +161,43 @@ public class RoomFlowManager {
         return currentRoom;
     }
 
-    public void drawCurrentRoom() {
-        Texture t = currentRoom.getRoomTexture();
-        float w = game.viewport.getWorldWidth();
-        float h = game.viewport.getWorldHeight();
-        game.batch.draw(t,0,0, w, h);
+    /**
+     * @return Every room of the loaded map, in map file order.
+     */
+    public Room[] getRooms() {
+        return rooms;
     }
 
-    public void dispose(){
-        for (Texture t: roomTextures.values()){
-            t.dispose();
-        }
+    /**
+     * @return Distances to the exit and which rooms connect, for the loaded map. Doors opened or closed through it
+     *     also change the rooms.
+     */
+    public RoomGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Lets background loads of neighbouring room textures progress. Called every frame.
+     */
+    public void update() {
+        roomTextures.update();
+    }
+
+    /**
+     * @return The current room's background, or the one before it while it is still streaming in. The same region
+     *     is returned until the room changes or its texture finishes loading.
+     */
+    public TextureRegion getCurrentBackground() {
+        return roomTextures.get(currentRoom.getTextureKey());
+    }
+
+    /**
+     * Adds the current room's background, filling the world, to a static layer.
+     */
+    public void addCurrentRoom(StaticLayer layer) {
+        float w = game.viewport.getWorldWidth();
+        float h = game.viewport.getWorldHeight();
+        layer.add(getCurrentBackground(), 0, 0, w, h);
     }
 
 }
@@ -0,0 +1,548 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * How the rooms of a map connect: how far each room is from the nearest exit, which door leads there, and which
+ * rooms can reach each other. Built by the {@link RoomFlowManager} for the map being played, and by
+ * {@link RoomMap#validate()} to check every room can reach an exit.
+ *
+ * Everything is worked out when the graph is made, by a breadth-first search from every exit at once, and kept in
+ * flat arrays indexed by room, see {@link Room#getIndex()}. So the distance to the exit, the door towards it and
+ * whether two rooms are connected are all answered in constant time, on maps of any size. Rooms are numbered into
+ * connected parts, and two rooms are connected if they are in the same part.
+ *
+ * Doors can be opened and closed with {@link #link} and {@link #unlink}, which only search the rooms whose answers
+ * change: opening a door spreads shorter distances out from it, and closing one works out again only the rooms that
+ * reached the exit through it. As in a {@link RoomMap}, every door leads back the way it came, so both sides of a
+ * door are changed together.
+ */
+public class RoomGraph {
+
+    /** Distance of a room from which no exit can be reached. */
+    public static final int UNREACHABLE = -1;
+    private static final byte NO_DIRECTION = -1;
+    private static final DoorDirection[] DIRECTIONS = DoorDirection.values();
+
+    private final int roomCount;
+    // The neighbour of room r in direction d is neighbours[r * 4 + d], or RoomMap.NONE.
+    private final int[] neighbours;
+    private final boolean[] exits;
+    // Rooms kept in step with the graph when doors change, or null.
+    private final Room[] rooms;
+
+    // Doors from each room to the nearest exit, and the direction of the first one.
+    private final int[] distance;
+    private final byte[] toExit;
+
+    // The connected part each room is in, and the size of each part. Parts get a new number when one is split.
+    private final int[] part;
+    private final IntArray partSizes = new IntArray();
+
+    // Search state, kept so opening and closing doors allocates nothing. Rooms marked with the current stamp have
+    // been visited by the current search, so marks never have to be cleared.
+    private final int[] queue;
+    private final int[] otherQueue;
+    private final int[] mark;
+    private int stamp;
+    private final long[] seeds;
+    private final byte[] seedDirection;
+
+    /**
+     * Indexes a map.
+     */
+    public RoomGraph(RoomMap map)
+    {
+        this(map, null);
+    }
+
+    /**
+     * Indexes a map and the rooms made from it, which {@link #link} and {@link #unlink} then connect as well.
+     * @param rooms The map's rooms, from {@link RoomMap#createRooms()}, or null.
+     */
+    public RoomGraph(RoomMap map, Room[] rooms)
+    {
+        roomCount = map.getRoomCount();
+        neighbours = map.neighbours.clone();
+        exits = map.exits.clone();
+        this.rooms = rooms;
+
+        distance = new int[roomCount];
+        toExit = new byte[roomCount];
+        part = new int[roomCount];
+        queue = new int[roomCount];
+        otherQueue = new int[roomCount];
+        mark = new int[roomCount];
+        seeds = new long[roomCount];
+        seedDirection = new byte[roomCount];
+
+        findDistances();
+        findParts();
+    }
+
+    // Breadth-first search from every exit at once.
+    private void findDistances()
+    {
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(toExit, NO_DIRECTION);
+        int tail = 0;
+        for (int room = 0; room < roomCount; room++)
+        {
+            if (!exits[room]) continue;
+            distance[room] = 0;
+            queue[tail++] = room;
+        }
+        spread(0, tail);
+    }
+
+    /**
+     * Carries on a breadth-first search from the rooms in the queue, giving shorter distances to their neighbours.
+     * @return The new end of the queue.
+     */
+    private int spread(int head, int tail)
+    {
+        while (head < tail)
+        {
+            int room = queue[head++];
+            int next = distance[room] + 1;
+            for (int d = 0; d < 4; d++)
+            {
+                int neighbour = neighbours[room * 4 + d];
+                if (neighbour == RoomMap.NONE) continue;
+                if (distance[neighbour] == UNREACHABLE || next < distance[neighbour])
+                {
+                    distance[neighbour] = next;
+                    toExit[neighbour] = (byte) opposite(d);
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        return tail;
+    }
+
+    private void findParts()
+    {
+        Arrays.fill(part, -1);
+        partSizes.clear();
+        for (int room = 0; room < roomCount; room++)
+        {
+            if (part[room] == -1) label(room, partSizes.size, -1);
+        }
+    }
+
+    /**
+     * Gives a new part number to every room connected to a room.
+     * @param oldPart The part the rooms are in now, or -1 if they have not been numbered.
+     */
+    private void label(int start, int newPart, int oldPart)
+    {
+        if (newPart == partSizes.size) partSizes.add(0);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        part[start] = newPart;
+        while (head < tail)
+        {
+            int room = queue[head++];
+            for (int d = 0; d < 4; d++)
+            {
+                int neighbour = neighbours[room * 4 + d];
+                if (neighbour != RoomMap.NONE && part[neighbour] == oldPart)
+                {
+                    part[neighbour] = newPart;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        partSizes.incr(newPart, tail);
+        if (oldPart >= 0) partSizes.incr(oldPart, -tail);
+    }
+
+    private static int opposite(int direction)
+    {
+        return (direction + 2) & 3;
+    }
+
+    public int getRoomCount()
+    {
+        return roomCount;
+    }
+
+    /**
+     * @return The index of a room's neighbour in a direction, or {@link RoomMap#NONE}.
+     */
+    public int getNeighbour(int room, DoorDirection direction)
+    {
+        return neighbours[room * 4 + direction.ordinal()];
+    }
+
+    public boolean isExit(int room)
+    {
+        return exits[room];
+    }
+
+    /**
+     * @return The fewest doors between a room and an exit, 0 for an exit, or {@link #UNREACHABLE}.
+     */
+    public int getDistanceToExit(int room)
+    {
+        return distance[room];
+    }
+
+    public int getDistanceToExit(Room room)
+    {
+        return distance[room.getIndex()];
+    }
+
+    /**
+     * @return The door of a room on a shortest way to an exit, or null in an exit or a room that cannot reach one.
+     */
+    public DoorDirection getExitDirection(int room)
+    {
+        int direction = toExit[room];
+        return direction == NO_DIRECTION ? null : DIRECTIONS[direction];
+    }
+
+    public DoorDirection getExitDirection(Room room)
+    {
+        return getExitDirection(room.getIndex());
+    }
+
+    public boolean canReachExit(int room)
+    {
+        return distance[room] != UNREACHABLE;
+    }
+
+    /**
+     * @return Whether there is a way between two rooms.
+     */
+    public boolean isReachable(int from, int to)
+    {
+        return part[from] == part[to];
+    }
+
+    /**
+     * @return The number of the connected part a room is in. Rooms are connected if and only if they are in the same
+     *     part, but parts may be numbered again when doors are opened or closed.
+     */
+    public int getPart(int room)
+    {
+        return part[room];
+    }
+
+    /**
+     * @return The number of rooms there is a way to from a room, itself included.
+     */
+    public int getReachableCount(int room)
+    {
+        return partSizes.get(part[room]);
+    }
+
+    /**
+     * @return The number of rooms from which no exit can be reached.
+     */
+    public int getStrandedCount()
+    {
+        int stranded = 0;
+        for (int room = 0; room < roomCount; room++)
+        {
+            if (distance[room] == UNREACHABLE) stranded++;
+        }
+        return stranded;
+    }
+
+    /**
+     * Finds a shortest way from a room to an exit. Takes time in proportion to its length.
+     * @param path Cleared, then given the rooms on the way, starting with the room and ending with the exit. Left
+     *     empty if no exit can be reached.
+     * @return Whether an exit can be reached.
+     */
+    public boolean getPathToExit(int room, IntArray path)
+    {
+        path.clear();
+        if (distance[room] == UNREACHABLE) return false;
+        path.add(room);
+        while (!exits[room])
+        {
+            room = neighbours[room * 4 + toExit[room]];
+            path.add(room);
+        }
+        return true;
+    }
+
+    /**
+     * Finds a shortest way between two rooms, by a breadth-first search, which takes time in proportion to the
+     * rooms closer to the start than the end.
+     * @param path Cleared, then given the rooms on the way, starting with the first room and ending with the second.
+     *     Left empty if there is no way between them.
+     * @return Whether there is a way.
+     */
+    public boolean findPath(int from, int to, IntArray path)
+    {
+        path.clear();
+        if (part[from] != part[to]) return false;
+
+        // Searches back from the end, so following each room's parent leads forwards along the way.
+        int search = ++stamp;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = to;
+        mark[to] = search;
+        while (mark[from] != search)
+        {
+            int room = queue[head++];
+            for (int d = 0; d < 4; d++)
+            {
+                int neighbour = neighbours[room * 4 + d];
+                if (neighbour == RoomMap.NONE || mark[neighbour] == search) continue;
+                mark[neighbour] = search;
+                // The neighbour's parent is the room, in the other direction.
+                seedDirection[neighbour] = (byte) opposite(d);
+                queue[tail++] = neighbour;
+            }
+        }
+
+        int room = from;
+        path.add(room);
+        while (room != to)
+        {
+            room = neighbours[room * 4 + seedDirection[room]];
+            path.add(room);
+        }
+        return true;
+    }
+
+    /**
+     * Opens a door between two rooms, both ways.
+     * @param direction The direction of the second room from the first.
+     * @throws GdxRuntimeException if either side already has a door there.
+     */
+    public void link(int from, DoorDirection direction, int to)
+    {
+        int d = direction.ordinal();
+        int back = opposite(d);
+        if (neighbours[from * 4 + d] != RoomMap.NONE || neighbours[to * 4 + back] != RoomMap.NONE)
+        {
+            throw new GdxRuntimeException("Room " + from + " " + direction + " or room " + to + " "
+                + direction.opposite() + " already has a door");
+        }
+
+        // Parts are joined before the door exists, so numbering one only reaches its own rooms.
+        if (part[from] != part[to])
+        {
+            boolean fromSmaller = partSizes.get(part[from]) < partSizes.get(part[to]);
+            int small = fromSmaller ? from : to;
+            label(small, part[fromSmaller ? to : from], part[small]);
+        }
+
+        neighbours[from * 4 + d] = to;
+        neighbours[to * 4 + back] = from;
+        if (rooms != null)
+        {
+            rooms[from].addAdjacent(rooms[to], direction);
+            rooms[to].addAdjacent(rooms[from], direction.opposite());
+        }
+
+        // At most one side gets closer to an exit, and the rooms behind it with it.
+        int tail = 0;
+        if (distance[to] != UNREACHABLE && (distance[from] == UNREACHABLE || distance[to] + 1 < distance[from]))
+        {
+            distance[from] = distance[to] + 1;
+            toExit[from] = (byte) d;
+            queue[tail++] = from;
+        }
+        else if (distance[from] != UNREACHABLE && (distance[to] == UNREACHABLE || distance[from] + 1 < distance[to]))
+        {
+            distance[to] = distance[from] + 1;
+            toExit[to] = (byte) back;
+            queue[tail++] = to;
+        }
+        spread(0, tail);
+    }
+
+    /**
+     * Closes the door of a room in a direction, both ways. Does nothing if there is no door.
+     */
+    public void unlink(int room, DoorDirection direction)
+    {
+        int d = direction.ordinal();
+        int other = neighbours[room * 4 + d];
+        if (other == RoomMap.NONE) return;
+
+        neighbours[room * 4 + d] = RoomMap.NONE;
+        neighbours[other * 4 + opposite(d)] = RoomMap.NONE;
+        if (rooms != null)
+        {
+            rooms[room].addAdjacent(null, direction);
+            rooms[other].addAdjacent(null, direction.opposite());
+        }
+
+        // Only a room whose way to the exit went through the door can be further from it now.
+        if (toExit[room] == d) repairDistances(room);
+        else if (toExit[other] == opposite(d)) repairDistances(other);
+
+        splitParts(room, other);
+    }
+
+    /**
+     * Works out the distances again of a room that has lost its way to the exit, and of every room whose way went
+     * through it.
+     */
+    private void repairDistances(int cut)
+    {
+        // Another neighbour just as close to the exit keeps the room's distance, and so every other room's.
+        int wanted = distance[cut] - 1;
+        for (int d = 0; d < 4; d++)
+        {
+            int neighbour = neighbours[cut * 4 + d];
+            if (neighbour != RoomMap.NONE && distance[neighbour] == wanted)
+            {
+                toExit[cut] = (byte) d;
+                return;
+            }
+        }
+
+        // The rooms whose way to the exit went through the cut room. Each room's way goes to one neighbour, so these
+        // are found by following the ways backwards.
+        int search = ++stamp;
+        int count = 0;
+        queue[count++] = cut;
+        mark[cut] = search;
+        for (int head = 0; head < count; head++)
+        {
+            int room = queue[head];
+            for (int d = 0; d < 4; d++)
+            {
+                int neighbour = neighbours[room * 4 + d];
+                if (neighbour != RoomMap.NONE && toExit[neighbour] == opposite(d))
+                {
+                    mark[neighbour] = search;
+                    queue[count++] = neighbour;
+                }
+            }
+        }
+
+        // Each of them is first given the best way through a neighbour outside the group.
+        int seedCount = 0;
+        for (int i = 0; i < count; i++)
+        {
+            int room = queue[i];
+            int best = UNREACHABLE;
+            for (int d = 0; d < 4; d++)
+            {
+                int neighbour = neighbours[room * 4 + d];
+                if (neighbour == RoomMap.NONE || mark[neighbour] == search || distance[neighbour] == UNREACHABLE)
+                {
+                    continue;
+                }
+                if (best == UNREACHABLE || distance[neighbour] + 1 < best)
+                {
+                    best = distance[neighbour] + 1;
+                    seedDirection[room] = (byte) d;
+                }
+            }
+            if (best != UNREACHABLE) seeds[seedCount++] = (long) best << 32 | room;
+        }
+        for (int i = 0; i < count; i++)
+        {
+            distance[queue[i]] = UNREACHABLE;
+            toExit[queue[i]] = NO_DIRECTION;
+        }
+
+        // Then a breadth-first search through the group, which takes in those ways in order of distance, as if they
+        // were rooms in the queue. Ties go to the ways, so the queue never holds a room further than the next way.
+        // A room reached from one way can still have a way of its own just as short as that one, which then wins.
+        Arrays.sort(seeds, 0, seedCount);
+        int seed = 0;
+        int head = 0;
+        int tail = 0;
+        while (seed < seedCount || head < tail)
+        {
+            int room;
+            if (seed < seedCount && (head == tail || (int) (seeds[seed] >>> 32) <= distance[queue[head]]))
+            {
+                room = (int) seeds[seed];
+                int seedDistance = (int) (seeds[seed++] >>> 32);
+                if (distance[room] != UNREACHABLE && distance[room] <= seedDistance) continue;
+                distance[room] = seedDistance;
+                toExit[room] = seedDirection[room];
+            }
+            else
+            {
+                room = queue[head++];
+            }
+
+            int next = distance[room] + 1;
+            for (int d = 0; d < 4; d++)
+            {
+                int neighbour = neighbours[room * 4 + d];
+                if (neighbour == RoomMap.NONE || mark[neighbour] != search) continue;
+                if (distance[neighbour] == UNREACHABLE || next < distance[neighbour])
+                {
+                    distance[neighbour] = next;
+                    toExit[neighbour] = (byte) opposite(d);
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether two rooms that were next to each other are still connected, and numbers the smaller part
+     * again if not. Searches from both at once and stops as soon as the searches meet or one runs out, so it takes
+     * time in proportion to the smaller part when the door split them.
+     */
+    private void splitParts(int a, int b)
+    {
+        int searchA = ++stamp;
+        int searchB = ++stamp;
+        int headA = 0;
+        int tailA = 0;
+        int headB = 0;
+        int tailB = 0;
+        queue[tailA++] = a;
+        mark[a] = searchA;
+        otherQueue[tailB++] = b;
+        mark[b] = searchB;
+
+        while (headA < tailA && headB < tailB)
+        {
+            int room = queue[headA++];
+            for (int d = 0; d < 4; d++)
+            {
+                int neighbour = neighbours[room * 4 + d];
+                if (neighbour == RoomMap.NONE || mark[neighbour] == searchA) continue;
+                if (mark[neighbour] == searchB) return;
+                mark[neighbour] = searchA;
+                queue[tailA++] = neighbour;
+            }
+
+            room = otherQueue[headB++];
+            for (int d = 0; d < 4; d++)
+            {
+                int neighbour = neighbours[room * 4 + d];
+                if (neighbour == RoomMap.NONE || mark[neighbour] == searchB) continue;
+                if (mark[neighbour] == searchA) return;
+                mark[neighbour] = searchB;
+                otherQueue[tailB++] = neighbour;
+            }
+        }
+
+        // One search ran out without meeting the other, so it found the whole of its part.
+        int split = headA == tailA ? a : b;
+        label(split, partSizes.size, part[split]);
+    }
+
+    public void link(Room from, DoorDirection direction, Room to)
+    {
+        link(from.getIndex(), direction, to.getIndex());
+    }
+
+    public void unlink(Room room, DoorDirection direction)
+    {
+        unlink(room.getIndex(), direction);
+    }
+}
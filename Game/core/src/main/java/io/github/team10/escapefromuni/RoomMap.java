@@ -0,0 +1,131 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Compact description of a map: the room graph as parallel arrays, before any {@link Room} objects exist.
+ *
+ * Room {@code i} has id {@code ids[i]}, texture key {@code textureKeys[i]} and optional event spec
+ * {@code events[i]} (null for no event). Its neighbour in direction {@code d} is
+ * {@code neighbours[i * 4 + d.ordinal()]}, or {@link #NONE}. Room {@link #startRoom} is where the player begins.
+ *
+ * Produced by the {@link RoomMapLoader} and turned into rooms by {@link #createRooms()}.
+ */
+public class RoomMap {
+
+    public static final int NONE = -1;
+
+    public final String[] ids;
+    public final String[] textureKeys;
+    public final boolean[] exits;
+    public final int[] neighbours;
+    public final String[] events;
+    public final int startRoom;
+
+    public RoomMap(String[] ids, String[] textureKeys, boolean[] exits, int[] neighbours, String[] events, int startRoom)
+    {
+        this.ids = ids;
+        this.textureKeys = textureKeys;
+        this.exits = exits;
+        this.neighbours = neighbours;
+        this.events = events;
+        this.startRoom = startRoom;
+    }
+
+    public int getRoomCount()
+    {
+        return ids.length;
+    }
+
+    /**
+     * Returns the index of the neighbour of a room, or {@link #NONE}.
+     */
+    public int getNeighbour(int room, DoorDirection direction)
+    {
+        return neighbours[room * 4 + direction.ordinal()];
+    }
+
+    /**
+     * Checks that the map is well formed: array sizes match, neighbour indices are in range, every door leads back
+     * the way it came, and an exit can be reached from every room.
+     * @throws GdxRuntimeException describing the first problem found.
+     */
+    public void validate()
+    {
+        int count = ids.length;
+        if (textureKeys.length != count || exits.length != count || events.length != count
+            || neighbours.length != count * 4)
+        {
+            throw new GdxRuntimeException("Map arrays do not match the room count " + count);
+        }
+        if (startRoom < 0 || startRoom >= count)
+        {
+            throw new GdxRuntimeException("Start room " + startRoom + " is out of range");
+        }
+
+        boolean hasExit = false;
+        for (int room = 0; room < count; room++)
+        {
+            hasExit |= exits[room];
+            for (int d = 0; d < 4; d++)
+            {
+                int neighbour = neighbours[room * 4 + d];
+                if (neighbour == NONE) continue;
+                if (neighbour < 0 || neighbour >= count)
+                {
+                    throw new GdxRuntimeException("Room " + ids[room] + " has a neighbour out of range: " + neighbour);
+                }
+
+                DoorDirection direction = DoorDirection.fromOrdinal(d);
+                int back = neighbours[neighbour * 4 + direction.opposite().ordinal()];
+                if (back != room)
+                {
+                    throw new GdxRuntimeException("Link is not symmetric: " + ids[room] + " " + direction + " leads to "
+                        + ids[neighbour] + ", but " + ids[neighbour] + " " + direction.opposite() + " does not lead back");
+                }
+            }
+        }
+        if (!hasExit)
+        {
+            throw new GdxRuntimeException("Map has no exit room");
+        }
+
+        RoomGraph graph = new RoomGraph(this);
+        for (int room = 0; room < count; room++)
+        {
+            if (!graph.canReachExit(room))
+            {
+                throw new GdxRuntimeException("No exit can be reached from room " + ids[room] + ", nor from "
+                    + (graph.getStrandedCount() - 1) + " other rooms");
+            }
+        }
+    }
+
+    /**
+     * Creates the {@link Room} objects and connects them. Events are not set - they need gameplay objects, so the
+     * {@link RoomFlowManager} creates them from {@link #events}.
+     * @return Rooms in the same order as the map's arrays.
+     */
+    public Room[] createRooms()
+    {
+        int count = ids.length;
+        Room[] rooms = new Room[count];
+        for (int i = 0; i < count; i++)
+        {
+            rooms[i] = new Room(textureKeys[i], exits[i]);
+            rooms[i].setIndex(i);
+        }
+        for (int i = 0; i < count; i++)
+        {
+            for (int d = 0; d < 4; d++)
+            {
+                int neighbour = neighbours[i * 4 + d];
+                if (neighbour != NONE)
+                {
+                    rooms[i].addAdjacent(rooms[neighbour], DoorDirection.fromOrdinal(d));
+                }
+            }
+        }
+        return rooms;
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.Arrays;
+
+/**
+ * Generates random campus maps of any size as a {@link RoomMap}.
+ *
+ * Rooms are laid out on a square grid, so every door leads to the room physically next to it and links are always
+ * symmetric. Starting from a room in the middle of the grid, the map grows by repeatedly picking a random room
+ * with a free side and adding a room there, which gives a connected tree. A few extra doors are then opened
+ * between neighbouring rooms so the map has loops. The exit is the room furthest from the start, so there is always
+ * a path to it and it is never trivially close.
+ *
+ * The same seed and parameters always produce the same map. Working state is kept in flat int arrays, so 10,000
+ * rooms generate in a few tens of milliseconds.
+ */
+public class RoomMapGenerator {
+
+    /** Fraction of ordinary rooms given an event by default. */
+    public static final float DEFAULT_EVENT_DENSITY = 0.3f;
+    /** Chance of opening a door between two neighbouring rooms that are not already connected. */
+    public static final float LOOP_CHANCE = 0.1f;
+
+    /** Room textures to choose from, streamed in by the {@link RoomTextureCache}. */
+    private static final String[] TEXTURES = {
+        "rooms/Room1.png", "rooms/Room2.png", "rooms/Room3.png", "rooms/Room4.png", "rooms/Room5.png",
+        "rooms/Room6.png", "rooms/Room7.png", "rooms/Room8.png", "rooms/Room9.png", "rooms/Room10.png"
+    };
+    /** Event names understood by {@link RoomFlowManager}. */
+    private static final String[] EVENTS = { "greggs", "freeze", "longboi", "the3" };
+
+    // Grid offsets for each DoorDirection, in ordinal order.
+    private static final int[] DX = { 0, 1, 0, -1 };
+    private static final int[] DY = { 1, 0, -1, 0 };
+
+    private final RandomXS128 random;
+
+    /**
+     * @param seed Seed for the map. Equal seeds give equal maps.
+     */
+    public RoomMapGenerator(long seed)
+    {
+        random = new RandomXS128(seed);
+    }
+
+    /**
+     * Generates a map with the given number of rooms.
+     * @param roomCount Number of rooms, including the start and exit. At least 2.
+     * @param eventDensity Fraction of rooms, other than the start and exit, that get an event, between 0 and 1.
+     * @return A validated map. Room 0 is the start room.
+     */
+    public RoomMap generate(int roomCount, float eventDensity)
+    {
+        if (roomCount < 2) throw new GdxRuntimeException("A map needs at least 2 rooms, got " + roomCount);
+
+        // Twice as many cells as rooms, so the map has room to branch.
+        int side = (int) Math.ceil(Math.sqrt(roomCount * 2.0));
+        int[] grid = new int[side * side];
+        Arrays.fill(grid, RoomMap.NONE);
+
+        int[] cells = new int[roomCount];
+        int[] neighbours = new int[roomCount * 4];
+        Arrays.fill(neighbours, RoomMap.NONE);
+
+        // Rooms that may still have a free side. Removed lazily once they are found to be full.
+        int[] frontier = new int[roomCount];
+        int frontierSize = 0;
+
+        int centre = (side / 2) * side + side / 2;
+        grid[centre] = 0;
+        cells[0] = centre;
+        frontier[frontierSize++] = 0;
+
+        int placed = 1;
+        while (placed < roomCount)
+        {
+            int slot = random.nextInt(frontierSize);
+            int room = frontier[slot];
+            int cell = cells[room];
+            int x = cell % side;
+            int y = cell / side;
+
+            // Try the four sides starting from a random one.
+            int first = random.nextInt(4);
+            int direction = -1;
+            for (int i = 0; i < 4; i++)
+            {
+                int d = (first + i) & 3;
+                int nx = x + DX[d];
+                int ny = y + DY[d];
+                if (nx >= 0 && ny >= 0 && nx < side && ny < side && grid[ny * side + nx] == RoomMap.NONE)
+                {
+                    direction = d;
+                    break;
+                }
+            }
+            if (direction == -1)
+            {
+                frontier[slot] = frontier[--frontierSize];
+                continue;
+            }
+
+            int newCell = (y + DY[direction]) * side + x + DX[direction];
+            int newRoom = placed++;
+            grid[newCell] = newRoom;
+            cells[newRoom] = newCell;
+            link(neighbours, room, newRoom, direction);
+            frontier[frontierSize++] = newRoom;
+        }
+
+        addLoops(grid, side, cells, neighbours, roomCount);
+
+        int exit = findFurthest(neighbours, roomCount);
+
+        String[] ids = new String[roomCount];
+        String[] textureKeys = new String[roomCount];
+        boolean[] exits = new boolean[roomCount];
+        String[] events = new String[roomCount];
+        for (int room = 0; room < roomCount; room++)
+        {
+            ids[room] = "r" + room;
+            textureKeys[room] = TEXTURES[random.nextInt(TEXTURES.length)];
+            if (room != 0 && room != exit && random.nextFloat() < eventDensity)
+            {
+                events[room] = EVENTS[random.nextInt(EVENTS.length)];
+            }
+        }
+        exits[exit] = true;
+
+        RoomMap map = new RoomMap(ids, textureKeys, exits, neighbours, events, 0);
+        map.validate();
+        return map;
+    }
+
+    private static void link(int[] neighbours, int from, int to, int direction)
+    {
+        neighbours[from * 4 + direction] = to;
+        neighbours[to * 4 + ((direction + 2) & 3)] = from;
+    }
+
+    /**
+     * Opens doors between some grid neighbours that the tree left unconnected.
+     */
+    private void addLoops(int[] grid, int side, int[] cells, int[] neighbours, int roomCount)
+    {
+        for (int room = 0; room < roomCount; room++)
+        {
+            int x = cells[room] % side;
+            int y = cells[room] / side;
+            // Only look east and north, so each pair of rooms is considered once.
+            for (int d = 0; d < 2; d++)
+            {
+                int nx = x + DX[d];
+                int ny = y + DY[d];
+                if (nx >= side || ny >= side) continue;
+                int other = grid[ny * side + nx];
+                if (other != RoomMap.NONE && neighbours[room * 4 + d] == RoomMap.NONE && random.nextFloat() < LOOP_CHANCE)
+                {
+                    link(neighbours, room, other, d);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The room with the longest shortest path from room 0.
+     */
+    private static int findFurthest(int[] neighbours, int roomCount)
+    {
+        int[] distance = new int[roomCount];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[roomCount];
+        int head = 0;
+        int tail = 0;
+
+        queue[tail++] = 0;
+        distance[0] = 0;
+        int furthest = 0;
+        while (head < tail)
+        {
+            int room = queue[head++];
+            furthest = room;
+            for (int d = 0; d < 4; d++)
+            {
+                int next = neighbours[room * 4 + d];
+                if (next != RoomMap.NONE && distance[next] == -1)
+                {
+                    distance[next] = distance[room] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        // Rooms leave the queue in order of distance, so the last one is the furthest.
+        return furthest;
+    }
+}
@@ -0,0 +1,352 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+
+/**
+ * Loads {@link RoomMap}s from map files.
+ *
+ * The text form (.map) has one room per line, with whitespace separated columns:
+ * <pre>
+ * # id     texture            exit   north  east   south  west   event
+ * room1    rooms/Room1.png    false  -      room2  -      -      -
+ * </pre>
+ * A {@code -} means no neighbour or no event, and {@code #} starts a comment. The first room is the start room.
+ *
+ * The binary form (.mapb) holds the same data with a string table and is much faster to read. The
+ * {@code compileMaps} Gradle task writes it next to each .map file by running {@link #main(String[])}, and
+ * {@link #load(String)} prefers it when it exists. It stores a CRC32 of the .map it was compiled from, so one left
+ * behind by an edit to the .map is not used. File times are not compared, as they are lost in a jar or an APK.
+ */
+public class RoomMapLoader {
+
+    public static final String TEXT_EXTENSION = ".map";
+    public static final String BINARY_EXTENSION = ".mapb";
+
+    private static final int MAGIC = 0x45465530; // "EFU0"
+    private static final int VERSION = 2;
+    /** Passed to {@link #readBinary} to accept a binary map whatever it was compiled from. */
+    public static final long ANY_SOURCE = -1;
+
+    private RoomMapLoader() {}
+
+    /**
+     * Loads a map from an internal path, using the compiled .mapb beside it if it was compiled from the .map as it
+     * is now. Either file may be missing, but not both.
+     * @param path Path of the .map file, relative to assets/.
+     * @throws GdxRuntimeException if the map cannot be read or is not valid.
+     */
+    public static RoomMap load(String path)
+    {
+        FileHandle text = Gdx.files.internal(path);
+        FileHandle binary = Gdx.files.internal(toBinaryPath(path));
+        byte[] source = text.exists() ? text.readBytes() : null;
+        RoomMap map = null;
+        if (binary.exists())
+        {
+            map = readBinary(binary.read(), binary.path(), source == null ? ANY_SOURCE : checksum(source));
+            if (map == null) Gdx.app.log("RoomMapLoader", binary.path() + " is out of date, reading " + path);
+        }
+        if (map == null)
+        {
+            if (source == null) throw new GdxRuntimeException("Map not found: " + path);
+            map = parseText(new InputStreamReader(new ByteArrayInputStream(source), StandardCharsets.UTF_8), path);
+        }
+        map.validate();
+        return map;
+    }
+
+    /**
+     * @return CRC32 of the text of a map, as stored in the binary maps compiled from it.
+     */
+    public static long checksum(byte[] source)
+    {
+        CRC32 crc = new CRC32();
+        crc.update(source, 0, source.length);
+        return crc.getValue();
+    }
+
+    private static String toBinaryPath(String path)
+    {
+        String base = path.endsWith(TEXT_EXTENSION) ? path.substring(0, path.length() - TEXT_EXTENSION.length()) : path;
+        return base + BINARY_EXTENSION;
+    }
+
+    /**
+     * Parses the text form of a map. Neighbour ids are resolved after every room has been read.
+     * @param reader Source of the map text; closed when done.
+     * @param name Name used in error messages.
+     */
+    public static RoomMap parseText(Reader reader, String name)
+    {
+        Array<String[]> rows = new Array<>();
+        Array<Integer> lineNumbers = new Array<>();
+        BufferedReader lines = new BufferedReader(reader);
+        try
+        {
+            String line;
+            int lineNumber = 0;
+            while ((line = lines.readLine()) != null)
+            {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                if (comment >= 0) line = line.substring(0, comment);
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                String[] columns = line.split("\\s+");
+                if (columns.length != 8)
+                {
+                    throw new GdxRuntimeException(name + ":" + lineNumber + ": expected 8 columns but found " + columns.length);
+                }
+                rows.add(columns);
+                lineNumbers.add(lineNumber);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error reading map " + name, e);
+        }
+        finally
+        {
+            StreamUtils.closeQuietly(lines);
+        }
+
+        int count = rows.size;
+        if (count == 0) throw new GdxRuntimeException(name + ": map has no rooms");
+
+        ObjectIntMap<String> indices = new ObjectIntMap<>(count);
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++)
+        {
+            ids[i] = rows.get(i)[0];
+            if (indices.containsKey(ids[i]))
+            {
+                throw new GdxRuntimeException(name + ":" + lineNumbers.get(i) + ": duplicate room id " + ids[i]);
+            }
+            indices.put(ids[i], i);
+        }
+
+        String[] textureKeys = new String[count];
+        boolean[] exits = new boolean[count];
+        int[] neighbours = new int[count * 4];
+        String[] events = new String[count];
+        for (int i = 0; i < count; i++)
+        {
+            String[] columns = rows.get(i);
+            textureKeys[i] = columns[1];
+            exits[i] = Boolean.parseBoolean(columns[2]);
+            for (int d = 0; d < 4; d++)
+            {
+                String neighbour = columns[3 + d];
+                if (neighbour.equals("-"))
+                {
+                    neighbours[i * 4 + d] = RoomMap.NONE;
+                    continue;
+                }
+                int index = indices.get(neighbour, RoomMap.NONE);
+                if (index == RoomMap.NONE)
+                {
+                    throw new GdxRuntimeException(name + ":" + lineNumbers.get(i) + ": unknown room " + neighbour);
+                }
+                neighbours[i * 4 + d] = index;
+            }
+            events[i] = columns[7].equals("-") ? null : columns[7];
+        }
+        return new RoomMap(ids, textureKeys, exits, neighbours, events, 0);
+    }
+
+    /**
+     * Writes the binary form of a map.
+     * @param map The map to write.
+     * @param sourceChecksum {@link #checksum(byte[])} of the .map the map was parsed from.
+     * @param output Destination; closed when done.
+     */
+    public static void writeBinary(RoomMap map, long sourceChecksum, OutputStream output)
+    {
+        // Texture keys and event specs repeat a lot, so each distinct string is only stored once.
+        Array<String> strings = new Array<>();
+        ObjectIntMap<String> stringIndices = new ObjectIntMap<>();
+        int count = map.getRoomCount();
+        int[] idRefs = new int[count];
+        int[] textureRefs = new int[count];
+        int[] eventRefs = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            idRefs[i] = intern(map.ids[i], strings, stringIndices);
+            textureRefs[i] = intern(map.textureKeys[i], strings, stringIndices);
+            eventRefs[i] = map.events[i] == null ? RoomMap.NONE : intern(map.events[i], strings, stringIndices);
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        try
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt((int) sourceChecksum);
+            out.writeInt(strings.size);
+            for (String s : strings) out.writeUTF(s);
+
+            out.writeInt(count);
+            out.writeInt(map.startRoom);
+            for (int i = 0; i < count; i++)
+            {
+                out.writeInt(idRefs[i]);
+                out.writeInt(textureRefs[i]);
+                out.writeBoolean(map.exits[i]);
+                out.writeInt(eventRefs[i]);
+                for (int d = 0; d < 4; d++) out.writeInt(map.neighbours[i * 4 + d]);
+            }
+            out.flush();
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error writing binary map", e);
+        }
+        finally
+        {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+
+    private static int intern(String s, Array<String> strings, ObjectIntMap<String> indices)
+    {
+        int index = indices.get(s, -1);
+        if (index == -1)
+        {
+            index = strings.size;
+            strings.add(s);
+            indices.put(s, index);
+        }
+        return index;
+    }
+
+    /**
+     * Reads the binary form of a map, checking every count and reference in it so a damaged file is reported rather
+     * than failing part way through building the rooms.
+     * @param input Source of the map; closed when done.
+     * @param name Name used in error messages.
+     * @param sourceChecksum {@link #checksum(byte[])} of the .map the binary must have been compiled from, or
+     *                       {@link #ANY_SOURCE}.
+     * @return The map, or null if it was compiled from a different .map.
+     * @throws GdxRuntimeException if the file is not a binary map of this version, or is truncated or corrupt.
+     */
+    public static RoomMap readBinary(InputStream input, String name, long sourceChecksum)
+    {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        try
+        {
+            if (in.readInt() != MAGIC) throw new GdxRuntimeException(name + ": not a binary map file");
+            int version = in.readInt();
+            if (version != VERSION)
+            {
+                throw new GdxRuntimeException(name + ": unsupported binary map version " + version + ", expected "
+                    + VERSION + ". Run the compileMaps task again");
+            }
+            int compiledFrom = in.readInt();
+            if (sourceChecksum != ANY_SOURCE && compiledFrom != (int) sourceChecksum) return null;
+
+            int stringCount = in.readInt();
+            if (stringCount < 0) throw new GdxRuntimeException(name + ": negative string count " + stringCount);
+            // Grown as strings are read rather than sized up front, so a damaged count runs out of file instead
+            // of memory.
+            Array<String> strings = new Array<>(String.class);
+            for (int i = 0; i < stringCount; i++) strings.add(in.readUTF());
+
+            int count = in.readInt();
+            // Room ids are unique and each is in the string table, so there cannot be more rooms than strings.
+            if (count < 1 || count > stringCount)
+            {
+                throw new GdxRuntimeException(name + ": room count " + count + " is out of range for "
+                    + stringCount + " strings");
+            }
+            int startRoom = in.readInt();
+            String[] ids = new String[count];
+            String[] textureKeys = new String[count];
+            boolean[] exits = new boolean[count];
+            String[] events = new String[count];
+            int[] neighbours = new int[count * 4];
+            for (int i = 0; i < count; i++)
+            {
+                ids[i] = readString(in, strings, name);
+                textureKeys[i] = readString(in, strings, name);
+                exits[i] = in.readBoolean();
+                int event = in.readInt();
+                events[i] = event == RoomMap.NONE ? null : stringAt(event, strings, name);
+                for (int d = 0; d < 4; d++) neighbours[i * 4 + d] = in.readInt();
+            }
+            if (in.read() != -1) throw new GdxRuntimeException(name + ": unexpected data after the last room");
+            // Neighbours and the start room are range checked by RoomMap.validate().
+            return new RoomMap(ids, textureKeys, exits, neighbours, events, startRoom);
+        }
+        catch (EOFException e)
+        {
+            throw new GdxRuntimeException(name + ": binary map is truncated", e);
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error reading binary map " + name, e);
+        }
+        finally
+        {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+
+    private static String readString(DataInputStream in, Array<String> strings, String name) throws IOException
+    {
+        return stringAt(in.readInt(), strings, name);
+    }
+
+    private static String stringAt(int index, Array<String> strings, String name)
+    {
+        if (index < 0 || index >= strings.size)
+        {
+            throw new GdxRuntimeException(name + ": string " + index + " is out of range for " + strings.size
+                + " strings");
+        }
+        return strings.get(index);
+    }
+
+    /**
+     * Compiles each .map file given on the command line to a .mapb beside it. Used by the compileMaps Gradle task,
+     * so it only uses java.io rather than Gdx.files.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        for (String path : args)
+        {
+            File source = new File(path);
+            byte[] text = Files.readAllBytes(source.toPath());
+            RoomMap map = parseText(new InputStreamReader(new ByteArrayInputStream(text), StandardCharsets.UTF_8),
+                source.getName());
+            map.validate();
+
+            File target = new File(toBinaryPath(source.getPath()));
+            writeBinary(map, checksum(text), new FileOutputStream(target));
+            System.out.println("Compiled " + source.getName() + " (" + map.getRoomCount() + " rooms) to " + target.getName());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * Resolves room texture keys to regions, streaming room backgrounds in and out as the player moves.
+ *
+ * Keys that name a region in the {@link SpriteAtlas} (e.g. {@code "DoorNew"}) are always resident. Any other key is
+ * treated as a texture path, such as {@code "rooms/Room1.png"}, and is loaded on demand through the
+ * {@link CompressedTextures}, so its ETC compressed copy is streamed where the GPU supports it. When a room is
+ * entered its neighbours are queued on the {@link AssetManager}'s background thread, so the texture is usually ready
+ * by the time the player walks through the door. If it is not, {@link #get(String)} does not wait for it: the last
+ * background returned is shown until it is ready, or a black one if there is none yet. At most {@link #getBudget()}
+ * streamed textures stay resident; the least recently used ones outside the current room's neighbourhood are
+ * unloaded first. The budget can be set with {@code -Descape.roomTextureBudget=<count>}.
+ *
+ * Owned by the {@link GameController}, so resident textures survive a restart.
+ */
+public class RoomTextureCache {
+
+    /** Folder for streamed room textures. GameAssets does not preload it. */
+    public static final String STREAMED_FOLDER = "rooms/";
+    public static final int DEFAULT_BUDGET = 16;
+    /** The budget the game uses. */
+    public static final int BUDGET = Integer.getInteger("escape.roomTextureBudget", DEFAULT_BUDGET);
+
+    private final SpriteAtlas atlas;
+    private final AssetManager manager;
+    private final CompressedTextures compressed;
+    private int budget;
+
+    // Streamed textures that have finished loading.
+    private final ObjectMap<String, TextureRegion> regions = new ObjectMap<>();
+    // Streamed keys that have been queued or loaded, least recently used first.
+    private final Array<String> recent = new Array<>();
+    private final ObjectSet<String> keep = new ObjectSet<>();
+    // The streamed region last returned by get(), shown while the next one loads.
+    private String shownKey;
+    private TextureRegion shown;
+    // Created the first time there is nothing else to show.
+    private TextureRegion blank;
+
+    /**
+     * @param atlas The shared sprite atlas, checked first for every key.
+     * @param manager The asset manager used to stream other textures.
+     * @param compressed Picks the file each streamed texture is loaded from.
+     * @param budget Maximum number of streamed textures to keep resident.
+     */
+    public RoomTextureCache(SpriteAtlas atlas, AssetManager manager, CompressedTextures compressed, int budget)
+    {
+        this.atlas = atlas;
+        this.manager = manager;
+        this.compressed = compressed;
+        this.budget = budget;
+    }
+
+    /**
+     * Returns the region for a room texture key. Never waits for a streamed texture: if it has not finished loading,
+     * the background returned last is returned again, or a black one if there is none.
+     * @param key Atlas region name or texture path.
+     */
+    public TextureRegion get(String key)
+    {
+        TextureRegion region = regions.get(key);
+        if (region == null)
+        {
+            if (!recent.contains(key, false) && atlas.hasRegion(key)) return atlas.getRegion(key);
+
+            request(key);
+            String file = compressed.resolve(key);
+            if (!manager.isLoaded(file, Texture.class)) return shown != null ? shown : getBlank();
+            region = new TextureRegion(manager.get(file, Texture.class));
+            regions.put(key, region);
+        }
+        shownKey = key;
+        shown = region;
+        return region;
+    }
+
+    private TextureRegion getBlank()
+    {
+        if (blank == null)
+        {
+            Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+            pixmap.setColor(Color.BLACK);
+            pixmap.fill();
+            blank = new TextureRegion(new Texture(pixmap));
+            pixmap.dispose();
+        }
+        return blank;
+    }
+
+    /**
+     * Queues a room texture to be decoded in the background, if it is not already resident.
+     * @param key Atlas region name or texture path.
+     */
+    public void prefetch(String key)
+    {
+        if (regions.containsKey(key) || atlas.hasRegion(key)) return;
+        request(key);
+    }
+
+    private void request(String key)
+    {
+        if (touch(key)) return;
+        // Backgrounds are pixel art, so they are magnified without blurring.
+        compressed.load(manager, key, Texture.TextureFilter.Nearest);
+        recent.add(key);
+    }
+
+    /**
+     * Moves a streamed key to the most recently used end.
+     * @return false if the key is not streamed or not yet requested.
+     */
+    private boolean touch(String key)
+    {
+        if (!recent.removeValue(key, false)) return false;
+        recent.add(key);
+        return true;
+    }
+
+    /**
+     * Called when the player enters a room. Marks its texture as used, prefetches its neighbours and evicts
+     * textures of far away rooms if the budget is exceeded.
+     * @param room The room that was entered.
+     */
+    public void onEnterRoom(Room room)
+    {
+        keep.clear();
+        keep.add(room.getTextureKey());
+        prefetch(room.getTextureKey());
+        touch(room.getTextureKey());
+
+        for (Room adjacent : room.getAllAdjacent())
+        {
+            if (adjacent == null) continue;
+            keep.add(adjacent.getTextureKey());
+            prefetch(adjacent.getTextureKey());
+        }
+
+        evict();
+    }
+
+    /**
+     * Gives the asset manager time to finish background loads. Called every frame.
+     */
+    public void update()
+    {
+        manager.update();
+    }
+
+    private void evict()
+    {
+        int i = 0;
+        while (recent.size > budget && i < recent.size)
+        {
+            String key = recent.get(i);
+            if (keep.contains(key))
+            {
+                i++;
+                continue;
+            }
+            recent.removeIndex(i);
+            regions.remove(key);
+            manager.unload(compressed.resolve(key));
+            if (key.equals(shownKey))
+            {
+                shownKey = null;
+                shown = null;
+            }
+        }
+    }
+
+    public int getBudget()
+    {
+        return budget;
+    }
+
+    /**
+     * Sets how many streamed textures may stay resident. The current room and its neighbours are always kept.
+     */
+    public void setBudget(int budget)
+    {
+        this.budget = budget;
+        evict();
+    }
+
+    /**
+     * @return The number of streamed textures currently queued or resident.
+     */
+    public int getResidentCount()
+    {
+        return recent.size;
+    }
+
+    /**
+     * Unloads every streamed texture.
+     */
+    public void dispose()
+    {
+        for (String key : recent)
+        {
+            manager.unload(compressed.resolve(key));
+        }
+        recent.clear();
+        regions.clear();
+        shownKey = null;
+        shown = null;
+        if (blank != null)
+        {
+            blank.getTexture().dispose();
+            blank = null;
+        }
+    }
+}
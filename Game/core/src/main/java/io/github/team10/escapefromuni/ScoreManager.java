@@ -17,6 +17,11 @@ public class ScoreManager {
         return score;
     }
 
+    // Used to restore a saved run.
+    public void setScore(int score) {
+        this.score = score;
+    }
+
     public void reset() {
         score = 0;
     }
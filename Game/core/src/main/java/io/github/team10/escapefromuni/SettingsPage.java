@@ -5,11 +5,9 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector3;
+import io.github.team10.escapefromuni.TextureRegistry.TextureHandle;
 
 /**
  * Settings page for adjusting game audio.
@@ -18,13 +16,15 @@ public class SettingsPage implements Screen {
     
     private final EscapeGame game;
     private final UIController uiController;
-    private final Screen previousScreen;
-    private Texture backgroundImage;
-    private Texture buttonTexture;
-    private Texture sliderBarTexture;
-    private Texture sliderKnobTexture;
-    private BitmapFont font;
-    private GlyphLayout layout;
+    private Screen previousScreen;
+    private TextureHandle backgroundImage;
+    private TextureHandle buttonTexture;
+    private TextureHandle sliderBarTexture;
+    private TextureHandle sliderKnobTexture;
+    private final CachedText titleLabel;
+    private final CounterText volumeLabel;
+    private final CachedText backLabel;
+    private final Vector3 touchPos = new Vector3();
     
     // UI elements
     private Rectangle backButton;
@@ -35,24 +35,33 @@ public class SettingsPage implements Screen {
     private boolean backHovered;
     private boolean isDraggingSlider;
     private int audioLevel;
-    
+
+    // Background, slider bar and back button, built again only when the back button's hover state changes.
+    // The knob moves, so it is drawn with the batch.
+    private static final Color HOVER_TINT = new Color(1f, 1f, 0.5f, 1f);
+    private final StaticLayer chrome = new StaticLayer(3);
+    private int chromeHoverState = -1;
+    
+    /**
+     * Creates the settings page and builds its layout. The {@link UIController} keeps the instance and calls
+     * {@link #reset(Screen)} each time it is opened.
+     */
     public SettingsPage(EscapeGame game, UIController uiController, Screen previousScreen) {
         this.game = game;
         this.uiController = uiController;
-        this.previousScreen = previousScreen;
-        this.audioLevel = (int)(AudioManager.getInstance().getVolume() * 100);
-    }
-    
-    @Override
-    public void show() {
-        // Load textures
-        backgroundImage = new Texture(Gdx.files.internal("Settings_Background.png"));
-        buttonTexture = new Texture(Gdx.files.internal("ButtonBG.png"));
-        sliderBarTexture = new Texture(Gdx.files.internal("SliderBar.png"));
-        sliderKnobTexture = new Texture(Gdx.files.internal("SliderKnob.png"));
-        
-        font = game.font;
-        layout = new GlyphLayout();
+
+        // Shared textures, usually already resident from the loading screen
+        backgroundImage = game.textures.acquire("Settings_Background.png");
+        buttonTexture = game.textures.acquire("ButtonBG.png");
+        sliderBarTexture = game.textures.acquire("SliderBar.png");
+        sliderKnobTexture = game.textures.acquire("SliderKnob.png");
+        
+        titleLabel = new CachedText(game.font);
+        titleLabel.setText("SETTINGS");
+        volumeLabel = new CounterText(game.font, "Volume: ", "%");
+        volumeLabel.setColor(Color.YELLOW);
+        backLabel = new CachedText(game.font);
+        backLabel.setText("Go Back");
         
         // Initialize UI
         float screenWidth = game.uiViewport.getWorldWidth();
@@ -70,83 +79,89 @@ public class SettingsPage implements Screen {
         sliderBar = new Rectangle(centerX - sliderWidth / 2f, screenHeight / 2f - 50f, sliderWidth, sliderHeight);
         
         float knobSize = 60f;
-        float knobX = sliderBar.x + (sliderBar.width * audioLevel / 100f) - knobSize / 2f;
-        sliderKnob = new Rectangle(knobX, sliderBar.y - 10f, knobSize, knobSize);
-        
+        sliderKnob = new Rectangle(0, sliderBar.y - 10f, knobSize, knobSize);
+
+        reset(previousScreen);
+    }
+
+    /**
+     * Rebinds the page to the screen that opened it and re-reads the current volume.
+     * @param previousScreen The screen to return to when leaving settings.
+     */
+    public void reset(Screen previousScreen) {
+        this.previousScreen = previousScreen;
+        this.audioLevel = (int)(AudioManager.getInstance().getVolume() * 100);
+        sliderKnob.x = sliderBar.x + (sliderBar.width * audioLevel / 100f) - sliderKnob.width / 2f;
         isDraggingSlider = false;
-        
+    }
+
+    @Override
+    public void show() {
+        game.renderOnDemand();
         AudioManager.getInstance().playMenuMusic();
     }
     
     public void display() {
-         
-        game.viewport.apply();
-        game.batch.setProjectionMatrix(game.viewport.getCamera().combined);
-        game.batch.begin();
-        game.batch.draw(backgroundImage, 0, 0, game.viewport.getWorldWidth(), game.viewport.getWorldHeight());
-        game.batch.end();
-        
         game.uiViewport.apply();
+        int hoverState = backHovered ? 1 : 0;
+        if (hoverState != chromeHoverState) {
+            chromeHoverState = hoverState;
+            buildChrome();
+        }
+        chrome.draw(game.uiCamera.combined);
+        
         game.batch.setProjectionMatrix(game.uiCamera.combined);
         game.batch.begin();
         
         // Settings title
-        String title = "SETTINGS";
-        layout.setText(font, title);
-        float titleX = (game.uiViewport.getWorldWidth() - layout.width) / 2f;
+        float titleX = (game.uiViewport.getWorldWidth() - titleLabel.getWidth()) / 2f;
         float titleY = game.uiViewport.getWorldHeight() - 150f;
-        font.setColor(Color.WHITE);
-        font.draw(game.batch, layout, titleX, titleY);
+        titleLabel.setPosition(titleX, titleY);
+        titleLabel.draw(game.batch);
         
         // Draw audio level label
-        String volumeText = "Volume: " + audioLevel + "%";
-        layout.setText(font, volumeText);
-        float volumeX = (game.uiViewport.getWorldWidth() - layout.width) / 2f;
+        volumeLabel.setValue(audioLevel);
+        float volumeX = (game.uiViewport.getWorldWidth() - volumeLabel.getWidth()) / 2f;
         float volumeY = sliderBar.y + 120f;
-        font.setColor(Color.YELLOW);
-        font.draw(game.batch, layout, volumeX, volumeY);
+        volumeLabel.setPosition(volumeX, volumeY);
+        volumeLabel.draw(game.batch);
         
-        // Draw slider bar
+        // Draw slider knob, over the cached bar
         game.batch.setColor(Color.WHITE);
-        game.batch.draw(sliderBarTexture, sliderBar.x, sliderBar.y, sliderBar.width, sliderBar.height);
+        game.batch.draw(sliderKnobTexture.get(), sliderKnob.x, sliderKnob.y, sliderKnob.width, sliderKnob.height);
         
-        // Draw slider knob
-        game.batch.draw(sliderKnobTexture, sliderKnob.x, sliderKnob.y, sliderKnob.width, sliderKnob.height);
-        
-        // Draw back button
-        drawButton(backButton, "Go Back", backHovered);
+        // Draw back button text
+        drawLabel(backButton, backLabel);
         
         game.batch.end();
     }
+
+    private void buildChrome() {
+        // The world and UI viewports cover the same part of the screen, so the background is drawn in UI units.
+        chrome.begin();
+        chrome.add(backgroundImage.get(), 0, 0, game.uiViewport.getWorldWidth(), game.uiViewport.getWorldHeight());
+        chrome.add(sliderBarTexture.get(), sliderBar.x, sliderBar.y, sliderBar.width, sliderBar.height);
+        chrome.add(buttonTexture.get(), backButton.x, backButton.y, backButton.width, backButton.height,
+            backHovered ? HOVER_TINT : Color.WHITE);
+        chrome.end();
+    }
     
-    private void drawButton(Rectangle button, String text, boolean hovered) {
-        // Draw button background texture
-        if (hovered) {
-            game.batch.setColor(1f, 1f, 0.5f, 1f);
-        } else {
-            game.batch.setColor(Color.WHITE);
-        }
-        game.batch.draw(buttonTexture, button.x, button.y, button.width, button.height);
-        game.batch.setColor(Color.WHITE);
-        
-        // Draw button text
-        layout.setText(font, text);
-        float textX = button.x + (button.width - layout.width) / 2f;
-        float textY = button.y + (button.height + layout.height) / 2f;
-        
-        font.setColor(Color.WHITE);
-        font.draw(game.batch, layout, textX, textY);
+    private void drawLabel(Rectangle button, CachedText label) {
+        float textX = button.x + (button.width - label.getWidth()) / 2f;
+        float textY = button.y + (button.height + label.getHeight()) / 2f;
+        label.setPosition(textX, textY);
+        label.draw(game.batch);
     }
     
     private void updateSlider() {
-        Vector3 mousePos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
-        game.uiCamera.unproject(mousePos);
+        touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+        game.uiCamera.unproject(touchPos);
         
         if (Gdx.input.isTouched()) {
-            if (sliderBar.contains(mousePos.x, mousePos.y) || isDraggingSlider) {
+            if (sliderBar.contains(touchPos.x, touchPos.y) || isDraggingSlider) {
                 isDraggingSlider = true;
                 
-                float relativeX = mousePos.x - sliderBar.x;
+                float relativeX = touchPos.x - sliderBar.x;
                 relativeX = Math.max(0, Math.min(relativeX, sliderBar.width));
                 
                 audioLevel = (int)((relativeX / sliderBar.width) * 100);
@@ -172,7 +187,7 @@ public class SettingsPage implements Screen {
     
     private boolean isButtonClicked(Rectangle button) {
         if (Gdx.input.justTouched()) {
-            Vector3 touchPos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
+            touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
             game.uiCamera.unproject(touchPos);
             if (button.contains(touchPos.x, touchPos.y)) {
                 AudioManager.getInstance().playClickSound();
@@ -183,14 +198,13 @@ public class SettingsPage implements Screen {
     }
     
     private boolean isButtonHovered(Rectangle button) {
-        Vector3 mousePos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
-        game.uiCamera.unproject(mousePos);
-        return button.contains(mousePos.x, mousePos.y);
+        touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+        game.uiCamera.unproject(touchPos);
+        return button.contains(touchPos.x, touchPos.y);
     }
     
     public void onBack() {
         uiController.returnToPreviousScreen(previousScreen);
-        dispose();
     }
     
     @Override
@@ -229,9 +243,10 @@ public class SettingsPage implements Screen {
     
     @Override
     public void dispose() {
-        backgroundImage.dispose();
-        buttonTexture.dispose();
-        sliderBarTexture.dispose();
-        sliderKnobTexture.dispose();
+        backgroundImage.release();
+        buttonTexture.release();
+        sliderBarTexture.release();
+        sliderKnobTexture.release();
+        chrome.dispose();
     }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A file holding one {@link GameSnapshot}, e.g. the quick save.
+ *
+ * The file is memory-mapped once, so writing a snapshot is a copy of a hundred or so bytes into memory, which takes
+ * microseconds and can be done every time the room changes. The OS writes the pages back in its own time, so the
+ * snapshot survives the game crashing, but not the machine losing power before they are written. A snapshot that
+ * was cut short fails its checksum and is ignored.
+ *
+ * The file stays mapped until the game closes, so it is never deleted. {@link #clear()} marks it empty instead.
+ */
+public class SnapshotFile implements Disposable {
+
+    /** Local file the quick save is kept in. */
+    public static final String QUICK_SAVE = "quicksave.sav";
+
+    private static final int INITIAL_SIZE = 16 * 1024;
+
+    private final FileHandle file;
+    private final RandomAccessFile access;
+    private final FileChannel channel;
+    private MappedByteBuffer mapped;
+
+    /**
+     * Opens the file, creating it if need be, and maps it.
+     * @throws GdxRuntimeException if the file cannot be opened.
+     */
+    public SnapshotFile(FileHandle file)
+    {
+        this.file = file;
+        try
+        {
+            access = new RandomAccessFile(file.file(), "rw");
+            channel = access.getChannel();
+            map((int) Math.max(INITIAL_SIZE, channel.size()));
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error opening " + file, e);
+        }
+    }
+
+    private void map(int size) throws IOException
+    {
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    /**
+     * Writes a snapshot over the one in the file.
+     * @throws GdxRuntimeException if the file has to grow and cannot.
+     */
+    public void write(GameSnapshot snapshot)
+    {
+        if (snapshot.size() > mapped.capacity())
+        {
+            try
+            {
+                map(snapshot.size() * 2);
+            }
+            catch (IOException e)
+            {
+                throw new GdxRuntimeException("Error growing " + file, e);
+            }
+        }
+        snapshot.copyTo(mapped);
+    }
+
+    /**
+     * Reads the snapshot in the file.
+     * @param snapshot Set to the file's snapshot.
+     * @return Whether the file held a complete snapshot of this version. If not, the given snapshot is left empty.
+     */
+    public boolean read(GameSnapshot snapshot)
+    {
+        return snapshot.copyFrom(mapped);
+    }
+
+    /**
+     * Marks the file as holding no snapshot.
+     */
+    public void clear()
+    {
+        mapped.putInt(0, 0);
+    }
+
+    /**
+     * Flushes the file to disk and closes it.
+     */
+    @Override
+    public void dispose()
+    {
+        mapped.force();
+        try
+        {
+            access.close();
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error closing " + file, e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.team10.escapefromuni;
+
+/**
+ * Every sound effect in the game, with how the {@link AudioMixer} plays it.
+ *
+ * Priority decides which sound is cut off when every voice is in use: a new sound takes the voice of the oldest
+ * sound with the lowest priority, as long as that is no higher than its own, and is dropped otherwise. The voice
+ * limit caps how many copies of one effect can overlap; playing another restarts the oldest.
+ */
+public enum SoundEffect {
+    CLICK("click.mp3", 1, 2, 1.44f, true),
+    POSITIVE_EVENT("PosMus.mp3", 2, 1, 3.29f, false),
+    NEGATIVE_EVENT("NegMus.mp3", 2, 1, 3.08f, false),
+    // Finding a hidden event is rare, so its sound should not be cut off by anything else.
+    HIDDEN_EVENT("HidMus.mp3", 3, 1, 3.46f, false);
+
+    /** Path of the sound, relative to assets/. */
+    public final String path;
+    public final int priority;
+    public final int maxVoices;
+    /** Length of the sound in seconds, which is how long a voice playing it is kept. */
+    public final float length;
+    /** Whether the sound is loaded up front and kept, rather than loaded on first use and unloaded when idle. */
+    public final boolean resident;
+
+    SoundEffect(String path, int priority, int maxVoices, float length, boolean resident) {
+        this.path = path;
+        this.priority = priority;
+        this.maxVoices = maxVoices;
+        this.length = length;
+        this.resident = resident;
+    }
+
+    /**
+     * @return The sound played when an event of the given type is triggered, or null if it has none.
+     */
+    public static SoundEffect forEvent(EventType type) {
+        switch (type) {
+            case POSITIVE:
+                return POSITIVE_EVENT;
+            case NEGATIVE:
+                return NEGATIVE_EVENT;
+            case HIDDEN:
+                return HIDDEN_EVENT;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Runtime lookup for the packed sprite atlas.
+ *
+ * The atlas is generated by the {@code packTextures} Gradle task, which packs the gameplay sprites into one page, so
+ * they are all drawn with one texture bind. Room backgrounds are left out and streamed by the
+ * {@link RoomTextureCache} instead, so a map can have more of them than are kept in memory. Each room draws one
+ * background, so this costs one extra bind per frame.
+ * Regions are named after their path in assets/ without the extension, e.g. {@code "UI/Blue4x1Panel"}.
+ * The underlying {@link TextureAtlas} is loaded and owned by {@link GameAssets}.
+ */
+public class SpriteAtlas {
+
+    public static final String ATLAS_PATH = "atlas/game.atlas";
+
+    private final TextureAtlas atlas;
+    private final ObjectMap<String, TextureRegion> regions = new ObjectMap<>();
+    private final TextureRegion placeholder;
+
+    /**
+     * Wraps an already loaded atlas.
+     * @param atlas The loaded {@link TextureAtlas}.
+     */
+    public SpriteAtlas(TextureAtlas atlas)
+    {
+        this.atlas = atlas;
+        this.placeholder = null;
+    }
+
+    private SpriteAtlas()
+    {
+        this.atlas = null;
+        this.placeholder = new TextureRegion(new Texture(new Pixmap(1, 1, Pixmap.Format.RGBA8888)));
+    }
+
+    /**
+     * Creates an atlas without the packed textures, for running without a GPU (e.g. the headless simulation).
+     *
+     * Every name resolves to the same 1x1 region, so sprites can still be created and sized for collisions. A
+     * GL context is still needed to create that texture, but it may be one that ignores every call.
+     */
+    public static SpriteAtlas placeholder()
+    {
+        return new SpriteAtlas();
+    }
+
+    /**
+     * Returns the region with the given name.
+     *
+     * Lookups are cached, as {@link TextureAtlas#findRegion(String)} searches every region.
+     * @param name Name of the region, e.g. {@code "DoorNew"}.
+     * @return The matching region.
+     * @throws GdxRuntimeException if the atlas does not contain the region.
+     */
+    public TextureRegion getRegion(String name)
+    {
+        if (placeholder != null) return placeholder;
+
+        TextureRegion region = regions.get(name);
+        if (region == null)
+        {
+            region = atlas.findRegion(name);
+            if (region == null)
+            {
+                throw new GdxRuntimeException("Region not found in " + ATLAS_PATH + ": " + name);
+            }
+            regions.put(name, region);
+        }
+        return region;
+    }
+
+    /**
+     * Returns whether the atlas contains a region with the given name.
+     * @param name Name of the region.
+     */
+    public boolean hasRegion(String name)
+    {
+        if (placeholder != null) return true;
+        return regions.containsKey(name) || atlas.findRegion(name) != null;
+    }
+}
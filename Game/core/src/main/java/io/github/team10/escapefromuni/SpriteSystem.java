@@ -0,0 +1,55 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+
+/**
+ * Draws entities with a {@link EntityWorld#SPRITE} and a {@link EntityWorld#POSITION}, in id order.
+ *
+ * Static sprites, such as doors, only change with the room, so they are added to the room's {@link StaticLayer}
+ * when it is built. The rest are drawn with the batch every frame, between their previous and current position.
+ */
+public class SpriteSystem {
+
+    private static final int REQUIRED = EntityWorld.POSITION | EntityWorld.SPRITE;
+
+    private final EntityWorld world;
+
+    public SpriteSystem(EntityWorld world)
+    {
+        this.world = world;
+    }
+
+    /**
+     * Adds the active static sprites to a layer.
+     */
+    public void addStaticTo(StaticLayer layer)
+    {
+        EntityWorld w = world;
+        for (int e = 0; e < w.size; e++)
+        {
+            if (!isDrawn(e) || !w.staticSprite[e]) continue;
+            layer.add(w.region[e], w.x[e], w.y[e], w.width[e], w.height[e]);
+        }
+    }
+
+    /**
+     * Draws the active sprites that are not static. The batch must be drawing.
+     * @param alpha How far between the last two updates to draw each sprite, from 0 to 1.
+     */
+    public void draw(Batch batch, float alpha)
+    {
+        EntityWorld w = world;
+        for (int e = 0; e < w.size; e++)
+        {
+            if (!isDrawn(e) || w.staticSprite[e]) continue;
+            float x = w.previousX[e] + (w.x[e] - w.previousX[e]) * alpha;
+            float y = w.previousY[e] + (w.y[e] - w.previousY[e]) * alpha;
+            batch.draw(w.region[e], x, y, w.width[e], w.height[e]);
+        }
+    }
+
+    private boolean isDrawn(int e)
+    {
+        return world.alive[e] && world.active[e] && (world.mask[e] & REQUIRED) == REQUIRED;
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * A layer of sprites that stay the same from frame to frame, such as a room's background and doors or a menu's
+ * background and buttons.
+ *
+ * The sprites are added between {@link #begin()} and {@link #end()} when what they show changes, e.g. when the
+ * player enters a room. They are compiled into a {@link SpriteCache}, whose vertices are uploaded to the GPU once,
+ * and {@link #draw(Matrix4)} then draws them without any per sprite work on the CPU. Only sprites that move or
+ * change every frame need to go through the {@link com.badlogic.gdx.graphics.g2d.SpriteBatch}.
+ *
+ * A layer is drawn outside {@code batch.begin()}/{@code batch.end()}, so it goes under whatever the batch draws
+ * next. The cache is created the first time the layer is built, as it needs GL.
+ */
+public class StaticLayer implements Disposable {
+
+    private final int capacity;
+    private SpriteCache cache;
+    private int cacheId = -1;
+    private final TextureRegion scratch = new TextureRegion();
+
+    /**
+     * @param capacity Most sprites the layer will hold.
+     */
+    public StaticLayer(int capacity)
+    {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Discards the current sprites and starts adding new ones.
+     */
+    public void begin()
+    {
+        if (cache == null) cache = new SpriteCache(capacity, true);
+        cache.clear();
+        cache.setColor(Color.WHITE);
+        cache.beginCache();
+    }
+
+    public void add(TextureRegion region, float x, float y, float width, float height)
+    {
+        cache.add(region, x, y, width, height);
+    }
+
+    public void add(Texture texture, float x, float y, float width, float height)
+    {
+        scratch.setRegion(texture);
+        cache.add(scratch, x, y, width, height);
+    }
+
+    /**
+     * Adds a texture tinted with the given colour.
+     */
+    public void add(Texture texture, float x, float y, float width, float height, Color tint)
+    {
+        cache.setColor(tint);
+        add(texture, x, y, width, height);
+        cache.setColor(Color.WHITE);
+    }
+
+    /**
+     * Adds a sprite as it is now. Later changes to the sprite are not seen until the layer is built again.
+     */
+    public void add(Sprite sprite)
+    {
+        cache.add(sprite);
+    }
+
+    /**
+     * Finishes adding sprites and uploads them.
+     */
+    public void end()
+    {
+        cacheId = cache.endCache();
+    }
+
+    /**
+     * Draws the layer. The batch must not be drawing.
+     * @param projection The camera to draw with, as for the batch.
+     */
+    public void draw(Matrix4 projection)
+    {
+        if (cacheId == -1) return;
+
+        // Blended like the SpriteBatch, which sets its own blending again when it next draws.
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFuncSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_SRC_ALPHA,
+            GL20.GL_ONE_MINUS_SRC_ALPHA);
+        cache.setProjectionMatrix(projection);
+        cache.begin();
+        cache.draw(cacheId);
+        cache.end();
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (cache != null) cache.dispose();
+    }
+}
@@ -0,0 +1,216 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Compresses large, opaque textures such as the menu backgrounds to GPU block-compressed .ktx files, so they are
+ * uploaded as they are instead of being decoded from PNG and held at 24 bits per pixel in video memory.
+ *
+ * Each texture gets two files under {@link #FOLDER}, with the same relative path as the PNG:
+ * {@code compressed/mainmenu_background.ktx} holds the full size texture and every mipmap below it, and
+ * {@code compressed/mainmenu_background-half.ktx} the same chain starting at half size, for screens too small to
+ * show the full size. {@link CompressedTextures} picks between them, and the PNG, at runtime.
+ *
+ * Blocks are ETC1, encoded with libGDX's native encoder. ETC1 is a subset of ETC2, so the same blocks are uploaded as
+ * ETC2 RGB8 wherever that is supported. Neither has an alpha channel, so only opaque textures can be compressed.
+ *
+ * The {@code compressTextures} Gradle task runs {@link #main(String[])} on the textures listed in the root
+ * build.gradle, before the asset list is generated.
+ */
+public class TextureCompressor {
+
+    /** Folder under assets/ that compressed textures are written to. */
+    public static final String FOLDER = "compressed";
+
+    private static final String HALF_SUFFIX = "-half";
+    private static final String EXTENSION = ".ktx";
+
+    static final byte[] KTX_IDENTIFIER = {
+        (byte) 0xAB, 'K', 'T', 'X', ' ', '1', '1', (byte) 0xBB, '\r', '\n', 0x1A, '\n'
+    };
+    static final int KTX_ENDIANNESS = 0x04030201;
+    static final int KTX_HEADER_SIZE = 64;
+    private static final int GL_RGB = 0x1907;
+
+    private TextureCompressor() {}
+
+    /**
+     * @param path Path of the source texture, relative to assets/.
+     * @param half Whether to name the half size variant.
+     * @return Path of the compressed texture, relative to assets/. It only exists if the texture has been compressed.
+     */
+    public static String compressedPath(String path, boolean half)
+    {
+        int dot = path.lastIndexOf('.');
+        String name = dot < 0 ? path : path.substring(0, dot);
+        return FOLDER + "/" + name + (half ? HALF_SUFFIX : "") + EXTENSION;
+    }
+
+    /**
+     * Compresses a texture to its full and half size .ktx files.
+     * @param png The opaque source texture.
+     * @param full The file to write the full size chain to.
+     * @param half The file to write the half size chain to.
+     */
+    public static void compress(FileHandle png, FileHandle full, FileHandle half)
+    {
+        Array<Pixmap> levels = new Array<>();
+        Array<ETC1.ETC1Data> blocks = new Array<>();
+        Pixmap source = new Pixmap(png);
+        try
+        {
+            if (source.getFormat() != Pixmap.Format.RGB888 && !isOpaque(source))
+            {
+                throw new GdxRuntimeException("Only opaque textures can be compressed: " + png.path());
+            }
+            levels.add(toRGB888(source));
+
+            // Mipmaps down to 1x1, each a 2x2 box filter of the one above, which keeps the chain complete for
+            // mipmapped filtering.
+            Pixmap level = levels.first();
+            while (level.getWidth() > 1 || level.getHeight() > 1)
+            {
+                level = halve(level);
+                levels.add(level);
+            }
+
+            for (int i = 0; i < levels.size; i++)
+            {
+                blocks.add(ETC1.encodeImage(levels.get(i)));
+            }
+
+            writeKtx(full, levels, blocks, 0);
+            writeKtx(half, levels, blocks, Math.min(1, levels.size - 1));
+        }
+        finally
+        {
+            source.dispose();
+            for (Pixmap level : levels) level.dispose();
+            for (ETC1.ETC1Data level : blocks) level.dispose();
+        }
+    }
+
+    private static boolean isOpaque(Pixmap pixmap)
+    {
+        for (int y = 0; y < pixmap.getHeight(); y++)
+        {
+            for (int x = 0; x < pixmap.getWidth(); x++)
+            {
+                if ((pixmap.getPixel(x, y) & 0xff) != 0xff) return false;
+            }
+        }
+        return true;
+    }
+
+    private static Pixmap toRGB888(Pixmap pixmap)
+    {
+        Pixmap rgb = new Pixmap(pixmap.getWidth(), pixmap.getHeight(), Pixmap.Format.RGB888);
+        rgb.setBlending(Pixmap.Blending.None);
+        rgb.drawPixmap(pixmap, 0, 0);
+        return rgb;
+    }
+
+    /**
+     * Averages each 2x2 block of an RGB888 pixmap. Odd edges repeat their last row or column.
+     */
+    private static Pixmap halve(Pixmap pixmap)
+    {
+        int width = pixmap.getWidth();
+        int height = pixmap.getHeight();
+        Pixmap half = new Pixmap(Math.max(1, width / 2), Math.max(1, height / 2), Pixmap.Format.RGB888);
+        ByteBuffer src = pixmap.getPixels();
+        ByteBuffer dst = half.getPixels();
+
+        for (int y = 0; y < half.getHeight(); y++)
+        {
+            int y0 = Math.min(height - 1, y * 2);
+            int y1 = Math.min(height - 1, y * 2 + 1);
+            for (int x = 0; x < half.getWidth(); x++)
+            {
+                int x0 = Math.min(width - 1, x * 2);
+                int x1 = Math.min(width - 1, x * 2 + 1);
+                for (int c = 0; c < 3; c++)
+                {
+                    int sum = (src.get((y0 * width + x0) * 3 + c) & 0xff)
+                        + (src.get((y0 * width + x1) * 3 + c) & 0xff)
+                        + (src.get((y1 * width + x0) * 3 + c) & 0xff)
+                        + (src.get((y1 * width + x1) * 3 + c) & 0xff);
+                    dst.put((y * half.getWidth() + x) * 3 + c, (byte) ((sum + 2) / 4));
+                }
+            }
+        }
+        return half;
+    }
+
+    /**
+     * Writes the levels from first down as a KTX 1.1 file of ETC1 blocks.
+     */
+    private static void writeKtx(FileHandle file, Array<Pixmap> levels, Array<ETC1.ETC1Data> blocks, int first)
+    {
+        int size = KTX_HEADER_SIZE;
+        for (int i = first; i < blocks.size; i++) size += 4 + blocks.get(i).compressedData.capacity();
+
+        ByteBuffer out = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        out.put(KTX_IDENTIFIER);
+        out.putInt(KTX_ENDIANNESS);
+        out.putInt(0); // glType, 0 for compressed data
+        out.putInt(1); // glTypeSize
+        out.putInt(0); // glFormat, 0 for compressed data
+        out.putInt(ETC1.ETC1_RGB8_OES);
+        out.putInt(GL_RGB);
+        out.putInt(levels.get(first).getWidth());
+        out.putInt(levels.get(first).getHeight());
+        out.putInt(0); // pixelDepth
+        out.putInt(0); // numberOfArrayElements
+        out.putInt(1); // numberOfFaces
+        out.putInt(blocks.size - first);
+        out.putInt(0); // bytesOfKeyValueData
+
+        // ETC1 blocks are 8 bytes, so every level is already 4 byte aligned.
+        for (int i = first; i < blocks.size; i++)
+        {
+            ByteBuffer level = blocks.get(i).compressedData;
+            level.position(0);
+            out.putInt(level.capacity());
+            out.put(level);
+        }
+
+        file.parent().mkdirs();
+        file.writeBytes(out.array(), false);
+    }
+
+    /**
+     * Compresses textures whose .ktx files are missing or older than the PNG.
+     * @param args The assets folder, then each texture to compress, relative to it.
+     */
+    public static void main(String[] args)
+    {
+        GdxNativesLoader.load();
+        File assets = new File(args.length > 0 ? args[0] : ".");
+
+        for (int i = 1; i < args.length; i++)
+        {
+            FileHandle png = new FileHandle(new File(assets, args[i]));
+            FileHandle full = new FileHandle(new File(assets, compressedPath(args[i], false)));
+            FileHandle half = new FileHandle(new File(assets, compressedPath(args[i], true)));
+            if (full.exists() && half.exists() && full.lastModified() >= png.lastModified())
+            {
+                System.out.println(full.name() + " is up to date");
+                continue;
+            }
+
+            compress(png, full, half);
+            System.out.println("Compressed " + png.name() + " from " + png.length() / 1024 + " KB to "
+                + (full.length() + half.length()) / 1024 + " KB");
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * Hands out shared, reference-counted textures by path.
+ *
+ * Each call to {@link #acquire(String)} returns a new {@link TextureHandle} for the caller, and every handle must
+ * be released exactly once. Textures are shared between handles and are disposed by the {@link AssetManager}
+ * when the last reference is released. Textures preloaded by {@link GameAssets} keep the loader's reference, so
+ * they stay resident (e.g. across restarts) and are never decoded twice. Where a texture has compressed versions,
+ * the {@link CompressedTextures} decide which file is loaded, and handles keep the path they were acquired with.
+ *
+ * In debug mode every handle remembers where it was acquired and released, so {@link #reportLeaks()} can list
+ * leaked handles and double releases are logged with both call sites.
+ */
+public class TextureRegistry {
+
+    private final AssetManager manager;
+    private final CompressedTextures compressed;
+    private final boolean debug;
+
+    private final ObjectIntMap<String> handleCounts = new ObjectIntMap<>();
+    private final ObjectSet<TextureHandle> liveHandles = new ObjectSet<>();
+    private int doubleReleases;
+
+    /**
+     * @param manager The asset manager that loads and owns the textures.
+     * @param compressed Picks the file each texture is loaded from.
+     * @param debug Whether to track acquire and release call sites for leak reports.
+     */
+    public TextureRegistry(AssetManager manager, CompressedTextures compressed, boolean debug)
+    {
+        this.manager = manager;
+        this.compressed = compressed;
+        this.debug = debug;
+    }
+
+    /**
+     * Returns a handle to the texture at the given path, loading it synchronously if it is not yet resident.
+     * @param path Path of the texture, relative to assets/.
+     * @return A new handle, which must be released by the caller.
+     */
+    public TextureHandle acquire(String path)
+    {
+        // AssetManager.load() adds a reference if the texture is already loaded.
+        String file = compressed.load(manager, path);
+        Texture texture = manager.finishLoadingAsset(file);
+
+        TextureHandle handle = new TextureHandle(this, path, texture);
+        handleCounts.getAndIncrement(path, 0, 1);
+        if (debug)
+        {
+            handle.acquiredAt = new Throwable("Acquired " + path);
+            liveHandles.add(handle);
+        }
+        return handle;
+    }
+
+    private void release(TextureHandle handle)
+    {
+        if (handle.released)
+        {
+            doubleReleases++;
+            if (debug)
+            {
+                Gdx.app.error("TextureRegistry", "Double release of " + handle.path, new Throwable("Released again"));
+                Gdx.app.error("TextureRegistry", "First release was here", handle.releasedAt);
+            }
+            return;
+        }
+
+        handle.released = true;
+        handleCounts.getAndIncrement(handle.path, 0, -1);
+        if (debug)
+        {
+            handle.releasedAt = new Throwable("Released " + handle.path);
+            liveHandles.remove(handle);
+        }
+        manager.unload(compressed.resolve(handle.path));
+    }
+
+    /**
+     * @return The number of unreleased handles for the given path.
+     */
+    public int getHandleCount(String path)
+    {
+        return handleCounts.get(path, 0);
+    }
+
+    /**
+     * Logs every handle that has not been released, and the number of double releases.
+     *
+     * Called from {@link EscapeGame#dispose()} after the screens have been disposed.
+     * @return The number of leaked handles.
+     */
+    public int reportLeaks()
+    {
+        int leaked = 0;
+        for (ObjectIntMap.Entry<String> entry : handleCounts)
+        {
+            if (entry.value > 0)
+            {
+                leaked += entry.value;
+                Gdx.app.error("TextureRegistry", "Leaked " + entry.value + " handle(s) to " + entry.key);
+            }
+        }
+        if (debug)
+        {
+            for (TextureHandle handle : liveHandles)
+            {
+                Gdx.app.error("TextureRegistry", "Leaked handle was acquired here", handle.acquiredAt);
+            }
+        }
+        if (doubleReleases > 0)
+        {
+            Gdx.app.error("TextureRegistry", doubleReleases + " double release(s) detected");
+        }
+        return leaked;
+    }
+
+    /**
+     * A single user's reference to a shared texture.
+     */
+    public static class TextureHandle {
+        private final TextureRegistry registry;
+        private final String path;
+        private final Texture texture;
+        private boolean released;
+
+        private Throwable acquiredAt;
+        private Throwable releasedAt;
+
+        private TextureHandle(TextureRegistry registry, String path, Texture texture)
+        {
+            this.registry = registry;
+            this.path = path;
+            this.texture = texture;
+        }
+
+        /**
+         * @return The shared texture.
+         * @throws GdxRuntimeException if the handle has already been released.
+         */
+        public Texture get()
+        {
+            if (released)
+            {
+                throw new GdxRuntimeException("Texture handle used after release: " + path);
+            }
+            return texture;
+        }
+
+        public String getPath()
+        {
+            return path;
+        }
+
+        public boolean isReleased()
+        {
+            return released;
+        }
+
+        /**
+         * Releases this reference. Releasing twice is reported but has no further effect.
+         */
+        public void release()
+        {
+            registry.release(this);
+        }
+    }
+}
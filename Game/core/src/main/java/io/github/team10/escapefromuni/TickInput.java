@@ -0,0 +1,111 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * The input one game update acts on: which way the player is moving, and where the screen was clicked, if it was.
+ *
+ * Gameplay reads input only from here, never from the {@link InputSource} directly. The {@link GameController}
+ * fills it in once at the start of each update, either by sampling the input source or from an
+ * {@link InputReplay}, so an update sees exactly the same input whether it is played live or replayed. Clicks are
+ * kept in UI coordinates, which do not depend on the window size.
+ *
+ * A click is on exactly one update: the first one after the frame it was latched in. Frames that run no updates,
+ * or several, neither lose a click nor repeat it, so a recording has one {@link #TOUCH} per click and replays the
+ * same way at any frame rate.
+ */
+public class TickInput {
+
+    public static final int RIGHT = 1;
+    public static final int LEFT = 1 << 1;
+    public static final int UP = 1 << 2;
+    public static final int DOWN = 1 << 3;
+    /** The screen was clicked or touched, at {@link #getTouchX()}, {@link #getTouchY()}. */
+    public static final int TOUCH = 1 << 4;
+    /** The game was paused just before this update. Gameplay ignores it, it only marks the pause in recordings. */
+    public static final int PAUSE = 1 << 5;
+    /** Every bit in use. */
+    static final int ALL = (1 << 6) - 1;
+
+    private int buttons;
+    private float touchX;
+    private float touchY;
+
+    private final Vector3 touchPos = new Vector3();
+
+    /**
+     * Reads the arrow keys or WASD, and takes the click the input source latched, if no earlier update has.
+     * @param uiViewport Viewport the click is unprojected with.
+     */
+    public void sample(InputSource input, Viewport uiViewport)
+    {
+        int sampled = 0;
+        if (input.isKeyPressed(Input.Keys.RIGHT) || input.isKeyPressed(Input.Keys.D)) sampled |= RIGHT;
+        if (input.isKeyPressed(Input.Keys.LEFT) || input.isKeyPressed(Input.Keys.A)) sampled |= LEFT;
+        if (input.isKeyPressed(Input.Keys.UP) || input.isKeyPressed(Input.Keys.W)) sampled |= UP;
+        if (input.isKeyPressed(Input.Keys.DOWN) || input.isKeyPressed(Input.Keys.S)) sampled |= DOWN;
+
+        float x = 0f;
+        float y = 0f;
+        if (input.justTouched())
+        {
+            sampled |= TOUCH;
+            touchPos.set(input.getX(), input.getY(), 0);
+            // The viewport accounts for the letterbox bars of the FitViewport.
+            uiViewport.unproject(touchPos);
+            x = touchPos.x;
+            y = touchPos.y;
+        }
+        set(sampled, x, y);
+    }
+
+    /**
+     * @param buttons The bits of the buttons held, and {@link #TOUCH} if there was a click.
+     * @param touchX The x-coord of the click in UI coordinates, or 0 if there was none.
+     * @param touchY The y-coord of the click in UI coordinates, or 0 if there was none.
+     */
+    public void set(int buttons, float touchX, float touchY)
+    {
+        this.buttons = buttons;
+        this.touchX = touchX;
+        this.touchY = touchY;
+    }
+
+    /**
+     * Nothing held and no click.
+     */
+    public void clear()
+    {
+        set(0, 0f, 0f);
+    }
+
+    public int getButtons()
+    {
+        return buttons;
+    }
+
+    /**
+     * @param button One of the button bits.
+     */
+    public boolean isDown(int button)
+    {
+        return (buttons & button) != 0;
+    }
+
+    public boolean isTouched()
+    {
+        return isDown(TOUCH);
+    }
+
+    public float getTouchX()
+    {
+        return touchX;
+    }
+
+    public float getTouchY()
+    {
+        return touchY;
+    }
+}
@@ -5,12 +5,10 @@ public class Timer {
     private float time;
     private float timeLeft;
     private boolean isFrozen;
-    private float frozenTimer;
 
     public Timer() {
         this.time = 0;
         this.timeLeft = 300; // start at 300 seconds
-        this.frozenTimer = 30; // Freeze lasts 30 seconds when activated
         this.isFrozen = false;
     }
 
@@ -22,18 +20,16 @@ public class Timer {
                 timeLeft = 0;
             }
         }
-        else {
-            frozenTimer -= delta;
-            if (frozenTimer <= 0) {
-                isFrozen = false;
-            }
-        }
     }
 
     public float getTime() {
         return time;
     }
 
+    public float getTimeLeft() {
+        return timeLeft;
+    }
+
     public int getTimeSeconds() {
         return (int) time;
     }
@@ -50,12 +46,27 @@ public class Timer {
         return timeLeft <= 0;
     }
 
-    public void setFrozen() {
-        isFrozen = true;
+    // Set every update by the TimerEffectSystem, which times freezes.
+    public void setFrozen(boolean frozen) {
+        isFrozen = frozen;
+    }
+
+    public boolean isFrozen() {
+        return isFrozen;
+    }
+
+    /**
+     * Puts the timer back to a saved state, see {@link GameSnapshot}.
+     */
+    public void restore(float time, float timeLeft) {
+        this.time = time;
+        this.timeLeft = timeLeft;
     }
 
     public void reset() {
         time = 0;
         timeLeft = 300;
+        // A freeze must not carry over into the next run.
+        isFrozen = false;
     }
 }
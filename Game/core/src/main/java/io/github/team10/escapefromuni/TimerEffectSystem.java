@@ -0,0 +1,46 @@
+package io.github.team10.escapefromuni;
+
+/**
+ * Counts down {@link EntityWorld#TIMER_EFFECT}s and ends them when their time is up.
+ *
+ * The game timer is frozen for as long as any {@link Effect#FREEZE} is in force, so overlapping freezes simply last
+ * until the later one ends. A timed {@link Effect#SPEED} change is taken back off the player when it ends. Must run
+ * before {@link Timer#update(float)}.
+ */
+public class TimerEffectSystem {
+
+    private final GameController controller;
+    private final EntityWorld world;
+    private final Timer timer;
+
+    public TimerEffectSystem(GameController controller, EntityWorld world, Timer timer)
+    {
+        this.controller = controller;
+        this.world = world;
+        this.timer = timer;
+    }
+
+    /**
+     * @param delta The time in seconds since the last update.
+     */
+    public void update(float delta)
+    {
+        EntityWorld w = world;
+        boolean frozen = false;
+        for (int e = 0; e < w.size; e++)
+        {
+            if (!w.alive[e] || (w.mask[e] & EntityWorld.TIMER_EFFECT) == 0) continue;
+
+            Effect effect = w.timerEffect[e];
+            // In force for the whole of the update in which it runs out.
+            if (effect == Effect.FREEZE) frozen = true;
+            w.timeLeft[e] -= delta;
+            if (w.timeLeft[e] <= 0f)
+            {
+                if (effect == Effect.SPEED) controller.getPlayer().increaseSpeed(-w.timerAmount[e]);
+                w.destroy(e);
+            }
+        }
+        timer.setFrozen(frozen);
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.team10.escapefromuni;
+
+/**
+ * The best few runs out of any number, kept in a fixed size min-heap so offering a run costs O(log K) and the list
+ * never grows, however many runs are offered.
+ *
+ * Entries are kept in parallel arrays. The worst entry is at the root of the heap, so a new run only has to beat it
+ * to get in. Ranked order is worked out again on demand, which for a handful of entries is cheaper than keeping it.
+ * A run ranks above another with a higher score, then a shorter time, then an earlier date.
+ */
+public class TopScores {
+
+    private final int capacity;
+    private int size;
+
+    // Heap ordered, worst first.
+    private final int[] score;
+    private final float[] time;
+    private final long[] seed;
+    private final long[] date;
+
+    // Heap indices in ranked order, best first, while not dirty.
+    private final int[] ranked;
+    private boolean dirty;
+
+    /**
+     * @param capacity The number of runs kept.
+     */
+    public TopScores(int capacity)
+    {
+        this.capacity = capacity;
+        score = new int[capacity];
+        time = new float[capacity];
+        seed = new long[capacity];
+        date = new long[capacity];
+        ranked = new int[capacity];
+    }
+
+    /**
+     * Adds a run if it is among the best.
+     * @param time Seconds the run took.
+     * @param date When the run ended, in milliseconds since the epoch.
+     * @return The run's rank from 1, or 0 if it did not make the list.
+     */
+    public int offer(int score, float time, long seed, long date)
+    {
+        if (size < capacity)
+        {
+            siftUp(size++, score, time, seed, date);
+        }
+        else if (better(score, time, date, 0))
+        {
+            // Replaces the worst run.
+            siftDown(0, score, time, seed, date);
+        }
+        else
+        {
+            return 0;
+        }
+        dirty = true;
+
+        int rank = 1;
+        for (int i = 0; i < size; i++)
+        {
+            if (better(this.score[i], this.time[i], this.date[i], score, time, date)) rank++;
+        }
+        return rank;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * @param rank From 1 to {@link #size()}.
+     */
+    public int getScore(int rank)
+    {
+        return score[entry(rank)];
+    }
+
+    /**
+     * @param rank From 1 to {@link #size()}.
+     * @return Seconds the run took.
+     */
+    public float getTime(int rank)
+    {
+        return time[entry(rank)];
+    }
+
+    public long getSeed(int rank)
+    {
+        return seed[entry(rank)];
+    }
+
+    public long getDate(int rank)
+    {
+        return date[entry(rank)];
+    }
+
+    public void clear()
+    {
+        size = 0;
+        dirty = true;
+    }
+
+    private int entry(int rank)
+    {
+        if (rank < 1 || rank > size) throw new IndexOutOfBoundsException("Rank " + rank + " of " + size);
+        if (dirty) sort();
+        return ranked[rank - 1];
+    }
+
+    // Insertion sort of the heap indices, best first.
+    private void sort()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            int entry = i;
+            int j = i - 1;
+            while (j >= 0 && better(score[entry], time[entry], date[entry], ranked[j]))
+            {
+                ranked[j + 1] = ranked[j];
+                j--;
+            }
+            ranked[j + 1] = entry;
+        }
+        dirty = false;
+    }
+
+    // Moves an entry towards the root past better ones, as the worst run belongs at the root.
+    private void siftUp(int index, int score, float time, long seed, long date)
+    {
+        while (index > 0)
+        {
+            int parent = (index - 1) / 2;
+            if (!better(this.score[parent], this.time[parent], this.date[parent], score, time, date)) break;
+            move(parent, index);
+            index = parent;
+        }
+        set(index, score, time, seed, date);
+    }
+
+    // Puts an entry at the root and moves it away from it past worse ones.
+    private void siftDown(int index, int score, float time, long seed, long date)
+    {
+        while (true)
+        {
+            int child = index * 2 + 1;
+            if (child >= size) break;
+            if (child + 1 < size && better(this.score[child], this.time[child], this.date[child], child + 1)) child++;
+            if (!better(score, time, date, child)) break;
+            move(child, index);
+            index = child;
+        }
+        set(index, score, time, seed, date);
+    }
+
+    private void move(int from, int to)
+    {
+        set(to, score[from], time[from], seed[from], date[from]);
+    }
+
+    private void set(int index, int score, float time, long seed, long date)
+    {
+        this.score[index] = score;
+        this.time[index] = time;
+        this.seed[index] = seed;
+        this.date[index] = date;
+    }
+
+    private boolean better(int score, float time, long date, int index)
+    {
+        return better(score, time, date, this.score[index], this.time[index], this.date[index]);
+    }
+
+    /**
+     * @return Whether the first run ranks above the second.
+     */
+    private static boolean better(int score, float time, long date, int otherScore, float otherTime, long otherDate)
+    {
+        if (score != otherScore) return score > otherScore;
+        if (time != otherTime) return time < otherTime;
+        return date < otherDate;
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.team10.escapefromuni;
+
+/**
+ * Finds what the player is touching and fires the {@link EntityWorld#TRIGGER}s of entities they have walked into.
+ *
+ * The player's bounds are checked against the {@link CollisionWorld}, which reports new contacts to the
+ * {@link EntityWorld}. They are then acted on in the order they were found. A trigger with a duration spawns a
+ * timer effect entity for the {@link TimerEffectSystem} to keep in force, so e.g. a freeze outlasts its pickup.
+ */
+public class TriggerSystem {
+
+    private static final DoorDirection[] DIRECTIONS = DoorDirection.values();
+
+    private final GameController controller;
+    private final EntityWorld world;
+    private final CollisionWorld collisions;
+
+    /**
+     * @param controller Gives the current player, doors and score, which are replaced when the game is reset.
+     */
+    public TriggerSystem(GameController controller, EntityWorld world, CollisionWorld collisions)
+    {
+        this.controller = controller;
+        this.world = world;
+        this.collisions = collisions;
+    }
+
+    public void update()
+    {
+        EntityWorld w = world;
+        int player = controller.getPlayer().entity;
+        collisions.update(w.x[player], w.y[player], w.width[player], w.height[player]);
+
+        // Firing a door changes room, which destroys entities and may reuse their ids, so generations are checked.
+        for (int i = 0; i < w.contacts.size; i += 2)
+        {
+            int entity = w.contacts.items[i];
+            if (w.isAlive(entity, w.contacts.items[i + 1]) && w.active[entity] && w.has(entity, EntityWorld.TRIGGER))
+            {
+                fire(entity);
+            }
+        }
+        w.contacts.clear();
+    }
+
+    private void fire(int entity)
+    {
+        EntityWorld w = world;
+        Effect effect = w.triggerEffect[entity];
+        float amount = w.triggerAmount[entity];
+        float duration = w.triggerDuration[entity];
+
+        if (effect == Effect.DOOR)
+        {
+            controller.getDoorController().enterDoor(DIRECTIONS[(int) amount]);
+        }
+        else
+        {
+            start(effect, amount, entity);
+            if (duration > 0f)
+            {
+                int timer = w.create();
+                w.setTimerEffect(timer, effect, amount, duration);
+            }
+        }
+
+        // The door may have changed room, which destroys the entities of the old one.
+        if (!w.has(entity, EntityWorld.TRIGGER) || w.triggerRepeats[entity]) return;
+        if (w.triggerConsumes[entity])
+        {
+            w.destroy(entity);
+        }
+        else
+        {
+            w.remove(entity, EntityWorld.TRIGGER | EntityWorld.COLLIDER);
+        }
+    }
+
+    private void start(Effect effect, float amount, int entity)
+    {
+        switch (effect)
+        {
+            case SPEED:
+                controller.getPlayer().increaseSpeed(amount);
+                break;
+            case SCORE:
+                controller.getScoreManager().increaseScore((int) amount);
+                break;
+            case REVEAL:
+                world.region[entity] = world.triggerRegion[entity];
+                break;
+            default:
+                // A freeze is kept in force by its timer effect.
+                break;
+        }
+    }
+}
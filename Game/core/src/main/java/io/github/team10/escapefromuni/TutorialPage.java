@@ -4,7 +4,7 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Texture;
+import io.github.team10.escapefromuni.TextureRegistry.TextureHandle;
 
 /**
  * Tutorial page displaying game instructions.
@@ -15,7 +15,7 @@ public class TutorialPage implements Screen {
     
     private final EscapeGame game;
     private final UIController uiController;
-    private Texture tutorialImage;
+    private TextureHandle tutorialImage;
     
     /**
      * Creates a new TutorialPage instance.
@@ -24,12 +24,12 @@ public class TutorialPage implements Screen {
     public TutorialPage(EscapeGame game, UIController uiController) {
         this.game = game;
         this.uiController = uiController;
+        this.tutorialImage = game.textures.acquire("tutorial1.png");
     }
     
     @Override
     public void show() {
-        // Load tutorial image
-        tutorialImage = new Texture(Gdx.files.internal("tutorial1.png"));
+        game.renderOnDemand();
     }
     
     /**
@@ -39,7 +39,7 @@ public class TutorialPage implements Screen {
         game.viewport.apply();
         game.batch.setProjectionMatrix(game.viewport.getCamera().combined);
         game.batch.begin();
-        game.batch.draw(tutorialImage, 0, 0, game.viewport.getWorldWidth(), game.viewport.getWorldHeight());
+        game.batch.draw(tutorialImage.get(), 0, 0, game.viewport.getWorldWidth(), game.viewport.getWorldHeight());
         game.batch.end();
     }
     
@@ -49,7 +49,6 @@ public class TutorialPage implements Screen {
      */
     public void onEscPress() {
         uiController.showMainMenu();
-        dispose();
     }
     
     @Override
@@ -81,6 +80,6 @@ public class TutorialPage implements Screen {
     
     @Override
     public void dispose() {
-        tutorialImage.dispose();
+        tutorialImage.release();
     }
 }
\ No newline at end of file
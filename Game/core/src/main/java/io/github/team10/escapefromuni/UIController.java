@@ -2,11 +2,21 @@ package io.github.team10.escapefromuni;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.utils.ObjectMap;
 
-public class UIController {
+/**
+ * Handles switching between screens.
+ *
+ * Screens are created once and kept in a registry, so moving between menus or pausing the game does not rebuild
+ * them. Per-visit state (the paused game, the win/lose result, the previous screen) is passed in through each
+ * screen's {@code reset} method instead.
+ */
+public class UIController implements GameOverListener {
     private final EscapeGame game;
     private GameController gameController;
 
+    private final ObjectMap<Class<? extends Screen>, Screen> screens = new ObjectMap<>();
+
     public UIController(EscapeGame game, GameController gameController) {
         this.game = game;
         this.gameController = gameController;
@@ -16,34 +26,73 @@ public class UIController {
         this.gameController = gameController;
     }
 
+    /**
+     * Returns the cached screen of the given type, or null if it has not been created yet.
+     */
+    private <T extends Screen> T getCached(Class<T> type) {
+        return type.cast(screens.get(type));
+    }
+
+    private <T extends Screen> T cache(T screen) {
+        screens.put(screen.getClass(), screen);
+        return screen;
+    }
+
     public void showMainMenu() {
         AudioManager.getInstance().playMenuMusic();
-        game.setScreen(new MainMenu(game, this));
+        MainMenu mainMenu = getCached(MainMenu.class);
+        if (mainMenu == null) {
+            mainMenu = cache(new MainMenu(game, this));
+        }
+        game.setScreen(mainMenu);
     }
 
+    /**
+     * Starts a new run, or carries on the saved one if the game crashed or was closed during it.
+     */
     public void startGame() {
         AudioManager.getInstance().playClickSound();
 
-        if(gameController != null){
+        if(gameController != null && !gameController.restoreQuickSave()){
             gameController.resetGame();
         }
-        
-        game.setScreen(new GameScreen(game, this, gameController));
+
+        GameScreen gameScreen = getCached(GameScreen.class);
+        if (gameScreen == null) {
+            gameScreen = cache(new GameScreen(game, this, gameController));
+        }
+        game.setScreen(gameScreen);
     }
 
     public void showTutorial() {
         AudioManager.getInstance().playClickSound();
-        game.setScreen(new TutorialPage(game, this));
+        TutorialPage tutorialPage = getCached(TutorialPage.class);
+        if (tutorialPage == null) {
+            tutorialPage = cache(new TutorialPage(game, this));
+        }
+        game.setScreen(tutorialPage);
     }
 
     public void showSettings(Screen previousScreen) {
         AudioManager.getInstance().playClickSound();
-        game.setScreen(new SettingsPage(game, this, previousScreen));
+        SettingsPage settingsPage = getCached(SettingsPage.class);
+        if (settingsPage == null) {
+            settingsPage = cache(new SettingsPage(game, this, previousScreen));
+        } else {
+            settingsPage.reset(previousScreen);
+        }
+        game.setScreen(settingsPage);
     }
 
     public void pauseGame(GameScreen gameScreen, int pausedTime) {
         AudioManager.getInstance().playMenuMusic();
-        game.setScreen(new PauseMenu(game, this, gameScreen, pausedTime));
+        PauseMenu pauseMenu = getCached(PauseMenu.class);
+        if (pauseMenu == null) {
+            pauseMenu = cache(new PauseMenu(game, this, gameScreen, pausedTime));
+        } else {
+            pauseMenu.reset(gameScreen, pausedTime);
+        }
+        game.setScreen(pauseMenu);
     }
 
     public void resumeGame(GameScreen gameScreen) {
@@ -51,9 +100,37 @@ public class UIController {
         game.setScreen(gameScreen);
     }
 
+    /**
+     * Starts the paused run again from the beginning.
+     */
+    public void restartGame(GameScreen gameScreen) {
+        AudioManager.getInstance().playClickSound();
+        gameController.restartRun();
+        game.setScreen(gameScreen);
+    }
+
+    /**
+     * Leaves the paused run for the main menu. The run is not saved.
+     */
+    public void quitToMainMenu() {
+        gameController.abandonRun();
+        showMainMenu();
+    }
+
     public void showGameOver(boolean win, Timer timer, ScoreManager scores) {
         AudioManager.getInstance().playMenuMusic();
-        game.setScreen(new GameOverScreen(game, this, win, timer, scores));
+        GameOverScreen gameOverScreen = getCached(GameOverScreen.class);
+        if (gameOverScreen == null) {
+            gameOverScreen = cache(new GameOverScreen(game, this, win, timer, scores));
+        } else {
+            gameOverScreen.reset(win, timer, scores);
+        }
+        game.setScreen(gameOverScreen);
+    }
+
+    @Override
+    public void onGameOver(boolean win, Timer timer, ScoreManager scores) {
+        showGameOver(win, timer, scores);
     }
 
     public void exitGame() {
@@ -67,4 +144,14 @@ public class UIController {
             game.setScreen(previousScreen);
         }
     }
+
+    /**
+     * Disposes every cached screen. Called when the game closes.
+     */
+    public void dispose() {
+        for (Screen screen : screens.values()) {
+            screen.dispose();
+        }
+        screens.clear();
+    }
 }
@@ -0,0 +1,131 @@
+package io.github.team10.escapefromuni;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.DistanceFieldFont;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * The UI font, drawn at any size by {@link CachedText} and {@link CounterText}.
+ *
+ * Normally the font is a signed distance field baked by the {@link FontBaker}: each texel holds the distance to the
+ * nearest glyph edge rather than the glyph's coverage, so one small atlas stays sharp at every size and window
+ * resolution. It is drawn with libGDX's distance field shader, which is installed on the shared batch once with
+ * {@link #install(Batch)}. That shader draws everything else exactly like the default one while its smoothing
+ * uniform is 0, so only text drawing sets the uniform, in {@link #beginText} and {@link #endText}.
+ *
+ * Without a distance field bake the font is a plain bitmap font, drawn with the default shader and scaled as
+ * usual.
+ *
+ * The scale of the wrapped {@link BitmapFont} belongs to this class. It is only changed while text is laid out.
+ */
+public class UIFont implements Disposable {
+
+    /** Size in UI units that text is drawn at unless it asks for another. */
+    public static final float DEFAULT_SIZE = 48f;
+
+    private final BitmapFont font;
+    private final float generatedSize;
+    private final int spread;
+    private final ShaderProgram shader;
+
+    // Screen pixels per UI unit, which sets how wide the anti-aliased edge of distance field text is.
+    private float pixelsPerUnit = 1f;
+
+    /**
+     * @param font The loaded font.
+     * @param generatedSize The size the glyphs were generated at, in pixels.
+     * @param spread For a distance field font, how many texels the field extends past each glyph edge. 0 for a
+     *     bitmap font.
+     */
+    public UIFont(BitmapFont font, float generatedSize, int spread)
+    {
+        this.font = font;
+        this.generatedSize = generatedSize;
+        this.spread = spread;
+        this.shader = spread > 0 ? DistanceFieldFont.createDistanceFieldShader() : null;
+    }
+
+    public BitmapFont getFont()
+    {
+        return font;
+    }
+
+    public boolean isDistanceField()
+    {
+        return shader != null;
+    }
+
+    /**
+     * Sets the batch's shader to the distance field shader, if the font uses one. Sprites are drawn as normal with
+     * it, so it can stay on the batch.
+     */
+    public void install(Batch batch)
+    {
+        if (shader != null) batch.setShader(shader);
+    }
+
+    /**
+     * Tells the font how large the UI is on screen. Called whenever the UI viewport is resized.
+     * @param uiViewport The viewport text is drawn in, already updated.
+     */
+    public void resize(Viewport uiViewport)
+    {
+        pixelsPerUnit = uiViewport.getScreenWidth() / uiViewport.getWorldWidth();
+    }
+
+    /**
+     * Scales the font so text laid out with it is the given size. Undone by {@link #resetSize()}.
+     * @param size The size in UI units.
+     * @return The scaled font.
+     */
+    public BitmapFont applySize(float size)
+    {
+        font.getData().setScale(size / generatedSize);
+        return font;
+    }
+
+    public void resetSize()
+    {
+        font.getData().setScale(1f);
+    }
+
+    /**
+     * Prepares the batch to draw text of the given size. The batch must already be started.
+     */
+    public void beginText(Batch batch, float size)
+    {
+        if (!usesShader(batch)) return;
+        // The anti-aliased edge is about one screen pixel wide: a texel covers this many pixels, and the field
+        // goes from 0 to 1 over twice the spread.
+        float texelPixels = size / generatedSize * pixelsPerUnit;
+        batch.flush();
+        shader.setUniformf("u_smoothing", spread * texelPixels);
+    }
+
+    /**
+     * Returns the batch to drawing sprites.
+     */
+    public void endText(Batch batch)
+    {
+        if (!usesShader(batch)) return;
+        batch.flush();
+        shader.setUniformf("u_smoothing", 0f);
+    }
+
+    private boolean usesShader(Batch batch)
+    {
+        return shader != null && batch.getShader() == shader;
+    }
+
+    /**
+     * Disposes the shader. The font itself is owned by {@link GameAssets}.
+     */
+    @Override
+    public void dispose()
+    {
+        if (shader != null) shader.dispose();
+    }
+}
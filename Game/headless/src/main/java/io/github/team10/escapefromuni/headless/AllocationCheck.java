@@ -0,0 +1,131 @@
+package io.github.team10.escapefromuni.headless;
+
+import io.github.team10.escapefromuni.EscapeGame;
+import io.github.team10.escapefromuni.GameController;
+import io.github.team10.escapefromuni.GameScreen;
+import io.github.team10.escapefromuni.ScoreManager;
+import io.github.team10.escapefromuni.Timer;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Checks that updating the game allocates nothing once it is warmed up. Run by the checkAllocations Gradle task,
+ * which fails if a run allocates any bytes.
+ *
+ * A {@link BotInput} plays full runs to warm up until the JIT has stopped compiling, so every room, event and code
+ * path has been used and is running as it will in a long session. Until then, code the JIT has not fully optimised
+ * yet allocates objects that escape analysis later removes. The checkAllocations task runs with {@code -Xbatch}, as
+ * with background compilation a compile queued during warm-up can still finish during a measured run on a busy
+ * machine. The game is then reset and played {@link #MEASURED_RUNS} more times, counting the bytes allocated by
+ * this thread from the first tick to the last of each run. Ending a run, including the game over listener, happens in its last tick, so it is measured too.
+ * Resetting the game between runs is not.
+ *
+ * Every measured run must allocate nothing. Each run takes its own way through the map, with its own events and
+ * doors, so something that only allocates in one room or on one path fails the check in the runs that go that way.
+ */
+public class AllocationCheck extends HeadlessCheck {
+
+    private static final int MAX_TICKS = 100000;
+    /** Runs in a row the JIT must not compile anything in before measuring. */
+    private static final int SETTLED_RUNS = 10;
+    /** Most runs played to warm up, should the JIT never settle. */
+    private static final int MAX_WARM_UP_RUNS = 1000;
+    private static final int MEASURED_RUNS = 10;
+
+    private boolean runOver;
+
+    public static void main(String[] args)
+    {
+        launch(new AllocationCheck());
+    }
+
+    @Override
+    public void create()
+    {
+        EscapeGame game = Simulation.createGame();
+        BotInput bot = new BotInput(game, 1L, 1f);
+        game.input = bot;
+        GameController controller = new GameController(game, (boolean win, Timer timer, ScoreManager scores) -> runOver = true);
+
+        warmUp(controller, bot);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean))
+        {
+            finish("Allocation counting is not supported by this JVM, skipping");
+            return;
+        }
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        long thread = Thread.currentThread().getId();
+
+        // Reading the counter can allocate a little itself, so measure that first.
+        long first = counter.getThreadAllocatedBytes(thread);
+        long overhead = counter.getThreadAllocatedBytes(thread) - first;
+
+        int ticks = 0;
+        long total = 0;
+        for (int run = 1; run <= MEASURED_RUNS; run++)
+        {
+            long before = counter.getThreadAllocatedBytes(thread);
+            int runTicks = play(controller, bot);
+            long allocated = counter.getThreadAllocatedBytes(thread) - before - overhead;
+            controller.resetGame();
+            bot.reset();
+
+            ticks += runTicks;
+            total += allocated;
+            System.out.println(String.format("Run %2d: %6d ticks, %d bytes allocated", run, runTicks, allocated));
+            if (allocated > 0) fail("Run " + run + " allocated memory in the gameplay update path");
+        }
+
+        System.out.println("Ticks:     " + ticks);
+        System.out.println("Allocated: " + total + " bytes");
+        finish("Allocations checked");
+    }
+
+    /**
+     * Plays runs until the JIT has compiled nothing for {@link #SETTLED_RUNS} runs in a row.
+     */
+    private void warmUp(GameController controller, BotInput bot)
+    {
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean timed = jit != null && jit.isCompilationTimeMonitoringSupported();
+        long compiling = -1;
+        int settled = 0;
+        int runs = 0;
+        while (runs < MAX_WARM_UP_RUNS && settled < SETTLED_RUNS)
+        {
+            play(controller, bot);
+            controller.resetGame();
+            bot.reset();
+            runs++;
+
+            // Without the compile time to go by, the most runs are played.
+            if (!timed) continue;
+            long now = jit.getTotalCompilationTime();
+            settled = now == compiling ? settled + 1 : 0;
+            compiling = now;
+        }
+        System.out.println("Warmed up in " + runs + " runs" + (settled < SETTLED_RUNS ? ", JIT still compiling" : ""));
+    }
+
+    /**
+     * Plays until the run ends.
+     * @return The number of ticks played.
+     */
+    private int play(GameController controller, BotInput bot)
+    {
+        runOver = false;
+        int ticks = 0;
+        while (!runOver && ticks < MAX_TICKS)
+        {
+            bot.think(controller);
+            controller.update(GameScreen.STEP);
+            controller.checkLose();
+            ticks++;
+        }
+        return ticks;
+    }
+}
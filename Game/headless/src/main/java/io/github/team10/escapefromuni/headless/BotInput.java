@@ -0,0 +1,201 @@
+package io.github.team10.escapefromuni.headless;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+import io.github.team10.escapefromuni.Door;
+import io.github.team10.escapefromuni.DoorDirection;
+import io.github.team10.escapefromuni.EscapeGame;
+import io.github.team10.escapefromuni.GameController;
+import io.github.team10.escapefromuni.InputSource;
+import io.github.team10.escapefromuni.Player;
+import io.github.team10.escapefromuni.Room;
+import io.github.team10.escapefromuni.RoomGraph;
+
+/**
+ * Scripted player for the headless simulation.
+ *
+ * In each room the bot picks a random open door, avoiding the one it came through unless it is the only way out,
+ * and holds the arrow keys that walk it there. It can be made to take the door towards the exit instead, from the
+ * map's {@link RoomGraph}, some of the time, so it can finish runs on generated maps too big to wander. When the
+ * THE3 quiz stops the player moving, it taps TRUE or FALSE, answering correctly with a fixed probability.
+ */
+public class BotInput implements InputSource {
+
+    // Closer than this on an axis counts as lined up with the target, so the bot does not jitter around it.
+    private static final float DEAD_ZONE = 0.1f;
+
+    private final EscapeGame game;
+    private final RandomXS128 random;
+    private final float correctAnswerChance;
+    private final float hintChance;
+
+    private final boolean[] keys = new boolean[Input.Keys.MAX_KEYCODE + 1];
+    private boolean touched;
+    private int touchX;
+    private int touchY;
+
+    private Room room;
+    private Door target;
+    private DoorDirection cameFrom;
+    private final Door[] choices = new Door[4];
+    private final Vector2 tmp = new Vector2();
+
+    /**
+     * @param game The game whose UI viewport is used to find the quiz buttons.
+     * @param seed Seed for the bot's choices.
+     * @param correctAnswerChance Probability of answering the THE3 question correctly.
+     */
+    public BotInput(EscapeGame game, long seed, float correctAnswerChance)
+    {
+        this(game, seed, correctAnswerChance, 0f);
+    }
+
+    /**
+     * @param game The game whose UI viewport is used to find the quiz buttons.
+     * @param seed Seed for the bot's choices.
+     * @param correctAnswerChance Probability of answering the THE3 question correctly.
+     * @param hintChance Probability of taking the door towards the exit rather than a random one.
+     */
+    public BotInput(EscapeGame game, long seed, float correctAnswerChance, float hintChance)
+    {
+        this.game = game;
+        this.random = new RandomXS128(seed);
+        this.correctAnswerChance = correctAnswerChance;
+        this.hintChance = hintChance;
+    }
+
+    /**
+     * Forgets the previous run. Called after the game is reset.
+     */
+    public void reset()
+    {
+        room = null;
+        target = null;
+        cameFrom = null;
+    }
+
+    /**
+     * Decides the input for the next tick. Called before {@link GameController#update(float)}.
+     * @param controller The game being played.
+     */
+    public void think(GameController controller)
+    {
+        clear();
+
+        Player player = controller.getPlayer();
+        if (!player.isMovementEnabled())
+        {
+            answerQuiz();
+            return;
+        }
+
+        Room current = controller.getRoomFlow().getCurrentRoom();
+        if (current != room)
+        {
+            if (room != null && target != null) cameFrom = target.direction.opposite();
+            room = current;
+            target = chooseDoor(controller.getDoorController().getDoors(), controller.getRoomFlow().getGraph());
+        }
+        if (target == null) return;
+
+        Rectangle bounds = target.bounds;
+        Vector2 position = player.getCenter(tmp);
+        float dx = bounds.x + bounds.width / 2f - position.x;
+        float dy = bounds.y + bounds.height / 2f - position.y;
+        if (dx > DEAD_ZONE) keys[Input.Keys.RIGHT] = true;
+        if (dx < -DEAD_ZONE) keys[Input.Keys.LEFT] = true;
+        if (dy > DEAD_ZONE) keys[Input.Keys.UP] = true;
+        if (dy < -DEAD_ZONE) keys[Input.Keys.DOWN] = true;
+    }
+
+    private Door chooseDoor(Door[] doors, RoomGraph graph)
+    {
+        // Only drawn when hints are on, so runs without them play out as they always have.
+        if (hintChance > 0f && random.nextFloat() < hintChance)
+        {
+            DoorDirection toExit = graph.getExitDirection(room);
+            for (Door door : doors)
+            {
+                if (door.isActive && door.direction == toExit) return door;
+            }
+        }
+
+        int count = 0;
+        for (Door door : doors)
+        {
+            if (door.isActive && door.direction != cameFrom) choices[count++] = door;
+        }
+        if (count == 0)
+        {
+            // Dead end, so go back the way we came.
+            for (Door door : doors)
+            {
+                if (door.isActive) choices[count++] = door;
+            }
+        }
+        return count == 0 ? null : choices[random.nextInt(count)];
+    }
+
+    /**
+     * Taps one of the quiz buttons. The positions match the layout in EventTHE3.
+     */
+    private void answerQuiz()
+    {
+        Viewport viewport = game.uiViewport;
+        boolean answer = random.nextFloat() < correctAnswerChance;
+        float offset = answer ? -320f : 320f;
+        tmp.set(viewport.getWorldWidth() / 2f + offset, viewport.getWorldHeight() * 0.20f);
+        viewport.project(tmp);
+
+        // project() gives a bottom left origin, but touch coordinates start at the top left.
+        touched = true;
+        touchX = Math.round(tmp.x);
+        touchY = Gdx.graphics.getHeight() - Math.round(tmp.y);
+    }
+
+    private void clear()
+    {
+        keys[Input.Keys.RIGHT] = false;
+        keys[Input.Keys.LEFT] = false;
+        keys[Input.Keys.UP] = false;
+        keys[Input.Keys.DOWN] = false;
+        touched = false;
+    }
+
+    @Override
+    public boolean isKeyPressed(int key)
+    {
+        return key >= 0 && key < keys.length && keys[key];
+    }
+
+    @Override
+    public void latchFrame()
+    {
+        // The bot is not run by frames: think() sets up the input of each update.
+    }
+
+    @Override
+    public boolean justTouched()
+    {
+        boolean wasTouched = touched;
+        touched = false;
+        return wasTouched;
+    }
+
+    @Override
+    public int getX()
+    {
+        return touchX;
+    }
+
+    @Override
+    public int getY()
+    {
+        return touchY;
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.team10.escapefromuni.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+/**
+ * Base of the checks run by the headless module's check tasks, such as the {@link AllocationCheck}.
+ *
+ * A check does all of its work in {@link #create()}, reports each problem it finds with {@link #fail(String)}, and
+ * ends with {@link #finish(String)}. If anything failed, the process exits with status 1 once the application has
+ * shut down, which fails the Gradle task running it.
+ */
+public abstract class HeadlessCheck extends ApplicationAdapter {
+
+    private int failures;
+
+    /**
+     * Runs a check, or the simulation, in a headless application.
+     */
+    static void launch(ApplicationListener listener)
+    {
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        // Everything runs in create(), so render() is never needed.
+        configuration.updatesPerSecond = -1;
+        new HeadlessApplication(listener, configuration);
+    }
+
+    /**
+     * Prints a problem and marks the check as failed.
+     */
+    protected void fail(String message)
+    {
+        System.out.println(message);
+        failures++;
+    }
+
+    protected boolean hasFailed()
+    {
+        return failures > 0;
+    }
+
+    /**
+     * Prints the outcome and closes the application.
+     * @param passed Printed if nothing failed.
+     */
+    protected void finish(String passed)
+    {
+        System.out.println(failures == 0 ? passed : failures + (failures == 1 ? " check" : " checks") + " failed");
+        Gdx.app.exit();
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (failures > 0) Runtime.getRuntime().halt(1);
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.team10.escapefromuni.headless;
+
+import io.github.team10.escapefromuni.GameScreen;
+
+/**
+ * Launches the headless simulation.
+ *
+ * Arguments are optional: {@code [runs] [seed] [step] [correctAnswerChance] [hintChance]}, e.g. {@code gradlew
+ * headless:run --args="10000 42"}. Map options such as {@code -Descape.generatedRooms} work as in the game; large
+ * generated maps need a hint chance for the bot to find the exit in time.
+ */
+public class HeadlessLauncher {
+    public static void main(String[] args) {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.currentTimeMillis();
+        float step = args.length > 2 ? Float.parseFloat(args[2]) : GameScreen.STEP;
+        float correctAnswerChance = args.length > 3 ? Float.parseFloat(args[3]) : 0.5f;
+        float hintChance = args.length > 4 ? Float.parseFloat(args[4]) : 0f;
+
+        HeadlessCheck.launch(new Simulation(runs, seed, step, correctAnswerChance, hintChance));
+    }
+}
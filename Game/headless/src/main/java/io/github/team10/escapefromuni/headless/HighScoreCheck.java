@@ -0,0 +1,153 @@
+package io.github.team10.escapefromuni.headless;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import io.github.team10.escapefromuni.HighScores;
+import io.github.team10.escapefromuni.TopScores;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+/**
+ * Checks the {@link HighScores} log loads quickly however many runs it holds, and survives the game dying part way
+ * through a write. Run by the checkHighScores Gradle task, which fails if the log loads wrongly or too slowly.
+ *
+ * A log of {@link #RUNS} random runs on a few maps is written and loaded, which must give the same lists as adding
+ * the runs one by one. Then the log is damaged as a crash or a bad disk would: half a record is left on its end,
+ * which must be cut off so the next run lines up, and a record in the middle is overwritten, which must be skipped.
+ */
+public class HighScoreCheck extends HeadlessCheck {
+
+    private static final int RUNS = 1_000_000;
+    private static final int MAPS = 8;
+    /** The longest a log of {@link #RUNS} runs may take to load. */
+    private static final long MAX_LOAD_MILLIS = 2000;
+
+    // The log format, as documented on HighScores. Written here rather than through it, as appending a million runs
+    // one file write at a time would take far longer than loading them.
+    private static final int MAGIC = 0x45534853;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 40;
+
+    public static void main(String[] args)
+    {
+        launch(new HighScoreCheck());
+    }
+
+    @Override
+    public void create()
+    {
+        File temp;
+        try
+        {
+            temp = File.createTempFile("highscorecheck", ".log");
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error creating a log to check", e);
+        }
+        temp.deleteOnExit();
+        FileHandle file = new FileHandle(temp);
+
+        // The same runs added one by one, kept in memory only.
+        HighScores expected = new HighScores(null);
+        ByteBuffer log = ByteBuffer.allocate(HEADER_SIZE + RUNS * RECORD_SIZE);
+        log.putInt(MAGIC).putInt(VERSION);
+        CRC32 crc = new CRC32();
+        Random random = new Random(42);
+        for (int i = 0; i < RUNS; i++)
+        {
+            boolean won = random.nextInt(4) != 0;
+            int score = random.nextInt(5000);
+            float time = 60f + random.nextInt(24000) / 100f;
+            long seed = random.nextLong();
+            long mapId = random.nextInt(MAPS);
+            long date = 1_700_000_000_000L + i * 1000L;
+            expected.add(won, score, time, seed, mapId, date);
+
+            int start = log.position();
+            log.put((byte) (won ? 1 : 0)).put((byte) 0).put((byte) 0).put((byte) 0);
+            log.putInt(score).putFloat(time).putLong(seed).putLong(mapId).putLong(date);
+            crc.reset();
+            crc.update(log.array(), start, RECORD_SIZE - 4);
+            log.putInt((int) crc.getValue());
+        }
+        file.writeBytes(log.array(), false);
+        System.out.println(String.format("Wrote %d runs, %.1f MB", RUNS, file.length() / 1e6));
+
+        long start = System.nanoTime();
+        HighScores loaded = new HighScores(file);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Loaded in " + millis + " ms");
+        if (millis > MAX_LOAD_MILLIS) fail("Loading took over " + MAX_LOAD_MILLIS + " ms");
+        check("Loaded log", loaded, expected, RUNS);
+
+        // Half of a run written when the game died.
+        try (RandomAccessFile access = new RandomAccessFile(temp, "rw"))
+        {
+            access.setLength(access.length() + RECORD_SIZE / 2);
+            access.seek(access.length() - RECORD_SIZE / 2);
+            access.write(log.array(), HEADER_SIZE, RECORD_SIZE / 2);
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error damaging " + temp, e);
+        }
+        loaded = new HighScores(file);
+        check("Torn write", loaded, expected, RUNS);
+        if (loaded.getDroppedRecords() != 1) fail("Torn write: " + loaded.getDroppedRecords() + " records dropped");
+        if (file.length() != log.capacity()) fail("Torn write: log not cut back to its last good record");
+
+        // A run added after the torn write must line up, so it is still there next time.
+        expected.add(true, 9999, 1f, 7L, 0L, 1L);
+        loaded.add(true, 9999, 1f, 7L, 0L, 1L);
+        loaded = new HighScores(file);
+        check("Run after torn write", loaded, expected, RUNS + 1);
+        if (loaded.getTop(0L).getScore(1) != 9999) fail("Run after torn write: not ranked first");
+
+        // A record in the middle written over, which is skipped but does not cost the runs after it.
+        try (RandomAccessFile access = new RandomAccessFile(temp, "rw"))
+        {
+            access.seek(HEADER_SIZE + (long) (RUNS / 2) * RECORD_SIZE + 4);
+            access.writeInt(0x7FFFFFFF);
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error damaging " + temp, e);
+        }
+        loaded = new HighScores(file);
+        if (loaded.getCorruptRecords() != 1) fail("Corrupt record: " + loaded.getCorruptRecords() + " skipped");
+        if (loaded.getRunCount() != RUNS) fail("Corrupt record: " + loaded.getRunCount() + " runs loaded");
+        if (loaded.getOverall().getScore(1) == 0x7FFFFFFF) fail("Corrupt record: ranked");
+        if (file.length() != log.capacity() + RECORD_SIZE) fail("Corrupt record: log was cut");
+
+        finish("High score log checked");
+    }
+
+    private void check(String name, HighScores loaded, HighScores expected, long runs)
+    {
+        if (loaded.getRunCount() != runs) fail(name + ": " + loaded.getRunCount() + " runs loaded, not " + runs);
+        if (!same(loaded.getOverall(), expected.getOverall())) fail(name + ": overall list differs");
+        for (long map = 0; map < MAPS; map++)
+        {
+            if (!same(loaded.getTop(map), expected.getTop(map))) fail(name + ": list of map " + map + " differs");
+        }
+    }
+
+    private static boolean same(TopScores a, TopScores b)
+    {
+        if (a.size() != b.size()) return false;
+        for (int rank = 1; rank <= a.size(); rank++)
+        {
+            if (a.getScore(rank) != b.getScore(rank) || a.getTime(rank) != b.getTime(rank)
+                || a.getSeed(rank) != b.getSeed(rank) || a.getDate(rank) != b.getDate(rank)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.team10.escapefromuni.headless;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import io.github.team10.escapefromuni.HttpLeaderboard;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * Checks {@link HttpLeaderboard} gets every run to a server exactly once over a flaky connection, keeps runs while
+ * the server is down, and never holds up the thread submitting them. Run by the checkLeaderboard Gradle task, which
+ * fails if it does not, against a {@link LeaderboardServer} on a free port.
+ */
+public class LeaderboardCheck extends HeadlessCheck {
+
+    private static final int RUNS = 300;
+    private static final int OFFLINE_RUNS = 40;
+    private static final float FAILURE_RATE = 0.3f;
+    /** The longest all runs may take to reach the server. */
+    private static final long MAX_WAIT_MILLIS = 30_000;
+    /** Runs submitted to a leaderboard nobody reads before timing, so class loading and compiling are not timed. */
+    private static final int WARM_UP_RUNS = 10_000;
+    /** The longest submitting all but the slowest 1% of runs may take, as it is done on the render thread. */
+    private static final long MAX_SUBMIT_NANOS = 1_000_000;
+    /**
+     * The longest submitting any one run may take. Loose enough for a pause of the machine, but far shorter than a
+     * post to the server or its backoff, so a submit that waits for the leaderboard's thread still fails.
+     */
+    private static final long MAX_SLOWEST_SUBMIT_NANOS = 10_000_000;
+
+    public static void main(String[] args)
+    {
+        launch(new LeaderboardCheck());
+    }
+
+    @Override
+    public void create()
+    {
+        File temp;
+        LeaderboardServer server;
+        try
+        {
+            temp = File.createTempFile("leaderboardcheck", ".queue");
+            server = new LeaderboardServer(0, FAILURE_RATE, 42);
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error setting up the check", e);
+        }
+        temp.delete();
+        temp.deleteOnExit();
+        FileHandle queueFile = new FileHandle(temp);
+
+        warmUp();
+
+        // Online, though a share of posts fail. The leaderboard's thread writes the queue file while runs are
+        // submitted, so submitting is timed against it.
+        HttpLeaderboard leaderboard = new HttpLeaderboard(server.getAddress(), queueFile);
+        leaderboard.setBackoff(10, 100);
+        long machineId = leaderboard.getMachineId();
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++)
+        {
+            long start = System.nanoTime();
+            leaderboard.submit(1000 + i, 120f + i, i % 4, 1_700_000_000_000L + i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        // A single slow sample is more likely the machine than the leaderboard, so the 99th percentile is held to
+        // the tight bound and the slowest only to a loose one.
+        long percentile = nanos[RUNS * 99 / 100];
+        System.out.println(String.format("Submitted %d runs, 99%% in %.1f us, slowest in %.1f us", RUNS,
+            percentile / 1000f, nanos[RUNS - 1] / 1000f));
+        if (percentile > MAX_SUBMIT_NANOS) fail("Submitting 1% of runs took over " + percentile / 1000 + " us");
+        if (nanos[RUNS - 1] > MAX_SLOWEST_SUBMIT_NANOS)
+        {
+            fail("Submitting a run took " + nanos[RUNS - 1] / 1000 + " us");
+        }
+
+        long millis = waitFor(leaderboard, server, RUNS);
+        System.out.println(String.format("Sent in %d ms, %d posts failed, %d runs sent twice", millis,
+            server.getFailed(), server.getDuplicates()));
+        if (server.getAccepted() != RUNS) fail("Server has " + server.getAccepted() + " of " + RUNS + " runs");
+        if (server.getFailed() == 0) fail("No posts failed, so retries were not checked");
+        leaderboard.dispose();
+        server.stop();
+
+        // Offline, so the runs must be kept in the queue file when the game closes.
+        leaderboard = new HttpLeaderboard("http://localhost:1/runs", queueFile);
+        leaderboard.setBackoff(10, 100);
+        for (int i = 0; i < OFFLINE_RUNS; i++)
+        {
+            leaderboard.submit(2000 + i, 100f, 0, 1_800_000_000_000L + i);
+        }
+        leaderboard.dispose();
+
+        // Half a run written as the game died.
+        try (RandomAccessFile access = new RandomAccessFile(temp, "rw"))
+        {
+            access.seek(access.length());
+            access.write(new byte[17]);
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error damaging " + temp, e);
+        }
+
+        // Back online, on another server. Runs queued while offline must be sent when the game starts again.
+        try
+        {
+            server = new LeaderboardServer(0, FAILURE_RATE, 43);
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException("Error restarting the server", e);
+        }
+        leaderboard = new HttpLeaderboard(server.getAddress(), queueFile);
+        leaderboard.setBackoff(10, 100);
+        if (leaderboard.getMachineId() != machineId) fail("Machine id changed");
+        if (leaderboard.getPending() != OFFLINE_RUNS)
+        {
+            fail(leaderboard.getPending() + " of " + OFFLINE_RUNS + " offline runs kept");
+        }
+        millis = waitFor(leaderboard, server, OFFLINE_RUNS);
+        System.out.println(String.format("Sent %d runs kept offline in %d ms", OFFLINE_RUNS, millis));
+        if (server.getAccepted() != OFFLINE_RUNS)
+        {
+            fail("Server has " + server.getAccepted() + " of " + OFFLINE_RUNS + " offline runs");
+        }
+        leaderboard.dispose();
+        server.stop();
+
+        finish("Leaderboard checked");
+    }
+
+    // Submits runs to a leaderboard which cannot send them or keep them on disk.
+    private void warmUp()
+    {
+        HttpLeaderboard leaderboard = new HttpLeaderboard("http://localhost:1/runs", null);
+        leaderboard.setBackoff(60_000, 60_000);
+        for (int i = 0; i < WARM_UP_RUNS; i++)
+        {
+            leaderboard.submit(i, 100f, 0, 0);
+        }
+        leaderboard.dispose();
+    }
+
+    /**
+     * Waits for the leaderboard to send every run, and the server to have them all.
+     * @return How long it took, in milliseconds.
+     */
+    private long waitFor(HttpLeaderboard leaderboard, LeaderboardServer server, int runs)
+    {
+        long start = System.currentTimeMillis();
+        while (leaderboard.getPending() > 0 || server.getAccepted() < runs)
+        {
+            if (System.currentTimeMillis() - start > MAX_WAIT_MILLIS)
+            {
+                fail("Gave up with " + leaderboard.getPending() + " runs not sent");
+                break;
+            }
+            try
+            {
+                Thread.sleep(10);
+            }
+            catch (InterruptedException e)
+            {
+                break;
+            }
+        }
+        return System.currentTimeMillis() - start;
+    }
+}
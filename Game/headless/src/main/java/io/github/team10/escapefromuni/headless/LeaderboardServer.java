@@ -0,0 +1,218 @@
+package io.github.team10.escapefromuni.headless;
+
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.SerializationException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.team10.escapefromuni.HighScores;
+import io.github.team10.escapefromuni.HttpLeaderboard;
+import io.github.team10.escapefromuni.TopScores;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * A stand-in for a leaderboard server, so {@link HttpLeaderboard} can be tried and checked without one. Run by the
+ * runLeaderboardServer Gradle task, then start the game with {@code -Descape.leaderboard=<address it prints>}.
+ *
+ * Runs posted to {@code /runs} are ranked overall and per map, each run id once. {@code GET /runs} lists the best
+ * runs overall, and {@code GET /runs?map=<id>} the best on one map. Everything is kept in memory.
+ *
+ * To try a flaky connection, a share of the posts can be made to fail: half of those before the runs are read, and
+ * half after, as if the reply was lost, so the client sends runs the server already has again.
+ */
+public class LeaderboardServer implements HttpHandler {
+
+    public static final int DEFAULT_PORT = 8642;
+
+    private final HttpServer server;
+    private final float failureRate;
+    private final Random random;
+
+    // Guarded by this.
+    private final ObjectSet<String> runIds = new ObjectSet<>();
+    private final TopScores overall = new TopScores(HighScores.TOP_COUNT);
+    private final LongMap<TopScores> byMap = new LongMap<>();
+    private int accepted;
+    private int duplicates;
+    private int failed;
+
+    /**
+     * Usage: {@code LeaderboardServer [port] [failure rate]}
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        float failureRate = args.length > 1 ? Float.parseFloat(args[1]) : 0f;
+        LeaderboardServer server = new LeaderboardServer(port, failureRate, System.nanoTime());
+        System.out.println("Leaderboard stand-in at " + server.getAddress() + ", failing "
+            + Math.round(failureRate * 100) + "% of posts");
+    }
+
+    /**
+     * Starts the server.
+     * @param port The port to listen on, or 0 for any free one.
+     * @param failureRate The share of posts to fail, from 0 to 1.
+     * @param seed Seed of the random choice of posts to fail.
+     */
+    public LeaderboardServer(int port, float failureRate, long seed) throws IOException
+    {
+        this.failureRate = failureRate;
+        this.random = new Random(seed);
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/runs", this);
+        server.start();
+    }
+
+    /**
+     * @return The address to post runs to.
+     */
+    public String getAddress()
+    {
+        return "http://localhost:" + server.getAddress().getPort() + "/runs";
+    }
+
+    public void stop()
+    {
+        server.stop(0);
+    }
+
+    /**
+     * @return Runs ranked, each counted once.
+     */
+    public synchronized int getAccepted()
+    {
+        return accepted;
+    }
+
+    /**
+     * @return Runs posted again after they were ranked.
+     */
+    public synchronized int getDuplicates()
+    {
+        return duplicates;
+    }
+
+    /**
+     * @return Posts made to fail.
+     */
+    public synchronized int getFailed()
+    {
+        return failed;
+    }
+
+    @Override
+    public synchronized void handle(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            if ("GET".equals(exchange.getRequestMethod()))
+            {
+                String query = exchange.getRequestURI().getQuery();
+                TopScores top = overall;
+                if (query != null && query.startsWith("map="))
+                {
+                    top = byMap.get(Long.parseLong(query.substring(4)), new TopScores(0));
+                }
+                reply(exchange, 200, list(top));
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod()))
+            {
+                reply(exchange, 405, "GET or POST only");
+                return;
+            }
+
+            String body = read(exchange.getRequestBody());
+            if (random.nextFloat() < failureRate / 2)
+            {
+                failed++;
+                reply(exchange, 503, "Failed on purpose");
+                return;
+            }
+            rank(new JsonReader().parse(body));
+            if (random.nextFloat() < failureRate / 2)
+            {
+                failed++;
+                reply(exchange, 503, "Reply lost on purpose");
+                return;
+            }
+            reply(exchange, 200, "ok");
+        }
+        catch (SerializationException | IllegalArgumentException | NullPointerException e)
+        {
+            reply(exchange, 400, "Bad request: " + e.getMessage());
+        }
+    }
+
+    private void rank(JsonValue batch)
+    {
+        String machine = batch.getString("machine");
+        for (JsonValue run = batch.get("runs").child; run != null; run = run.next)
+        {
+            String id = run.getString("id");
+            if (!runIds.add(machine + id))
+            {
+                duplicates++;
+                continue;
+            }
+            accepted++;
+            int score = run.getInt("score");
+            float time = run.getFloat("time");
+            long date = run.getLong("date");
+            // The run id is kept where a local high score keeps its seed.
+            long runId = Long.parseUnsignedLong(id, 16);
+            overall.offer(score, time, runId, date);
+            long map = run.getLong("map");
+            TopScores top = byMap.get(map);
+            if (top == null)
+            {
+                top = new TopScores(HighScores.TOP_COUNT);
+                byMap.put(map, top);
+            }
+            top.offer(score, time, runId, date);
+        }
+    }
+
+    private static String list(TopScores top)
+    {
+        StringBuilder out = new StringBuilder();
+        for (int rank = 1; rank <= top.size(); rank++)
+        {
+            out.append(rank).append('\t').append(top.getScore(rank)).append('\t').append(top.getTime(rank)).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String read(InputStream in) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int read; (read = in.read(buffer)) >= 0; )
+        {
+            bytes.write(buffer, 0, read);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void reply(HttpExchange exchange, int status, String text) throws IOException
+    {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody())
+        {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.team10.escapefromuni.headless;
+
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * A {@link GL20} that ignores every call, for creating textures and sprites without a GPU.
+ *
+ * Methods returning a number return 0, and the rest return false or null.
+ */
+public class NoopGL {
+
+    private NoopGL() {}
+
+    public static GL20 create()
+    {
+        return (GL20) Proxy.newProxyInstance(NoopGL.class.getClassLoader(), new Class<?>[] { GL20.class },
+            (proxy, method, args) -> {
+                Class<?> type = method.getReturnType();
+                if (type == int.class) return 0;
+                if (type == float.class) return 0f;
+                if (type == boolean.class) return false;
+                return null;
+            });
+    }
+}
@@ -0,0 +1,226 @@
+package io.github.team10.escapefromuni.headless;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import io.github.team10.escapefromuni.EscapeGame;
+import io.github.team10.escapefromuni.GameController;
+import io.github.team10.escapefromuni.GameScreen;
+import io.github.team10.escapefromuni.GameSnapshot;
+import io.github.team10.escapefromuni.InputRecorder;
+import io.github.team10.escapefromuni.InputReplay;
+import io.github.team10.escapefromuni.ScoreManager;
+import io.github.team10.escapefromuni.SnapshotFile;
+import io.github.team10.escapefromuni.Timer;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Replays recorded runs and checks they end exactly as recorded. Run by the checkReplays Gradle task, which fails if
+ * any run plays out differently.
+ *
+ * With no arguments, a {@link BotInput} plays and records {@link #RECORDED_RUNS} runs, which are then replayed, so
+ * anything that makes the game depend on more than its input and seed is caught. Given the paths of recording files,
+ * e.g. from a player's {@value InputRecorder#FOLDER} folder, it replays those instead, to reproduce a bug report or
+ * check that a change has not altered how recorded sessions play out.
+ *
+ * Each run is also restored from a {@link GameSnapshot} taken half way through and saved to a {@link SnapshotFile},
+ * and restarted from its first update, and must end exactly as recorded both times. So the check also catches state
+ * that a snapshot misses.
+ */
+public class ReplayCheck extends HeadlessCheck {
+
+    private static final int RECORDED_RUNS = 20;
+    /** Updates a replay may run past the end of its recording before it is given up on. */
+    private static final int MAX_EXTRA_TICKS = 1000;
+
+    private final String[] files;
+    private GameController controller;
+    private int result;
+    // The recording being replayed, and whether the run ended as it did.
+    private InputReplay replaying;
+    private boolean matched;
+
+    private SnapshotFile snapshotFile;
+    private final GameSnapshot snapshot = new GameSnapshot();
+    private long saveNanos;
+    private long restoreNanos;
+    private int restores;
+
+    public static void main(String[] args)
+    {
+        launch(new ReplayCheck(args));
+    }
+
+    public ReplayCheck(String[] files)
+    {
+        this.files = files;
+    }
+
+    @Override
+    public void create()
+    {
+        EscapeGame game = Simulation.createGame();
+        // The run is compared when it ends, which is part way through an update, as that is when it was recorded.
+        controller = new GameController(game, (boolean win, Timer timer, ScoreManager scores) -> {
+            result = win ? InputRecorder.WIN : InputRecorder.LOSE;
+            if (replaying != null) matched = replaying.matches(controller, result);
+        });
+
+        Array<InputReplay> replays = new Array<>();
+        Array<String> names = new Array<>();
+        File saveFile;
+        try
+        {
+            saveFile = File.createTempFile("replaycheck", ".sav");
+        }
+        catch (IOException e)
+        {
+            throw new GdxRuntimeException(e);
+        }
+        saveFile.deleteOnExit();
+        snapshotFile = new SnapshotFile(Gdx.files.absolute(saveFile.getPath()));
+
+        int mismatches = 0;
+        if (files.length == 0)
+        {
+            recordRuns(game, replays, names);
+        }
+        else
+        {
+            for (String file : files)
+            {
+                try
+                {
+                    replays.add(InputReplay.load(Gdx.files.absolute(file)));
+                    names.add(file);
+                }
+                catch (GdxRuntimeException e)
+                {
+                    System.out.println(String.format("%-40s unreadable: %s", file, e.getMessage()));
+                    mismatches++;
+                }
+            }
+        }
+
+        for (int i = 0; i < replays.size; i++)
+        {
+            InputReplay replay = replays.get(i);
+            String failure = replay(replay);
+            if (failure != null) mismatches++;
+            System.out.println(String.format("%-40s %s %6d ticks  %s", names.get(i), resultName(replay.result),
+                replay.ticks, failure == null ? "ok" : "MISMATCH " + failure + ", ended " + resultName(result)
+                + " after " + controller.getTicks() + " ticks"));
+        }
+        snapshotFile.dispose();
+
+        if (restores > 0)
+        {
+            System.out.println(String.format("Snapshot of %d bytes saved in %.1f us, restored in %.1f us on average",
+                snapshot.size(), saveNanos / 1000f / restores, restoreNanos / 1000f / restores));
+        }
+        if (mismatches > 0) fail(mismatches + " runs played out differently");
+        finish("All runs replayed exactly");
+    }
+
+    /**
+     * Plays runs with a bot and records them.
+     */
+    private void recordRuns(EscapeGame game, Array<InputReplay> replays, Array<String> names)
+    {
+        BotInput bot = new BotInput(game, 3L, 0.5f);
+        game.input = bot;
+        InputRecorder recorder = new InputRecorder(null);
+        controller.setRecorder(recorder);
+
+        long bytes = 0;
+        float seconds = 0f;
+        for (int run = 0; run < RECORDED_RUNS; run++)
+        {
+            controller.resetGame();
+            bot.reset();
+            result = InputRecorder.ABANDONED;
+            while (result == InputRecorder.ABANDONED)
+            {
+                bot.think(controller);
+                controller.update(GameScreen.STEP);
+                if (result == InputRecorder.ABANDONED) controller.checkLose();
+            }
+
+            byte[] recording = recorder.getLastRecording();
+            bytes += recording.length;
+            seconds += controller.getTicks() * GameScreen.STEP;
+            replays.add(new InputReplay(recording));
+            names.add("bot run " + run);
+        }
+        controller.setRecorder(null);
+        System.out.println(String.format("Recorded %d runs, %.1f KB per minute of play", RECORDED_RUNS,
+            bytes / 1024f / (seconds / 60f)));
+    }
+
+    /**
+     * Replays a run from the start, then from a snapshot taken half way, then restarted from its start checkpoint.
+     * @return Null if it ended exactly as recorded every time, otherwise which time it did not.
+     */
+    private String replay(InputReplay replay)
+    {
+        controller.startReplay(replay);
+        if (!play(replay, replay.ticks / 2)) return "replaying";
+
+        long start = System.nanoTime();
+        if (!snapshotFile.read(snapshot)) return "reading the snapshot";
+        controller.restoreSnapshot(snapshot);
+        restoreNanos += System.nanoTime() - start;
+        restores++;
+        if (!play(replay, -1)) return "after restoring a snapshot";
+
+        controller.restartRun();
+        if (!play(replay, -1)) return "after restarting";
+        return null;
+    }
+
+    /**
+     * Plays the replay on from where the game is until the run ends.
+     * @param saveAt Update after which a snapshot is saved to the snapshot file, or -1 for none.
+     * @return Whether the run ended exactly as recorded.
+     */
+    private boolean play(InputReplay replay, int saveAt)
+    {
+        replaying = replay;
+        result = InputRecorder.ABANDONED;
+        matched = false;
+        int maxTicks = replay.ticks + MAX_EXTRA_TICKS;
+        while (result == InputRecorder.ABANDONED && controller.getTicks() < maxTicks)
+        {
+            if (controller.getTicks() == saveAt)
+            {
+                long start = System.nanoTime();
+                controller.saveSnapshot(snapshot);
+                snapshotFile.write(snapshot);
+                saveNanos += System.nanoTime() - start;
+            }
+            // An abandoned run ends when its input does.
+            if (replay.result == InputRecorder.ABANDONED && controller.getTicks() == replay.ticks) break;
+            controller.update(replay.step);
+            if (result == InputRecorder.ABANDONED) controller.checkLose();
+        }
+        replaying = null;
+        if (result == InputRecorder.ABANDONED) matched = replay.matches(controller, result);
+        return matched;
+    }
+
+    private static String resultName(int result)
+    {
+        switch (result)
+        {
+            case InputRecorder.WIN:
+                return "win ";
+            case InputRecorder.LOSE:
+                return "lose";
+            default:
+                return "quit";
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.team10.escapefromuni.headless;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+
+import io.github.team10.escapefromuni.DoorDirection;
+import io.github.team10.escapefromuni.RoomGraph;
+import io.github.team10.escapefromuni.RoomMap;
+import io.github.team10.escapefromuni.RoomMapGenerator;
+
+/**
+ * Checks a {@link RoomGraph} kept up to date as doors are opened and closed gives the same answers as one built
+ * from scratch, and that its queries take constant time. Run by the checkRoomGraph Gradle task, which fails if they
+ * ever differ.
+ *
+ * A generated map of {@link #ROOMS} rooms has random doors opened and closed {@link #EDITS} times, which strands
+ * rooms, splits the map into parts and joins them again. After each, every room's distance to the exit, door
+ * towards it and part are compared with a graph built again from the doors as they are.
+ */
+public class RoomGraphCheck extends HeadlessCheck {
+
+    private static final int ROOMS = 10_000;
+    private static final int EDITS = 2000;
+    private static final int QUERIES = 10_000_000;
+    private static final DoorDirection[] DIRECTIONS = DoorDirection.values();
+
+    public static void main(String[] args)
+    {
+        launch(new RoomGraphCheck());
+    }
+
+    @Override
+    public void create()
+    {
+        RoomMap map = new RoomMapGenerator(42L).generate(ROOMS, RoomMapGenerator.DEFAULT_EVENT_DENSITY);
+        long start = System.nanoTime();
+        RoomGraph graph = new RoomGraph(map);
+        System.out.println(String.format("Indexed %d rooms in %.2f ms", ROOMS, (System.nanoTime() - start) / 1e6));
+
+        RandomXS128 random = new RandomXS128(7L);
+        long sum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++)
+        {
+            int room = random.nextInt(ROOMS);
+            sum += graph.getDistanceToExit(room);
+            if (graph.getExitDirection(room) != null) sum++;
+            if (graph.isReachable(room, map.startRoom)) sum++;
+        }
+        System.out.println(String.format("Queries take %.1f ns (%d)", (System.nanoTime() - start) / (double) QUERIES,
+            sum));
+
+        int[] neighbours = map.neighbours.clone();
+        long editNanos = 0;
+        long buildNanos = 0;
+        int links = 0;
+        int unlinks = 0;
+        long stranded = 0;
+        for (int edit = 0; edit < EDITS && !hasFailed(); edit++)
+        {
+            // As many doors opened as closed, so the map stays mostly connected and distances keep changing.
+            boolean open = random.nextBoolean();
+            int room;
+            int d;
+            int other;
+            do
+            {
+                room = random.nextInt(ROOMS);
+                d = random.nextInt(4);
+                // Opened to any room with a free side facing back, near or far.
+                other = open ? random.nextInt(ROOMS) : neighbours[room * 4 + d];
+            }
+            while (open ? !canOpen(neighbours, room, d, other) : other == RoomMap.NONE);
+            int back = (d + 2) & 3;
+
+            start = System.nanoTime();
+            if (open)
+            {
+                graph.link(room, DIRECTIONS[d], other);
+                editNanos += System.nanoTime() - start;
+                neighbours[room * 4 + d] = other;
+                neighbours[other * 4 + back] = room;
+                links++;
+            }
+            else
+            {
+                graph.unlink(room, DIRECTIONS[d]);
+                editNanos += System.nanoTime() - start;
+                neighbours[room * 4 + d] = RoomMap.NONE;
+                neighbours[other * 4 + back] = RoomMap.NONE;
+                unlinks++;
+            }
+            stranded += graph.getStrandedCount();
+
+            start = System.nanoTime();
+            RoomGraph rebuilt = new RoomGraph(new RoomMap(map.ids, map.textureKeys, map.exits, neighbours.clone(),
+                map.events, map.startRoom));
+            buildNanos += System.nanoTime() - start;
+            compare(graph, rebuilt, "edit " + edit);
+        }
+        int edits = links + unlinks;
+        System.out.println(String.format("%d doors opened and %d closed in %.1f us on average, %.1f us to rebuild",
+            links, unlinks, editNanos / 1e3 / edits, buildNanos / 1e3 / edits));
+        System.out.println(String.format("%.0f rooms stranded on average, start room reaches %d at the end",
+            stranded / (double) edits, graph.getReachableCount(map.startRoom)));
+
+        checkPaths(graph, random);
+
+        finish("Room graph checked");
+    }
+
+    private static boolean canOpen(int[] neighbours, int room, int d, int other)
+    {
+        return other != room && neighbours[room * 4 + d] == RoomMap.NONE
+            && neighbours[other * 4 + ((d + 2) & 3)] == RoomMap.NONE;
+    }
+
+    private void compare(RoomGraph graph, RoomGraph expected, String when)
+    {
+        IntIntMap parts = new IntIntMap();
+        for (int room = 0; room < ROOMS && !hasFailed(); room++)
+        {
+            if (graph.getDistanceToExit(room) != expected.getDistanceToExit(room))
+            {
+                fail(when + ": room " + room + " is " + graph.getDistanceToExit(room) + " from the exit, not "
+                    + expected.getDistanceToExit(room));
+            }
+
+            // Any door on a shortest way will do, so the direction is checked rather than compared.
+            DoorDirection direction = graph.getExitDirection(room);
+            int distance = expected.getDistanceToExit(room);
+            if (direction == null)
+            {
+                if (distance > 0) fail(when + ": room " + room + " has no way to the exit");
+            }
+            else
+            {
+                int next = expected.getNeighbour(room, direction);
+                if (distance <= 0 || next == RoomMap.NONE || expected.getDistanceToExit(next) != distance - 1)
+                {
+                    fail(when + ": room " + room + " points " + direction + " away from the exit");
+                }
+            }
+
+            if (graph.getReachableCount(room) != expected.getReachableCount(room))
+            {
+                fail(when + ": room " + room + " reaches " + graph.getReachableCount(room) + " rooms, not "
+                    + expected.getReachableCount(room));
+            }
+        }
+
+        // Parts are numbered differently, but must hold the same rooms. Every room connected to the first of its part
+        // in the rebuilt graph, with parts of the same sizes, means they do.
+        for (int room = 0; room < ROOMS && !hasFailed(); room++)
+        {
+            int first = parts.get(expected.getPart(room), -1);
+            if (first == -1) parts.put(expected.getPart(room), room);
+            else if (!graph.isReachable(room, first)) fail(when + ": rooms " + room + " and " + first + " are apart");
+        }
+    }
+
+    private void checkPaths(RoomGraph graph, RandomXS128 random)
+    {
+        IntArray path = new IntArray();
+        for (int i = 0; i < 1000 && !hasFailed(); i++)
+        {
+            int from = random.nextInt(ROOMS);
+            int to = random.nextInt(ROOMS);
+            if (graph.findPath(from, to, path) != graph.isReachable(from, to))
+            {
+                fail("No path found between connected rooms " + from + " and " + to);
+            }
+            checkPath(graph, path, from, to);
+
+            if (graph.getPathToExit(from, path) != graph.canReachExit(from)) fail("No path to exit from " + from);
+            if (path.size > 0)
+            {
+                checkPath(graph, path, from, path.peek());
+                if (path.size - 1 != graph.getDistanceToExit(from)) fail("Path to exit from " + from + " too long");
+            }
+        }
+    }
+
+    private void checkPath(RoomGraph graph, IntArray path, int from, int to)
+    {
+        if (path.size == 0) return;
+        if (path.first() != from || path.peek() != to) fail("Path from " + from + " to " + to + " ends elsewhere");
+        for (int i = 1; i < path.size; i++)
+        {
+            boolean next = false;
+            for (DoorDirection direction : DIRECTIONS)
+            {
+                next |= graph.getNeighbour(path.get(i - 1), direction) == path.get(i);
+            }
+            if (!next) fail("Path from " + from + " to " + to + " jumps " + path.get(i - 1) + " to " + path.get(i));
+        }
+    }
+}
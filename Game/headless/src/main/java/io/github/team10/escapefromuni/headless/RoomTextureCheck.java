@@ -0,0 +1,179 @@
+package io.github.team10.escapefromuni.headless;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.RandomXS128;
+
+import io.github.team10.escapefromuni.CompressedTextures;
+import io.github.team10.escapefromuni.Room;
+import io.github.team10.escapefromuni.RoomMapGenerator;
+import io.github.team10.escapefromuni.RoomTextureCache;
+import io.github.team10.escapefromuni.SpriteAtlas;
+import io.github.team10.escapefromuni.TextureCompressor;
+
+/**
+ * Checks the {@link RoomTextureCache} keeps no more room backgrounds loaded than its budget while the player walks
+ * through a map, never draws from a texture that has been unloaded, and shows each room's own background once it
+ * has loaded. Run by the checkRoomTextures Gradle task, which fails if it does not, from the assets folder so the
+ * PNGs in rooms/ are really decoded. The atlas is empty, unlike the placeholder the simulation uses, so nothing is
+ * resolved without a load.
+ *
+ * A generated map of {@link #ROOMS} rooms is walked through random doors for {@link #STEPS} rooms, once with each of
+ * a few budgets, from the smallest that keeps a room and its four neighbours up to the one the game is using. Half
+ * way through each walk the budget is lowered, which must unload textures straight away. Every so often the walk
+ * jumps to a random room instead, as restoring a snapshot does.
+ */
+public class RoomTextureCheck extends HeadlessCheck {
+
+    private static final int ROOMS = 2000;
+    private static final int STEPS = 5000;
+    /** A room and its four neighbours are always kept, so the budget cannot be lower. */
+    private static final int MIN_BUDGET = 5;
+    /** Size of every background in rooms/, which a decoded texture must have. */
+    private static final int ROOM_WIDTH = 256;
+    private static final int ROOM_HEIGHT = 144;
+    /** Steps between jumps to a random room, as restoring a snapshot does, leaving the last background far away. */
+    private static final int JUMP_STEPS = 50;
+
+    // Picks the PNG or .ktx each background is loaded from, as in the game.
+    private CompressedTextures compressed;
+
+    public static void main(String[] args)
+    {
+        launch(new RoomTextureCheck());
+    }
+
+    @Override
+    public void create()
+    {
+        // Nothing is drawn, but textures still make GL calls.
+        Gdx.gl = Gdx.gl20 = NoopGL.create();
+
+        Room[] rooms = new RoomMapGenerator(42L).generate(ROOMS, RoomMapGenerator.DEFAULT_EVENT_DENSITY).createRooms();
+        // An atlas without rooms in it, so every background is streamed as it is in the game.
+        SpriteAtlas atlas = new SpriteAtlas(new TextureAtlas());
+        AssetManager manager = new AssetManager();
+        compressed = new CompressedTextures(new InternalFileHandleResolver());
+
+        int[] budgets = { MIN_BUDGET, MIN_BUDGET + 3, RoomTextureCache.BUDGET };
+        for (int budget : budgets)
+        {
+            if (budget < MIN_BUDGET) continue;
+            walk(rooms, atlas, manager, budget);
+        }
+        manager.dispose();
+
+        finish("Room textures checked");
+    }
+
+    private void walk(Room[] rooms, SpriteAtlas atlas, AssetManager manager, int budget)
+    {
+        RoomTextureCache cache = new RoomTextureCache(atlas, manager, compressed, budget);
+        RandomXS128 random = new RandomXS128(budget);
+        int startBudget = budget;
+        Room room = rooms[0];
+        int most = 0;
+        int notReady = 0;
+        // The last background drawn, shown while the next one loads.
+        String shownKey = null;
+        TextureRegion shown = null;
+        long start = System.nanoTime();
+        for (int step = 0; step < STEPS && !hasFailed(); step++)
+        {
+            if (step == STEPS / 2 && budget > MIN_BUDGET)
+            {
+                budget = Math.max(MIN_BUDGET, budget / 2);
+                cache.setBudget(budget);
+                if (cache.getResidentCount() > budget)
+                {
+                    fail(cache.getResidentCount() + " textures kept after lowering the budget to " + budget);
+                }
+            }
+
+            room = step % JUMP_STEPS == 0 ? rooms[random.nextInt(rooms.length)] : next(room, random);
+            cache.onEnterRoom(room);
+            cache.update();
+            most = Math.max(most, cache.getResidentCount());
+            if (cache.getResidentCount() > budget)
+            {
+                fail("Step " + step + ": " + cache.getResidentCount() + " textures kept with a budget of " + budget);
+            }
+
+            // The first frame in the room, which must not wait for the background.
+            String key = room.getTextureKey();
+            TextureRegion region = cache.get(key);
+            if (loaded(manager, key) == null)
+            {
+                notReady++;
+                boolean previous = region == shown && loaded(manager, shownKey) == region.getTexture();
+                boolean blank = region != shown && region.getRegionWidth() == 1;
+                if (!previous && !blank)
+                {
+                    fail("Step " + step + ": " + key + " is not loaded yet and something other than the last "
+                        + "background or a blank one is drawn");
+                }
+            }
+
+            // Once it has loaded, the room's own background, decoded from its PNG.
+            manager.finishLoadingAsset(compressed.resolve(key));
+            region = cache.get(key);
+            Texture texture = region.getTexture();
+            if (texture != loaded(manager, key))
+            {
+                fail("Step " + step + ": " + key + " is loaded but not drawn");
+            }
+            else if (texture.getWidth() != ROOM_WIDTH || texture.getHeight() != ROOM_HEIGHT)
+            {
+                fail("Step " + step + ": " + key + " was decoded as " + texture.getWidth() + "x"
+                    + texture.getHeight());
+            }
+            shownKey = key;
+            shown = region;
+        }
+        manager.finishLoading();
+        int loaded = countLoaded(manager);
+        if (loaded > budget) fail(loaded + " textures loaded with a budget of " + budget);
+        System.out.println(String.format("Walked %d rooms with a budget of %d then %d in %.0f ms, at most %d kept, "
+            + "%d not loaded on entry", STEPS, startBudget, budget, (System.nanoTime() - start) / 1e6, most, notReady));
+
+        cache.dispose();
+        manager.finishLoading();
+        loaded = countLoaded(manager);
+        if (loaded > 0) fail(loaded + " textures still loaded after disposing the cache");
+    }
+
+    // Through a random door, so the walk doubles back and revisits rooms as a player would.
+    private static Room next(Room room, RandomXS128 random)
+    {
+        Room[] adjacent = room.getAllAdjacent();
+        while (true)
+        {
+            Room next = adjacent[random.nextInt(adjacent.length)];
+            if (next != null) return next;
+        }
+    }
+
+    /**
+     * @return The loaded texture of a background, or null if it is not loaded.
+     */
+    private Texture loaded(AssetManager manager, String key)
+    {
+        String file = compressed.resolve(key);
+        return manager.isLoaded(file, Texture.class) ? manager.get(file, Texture.class) : null;
+    }
+
+    private static int countLoaded(AssetManager manager)
+    {
+        int count = 0;
+        for (String name : manager.getAssetNames())
+        {
+            if (name.startsWith(RoomTextureCache.STREAMED_FOLDER)
+                || name.startsWith(TextureCompressor.FOLDER + "/" + RoomTextureCache.STREAMED_FOLDER)) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.team10.escapefromuni.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+
+import io.github.team10.escapefromuni.EscapeGame;
+import io.github.team10.escapefromuni.GameAssets;
+import io.github.team10.escapefromuni.GameController;
+import io.github.team10.escapefromuni.GameOverListener;
+import io.github.team10.escapefromuni.ScoreManager;
+import io.github.team10.escapefromuni.SpriteAtlas;
+import io.github.team10.escapefromuni.Timer;
+
+/**
+ * Plays many runs of the game back to back, as fast as the CPU allows, and reports the results.
+ *
+ * Uses the real {@link GameController}, so rooms, doors, events and the timer behave exactly as in the game.
+ * Nothing is drawn: GL calls go to a {@link NoopGL}, sprites use a {@link SpriteAtlas#placeholder()} atlas and
+ * input comes from a {@link BotInput}.
+ * Each run steps the game with a fixed delta until it is won or lost, then the game is reset.
+ */
+public class Simulation extends ApplicationAdapter implements GameOverListener {
+
+    private final int runs;
+    private final long seed;
+    private final float step;
+    private final float correctAnswerChance;
+    private final float hintChance;
+
+    private EscapeGame game;
+    private GameController controller;
+    private BotInput bot;
+
+    private boolean runOver;
+    private int wins;
+    private float totalWinTime;
+    private long totalScore;
+    private long totalTicks;
+
+    /**
+     * @param runs Number of runs to play.
+     * @param seed Seed for the bot.
+     * @param step Seconds of game time per tick.
+     * @param correctAnswerChance Probability of the bot answering the THE3 question correctly.
+     * @param hintChance Probability of the bot taking the door towards the exit, rather than a random one.
+     */
+    public Simulation(int runs, long seed, float step, float correctAnswerChance, float hintChance)
+    {
+        this.runs = runs;
+        this.seed = seed;
+        this.step = step;
+        this.correctAnswerChance = correctAnswerChance;
+        this.hintChance = hintChance;
+    }
+
+    @Override
+    public void create()
+    {
+        game = createGame();
+        bot = new BotInput(game, seed, correctAnswerChance, hintChance);
+        game.input = bot;
+        controller = new GameController(game, this);
+
+        long start = TimeUtils.nanoTime();
+        for (int run = 0; run < runs; run++)
+        {
+            if (run > 0)
+            {
+                controller.resetGame();
+                bot.reset();
+            }
+            play();
+        }
+        long elapsed = TimeUtils.nanoTime() - start;
+
+        report(elapsed);
+        Gdx.app.exit();
+    }
+
+    /**
+     * Sets up just enough of the game for the {@link GameController}: the viewports and a texture-less atlas.
+     * Also used by the {@link AllocationCheck}.
+     */
+    static EscapeGame createGame()
+    {
+        // Nothing is drawn, but viewports and textures still make GL calls.
+        Gdx.gl = Gdx.gl20 = NoopGL.create();
+
+        EscapeGame game = new EscapeGame();
+        game.viewport = new FitViewport(16, 9);
+        game.uiCamera = new OrthographicCamera();
+        game.uiViewport = new FitViewport(1920, 1080, game.uiCamera);
+        game.viewport.update(1920, 1080, true);
+        game.uiViewport.update(1920, 1080, true);
+
+        // Nothing is queued, the asset manager is only there for the room texture cache.
+        game.assets = new GameAssets();
+        game.atlas = SpriteAtlas.placeholder();
+        return game;
+    }
+
+    private void play()
+    {
+        runOver = false;
+        while (!runOver)
+        {
+            bot.think(controller);
+            controller.update(step);
+            totalTicks++;
+            if (!runOver) controller.checkLose();
+        }
+    }
+
+    @Override
+    public void onGameOver(boolean win, Timer timer, ScoreManager scores)
+    {
+        runOver = true;
+        if (win)
+        {
+            wins++;
+            totalWinTime += timer.getTime();
+        }
+        totalScore += scores.CalculateFinalScore(timer.getTimeLeftSeconds());
+    }
+
+    private void report(long elapsedNanos)
+    {
+        double seconds = elapsedNanos / 1e9;
+        System.out.println("Runs:          " + runs);
+        System.out.println("Wins:          " + wins + String.format(" (%.1f%%)", 100.0 * wins / runs));
+        if (wins > 0)
+        {
+            System.out.println(String.format("Mean win time: %.1fs", totalWinTime / wins));
+        }
+        System.out.println(String.format("Mean score:    %.0f", (double) totalScore / runs));
+        System.out.println(String.format("Elapsed:       %.2fs", seconds));
+        System.out.println(String.format("Runs/sec:      %.0f", runs / seconds));
+        System.out.println(String.format("Ticks/sec:     %.0f", totalTicks / seconds));
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (game != null) game.assets.dispose();
+    }
+}